@@ -2,6 +2,7 @@ plugins {
     java
     id("com.gradleup.shadow") version "8.3.5"
     id("io.papermc.paperweight.userdev") version "2.0.0-beta.21"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.lunar_prototype"
@@ -78,6 +79,24 @@ dependencies {
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+// JMH ベンチマーク (src/jmh/java)。実行: ./gradlew jmh
+// 結果は build/results/jmh/results.json に出力される (gc プロファイラで 1 操作あたりの割り当て量 gc.alloc.rate.norm も計測)
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    profilers.add("gc")
+}
+
+configurations {
+    // ベンチマークはサーバー外で動かすため、Paper API などの compileOnly 依存を実行時クラスパスにも載せる
+    named("jmhImplementation") {
+        extendsFrom(configurations.compileOnly.get())
+    }
+}
+
 tasks {
     test {
         useJUnitPlatform()
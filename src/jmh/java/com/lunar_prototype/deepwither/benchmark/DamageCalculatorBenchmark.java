@@ -0,0 +1,57 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.core.damage.DamageCalculator;
+import com.lunar_prototype.deepwither.util.PseudoRandom;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DamageCalculator} の各計算式のベンチマーク。
+ * PRD 判定は PlayerCache を必要とするため、内部で使われる {@link PseudoRandom#roll(double, int)} を直接計測します。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DamageCalculatorBenchmark {
+
+    private Location attacker;
+    private Location[] victims;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        World world = HeadlessBukkit.world();
+        attacker = new Location(world, 0, 64, 0);
+        victims = new Location[]{
+                new Location(world, 3, 64, 4),
+                new Location(world, 12, 65, 9),
+                new Location(world, 30, 70, 20),
+                new Location(world, 50, 64, 10)
+        };
+    }
+
+    @Benchmark
+    public double applyDefense() {
+        return DamageCalculator.applyDefense(120.0, 85.0, 250.0);
+    }
+
+    @Benchmark
+    public double distanceMultiplier() {
+        Location victim = victims[cursor++ & 3];
+        return DamageCalculator.calculateDistanceMultiplier(attacker, victim);
+    }
+
+    @Benchmark
+    public boolean pseudoRandomRoll() {
+        return PseudoRandom.roll(27.5, (cursor++ & 7) + 1);
+    }
+}
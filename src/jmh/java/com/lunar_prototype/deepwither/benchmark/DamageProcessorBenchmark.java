@@ -0,0 +1,77 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
+import com.lunar_prototype.deepwither.api.event.DeepwitherDamageEvent;
+import com.lunar_prototype.deepwither.core.damage.DamageCalculator;
+import com.lunar_prototype.deepwither.core.damage.DamageContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code DamageProcessor#process} のステータス計算段のベンチマーク。
+ *
+ * <p>
+ * process 本体はパーティクル・サウンド・イベント発火などサーバーを必要とする処理を含むため、
+ * 装備ステータスの合算から攻撃側ステータス適用・防御計算までの純粋な計算段
+ * ({@link DamageCalculator#applyAttackerStats}, {@link DamageCalculator#applyDefenseStats}) を同じ順序で実行します。
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DamageProcessorBenchmark {
+
+    @Param({"PHYSICAL", "MAGIC"})
+    public DeepwitherDamageEvent.DamageType damageType;
+
+    @Param({"6"})
+    public int equipment;
+
+    private StatMap[] attackerItems;
+    private StatMap victimStats;
+    private boolean crit;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StatType[] offensive = {StatType.ATTACK_DAMAGE, StatType.MAGIC_DAMAGE, StatType.CRIT_DAMAGE,
+                StatType.MAGIC_AOE_BONUS, StatType.MAGIC_BURST_BONUS, StatType.SWORD_DAMAGE};
+        attackerItems = new StatMap[equipment];
+        for (int i = 0; i < equipment; i++) {
+            StatMap item = new StatMap();
+            item.setFlat(offensive[random.nextInt(offensive.length)], 5 + random.nextDouble() * 20);
+            item.setPercent(offensive[random.nextInt(offensive.length)], random.nextDouble() * 15);
+            attackerItems[i] = item;
+        }
+        victimStats = new StatMap();
+        victimStats.setFlat(StatType.DEFENSE, 80);
+        victimStats.setFlat(StatType.MAGIC_RESIST, 45);
+    }
+
+    @Benchmark
+    public double process() {
+        StatMap attackerStats = new StatMap();
+        for (StatMap item : attackerItems) {
+            attackerStats.add(item);
+        }
+
+        DamageContext context = new DamageContext(null, null, damageType, 10.0);
+        context.setWeaponStatType(StatType.SWORD_DAMAGE);
+        context.setCrit(crit = !crit);
+
+        double damage = DamageCalculator.applyAttackerStats(context.getFinalDamage(), attackerStats, context);
+        damage = DamageCalculator.applyDefenseStats(damage, victimStats, context.isMagic());
+        context.setFinalDamage(Math.max(0.1, damage));
+        return context.getFinalDamage();
+    }
+}
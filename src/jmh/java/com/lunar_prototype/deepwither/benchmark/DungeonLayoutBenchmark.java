@@ -0,0 +1,147 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.dungeon.PlacedPartIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ダンジョンのレイアウト計算 1 回分のベンチマーク。配置済みパーツを全件走査して衝突判定する方式 (従来の
+ * {@code DungeonGenerator}) と {@link PlacedPartIndex} を比べます。
+ *
+ * <p>Schematic を使わずに済むよう、通路 (出口 1) と部屋 (出口 3) の 2 種類の箱を {@code DungeonGenerator} と同じ手順
+ * (出口ごとに 80% で延長、接続元との重なりは無視) で深さ {@code depth} まで配置します。シードは固定のため、
+ * 両方式は同じレイアウトを生成します。スコアはレイアウト 1 回あたりの時間です。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DungeonLayoutBenchmark {
+
+    @Param({"10", "20", "40"})
+    public int depth;
+
+    // {幅, 高さ, 奥行き, 出口数}
+    private static final int[] HALLWAY = {7, 6, 15, 1};
+    private static final int[] ROOM = {21, 8, 21, 3};
+    // 0: +Z, 1: -X, 2: -Z, 3: +X
+    private static final int[] DX = {0, -1, 0, 1};
+    private static final int[] DZ = {1, 0, -1, 0};
+
+    private interface Placements {
+        boolean collides(int[] box, int ignoreId);
+
+        void add(int[] box, int id);
+
+        int size();
+    }
+
+    /** 従来方式: 全件走査 */
+    private static final class LinearPlacements implements Placements {
+        private final List<int[]> boxes = new ArrayList<>();
+        private final List<Integer> ids = new ArrayList<>();
+
+        @Override
+        public boolean collides(int[] b, int ignoreId) {
+            for (int i = 0; i < boxes.size(); i++) {
+                if (ids.get(i) == ignoreId) continue;
+                int[] o = boxes.get(i);
+                if (PlacedPartIndex.intersects(b[0], b[1], b[2], b[3], b[4], b[5], o[0], o[1], o[2], o[3], o[4], o[5])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void add(int[] box, int id) {
+            boxes.add(box);
+            ids.add(id);
+        }
+
+        @Override
+        public int size() {
+            return boxes.size();
+        }
+    }
+
+    private static final class IndexedPlacements implements Placements {
+        private final PlacedPartIndex<Integer> index = new PlacedPartIndex<>();
+
+        @Override
+        public boolean collides(int[] b, int ignoreId) {
+            return index.findIntersecting(b[0], b[1], b[2], b[3], b[4], b[5], id -> id == ignoreId) != null;
+        }
+
+        @Override
+        public void add(int[] box, int id) {
+            index.add(box[0], box[1], box[2], box[3], box[4], box[5], id);
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+    }
+
+    @Benchmark
+    public int linear() {
+        return generate(new LinearPlacements());
+    }
+
+    @Benchmark
+    public int indexed() {
+        return generate(new IndexedPlacements());
+    }
+
+    private int generate(Placements placements) {
+        Random random = new Random(42);
+        int[] box = box(HALLWAY, 0, 64, 0, 0);
+        placements.add(box, 0);
+        grow(placements, random, HALLWAY, 0, 0, 0, 0, 1);
+        return placements.size();
+    }
+
+    private void grow(Placements placements, Random random, int[] shape, int id, int x, int z, int dir, int level) {
+        if (level >= depth) return;
+        for (int e = 0; e < shape[3]; e++) {
+            int exitDir = (dir + (e == 0 ? 0 : (e == 1 ? 1 : 3))) & 3;
+            boolean forceExtend = shape[3] == 1;
+            if (!forceExtend && random.nextDouble() >= 0.8) continue;
+
+            int reach = (e == 0 ? shape[2] : shape[0]) / 2 + 1;
+            int cx = x + DX[exitDir] * reach;
+            int cz = z + DZ[exitDir] * reach;
+            int[][] order = random.nextDouble() > 0.5 ? new int[][]{ROOM, HALLWAY} : new int[][]{HALLWAY, ROOM};
+            for (int[] next : order) {
+                int half = next[2] / 2;
+                int nx = cx + DX[exitDir] * half;
+                int nz = cz + DZ[exitDir] * half;
+                int[] candidate = box(next, nx, 64, nz, exitDir);
+                if (placements.collides(candidate, id)) continue;
+                int nextId = placements.size();
+                placements.add(candidate, nextId);
+                grow(placements, random, next, nextId, nx, nz, exitDir, level + 1);
+                break;
+            }
+        }
+    }
+
+    /**
+     * 中心 (x, z)、向き dir の箱 {minX, minY, minZ, maxX, maxY, maxZ}
+     */
+    private static int[] box(int[] shape, int x, int y, int z, int dir) {
+        int halfW = ((dir & 1) == 0 ? shape[0] : shape[2]) / 2;
+        int halfD = ((dir & 1) == 0 ? shape[2] : shape[0]) / 2;
+        return new int[]{x - halfW, y, z - halfD, x + halfW, y + shape[1], z + halfD};
+    }
+}
@@ -0,0 +1,146 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.Deepwither;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * サーバーを起動せずにベンチマークを実行するための軽量な Bukkit スタンドイン。
+ *
+ * <p>
+ * インターフェースは {@link Proxy} で実装し、登録されたメソッド名の戻り値だけを返します。
+ * 未登録のメソッドはプリミティブなら 0 / false、コレクションなら空、それ以外は null を返します。
+ * レジストリを参照する定数 ({@code Sound}, {@code Attribute} など) は初期化できないため、
+ * それらに触れないコードパスのみが対象です。
+ * </p>
+ */
+public final class HeadlessBukkit {
+
+    private static boolean pluginInstalled;
+
+    private HeadlessBukkit() {
+    }
+
+    /**
+     * 指定したメソッド名に固定の戻り値を返すスタンドインを生成します。
+     */
+    public static <T> T stub(Class<T> type, Map<String, Object> returns) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            String name = method.getName();
+            if (returns.containsKey(name)) return returns.get(name);
+            if (method.getDeclaringClass() == Object.class) return objectMethod(self, method, args);
+            return defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    public static World world() {
+        return stub(World.class, Map.of("getName", "headless", "getUID", UUID.randomUUID()));
+    }
+
+    /**
+     * 指定位置に立つ LivingEntity のスタンドインを生成します。
+     * {@code getLocation()} は呼び出しごとに複製を返し、{@code getLocation(Location)} は引数に書き込みます (Bukkit と同じ挙動)。
+     */
+    public static LivingEntity entity(Location location, double height, double width) {
+        UUID uuid = UUID.randomUUID();
+        Location origin = location.clone();
+        Object proxy = Proxy.newProxyInstance(LivingEntity.class.getClassLoader(), new Class<?>[]{LivingEntity.class}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getLocation":
+                    if (args == null) return origin.clone();
+                    Location target = (Location) args[0];
+                    if (target != null) {
+                        target.setWorld(origin.getWorld());
+                        target.set(origin.getX(), origin.getY(), origin.getZ());
+                        target.setYaw(origin.getYaw());
+                        target.setPitch(origin.getPitch());
+                    }
+                    return target;
+                case "isValid":
+                    return true;
+                case "getHeight":
+                    return height;
+                case "getWidth":
+                    return width;
+                case "getUniqueId":
+                    return uuid;
+                case "getWorld":
+                    return origin.getWorld();
+                default:
+                    break;
+            }
+            if (method.getDeclaringClass() == Object.class) return objectMethod(self, method, args);
+            return defaultValue(method.getReturnType());
+        });
+        return (LivingEntity) proxy;
+    }
+
+    /**
+     * {@link Deepwither#getInstance()} が null を返さないよう、コンストラクタを通さずにプラグインインスタンスを用意します。
+     * {@code new NamespacedKey(Deepwither.getInstance(), ...)} を静的初期化で使うクラスを読み込む前に呼び出してください。
+     * マネージャー類は一切初期化されません。
+     */
+    public static synchronized void installPlugin() {
+        if (pluginInstalled || Deepwither.getInstance() != null) return;
+        try {
+            Field unsafeField = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            Object unsafe = unsafeField.get(null);
+            Method allocate = unsafe.getClass().getMethod("allocateInstance", Class.class);
+            Deepwither plugin = (Deepwither) allocate.invoke(unsafe, Deepwither.class);
+
+            PluginDescriptionFile description = new PluginDescriptionFile("Deepwither", "bench", Deepwither.class.getName());
+            for (Field field : JavaPlugin.class.getDeclaredFields()) {
+                if (field.getType().isAssignableFrom(PluginDescriptionFile.class) && field.getType() != Object.class) {
+                    field.setAccessible(true);
+                    field.set(plugin, description);
+                }
+            }
+
+            Field instance = Deepwither.class.getDeclaredField("instance");
+            instance.setAccessible(true);
+            instance.set(null, plugin);
+            pluginInstalled = true;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to install headless plugin instance", e);
+        }
+    }
+
+    private static Object objectMethod(Object self, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> self == args[0];
+            case "hashCode" -> System.identityHashCode(self);
+            default -> "Headless" + self.getClass().getInterfaces()[0].getSimpleName();
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0.0;
+        if (type == float.class) return 0.0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\0';
+        if (type == List.class || type == Collection.class) return Collections.emptyList();
+        if (type == Set.class) return Collections.emptySet();
+        if (type == Map.class) return new HashMap<>();
+        return null;
+    }
+}
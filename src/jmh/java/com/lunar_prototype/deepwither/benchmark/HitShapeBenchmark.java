@@ -0,0 +1,88 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.modules.combat.ArcShape;
+import com.lunar_prototype.deepwither.modules.combat.HitFrame;
+import com.lunar_prototype.deepwither.modules.combat.HitShape;
+import com.lunar_prototype.deepwither.modules.combat.RayShape;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 近接攻撃の当たり判定 ({@link HitShape#isHit}) を周囲のエンティティ全体に対して行うベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HitShapeBenchmark {
+
+    @Param({"ARC", "RAY"})
+    public String shape;
+
+    @Param({"20"})
+    public int targets;
+
+    private HitShape hitShape;
+    private Location origin;
+    private Vector direction;
+    private LivingEntity[] entities;
+    private double[] positions;
+
+    @Setup
+    public void setUp() {
+        hitShape = shape.equals("ARC") ? new ArcShape(120.0, 1.5) : new RayShape(0.4);
+
+        World world = HeadlessBukkit.world();
+        origin = new Location(world, 0, 65.6, 0);
+        direction = new Vector(0.2, -0.1, 1.0);
+
+        Random random = new Random(42);
+        entities = new LivingEntity[targets];
+        for (int i = 0; i < targets; i++) {
+            Location loc = new Location(world, random.nextDouble() * 8 - 4, 64, random.nextDouble() * 8 - 2);
+            entities[i] = HeadlessBukkit.entity(loc, 1.95, 0.6);
+        }
+
+        positions = new double[targets * 3];
+        for (int i = 0; i < targets; i++) {
+            Location loc = entities[i].getLocation();
+            positions[i * 3] = loc.getX();
+            positions[i * 3 + 1] = loc.getY();
+            positions[i * 3 + 2] = loc.getZ();
+        }
+    }
+
+    @Benchmark
+    public int isHit() {
+        int hits = 0;
+        for (LivingEntity entity : entities) {
+            if (hitShape.isHit(origin, direction, entity, 3.5, 15.0)) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * HitDetectionManager と同じく、座標系をスイングごとに 1 回だけ計算して判定します。
+     */
+    @Benchmark
+    public int isHitWithFrame() {
+        HitFrame frame = new HitFrame(origin, direction, 15.0);
+        int hits = 0;
+        for (int i = 0; i < targets; i++) {
+            if (hitShape.isHit(frame, positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2], 1.95, 0.6, 3.5)) hits++;
+        }
+        return hits;
+    }
+}
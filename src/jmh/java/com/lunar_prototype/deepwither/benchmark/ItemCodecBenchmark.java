@@ -0,0 +1,149 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.util.ItemCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link ItemCodec} のバイト列変換のベンチマーク。
+ *
+ * <p>HeadlessBukkit では実際の ItemStack を作れないため、{@code serializeAsBytes} が返すものと同じ構造
+ * (gzip 圧縮した NBT) の Deepwither 装備を合成して使います。{@code gzip*} が辞書なし (Paper 標準) の場合、
+ * {@code codec*} が {@link ItemCodec} の格納形式です。1 個あたりのバイト数 (Base64 込み) は Setup 時に出力します。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemCodecBenchmark {
+
+    /** lore の行数 (アイテムの大きさ) */
+    @Param({"4", "12"})
+    public int loreLines;
+
+    private byte[] gzip;
+    private byte[] packed;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gzip = gzip(itemNbt(loreLines));
+        packed = ItemCodec.compress(gzip);
+        System.out.printf("%n[ItemCodecBenchmark] lore=%d nbt=%dB gzip=%dB codec=%dB (Base64: gzip=%d codec=%d)%n",
+                loreLines, gunzip(gzip).length, gzip.length, packed.length,
+                Base64.getEncoder().encodeToString(gzip).length(),
+                ItemCodec.PREFIX.length() + Base64.getEncoder().encodeToString(packed).length());
+    }
+
+    @Benchmark
+    public byte[] gzipEncode() throws IOException {
+        return gzip(gunzip(gzip));
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return ItemCodec.compress(gzip);
+    }
+
+    @Benchmark
+    public byte[] gzipDecode() throws IOException {
+        return gunzip(gzip);
+    }
+
+    @Benchmark
+    public byte[] codecDecode() throws IOException {
+        // deserializeBytes は gzip を展開するため、その分も含める
+        return gunzip(ItemCodec.decompress(packed));
+    }
+
+    // ===== 合成アイテム =====
+
+    private static final byte TAG_INT = 3, TAG_STRING = 8, TAG_LIST = 9, TAG_COMPOUND = 10;
+
+    private static byte[] itemNbt(int loreLines) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(TAG_COMPOUND);
+        out.writeUTF("");
+        string(out, "id", "minecraft:netherite_sword");
+        intTag(out, "count", 1);
+
+        out.writeByte(TAG_COMPOUND);
+        out.writeUTF("components");
+        string(out, "minecraft:custom_name", "{\"text\":\"蒼炎の剣 +7\",\"color\":\"gold\",\"italic\":false}");
+
+        out.writeByte(TAG_LIST);
+        out.writeUTF("minecraft:lore");
+        out.writeByte(TAG_STRING);
+        out.writeInt(loreLines);
+        String[] lines = {
+                "{\"text\":\"攻撃力: +%d\",\"color\":\"red\",\"italic\":false}",
+                "{\"text\":\"クリティカル率: +%d%%\",\"color\":\"yellow\",\"italic\":false}",
+                "{\"text\":\"最大HP: +%d\",\"color\":\"green\",\"italic\":false}",
+                "{\"text\":\"----------------\",\"color\":\"dark_gray\",\"italic\":false}",
+        };
+        for (int i = 0; i < loreLines; i++) {
+            out.writeUTF(String.format(lines[i % lines.length], 10 + i * 3));
+        }
+
+        out.writeByte(TAG_COMPOUND);
+        out.writeUTF("minecraft:custom_data");
+        out.writeByte(TAG_COMPOUND);
+        out.writeUTF("PublicBukkitValues");
+        string(out, "deepwither:custom_id", "aether_blade");
+        string(out, "deepwither:item_rarity", "LEGENDARY");
+        string(out, "deepwither:item_type_name", "片手剣");
+        string(out, "deepwither:rpgstats", "ATTACK_DAMAGE:42.5;CRIT_CHANCE:12.0;MAX_HEALTH:30.0");
+        string(out, "deepwither:onhit_skillid", "blue_flame");
+        string(out, "deepwither:onhit_chance", "0.15");
+        string(out, "deepwither:fabrication_grade", "3");
+        out.writeByte(0); // PublicBukkitValues
+        out.writeByte(0); // custom_data
+        out.writeByte(0); // components
+
+        intTag(out, "DataVersion", 4556);
+        out.writeByte(0);
+        return bytes.toByteArray();
+    }
+
+    private static void string(DataOutputStream out, String name, String value) throws IOException {
+        out.writeByte(TAG_STRING);
+        out.writeUTF(name);
+        out.writeUTF(value);
+    }
+
+    private static void intTag(DataOutputStream out, String name, int value) throws IOException {
+        out.writeByte(TAG_INT);
+        out.writeUTF(name);
+        out.writeInt(value);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
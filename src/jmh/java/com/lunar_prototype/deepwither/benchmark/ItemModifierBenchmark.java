@@ -0,0 +1,47 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.ItemLoader;
+import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * アイテム生成時のランダムモディファイアー抽選 ({@link ItemLoader#generateRandomModifiers(String, StatMap)}) のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemModifierBenchmark {
+
+    @Param({"コモン", "レア", "レジェンダリー"})
+    public String rarity;
+
+    private StatMap baseStats;
+
+    @Setup
+    public void setUp() {
+        // ItemLoader の静的初期化で NamespacedKey を生成するため、先にプラグインを用意する
+        HeadlessBukkit.installPlugin();
+
+        baseStats = new StatMap();
+        baseStats.setFlat(StatType.ATTACK_DAMAGE, 24);
+        baseStats.setFlat(StatType.MAGIC_DAMAGE, 12);
+        baseStats.setFlat(StatType.DEFENSE, 30);
+        baseStats.setFlat(StatType.MAX_MANA, 40);
+    }
+
+    @Benchmark
+    public Map<StatType, Double> generateRandomModifiers() {
+        return ItemLoader.generateRandomModifiers(rarity, baseStats);
+    }
+}
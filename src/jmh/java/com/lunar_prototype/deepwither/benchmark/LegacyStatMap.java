@@ -0,0 +1,58 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.StatType;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 比較用に残している EnumMap ベースの旧 StatMap 実装。
+ */
+public class LegacyStatMap {
+    private final Map<StatType, Double> flatValues = new EnumMap<>(StatType.class);
+    private final Map<StatType, Double> percentValues = new EnumMap<>(StatType.class);
+
+    public void setFlat(StatType type, double value) {
+        flatValues.put(type, round(value));
+    }
+
+    public void setPercent(StatType type, double value) {
+        percentValues.put(type, round(value));
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    public double getFlat(StatType type) {
+        return flatValues.getOrDefault(type, 0.0);
+    }
+
+    public double getPercent(StatType type) {
+        return percentValues.getOrDefault(type, 0.0);
+    }
+
+    public double getFinal(StatType type) {
+        double flat = getFlat(type);
+        double percent = getPercent(type);
+        return Math.round((flat * (1 + percent / 100.0)) * 100.0) / 100.0;
+    }
+
+    public void add(LegacyStatMap other) {
+        for (StatType type : other.getAllTypes()) {
+            double flat = this.getFlat(type) + other.getFlat(type);
+            double percent = this.getPercent(type) + other.getPercent(type);
+            this.setFlat(type, flat);
+            this.setPercent(type, percent);
+        }
+    }
+
+    public Set<StatType> getAllTypes() {
+        Set<StatType> types = new HashSet<>();
+        types.addAll(flatValues.keySet());
+        types.addAll(percentValues.keySet());
+        return types;
+    }
+}
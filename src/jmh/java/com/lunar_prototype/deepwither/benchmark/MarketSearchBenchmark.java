@@ -0,0 +1,111 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.market.MarketListing;
+import com.lunar_prototype.deepwither.market.MarketListingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 5 万件の出品に対するマーケット検索のレイテンシを比較するベンチマーク。
+ * 従来の全件走査 (毎回小文字化して部分一致) と {@link MarketListingIndex} を比べます。
+ * ItemStack はサーバーなしでは生成できないため、名前と種別は合成した文字列を直接索引に渡します。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MarketSearchBenchmark {
+
+    @Param({"50000"})
+    public int listings;
+
+    @Param({"500"})
+    public int sellers;
+
+    private static final String[] PREFIXES = {"§b", "§6", "§d", "§a", ""};
+    private static final String[] RARITIES = {"Common", "Rare", "Epic", "Legendary", "Cursed"};
+    private static final String[] MATERIALS = {"Iron", "Gold", "Diamond", "Netherite", "Obsidian", "Bone"};
+    private static final String[] KINDS = {"Sword", "Axe", "Helmet", "Chestplate", "Boots", "Ring", "Amulet", "Bow"};
+    private static final String[] TYPES = {"IRON_SWORD", "GOLDEN_AXE", "DIAMOND_HELMET", "NETHERITE_CHESTPLATE", "LEATHER_BOOTS", "BOW"};
+    private static final String[] QUERIES = {"sword", "legendary", "netherite boots", "ring", "xyz"};
+
+    private MarketListingIndex index;
+    private MarketListing[] all;
+    private String[] names;
+    private UUID[] sellerIds;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new MarketListingIndex();
+        all = new MarketListing[listings];
+        names = new String[listings];
+        sellerIds = new UUID[sellers];
+        for (int i = 0; i < sellers; i++) {
+            sellerIds[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < listings; i++) {
+            String name = PREFIXES[random.nextInt(PREFIXES.length)]
+                    + RARITIES[random.nextInt(RARITIES.length)] + " "
+                    + MATERIALS[random.nextInt(MATERIALS.length)] + " "
+                    + KINDS[random.nextInt(KINDS.length)] + " +" + random.nextInt(10);
+            MarketListing listing = new MarketListing(new UUID(random.nextLong(), random.nextLong()),
+                    sellerIds[random.nextInt(sellers)], null, 10 + random.nextInt(10_000), now - i, random.nextBoolean());
+            all[i] = listing;
+            names[i] = name;
+            index.add(listing, name, TYPES[random.nextInt(TYPES.length)]);
+        }
+    }
+
+    private String nextQuery() {
+        return QUERIES[cursor++ % QUERIES.length];
+    }
+
+    @Benchmark
+    public int indexedSearch() {
+        return index.search(nextQuery()).size();
+    }
+
+    @Benchmark
+    public int linearSearch() {
+        String lowerQuery = nextQuery().toLowerCase();
+        List<MarketListing> result = new ArrayList<>();
+        for (int i = 0; i < all.length; i++) {
+            if (names[i].toLowerCase().contains(lowerQuery)) result.add(all[i]);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int indexedBySeller() {
+        return index.bySeller(sellerIds[cursor++ % sellers]).size();
+    }
+
+    @Benchmark
+    public int linearBySeller() {
+        UUID seller = sellerIds[cursor++ % sellers];
+        List<MarketListing> result = new ArrayList<>();
+        for (MarketListing listing : all) {
+            if (listing.getSellerId().equals(seller)) result.add(listing);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int cheapestByType() {
+        return index.byTypeCheapest(TYPES[cursor++ % TYPES.length], 45).size();
+    }
+}
@@ -0,0 +1,53 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.seeker.NativeQEngine;
+import com.lunar_prototype.deepwither.seeker.NativeQEnginePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeker AI の Q 学習 1 ステップ ({@link NativeQEngine#update}) のベンチマーク。
+ * 状態・報酬列は事前に生成したものを循環させます。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NativeQEngineBenchmark {
+
+    private static final int SEQUENCE = 1024;
+
+    private NativeQEngine engine;
+    private int[] states;
+    private float[] rewards;
+    private float[] inputs;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        engine = new NativeQEnginePool().acquire();
+        engine.registerHamiltonianRules(new int[]{0, 17, 255, 511}, new int[]{0, 1, 3, 5}, new float[]{0.8f, 0.5f, 1.2f, 0.3f});
+
+        Random random = new Random(42);
+        states = new int[SEQUENCE];
+        rewards = new float[SEQUENCE];
+        for (int i = 0; i < SEQUENCE; i++) {
+            states[i] = random.nextInt(512);
+            rewards[i] = random.nextFloat() * 2.0f - 1.0f;
+        }
+        inputs = new float[]{0.4f, 0.1f, 0.9f, 0.0f, 3.0f};
+    }
+
+    @Benchmark
+    public int update() {
+        int i = cursor++ & (SEQUENCE - 1);
+        return engine.update(states[i], rewards[i], inputs);
+    }
+}
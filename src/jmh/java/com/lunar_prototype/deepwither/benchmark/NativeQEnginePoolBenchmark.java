@@ -0,0 +1,99 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.seeker.BanditKnowledgeBase;
+import com.lunar_prototype.deepwither.seeker.NativeQEngine;
+import com.lunar_prototype.deepwither.seeker.NativeQEnginePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多数の Seeker AI の脳を 1 tick 分更新するベンチマーク。
+ * 1 体ずつ {@link NativeQEngine#update} する場合と、{@link NativeQEnginePool#update(NativeQEnginePool.Batch)} で
+ * まとめて更新する場合を比較します。スコアは 1 体あたりの更新回数です。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NativeQEnginePoolBenchmark {
+
+    /** 同時に思考する脳の数 */
+    private static final int BRAINS = 1000;
+    private static final int SEQUENCE = 64;
+
+    private NativeQEnginePool pool;
+    private NativeQEngine[] engines;
+    private NativeQEnginePool.Batch batch;
+    private int[][] states;
+    private float[][] rewards;
+    private float[] inputs;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        pool = new NativeQEnginePool();
+        engines = new NativeQEngine[BRAINS];
+        for (int i = 0; i < BRAINS; i++) {
+            engines[i] = pool.acquire();
+            BanditKnowledgeBase.inject(engines[i]);
+        }
+        batch = new NativeQEnginePool.Batch(BRAINS);
+
+        Random random = new Random(42);
+        states = new int[SEQUENCE][BRAINS];
+        rewards = new float[SEQUENCE][BRAINS];
+        for (int t = 0; t < SEQUENCE; t++) {
+            for (int i = 0; i < BRAINS; i++) {
+                states[t][i] = random.nextInt(512);
+                rewards[t][i] = random.nextFloat() * 2.0f - 1.0f;
+            }
+        }
+        inputs = new float[]{0.4f, 0.1f, 0.9f, 0.0f, 3.0f};
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BRAINS)
+    public int sequential() {
+        int t = cursor++ & (SEQUENCE - 1);
+        int sum = 0;
+        for (int i = 0; i < BRAINS; i++) {
+            sum += engines[i].update(states[t][i], rewards[t][i], inputs);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BRAINS)
+    public int batched() {
+        int t = cursor++ & (SEQUENCE - 1);
+        for (int i = 0; i < BRAINS; i++) {
+            batch.add(engines[i], states[t][i], rewards[t][i], inputs);
+        }
+        pool.update(batch);
+        int sum = 0;
+        for (int i = 0; i < BRAINS; i++) {
+            sum += batch.action(i);
+        }
+        batch.clear();
+        return sum;
+    }
+
+    /**
+     * 脳の生成と破棄 (モブの出現・消滅) 1 回分。プールのスロットを再利用します。
+     */
+    @Benchmark
+    public NativeQEngine spawnDespawn() {
+        NativeQEngine engine = pool.acquire();
+        BanditKnowledgeBase.inject(engine);
+        engine.release();
+        return engine;
+    }
+}
@@ -0,0 +1,95 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.core.spatial.SpatialGrid;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * モブ 500 体・プレイヤー 50 人の状況で、全プレイヤーが近接攻撃の候補検索 (半径 6) を行うコストを比較するベンチマーク。
+ * 全エンティティを走査する方式 ({@code getNearbyEntities} 相当) と {@link SpatialGrid} を比べます。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpatialIndexBenchmark {
+
+    @Param({"500"})
+    public int mobs;
+
+    @Param({"50"})
+    public int players;
+
+    @Param({"256"})
+    public int areaSize;
+
+    private static final double QUERY_RADIUS = 6.0;
+
+    private List<LivingEntity> entities;
+    private Location[] playerLocations;
+    private SpatialGrid grid;
+    private final List<LivingEntity> out = new ArrayList<>();
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    @Setup
+    public void setUp() {
+        World world = HeadlessBukkit.world();
+        Random random = new Random(42);
+        LivingEntity[] all = new LivingEntity[mobs + players];
+        playerLocations = new Location[players];
+        for (int i = 0; i < all.length; i++) {
+            Location loc = new Location(world, random.nextDouble() * areaSize, 60 + random.nextDouble() * 10, random.nextDouble() * areaSize);
+            all[i] = HeadlessBukkit.entity(loc, 1.8, 0.6);
+            if (i >= mobs) playerLocations[i - mobs] = loc;
+        }
+        entities = Arrays.asList(all);
+        grid = new SpatialGrid();
+        grid.rebuild(entities);
+    }
+
+    @Benchmark
+    public int rebuild() {
+        grid.rebuild(entities);
+        return grid.size();
+    }
+
+    @Benchmark
+    public int gridQueries() {
+        int found = 0;
+        for (Location loc : playerLocations) {
+            out.clear();
+            grid.queryRadius(loc.getX(), loc.getY(), loc.getZ(), QUERY_RADIUS, out);
+            found += out.size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int bruteForceQueries() {
+        int found = 0;
+        double radiusSq = QUERY_RADIUS * QUERY_RADIUS;
+        for (Location loc : playerLocations) {
+            out.clear();
+            for (LivingEntity entity : entities) {
+                entity.getLocation(scratch);
+                if (scratch.distanceSquared(loc) <= radiusSq) out.add(entity);
+            }
+            found += out.size();
+        }
+        return found;
+    }
+}
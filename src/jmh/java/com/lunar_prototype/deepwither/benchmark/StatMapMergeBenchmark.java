@@ -0,0 +1,75 @@
+package com.lunar_prototype.deepwither.benchmark;
+
+import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 装備 10 個分のステータス合算を、旧 EnumMap 実装と配列実装で比較するベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatMapMergeBenchmark {
+
+    @Param({"10"})
+    public int items;
+
+    @Param({"4"})
+    public int statsPerItem;
+
+    private LegacyStatMap[] legacyItems;
+    private StatMap[] arrayItems;
+
+    @Setup
+    public void setUp() {
+        StatType[] types = StatType.values();
+        Random random = new Random(42);
+        legacyItems = new LegacyStatMap[items];
+        arrayItems = new StatMap[items];
+
+        for (int i = 0; i < items; i++) {
+            LegacyStatMap legacy = new LegacyStatMap();
+            StatMap array = new StatMap();
+            for (int j = 0; j < statsPerItem; j++) {
+                StatType type = types[random.nextInt(types.length)];
+                double flat = random.nextDouble() * 50.0;
+                double percent = random.nextDouble() * 20.0;
+                legacy.setFlat(type, flat);
+                legacy.setPercent(type, percent);
+                array.setFlat(type, flat);
+                array.setPercent(type, percent);
+            }
+            legacyItems[i] = legacy;
+            arrayItems[i] = array;
+        }
+    }
+
+    @Benchmark
+    public double legacyMerge() {
+        LegacyStatMap total = new LegacyStatMap();
+        for (LegacyStatMap item : legacyItems) {
+            total.add(item);
+        }
+        return total.getFinal(StatType.ATTACK_DAMAGE);
+    }
+
+    @Benchmark
+    public double arrayMerge() {
+        StatMap total = new StatMap();
+        for (StatMap item : arrayItems) {
+            total.add(item);
+        }
+        return total.getFinal(StatType.ATTACK_DAMAGE);
+    }
+}
@@ -0,0 +1,81 @@
+package com.lunar_prototype.deepwither;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * プレイヤーが装備しているアーティファクトの構成 (変更不可)。
+ *
+ * <p>
+ * 正規化済み ({@link ArtifactManager#normalizeArtifacts}) の一覧と、フルセット種別ごとの個数、
+ * フルセットボーナスを装備変更時に一度だけ計算して保持します。
+ * {@link #getVersion()} はアーティファクト GUI で装備を変更したときだけ増えるため、
+ * 構成から計算した値はバージョンが変わるまで使い回せます。
+ * </p>
+ */
+public final class ArtifactLoadout {
+
+    /** 未装備。読み込み・変更された構成のバージョンは 1 以上になる */
+    static final ArtifactLoadout EMPTY = new ArtifactLoadout(List.of(), Map.of(), new StatMap(), 0L);
+
+    private final List<ItemStack> artifacts;
+    private final Map<String, Integer> setCounts;
+    private final StatMap fullSetBonus;
+    private final long version;
+
+    private ArtifactLoadout(List<ItemStack> artifacts, Map<String, Integer> setCounts, StatMap fullSetBonus, long version) {
+        this.artifacts = artifacts;
+        this.setCounts = setCounts;
+        this.fullSetBonus = fullSetBonus;
+        this.version = version;
+    }
+
+    /**
+     * @param normalized 正規化済みのアーティファクト (呼び出し後に変更しないこと)
+     */
+    static ArtifactLoadout of(ArtifactManager manager, List<ItemStack> normalized, long version) {
+        Map<String, Integer> counts = manager.countArtifactTypes(normalized);
+        return new ArtifactLoadout(Collections.unmodifiableList(normalized),
+                Collections.unmodifiableMap(new HashMap<>(counts)), manager.getFullSetBonus(normalized), version);
+    }
+
+    /**
+     * 同じ装備・同じバージョンで、フルセットボーナスだけを計算し直したもの (セット効果の設定を再読み込みした場合)
+     */
+    ArtifactLoadout withRecomputedBonus(ArtifactManager manager) {
+        return new ArtifactLoadout(artifacts, setCounts, manager.getFullSetBonus(artifacts), version);
+    }
+
+    /**
+     * 正規化済みのアーティファクト (変更不可)
+     */
+    public List<ItemStack> getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * フルセット種別ごとの装備数 (変更不可)
+     */
+    public Map<String, Integer> getSetCounts() {
+        return setCounts;
+    }
+
+    public int getSetCount(String type) {
+        return setCounts.getOrDefault(type, 0);
+    }
+
+    /**
+     * フルセットボーナスの合計。共有されているため変更しないでください
+     */
+    public StatMap getFullSetBonus() {
+        return fullSetBonus;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
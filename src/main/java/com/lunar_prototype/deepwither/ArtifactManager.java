@@ -3,6 +3,7 @@ package com.lunar_prototype.deepwither;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import com.lunar_prototype.deepwither.api.event.DeepwitherDamageEvent;
+import com.lunar_prototype.deepwither.api.stat.StatSource;
 import com.lunar_prototype.deepwither.core.damage.DamageContext;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -19,13 +20,23 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.*;
-
-@DependsOn({})
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * アーティファクトと背中装備の管理。
+ *
+ * <p>
+ * 装備中のアーティファクトはプレイヤーごとの {@link ArtifactLoadout} として保持します。
+ * 正規化・セット数・フルセットボーナスの計算は GUI で装備を変更したときだけ行い、
+ * ステータス計算やダメージ時のセット効果はその結果を参照します。
+ * </p>
+ */
+@DependsOn({ItemFactory.class})
 public class ArtifactManager implements IManager {
     public static final int MAX_SAME_ARTIFACT_TYPE = 2;
 
     private File dataFile;
-    private Map<UUID, List<ItemStack>> playerArtifacts = new HashMap<>();
+    private final Map<UUID, ArtifactLoadout> loadouts = new ConcurrentHashMap<>();
     // ★ 背中装備保存用のマップを追加
     private Map<UUID, ItemStack> playerBackpacks = new HashMap<>();
     private final JavaPlugin plugin;
@@ -45,15 +56,22 @@ public class ArtifactManager implements IManager {
         saveData();
     }
 
+    /**
+     * 装備中のアーティファクトの構成。未設定の場合は空の構成 (バージョン 0) を返します。
+     */
+    public ArtifactLoadout getLoadout(Player player) {
+        return getLoadout(player.getUniqueId());
+    }
+
+    public ArtifactLoadout getLoadout(UUID playerId) {
+        return loadouts.getOrDefault(playerId, ArtifactLoadout.EMPTY);
+    }
+
+    /**
+     * 装備中のアーティファクト (正規化済み・変更不可)
+     */
     public List<ItemStack> getPlayerArtifacts(Player player) {
-        UUID playerId = player.getUniqueId();
-        List<ItemStack> artifacts = playerArtifacts.computeIfAbsent(playerId, k -> new ArrayList<>());
-        List<ItemStack> normalized = normalizeArtifacts(artifacts);
-        if (normalized.size() != artifacts.size()) {
-            playerArtifacts.put(playerId, normalized);
-            return normalized;
-        }
-        return artifacts;
+        return getLoadout(player).getArtifacts();
     }
 
     // ★ 背中装備を取得するメソッド
@@ -62,13 +80,17 @@ public class ArtifactManager implements IManager {
     }
 
     public void savePlayerArtifacts(Player player, List<ItemStack> artifacts, ItemStack backpack) {
-        playerArtifacts.put(player.getUniqueId(), normalizeArtifacts(artifacts));
+        UUID playerId = player.getUniqueId();
+        long version = getLoadout(playerId).getVersion() + 1;
+        loadouts.put(playerId, ArtifactLoadout.of(this, normalizeArtifacts(artifacts), version));
         // ★ 背中装備も同時にキャッシュに保存
         if (backpack != null) {
             playerBackpacks.put(player.getUniqueId(), backpack);
         } else {
             playerBackpacks.remove(player.getUniqueId());
         }
+        Deepwither.getInstance().getStatManager()
+                .invalidateStats(player.getUniqueId(), StatSource.ARTIFACTS, StatSource.BACKPACK);
     }
 
     public List<ItemStack> normalizeArtifacts(List<ItemStack> artifacts) {
@@ -116,6 +138,19 @@ public class ArtifactManager implements IManager {
         return counts;
     }
 
+    /**
+     * セット効果の設定を再読み込みした後に、全員のフルセットボーナスを計算し直します (装備とバージョンは変わりません)。
+     */
+    public void recomputeSetBonuses() {
+        loadouts.replaceAll((uuid, loadout) -> loadout.withRecomputedBonus(this));
+        for (UUID uuid : loadouts.keySet()) {
+            Deepwither.getInstance().getStatManager().invalidateStats(uuid, StatSource.ARTIFACTS);
+        }
+    }
+
+    /**
+     * 指定したアーティファクトのフルセットボーナス。装備中の構成については {@link ArtifactLoadout#getFullSetBonus()} を使ってください
+     */
     public StatMap getFullSetBonus(List<ItemStack> artifacts) {
         StatMap bonus = new StatMap();
         Map<String, Integer> typeCounts = countArtifactTypes(artifacts);
@@ -136,7 +171,7 @@ public class ArtifactManager implements IManager {
             return 0;
         }
 
-        return countArtifactTypes(getPlayerArtifacts(player)).getOrDefault(type.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_'), 0);
+        return getLoadout(player).getSetCount(type.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
     }
 
     public boolean hasArtifactTypeCount(Player player, String type, int requiredCount) {
@@ -148,7 +183,7 @@ public class ArtifactManager implements IManager {
             return;
         }
 
-        Map<String, Integer> typeCounts = countArtifactTypes(getPlayerArtifacts(player));
+        Map<String, Integer> typeCounts = getLoadout(player).getSetCounts();
         for (Map.Entry<String, Integer> entry : typeCounts.entrySet()) {
             List<ItemFactory.ArtifactSetRule> rules = ItemFactory.getArtifactSetRules(entry.getKey());
             if (rules.isEmpty()) {
@@ -185,7 +220,7 @@ public class ArtifactManager implements IManager {
             return;
         }
 
-        Map<String, Integer> typeCounts = countArtifactTypes(getPlayerArtifacts(player));
+        Map<String, Integer> typeCounts = getLoadout(player).getSetCounts();
         for (Map.Entry<String, Integer> entry : typeCounts.entrySet()) {
             List<ItemFactory.ArtifactSetRule> rules = ItemFactory.getArtifactSetRules(entry.getKey());
             if (rules.isEmpty()) {
@@ -302,7 +337,11 @@ public class ArtifactManager implements IManager {
         try (BukkitObjectOutputStream oos = new BukkitObjectOutputStream(new FileOutputStream(dataFile))) {
             // アーティファクトとバックパックを一つのMapにまとめて保存
             Map<String, Object> allData = new HashMap<>();
-            allData.put("artifacts", sanitizeArtifactStorage(playerArtifacts));
+            Map<UUID, List<ItemStack>> artifacts = new HashMap<>();
+            for (Map.Entry<UUID, ArtifactLoadout> entry : loadouts.entrySet()) {
+                artifacts.put(entry.getKey(), new ArrayList<>(entry.getValue().getArtifacts()));
+            }
+            allData.put("artifacts", artifacts);
             allData.put("backpacks", playerBackpacks);
             oos.writeObject(allData);
         } catch (IOException e) {
@@ -321,7 +360,7 @@ public class ArtifactManager implements IManager {
 
                 // 新しい形式 (Mapの中に "artifacts" キーがある場合)
                 if (rawMap.containsKey("artifacts")) {
-                    this.playerArtifacts = sanitizeArtifactStorage((Map<UUID, List<ItemStack>>) rawMap.get("artifacts"));
+                    loadLoadouts((Map<UUID, List<ItemStack>>) rawMap.get("artifacts"));
                     Object backpacks = rawMap.get("backpacks");
                     if (backpacks instanceof Map) {
                         this.playerBackpacks = (Map<UUID, ItemStack>) backpacks;
@@ -329,7 +368,7 @@ public class ArtifactManager implements IManager {
                 }
                 // 旧形式 (Map自体が playerArtifacts だった場合)
                 else {
-                    this.playerArtifacts = sanitizeArtifactStorage((Map<UUID, List<ItemStack>>) rawMap);
+                    loadLoadouts((Map<UUID, List<ItemStack>>) rawMap);
                 }
             }
         } catch (IOException | ClassNotFoundException e) {
@@ -337,15 +376,18 @@ public class ArtifactManager implements IManager {
         }
     }
 
-    private Map<UUID, List<ItemStack>> sanitizeArtifactStorage(Map<UUID, List<ItemStack>> source) {
-        Map<UUID, List<ItemStack>> sanitized = new HashMap<>();
+    private void loadLoadouts(Map<UUID, List<ItemStack>> source) {
+        loadouts.clear();
         if (source == null) {
-            return sanitized;
+            return;
         }
 
         for (Map.Entry<UUID, List<ItemStack>> entry : source.entrySet()) {
-            sanitized.put(entry.getKey(), normalizeArtifacts(entry.getValue()));
+            List<ItemStack> normalized = normalizeArtifacts(entry.getValue());
+            if (!normalized.isEmpty()) {
+                // EMPTY (バージョン 0) と区別できるよう 1 から始める
+                loadouts.put(entry.getKey(), ArtifactLoadout.of(this, normalized, 1L));
+            }
         }
-        return sanitized;
     }
 }
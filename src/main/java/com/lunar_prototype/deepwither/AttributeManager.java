@@ -1,6 +1,6 @@
 package com.lunar_prototype.deepwither;
 
-import com.lunar_prototype.deepwither.api.playerdata.IPlayerDataHandler;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
 import com.lunar_prototype.deepwither.core.PlayerCache;
 import java.util.concurrent.CompletableFuture;
 
@@ -18,7 +18,7 @@ import java.util.Map;
 import java.util.UUID;
 
 @DependsOn({DatabaseManager.class, CacheManager.class})
-public class AttributeManager implements IManager, IPlayerDataHandler {
+public class AttributeManager implements IManager, IBulkPlayerDataHandler {
 
     private static final int MAX_PER_STAT = 50;
 
@@ -40,24 +40,10 @@ public class AttributeManager implements IManager, IPlayerDataHandler {
 
     public void load(UUID uuid, PlayerCache cache) {
         try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT * FROM player_attributes WHERE uuid = ?")) {
+             PreparedStatement ps = conn.prepareStatement(bulkLoadQuery())) {
             ps.setString(1, uuid.toString());
             try (ResultSet rs = ps.executeQuery()) {
-                PlayerAttributeData data;
-                if (rs.next()) {
-                    int total = rs.getInt("total_points");
-                    EnumMap<StatType, Integer> map = new EnumMap<>(StatType.class);
-                    map.put(StatType.STR, rs.getInt("str"));
-                    map.put(StatType.VIT, rs.getInt("vit"));
-                    map.put(StatType.MND, rs.getInt("mnd"));
-                    map.put(StatType.INT, rs.getInt("int"));
-                    map.put(StatType.AGI, rs.getInt("agi"));
-
-                    data = new PlayerAttributeData(total, map);
-                } else {
-                    data = new PlayerAttributeData(2); // 初回ボーナス 2pt
-                }
-                cache.set(PlayerAttributeData.class, data);
+                applyBulkLoad(uuid, cache, rs);
             }
         } catch (SQLException e) {
             com.lunar_prototype.deepwither.Deepwither.getInstance().getLogger().log(java.util.logging.Level.SEVERE, "Database error in " + this.getClass().getSimpleName(), e);
@@ -65,6 +51,30 @@ public class AttributeManager implements IManager, IPlayerDataHandler {
         }
     }
 
+    @Override
+    public String bulkLoadQuery() {
+        return "SELECT * FROM player_attributes WHERE uuid = ?";
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException {
+        PlayerAttributeData data;
+        if (rs.next()) {
+            int total = rs.getInt("total_points");
+            EnumMap<StatType, Integer> map = new EnumMap<>(StatType.class);
+            map.put(StatType.STR, rs.getInt("str"));
+            map.put(StatType.VIT, rs.getInt("vit"));
+            map.put(StatType.MND, rs.getInt("mnd"));
+            map.put(StatType.INT, rs.getInt("int"));
+            map.put(StatType.AGI, rs.getInt("agi"));
+
+            data = new PlayerAttributeData(total, map);
+        } else {
+            data = new PlayerAttributeData(2); // 初回ボーナス 2pt
+        }
+        cache.set(PlayerAttributeData.class, data);
+    }
+
     public void save(UUID uuid) {
         save(uuid, DW.cache().getCache(uuid));
     }
@@ -2,71 +2,269 @@ package com.lunar_prototype.deepwither;
 
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
+import com.lunar_prototype.deepwither.util.TimingWheel;
 import org.bukkit.Bukkit;
-import com.lunar_prototype.deepwither.StatType; // StatTypeへのパスが正しいことを確認
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 
+/**
+ * スキル・特性・オンヒット効果などのクールダウンを一元管理するマネージャー。
+ *
+ * <p>
+ * クールダウン ID は起動中に整数キーへ変換 ({@link #key(String)}) され、プレイヤーごとの {@code long[]} に
+ * 最終使用時刻 (ミリ秒) を保持します。クールダウン短縮 (COOLDOWN_REDUCTION) は装備由来の値のみを使い (ステ振りやバフは含まない)、プレイヤーごとにキャッシュして
+ * ステータスの更新時 ({@link #refreshReduction}) または無効化時 ({@link #markReductionStale}) に取り直します。
+ * </p>
+ * <p>
+ * 期間付きで {@link #setCooldown(UUID, String, double, double)} した場合は、タイミングホイールに期限を登録し、
+ * 期限が来たtickで {@link ExpiryListener} を呼び出します (メインスレッド)。UI はポーリングせずに表示を更新できます。
+ * </p>
+ */
 @DependsOn({})
 public class CooldownManager implements IManager {
 
-    private final Map<UUID, Map<String, Long>> cooldowns = new HashMap<>();
+    /** 1 tick のミリ秒 */
+    private static final long TICK_MILLIS = 50L;
+    /** 短縮率の上限 (90%) */
+    private static final double MAX_REDUCTION = 0.9;
+    /** 無効化の通知がなくても短縮値を取り直す間隔 */
+    private static final long REDUCTION_MAX_AGE_MILLIS = 1000L;
+
+    private final JavaPlugin plugin;
+    private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+    private final List<String> keyNames = new CopyOnWriteArrayList<>();
+    private final Map<UUID, PlayerCooldowns> players = new ConcurrentHashMap<>();
+    private final TimingWheel<Expiry> wheel = new TimingWheel<>(512);
+    private final List<ExpiryListener> listeners = new CopyOnWriteArrayList<>();
+    private BukkitTask task;
+    private long tick;
+
+    public CooldownManager(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
 
     @Override
-    public void init() {}
+    public void init() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> wheel.advance(++tick, this::fire), 1L, 1L);
+    }
 
     @Override
-    public void shutdown() {}
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        wheel.clear();
+    }
+
+    /**
+     * クールダウン ID を整数キーに変換します。頻繁に呼ばれる箇所では結果を保持して使い回してください。
+     */
+    public int key(String id) {
+        Integer key = keys.get(id);
+        if (key != null) return key;
+        synchronized (keyNames) {
+            return keys.computeIfAbsent(id, k -> {
+                keyNames.add(k);
+                return keyNames.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * クールダウンの期限切れを通知するリスナーを登録します。
+     */
+    public void addExpiryListener(ExpiryListener listener) {
+        listeners.add(listener);
+    }
+
+    // ===== クールダウン短縮を適用する判定 (スキル) =====
 
-    // ★ 修正: minCooldown を引数に追加
     public boolean isOnCooldown(UUID uuid, String skillId, double baseCooldown, double minCooldown) {
-        // ★ minCooldown を渡す
-        double actualCooldown = applyCooldownReduction(uuid, baseCooldown, minCooldown);
+        return getRemainingMillis(uuid, key(skillId), baseCooldown, minCooldown) > 0;
+    }
 
-        long now = System.currentTimeMillis();
-        long last = cooldowns.getOrDefault(uuid, new HashMap<>()).getOrDefault(skillId, 0L);
+    public double getRemaining(UUID uuid, String skillId, double baseCooldown, double minCooldown) {
+        return getRemainingMillis(uuid, key(skillId), baseCooldown, minCooldown) / 1000.0;
+    }
+
+    private long getRemainingMillis(UUID uuid, int key, double baseCooldown, double minCooldown) {
+        PlayerCooldowns pc = players.get(uuid);
+        if (pc == null) return 0L;
+        long last = pc.get(key);
+        if (last == 0L) return 0L;
 
+        double actualCooldown = applyCooldownReduction(uuid, pc, baseCooldown, minCooldown);
         // actualCooldown は秒単位なので、1000を掛けてミリ秒にする
-        return (now - last) < (actualCooldown * 1000);
+        double remaining = actualCooldown * 1000 - (System.currentTimeMillis() - last);
+        return remaining > 0 ? (long) Math.ceil(remaining) : 0L;
     }
 
-    // ★ 修正: minCooldown を引数に追加
-    public double getRemaining(UUID uuid, String skillId, double baseCooldown, double minCooldown) {
-        // ★ minCooldown を渡す
-        double actualCooldown = applyCooldownReduction(uuid, baseCooldown, minCooldown);
+    /**
+     * 使用時刻を記録します。期限切れの通知は行われません。
+     */
+    public void setCooldown(UUID uuid, String skillId) {
+        player(uuid).set(key(skillId), System.currentTimeMillis());
+    }
 
+    /**
+     * 使用時刻を記録し、短縮後のクールダウンが明けたときに {@link ExpiryListener} へ通知します。
+     */
+    public void setCooldown(UUID uuid, String skillId, double baseCooldown, double minCooldown) {
+        int key = key(skillId);
+        PlayerCooldowns pc = player(uuid);
         long now = System.currentTimeMillis();
-        long last = cooldowns.getOrDefault(uuid, new HashMap<>()).getOrDefault(skillId, 0L);
+        pc.set(key, now);
+
+        long durationMillis = (long) (applyCooldownReduction(uuid, pc, baseCooldown, minCooldown) * 1000);
+        if (durationMillis > 0) {
+            wheel.schedule(new Expiry(uuid, key, now), (durationMillis + TICK_MILLIS - 1) / TICK_MILLIS);
+        }
+    }
+
+    // ===== 固定時間の判定 (特性・オンヒット効果など) =====
 
-        double remaining = (actualCooldown * 1000 - (now - last)) / 1000.0;
-        return Math.max(0, remaining);
+    /**
+     * 最後の使用から {@code durationMillis} 経っていなければ true を返します。短縮は適用されません。
+     */
+    public boolean isOnCooldown(UUID uuid, int key, long durationMillis) {
+        PlayerCooldowns pc = players.get(uuid);
+        if (pc == null) return false;
+        long last = pc.get(key);
+        return last != 0L && System.currentTimeMillis() - last < durationMillis;
     }
 
-    // ★ 修正: minCooldown を引数に追加
-    private double applyCooldownReduction(UUID uuid, double baseCooldown, double minCooldown) {
-        // 1. クールダウン短縮ステータスを取得 (例: 20 や 50 が返ってくると想定)
-        double reductionValue = StatManager.getTotalStatsFromEquipment(Bukkit.getPlayer(uuid)).getFlat(StatType.COOLDOWN_REDUCTION);
+    public void setCooldown(UUID uuid, int key) {
+        player(uuid).set(key, System.currentTimeMillis());
+    }
 
-        // ★ 修正点: 100 で割ってパーセンテージ (0.2 など) に変換する
-        double reductionRatio = reductionValue / 100.0;
+    /**
+     * クールダウンが明けていれば使用時刻を記録して true を返します。
+     */
+    public boolean tryAcquire(UUID uuid, int key, long durationMillis) {
+        return player(uuid).tryAcquire(key, System.currentTimeMillis(), durationMillis);
+    }
 
-        // 2. 短縮率の安全な上限を適用 (例: 90% = 0.9)
-        // ここで 0.9 (90%) を超えていたら 0.9 に丸める
-        reductionRatio = Math.min(reductionRatio, 0.9);
+    // ===== クールダウン短縮のキャッシュ =====
 
-        // 3. 短縮後のクールダウン時間を計算
-        // reductionRatio が 0.2 なら、(1.0 - 0.2) = 0.8倍 になる
-        double reducedCooldown = baseCooldown * (1.0 - reductionRatio);
+    /**
+     * ステータス更新時に呼び出され、キャッシュしているクールダウン短縮値を差し替えます。
+     *
+     * @param equipmentReduction 装備由来の COOLDOWN_REDUCTION の値
+     */
+    public void refreshReduction(UUID uuid, double equipmentReduction) {
+        player(uuid).setReduction(toRatio(equipmentReduction), System.currentTimeMillis());
+    }
 
-        // 4. 最小クールダウン時間 (min) を適用
+    /**
+     * ステータスが無効化されたときに呼び出され、次回の判定で短縮値を取り直させます。
+     */
+    public void markReductionStale(UUID uuid) {
+        PlayerCooldowns pc = players.get(uuid);
+        if (pc != null) pc.reductionStamp = 0L;
+    }
+
+    private double applyCooldownReduction(UUID uuid, PlayerCooldowns pc, double baseCooldown, double minCooldown) {
+        long now = System.currentTimeMillis();
+        if (now - pc.reductionStamp > REDUCTION_MAX_AGE_MILLIS) {
+            Player player = Bukkit.getPlayer(uuid);
+            // オフラインの場合は最後の値を使う
+            if (player != null) {
+                double equipmentReduction = Deepwither.getInstance().getStatManager().getEquipmentFlat(player, StatType.COOLDOWN_REDUCTION);
+                pc.setReduction(toRatio(equipmentReduction), now);
+            }
+        }
+
+        // reductionRatio が 0.2 なら、(1.0 - 0.2) = 0.8倍 になる
+        double reducedCooldown = baseCooldown * (1.0 - pc.reduction);
         return Math.max(reducedCooldown, minCooldown);
     }
 
-    // setCooldown はクールダウン開始時刻を記録するだけなので変更なし
-    public void setCooldown(UUID uuid, String skillId) {
-        cooldowns.computeIfAbsent(uuid, k -> new HashMap<>())
-                .put(skillId, System.currentTimeMillis());
+    private static double toRatio(double reductionValue) {
+        // 20 や 50 といった値を 100 で割って短縮率 (0.2 など) にし、上限で丸める
+        return Math.min(reductionValue / 100.0, MAX_REDUCTION);
+    }
+
+    private PlayerCooldowns player(UUID uuid) {
+        return players.computeIfAbsent(uuid, k -> new PlayerCooldowns());
+    }
+
+    private void fire(Expiry expiry) {
+        PlayerCooldowns pc = players.get(expiry.uuid);
+        // 期間中に再設定された場合は、新しい期限の通知に任せる
+        if (pc == null || pc.get(expiry.key) != expiry.startedAt) return;
+
+        String skillId = keyNames.get(expiry.key);
+        for (ExpiryListener listener : listeners) {
+            try {
+                listener.onExpire(expiry.uuid, skillId);
+            } catch (Exception ex) {
+                plugin.getLogger().log(Level.WARNING, "Cooldown expiry listener failed for " + skillId, ex);
+            }
+        }
+    }
+
+    /**
+     * 起動中に変換されたクールダウン ID の一覧 (キー順)。
+     */
+    public List<String> getKeyNames() {
+        return new ArrayList<>(keyNames);
+    }
+
+    public int getPendingExpiryCount() {
+        return wheel.size();
+    }
+
+    /**
+     * クールダウンの期限切れ通知。メインスレッドで呼び出されます。
+     */
+    @FunctionalInterface
+    public interface ExpiryListener {
+        void onExpire(UUID uuid, String skillId);
+    }
+
+    private record Expiry(UUID uuid, int key, long startedAt) {
+    }
+
+    /**
+     * 1 プレイヤー分の最終使用時刻。キーを添字とする配列で、必要に応じて拡張します。
+     */
+    private static final class PlayerCooldowns {
+        private long[] lastUse = new long[16];
+        private volatile double reduction;
+        private volatile long reductionStamp;
+
+        synchronized long get(int key) {
+            return key < lastUse.length ? lastUse[key] : 0L;
+        }
+
+        synchronized void set(int key, long time) {
+            if (key >= lastUse.length) {
+                lastUse = Arrays.copyOf(lastUse, Math.max(key + 1, lastUse.length * 2));
+            }
+            lastUse[key] = time;
+        }
+
+        synchronized boolean tryAcquire(int key, long now, long durationMillis) {
+            long last = get(key);
+            if (last != 0L && now - last < durationMillis) return false;
+            set(key, now);
+            return true;
+        }
+
+        void setReduction(double reduction, long stamp) {
+            this.reduction = reduction;
+            this.reductionStamp = stamp;
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,9 @@ package com.lunar_prototype.deepwither;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.lunar_prototype.deepwither.api.database.IDatabaseManager;
+import com.lunar_prototype.deepwither.core.database.SqlDialect;
+import com.lunar_prototype.deepwither.core.database.WriteBehindQueue;
+import com.lunar_prototype.deepwither.core.database.WriteTable;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import com.lunar_prototype.deepwither.util.LocalDateAdapter;
@@ -15,13 +18,21 @@ import java.lang.reflect.Type;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 @DependsOn({})
 public class DatabaseManager implements IManager, IDatabaseManager {
+    private static final WriteTable GENERIC_CONFIGS = WriteTable.of("generic_configs", "config_key").withColumns("config_value");
+
     private final JavaPlugin plugin;
     private HikariDataSource dataSource;
+    private ExecutorService executor;
+    private WriteBehindQueue writeQueue;
     private boolean failFast = false;
     private final Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
@@ -113,6 +124,14 @@ public class DatabaseManager implements IManager, IDatabaseManager {
 
         this.dataSource = new HikariDataSource(hikariConfig);
 
+        // 非同期クエリ用の専用スレッド (共通の ForkJoinPool を DB 待ちで占有しないため)
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(hikariConfig.getMaximumPoolSize(), r -> {
+            Thread thread = new Thread(r, "Deepwither-DB-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
         // SQLiteの場合はWALモードを有効化
         if (type.equals("sqlite")) {
             try (Connection conn = dataSource.getConnection();
@@ -128,6 +147,11 @@ public class DatabaseManager implements IManager, IDatabaseManager {
         if (doMigration) {
             migrateFromSQLite(oldSqliteFile);
         }
+
+        this.writeQueue = new WriteBehindQueue(this, SqlDialect.fromConfig(type), plugin.getLogger(),
+                config.getLong("database.write-behind.flush-interval-ms", 250L),
+                config.getInt("database.write-behind.batch-size", 200));
+        writeQueue.start();
     }
 
     /**
@@ -153,7 +177,13 @@ public class DatabaseManager implements IManager, IDatabaseManager {
                     ResultSetMetaData meta = rs.getMetaData();
                     int colCount = meta.getColumnCount();
 
-                    StringBuilder insertSql = new StringBuilder("INSERT INTO ").append(table).append(" VALUES (");
+                    // 移行先で列が追加されている場合があるため、列名を明示する
+                    StringBuilder insertSql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+                    for (int i = 1; i <= colCount; i++) {
+                        insertSql.append('"').append(meta.getColumnName(i).toLowerCase()).append('"');
+                        if (i < colCount) insertSql.append(", ");
+                    }
+                    insertSql.append(") VALUES (");
                     for (int i = 0; i < colCount; i++) {
                         insertSql.append("?");
                         if (i < colCount - 1) insertSql.append(", ");
@@ -251,6 +281,11 @@ public class DatabaseManager implements IManager, IDatabaseManager {
                     recipient_uuid TEXT NOT NULL,
                     mail_json TEXT NOT NULL
                 )""");
+            // 受信箱の読み込み・ページングを宛先で引くための列と索引
+            try { stmt.executeUpdate("ALTER TABLE player_mailbox ADD COLUMN created_at BIGINT DEFAULT 0"); }
+            catch (SQLException ignored) {} // 既に存在する場合は無視
+            try { stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_player_mailbox_recipient ON player_mailbox (recipient_uuid, created_at)"); }
+            catch (SQLException ignored) {} // 既に存在する場合は無視
 
             // DatabaseManager.java の setupTables 内に追加
             stmt.execute("""
@@ -298,6 +333,15 @@ public class DatabaseManager implements IManager, IDatabaseManager {
                     FOREIGN KEY (clan_id) REFERENCES clans(id) ON DELETE CASCADE
                 )""");
 
+            // PlayerSettingsManager用 (overrides は既定値から変更した設定のビット列)
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS player_settings (
+                    uuid TEXT PRIMARY KEY,
+                    overrides INTEGER DEFAULT 0,
+                    rarity_filter TEXT,
+                    alpha_agreed INTEGER DEFAULT 0
+                )""");
+
             stmt.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS player_fast_travel (
                     uuid TEXT NOT NULL,
@@ -379,7 +423,7 @@ public class DatabaseManager implements IManager, IDatabaseManager {
                 plugin.getLogger().severe("Database async error: " + e.getMessage());
                 e.printStackTrace();
             }
-        });
+        }, executor);
     }
 
     @Override
@@ -392,56 +436,16 @@ public class DatabaseManager implements IManager, IDatabaseManager {
                 e.printStackTrace();
                 return null;
             }
-        });
+        }, executor);
     }
 
     // YAMLの代わりにオブジェクトを保存できる汎用メソッド
     public void saveConfig(String key, Object data) {
-        String json = gson.toJson(data);
-        try (Connection connection = getConnection()) {
-            // 存在チェック
-            boolean exists = false;
-            try (PreparedStatement checkPs = connection.prepareStatement("SELECT 1 FROM generic_configs WHERE config_key = ?")) {
-                checkPs.setString(1, key);
-                try (ResultSet rs = checkPs.executeQuery()) {
-                    exists = rs.next();
-                }
-            }
-
-            if (exists) {
-                // UPDATE
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "UPDATE generic_configs SET config_value = ? WHERE config_key = ?")) {
-                    ps.setString(1, json);
-                    ps.setString(2, key);
-                    ps.executeUpdate();
-                }
-            } else {
-                // INSERT
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "INSERT INTO generic_configs (config_key, config_value) VALUES (?, ?)")) {
-                    ps.setString(1, key);
-                    ps.setString(2, json);
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    if (e.getSQLState().startsWith("23")) {
-                        try (PreparedStatement ps = connection.prepareStatement(
-                                "UPDATE generic_configs SET config_value = ? WHERE config_key = ?")) {
-                            ps.setString(1, json);
-                            ps.setString(2, key);
-                            ps.executeUpdate();
-                        }
-                    } else {
-                        throw e;
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        writeQueue.upsert(GENERIC_CONFIGS, new Object[]{key}, gson.toJson(data));
     }
 
     public <T> T loadConfig(String key, Type typeOfT) {
+        if (writeQueue.hasPending(GENERIC_CONFIGS)) writeQueue.flush();
         try (Connection connection = getConnection();
              PreparedStatement ps = connection.prepareStatement("SELECT config_value FROM generic_configs WHERE config_key = ?")) {
             ps.setString(1, key);
@@ -455,8 +459,30 @@ public class DatabaseManager implements IManager, IDatabaseManager {
         return gson;
     }
 
+    /**
+     * 遅延反映される書き込みのキュー。単一行の保存・削除はここを経由させてください。
+     */
+    public WriteBehindQueue getWriteQueue() {
+        return writeQueue;
+    }
+
     @Override
     public void shutdown() {
+        // 実行中の非同期処理 (書き込みキューへ追加するものを含む) を待ってから、キューに残った書き込みを反映して接続プールを閉じる
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (writeQueue != null) {
+            writeQueue.shutdown();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
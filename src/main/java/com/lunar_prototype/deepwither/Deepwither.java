@@ -61,14 +61,14 @@ import com.lunar_prototype.deepwither.raidboss.RaidBossListener;
 import com.lunar_prototype.deepwither.raidboss.RaidBossManager;
 import com.lunar_prototype.deepwither.seeker.CombatExperienceListener;
 import com.lunar_prototype.deepwither.seeker.SeekerAIEngine;
+import com.lunar_prototype.deepwither.seeker.SeekerAIScheduler;
+import com.lunar_prototype.deepwither.seeker.SeekerPolicyStore;
 import com.lunar_prototype.deepwither.town.TownBurstManager;
 import com.lunar_prototype.deepwither.tutorial.TutorialController;
 import com.lunar_prototype.deepwither.util.IManager;
 import com.lunar_prototype.deepwither.util.MythicMobSafeZoneManager;
 import com.lunar_prototype.deepwither.util.ServiceManager;
 import com.lunar_prototype.deepwither.core.engine.DeepwitherBootstrap;
-import io.lumine.mythic.bukkit.MythicBukkit;
-import io.lumine.mythic.core.mobs.ActiveMob;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
@@ -80,7 +80,6 @@ import org.bukkit.configuration.serialization.ConfigurationSerialization;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.IOException;
 import java.util.*;
@@ -714,7 +713,7 @@ public final class Deepwither extends JavaPlugin implements DeepwitherAPI {
     /**
      * Initializes the plugin and boots core subsystems, command handlers, scheduled tasks, and external integrations.
      *
-     * <p>On success this sets the global plugin instance, configures the async executor, initializes the bootstrap and service layer, loads guild quest configuration and components, initializes the party API, registers command executors and tab completers, schedules recurring mana regeneration and attack-speed reset tasks, starts the MythicBukkit AI tick loop for bandits, and registers PlaceholderAPI expansions when available.</p>
+     * <p>On success this sets the global plugin instance, configures the async executor, initializes the bootstrap and service layer, loads guild quest configuration and components, initializes the party API, registers command executors and tab completers, schedules recurring mana regeneration and attack-speed reset tasks, and registers PlaceholderAPI expansions when available.</p>
      */
     @Override
     public void onEnable() {
@@ -795,21 +794,6 @@ public final class Deepwither extends JavaPlugin implements DeepwitherAPI {
             e.printStackTrace();
         }
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                long currentTick = Bukkit.getCurrentTick();
-                for (ActiveMob am : MythicBukkit.inst().getMobManager().getActiveMobs()) {
-                    if (am.getMobType().contains("bandit")) {
-                        // 個体ごとに異なるタイミング(40tick周期)で思考させる
-                        if ((am.getUniqueId().hashCode() + currentTick) % 20 == 0) {
-                            aiEngine.tick(am);
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(this, 0, 1);
-
         getCommand("menu").setExecutor(new MenuCommand(menuGUI));
         getCommand("skills").setExecutor(new SkillAssignmentCommand());
         getCommand("blacksmith").setExecutor(new BlacksmithCommand());
@@ -929,6 +913,8 @@ public final class Deepwither extends JavaPlugin implements DeepwitherAPI {
         this.companionManager = register(serviceManager.get(CompanionManager.class));
         this.raidBossManager = register(serviceManager.get(RaidBossManager.class));
         this.layerMoveManager = register(serviceManager.get(LayerMoveManager.class));
+        register(serviceManager.get(com.lunar_prototype.deepwither.dungeon.DungeonPartLibrary.class));
+        register(serviceManager.get(com.lunar_prototype.deepwither.dungeon.instance.InstanceWorldPool.class));
         this.pvPvEDungeonManager = register(serviceManager.get(PvPvEDungeonManager.class));
 
         register(serviceManager.get(com.lunar_prototype.deepwither.dungeon.instance.DungeonInstanceManager.class));
@@ -955,6 +941,8 @@ public final class Deepwither extends JavaPlugin implements DeepwitherAPI {
 
         this.professionManager = register(serviceManager.get(ProfessionManager.class));
         this.aiEngine = register(serviceManager.get(SeekerAIEngine.class));
+        register(serviceManager.get(SeekerAIScheduler.class));
+        register(serviceManager.get(SeekerPolicyStore.class));
 
         // --- UI & Listeners (Managed) ---
         this.artifactGUI = register(serviceManager.get(ArtifactGUI.class));
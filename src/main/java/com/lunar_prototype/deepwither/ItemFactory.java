@@ -1,6 +1,7 @@
 package com.lunar_prototype.deepwither;
 
 import com.lunar_prototype.deepwither.api.IItemFactory;
+import com.lunar_prototype.deepwither.item.ItemStatCodec;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import io.papermc.paper.datacomponent.DataComponentTypes;
@@ -38,7 +39,6 @@ public class ItemFactory implements IManager, IItemFactory {
     public static final NamespacedKey SPECIAL_ACTION_KEY = new NamespacedKey(Deepwither.getInstance(), "special_action_type");
     public final Map<String, List<String>> rarityPools = new HashMap<>();
     private static final Map<String, ArtifactSetEffect> ARTIFACT_SET_EFFECTS = new HashMap<>();
-    private static final String KEY_PREFIX = "rpgstats";
 
     @Override
     public List<String> getItemsByRarity(String rarity) {
@@ -228,9 +228,10 @@ public class ItemFactory implements IManager, IItemFactory {
         StatMap finalStats = new StatMap();
 
         for (StatType type : baseStats.getAllTypes()) {
-            double baseFlat = baseStats.getFlat(type);
-            double basePercent = baseStats.getPercent(type);
-            saveStatValue(meta, "base", type, baseFlat, basePercent);
+            // StatMap は丸めを行わないため、PDC へ保存する値はここで丸める
+            double baseFlat = StatMap.round(baseStats.getFlat(type));
+            double basePercent = StatMap.round(baseStats.getPercent(type));
+            saveBaseStatValue(meta, type, baseFlat, basePercent);
             finalStats.setFlat(type, baseFlat);
             finalStats.setPercent(type, basePercent);
         }
@@ -243,7 +244,7 @@ public class ItemFactory implements IManager, IItemFactory {
             StatType type = entry.getKey();
             double modValue = entry.getValue();
             meta.getPersistentDataContainer().set(
-                    new NamespacedKey(KEY_PREFIX, "mod." + type.name().toLowerCase()),
+                    ItemStatCodec.modKey(type),
                     PersistentDataType.DOUBLE,
                     modValue
             );
@@ -272,11 +273,7 @@ public class ItemFactory implements IManager, IItemFactory {
     }
 
     private void saveFinalStatsToPdc(ItemMeta meta, StatMap finalStats) {
-        PersistentDataContainer container = meta.getPersistentDataContainer();
-        for (StatType type : finalStats.getAllTypes()) {
-            container.set(new NamespacedKey(KEY_PREFIX, type.name().toLowerCase() + "_flat"), PersistentDataType.DOUBLE, finalStats.getFlat(type));
-            container.set(new NamespacedKey(KEY_PREFIX, type.name().toLowerCase() + "_percent"), PersistentDataType.DOUBLE, finalStats.getPercent(type));
-        }
+        ItemStatCodec.write(meta.getPersistentDataContainer(), finalStats);
     }
     @Nullable
     public ItemStack setArtifactFullsetType(ItemStack item, @Nullable String artifactFullsetType) {
@@ -319,13 +316,13 @@ public class ItemFactory implements IManager, IItemFactory {
         pdc.set(ARTIFACT_FULLSET_TYPE, PersistentDataType.STRING, normalizeArtifactType(artifactFullsetType));
     }
 
-    private void saveStatValue(ItemMeta meta, String category, StatType type, double flat, double percent) {
+    private void saveBaseStatValue(ItemMeta meta, StatType type, double flat, double percent) {
         PersistentDataContainer pdc = meta.getPersistentDataContainer();
         if (flat != 0) {
-            pdc.set(new NamespacedKey(KEY_PREFIX, category + "." + type.name().toLowerCase() + "_flat"), PersistentDataType.DOUBLE, flat);
+            pdc.set(ItemStatCodec.baseFlatKey(type), PersistentDataType.DOUBLE, flat);
         }
         if (percent != 0) {
-            pdc.set(new NamespacedKey(KEY_PREFIX, category + "." + type.name().toLowerCase() + "_percent"), PersistentDataType.DOUBLE, percent);
+            pdc.set(ItemStatCodec.basePercentKey(type), PersistentDataType.DOUBLE, percent);
         }
     }
 
@@ -344,21 +341,8 @@ public class ItemFactory implements IManager, IItemFactory {
             flavorText = Arrays.asList(joinedFlavor.split(java.util.regex.Pattern.quote("|~|")));
         }
 
-        StatMap baseStats = new StatMap();
-        for (StatType type : StatType.values()) {
-            Double flat = pdc.get(new NamespacedKey(KEY_PREFIX, "base." + type.name().toLowerCase() + "_flat"), PersistentDataType.DOUBLE);
-            Double percent = pdc.get(new NamespacedKey(KEY_PREFIX, "base." + type.name().toLowerCase() + "_percent"), PersistentDataType.DOUBLE);
-            if (flat != null) baseStats.setFlat(type, flat);
-            if (percent != null) baseStats.setPercent(type, percent);
-        }
-
-        Map<StatType, Double> modifiers = new HashMap<>();
-        for (StatType type : StatType.values()) {
-            Double modVal = pdc.get(new NamespacedKey(KEY_PREFIX, "mod." + type.name().toLowerCase()), PersistentDataType.DOUBLE);
-            if (modVal != null) {
-                modifiers.put(type, modVal);
-            }
-        }
+        StatMap baseStats = ItemStatCodec.readBase(pdc);
+        Map<StatType, Double> modifiers = ItemStatCodec.readModifiers(pdc);
 
         FabricationGrade gradeToUse;
         if (newGrade != null) {
@@ -443,25 +427,11 @@ public class ItemFactory implements IManager, IItemFactory {
     }
 
     private StatMap restoreBaseStats(PersistentDataContainer pdc) {
-        StatMap stats = new StatMap();
-        for (StatType type : StatType.values()) {
-            Double flat = pdc.get(new NamespacedKey(KEY_PREFIX, "base." + type.name().toLowerCase() + "_flat"), PersistentDataType.DOUBLE);
-            Double percent = pdc.get(new NamespacedKey(KEY_PREFIX, "base." + type.name().toLowerCase() + "_percent"), PersistentDataType.DOUBLE);
-            if (flat != null) stats.setFlat(type, flat);
-            if (percent != null) stats.setPercent(type, percent);
-        }
-        return stats;
+        return ItemStatCodec.readBase(pdc);
     }
 
     private Map<StatType, Double> restoreModifiers(PersistentDataContainer pdc) {
-        Map<StatType, Double> modifiers = new HashMap<>();
-        for (StatType type : StatType.values()) {
-            Double modVal = pdc.get(new NamespacedKey(KEY_PREFIX, "mod." + type.name().toLowerCase()), PersistentDataType.DOUBLE);
-            if (modVal != null) {
-                modifiers.put(type, modVal);
-            }
-        }
-        return modifiers;
+        return ItemStatCodec.readModifiers(pdc);
     }
 
     private String pdcString(PersistentDataContainer pdc, NamespacedKey key) {
@@ -476,16 +446,7 @@ public class ItemFactory implements IManager, IItemFactory {
      * @return a StatMap containing any flat and percent values found for each StatType; if none are present an empty StatMap is returned
      */
     public StatMap readStatsFromItem(ItemStack item) {
-        StatMap stats = new StatMap();
-        if (item == null || !item.hasItemMeta()) return stats;
-        PersistentDataContainer container = item.getItemMeta().getPersistentDataContainer();
-        for (StatType type : StatType.values()) {
-            Double flat = container.get(new NamespacedKey(KEY_PREFIX, type.name().toLowerCase() + "_flat"), PersistentDataType.DOUBLE);
-            Double percent = container.get(new NamespacedKey(KEY_PREFIX, type.name().toLowerCase() + "_percent"), PersistentDataType.DOUBLE);
-            if (flat != null) stats.setFlat(type, flat);
-            if (percent != null) stats.setPercent(type, percent);
-        }
-        return stats;
+        return ItemStatCodec.read(item);
     }
 
     /**
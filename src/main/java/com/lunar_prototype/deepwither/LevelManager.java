@@ -1,6 +1,6 @@
 package com.lunar_prototype.deepwither;
 
-import com.lunar_prototype.deepwither.api.playerdata.IPlayerDataHandler;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
 import com.lunar_prototype.deepwither.core.PlayerCache;
 import java.util.concurrent.CompletableFuture;
 
@@ -21,7 +21,7 @@ import java.util.Map;
 import java.util.UUID;
 
 @DependsOn({DatabaseManager.class, CacheManager.class})
-public class LevelManager implements IManager, IPlayerDataHandler {
+public class LevelManager implements IManager, IBulkPlayerDataHandler {
     private static final int MAX_LEVEL = 50;
 
     private final DatabaseManager db;
@@ -41,18 +41,10 @@ public class LevelManager implements IManager, IPlayerDataHandler {
 
     public void load(UUID uuid, PlayerCache cache) {
         try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT \"level\", exp FROM player_levels WHERE uuid = ?")) {
+             PreparedStatement ps = conn.prepareStatement(bulkLoadQuery())) {
             ps.setString(1, uuid.toString());
             try (ResultSet rs = ps.executeQuery()) {
-                PlayerLevelData data;
-                if (rs.next()) {
-                    int level = Math.min(rs.getInt("level"), MAX_LEVEL);
-                    double exp = rs.getDouble("exp");
-                    data = new PlayerLevelData(level, exp);
-                } else {
-                    data = new PlayerLevelData(1, 0);
-                }
-                cache.set(PlayerLevelData.class, data);
+                applyBulkLoad(uuid, cache, rs);
             }
         } catch (SQLException e) {
             com.lunar_prototype.deepwither.Deepwither.getInstance().getLogger().log(java.util.logging.Level.SEVERE, "Database error in " + this.getClass().getSimpleName(), e);
@@ -60,6 +52,24 @@ public class LevelManager implements IManager, IPlayerDataHandler {
         }
     }
 
+    @Override
+    public String bulkLoadQuery() {
+        return "SELECT \"level\", exp FROM player_levels WHERE uuid = ?";
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException {
+        PlayerLevelData data;
+        if (rs.next()) {
+            int level = Math.min(rs.getInt("level"), MAX_LEVEL);
+            double exp = rs.getDouble("exp");
+            data = new PlayerLevelData(level, exp);
+        } else {
+            data = new PlayerLevelData(1, 0);
+        }
+        cache.set(PlayerLevelData.class, data);
+    }
+
     public void save(UUID uuid) {
         save(uuid, DW.cache().getCache(uuid));
     }
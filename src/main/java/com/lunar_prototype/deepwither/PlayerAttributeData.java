@@ -7,6 +7,8 @@ import java.util.EnumMap;
 public class PlayerAttributeData implements IPlayerComponent {
     private int totalPoints;
     private final EnumMap<StatType, Integer> allocated;
+    // 割り振りが変更されるたびに加算される (ステータスキャッシュの変更検知用)
+    private int version;
 
     public PlayerAttributeData(int totalPoints) {
         this.totalPoints = totalPoints;
@@ -29,6 +31,7 @@ public class PlayerAttributeData implements IPlayerComponent {
         if (totalPoints <= 0) return;
         allocated.put(type, getAllocated(type) + 1);
         totalPoints--;
+        version++;
     }
 
     public void addPoints(int amount) {
@@ -45,6 +48,11 @@ public class PlayerAttributeData implements IPlayerComponent {
 
     public void setAllocated(StatType type, int value) {
         allocated.put(type, value);
+        version++;
+    }
+
+    public int getVersion() {
+        return version;
     }
 
     public EnumMap<StatType, Integer> getAllAllocated() {
@@ -1,26 +1,62 @@
 package com.lunar_prototype.deepwither;
 
+import com.lunar_prototype.deepwither.api.DW;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
+import com.lunar_prototype.deepwither.core.CacheManager;
+import com.lunar_prototype.deepwither.core.PlayerCache;
+import com.lunar_prototype.deepwither.core.database.WriteBehindQueue;
+import com.lunar_prototype.deepwither.core.database.WriteTable;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerDataManager;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerSettingsData;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
-@DependsOn({})
-public class PlayerSettingsManager implements IManager {
+/**
+ * プレイヤーごとの個人設定 (ログ表示・エフェクト表示・レアリティフィルターなど)。
+ *
+ * <p>
+ * 設定はプレイヤーキャッシュの {@link PlayerSettingsData} (既定値から変更した項目のビット列) に保持し、
+ * 参照はキャッシュだけで完結します。変更はキャッシュを書き換えて dirty にするだけで、
+ * {@value #FLUSH_INTERVAL_TICKS} tick ごと・ログアウト時・停止時に dirty なものだけを書き込みキュー経由で
+ * player_settings テーブルへ保存します。メインスレッドでファイルや DB への書き込みは行いません。
+ * </p>
+ * <p>
+ * 従来の settings.yml が残っている場合は起動時にテーブルへ移行し、settings.yml.migrated に名前を変更します。
+ * </p>
+ */
+@DependsOn({DatabaseManager.class, CacheManager.class, PlayerDataManager.class})
+public class PlayerSettingsManager implements IManager, IBulkPlayerDataHandler {
+
+    private static final WriteTable SETTINGS = WriteTable.of("player_settings", "uuid")
+            .withColumns("overrides", "rarity_filter", "alpha_agreed");
+    private static final String LOAD_QUERY = "SELECT overrides, rarity_filter, alpha_agreed FROM player_settings WHERE uuid = ?";
+    /** dirty な設定を書き込みキューへ渡す間隔 (tick) */
+    private static final long FLUSH_INTERVAL_TICKS = 20L * 5;
+    /** 未参加・読み込み中のプレイヤーを参照した場合の既定値 (変更しないこと) */
+    private static final PlayerSettingsData DEFAULTS = new PlayerSettingsData();
 
     private final JavaPlugin plugin;
-    private File file;
-    private FileConfiguration config;
-    private final Map<UUID, Map<SettingType, Boolean>> cache = new HashMap<>();
-    private final Map<UUID, String> rarityFilterCache = new HashMap<>();
+    private DatabaseManager db;
+    private BukkitTask flushTask;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
 
     public enum SettingType {
         SHOW_GIVEN_DAMAGE("与ダメージログ", true),     // 自分が与えたダメージ
@@ -51,121 +87,226 @@ public class PlayerSettingsManager implements IManager {
 
     @Override
     public void init() {
-        this.file = new File(plugin.getDataFolder(), "settings.yml");
-        load();
+        this.db = DW.get(DatabaseManager.class);
+        migrateLegacyFile();
+        Deepwither.getInstance().getPlayerDataManager().registerHandler(this);
+
+        // リロード時など、既にオンラインのプレイヤーを読み込む
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loadData(player.getUniqueId(), DW.cache().getCache(player.getUniqueId()));
+        }
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushDirty, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
     }
 
     @Override
     public void shutdown() {
-        save();
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flushDirty();
     }
 
-    public void load() {
-        if (!file.exists()) {
+    // ===== IBulkPlayerDataHandler =====
+
+    @Override
+    public String bulkLoadQuery() {
+        return LOAD_QUERY;
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException {
+        PlayerSettingsData data = rs.next()
+                ? new PlayerSettingsData(rs.getInt("overrides"), rs.getString("rarity_filter"), rs.getInt("alpha_agreed") != 0)
+                : new PlayerSettingsData();
+        PlayerSettingsData current = cache.get(PlayerSettingsData.class);
+        // 読み込み中に変更された場合はそちらを優先する
+        if (current != null && current.isDirty()) return;
+        cache.set(PlayerSettingsData.class, data);
+    }
+
+    @Override
+    public CompletableFuture<Void> loadData(UUID uuid, PlayerCache cache) {
+        return db.runAsync(conn -> {
             try {
-                file.createNewFile();
-            } catch (IOException e) {
-                e.printStackTrace();
+                load(conn, uuid, cache);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load settings for " + uuid, e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveData(UUID uuid, PlayerCache cache) {
+        dirty.remove(uuid);
+        PlayerSettingsData data = cache.get(PlayerSettingsData.class);
+        if (data != null) persist(uuid, data);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void load(Connection conn, UUID uuid, PlayerCache cache) throws SQLException {
+        WriteBehindQueue queue = db.getWriteQueue();
+        if (queue.hasPending(SETTINGS)) queue.flush();
+        try (PreparedStatement ps = conn.prepareStatement(LOAD_QUERY)) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                applyBulkLoad(uuid, cache, rs);
             }
         }
-        config = YamlConfiguration.loadConfiguration(file);
     }
 
-    public void save() {
-        try {
-            config.save(file);
-        } catch (IOException e) {
-            e.printStackTrace();
+    // ===== 保存 =====
+
+    /**
+     * dirty な設定を書き込みキューへ渡す (実際の書き込みはキューのスレッドでまとめて行われる)
+     */
+    private void flushDirty() {
+        if (dirty.isEmpty()) return;
+        Iterator<UUID> it = dirty.iterator();
+        while (it.hasNext()) {
+            UUID uuid = it.next();
+            it.remove();
+            PlayerCache cache = DW.cache().getCacheIfPresent(uuid);
+            PlayerSettingsData data = cache != null ? cache.get(PlayerSettingsData.class) : null;
+            if (data != null) persist(uuid, data);
         }
     }
 
-    // 設定の取得 (キャッシュ -> ファイル -> デフォルト)
-    public boolean isEnabled(Player player, SettingType type) {
-        return isEnabled(player.getUniqueId(), type);
+    private void persist(UUID uuid, PlayerSettingsData data) {
+        Object[] values;
+        synchronized (data) {
+            if (!data.clearDirty()) return;
+            values = new Object[]{data.getOverrides(), data.getRarityFilter(), data.isAlphaAgreed() ? 1 : 0};
+        }
+        db.getWriteQueue().upsert(SETTINGS, new Object[]{uuid.toString()}, values);
     }
 
-    public boolean isEnabled(UUID uuid, SettingType type) {
-        if (cache.containsKey(uuid) && cache.get(uuid).containsKey(type)) {
-            return cache.get(uuid).get(type);
+    /**
+     * 従来の settings.yml (&lt;uuid&gt;.&lt;SettingType&gt; / rarity_filter / alpha_agreed) をテーブルへ移行する
+     */
+    private void migrateLegacyFile() {
+        File file = new File(plugin.getDataFolder(), "settings.yml");
+        if (!file.exists()) return;
+
+        YamlConfiguration legacy = YamlConfiguration.loadConfiguration(file);
+        WriteBehindQueue queue = db.getWriteQueue();
+        int count = 0;
+        for (String key : legacy.getKeys(false)) {
+            ConfigurationSection section = legacy.getConfigurationSection(key);
+            if (section == null) continue;
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(key);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            PlayerSettingsData data = new PlayerSettingsData(0,
+                    section.getString("rarity_filter", PlayerSettingsData.DEFAULT_RARITY_FILTER),
+                    section.getBoolean("alpha_agreed", false));
+            for (SettingType type : SettingType.values()) {
+                if (section.isBoolean(type.name())) {
+                    data.set(type, section.getBoolean(type.name()));
+                }
+            }
+            queue.upsert(SETTINGS, new Object[]{uuid.toString()},
+                    data.getOverrides(), data.getRarityFilter(), data.isAlphaAgreed() ? 1 : 0);
+            count++;
         }
+        queue.flush();
 
-        // config path: <uuid>.<SettingType>
-        String path = uuid.toString() + "." + type.name();
-        boolean val = config.getBoolean(path, type.getDefault());
+        // 二重移行を防ぐためリネーム
+        File backup = new File(file.getParentFile(), "settings.yml.migrated");
+        if (file.renameTo(backup)) {
+            plugin.getLogger().info("Migrated " + count + " player settings from settings.yml (backup: " + backup.getName() + ")");
+        } else {
+            plugin.getLogger().warning("Migrated " + count + " player settings, but failed to rename settings.yml");
+        }
+    }
+
+    // ===== 参照・変更 =====
+
+    /**
+     * プレイヤーの設定を返します。
+     * オフラインのプレイヤーや、読み込みが終わっていないプレイヤーは既定値 (変更不可) です。
+     * 参加するプレイヤーの読み込みはログイン処理中 ({@code PlayerConnectionListener#onPreLogin}) に完了を待つため、
+     * 参加時 (PlayerJoinEvent) には読み込み済みです。呼び出し元はメインスレッドのため、ここで DB を参照することはしません。
+     */
+    private PlayerSettingsData data(UUID uuid) {
+        PlayerCache cache = DW.cache().getCacheIfPresent(uuid);
+        PlayerSettingsData data = cache != null ? cache.get(PlayerSettingsData.class) : null;
+        return data != null ? data : DEFAULTS;
+    }
 
-        // キャッシュに保存
-        cache.computeIfAbsent(uuid, k -> new HashMap<>()).put(type, val);
-        return val;
+    private void markDirty(UUID uuid) {
+        dirty.add(uuid);
+    }
+
+    public boolean isEnabled(Player player, SettingType type) {
+        return isEnabled(player.getUniqueId(), type);
+    }
+
+    public boolean isEnabled(UUID uuid, SettingType type) {
+        return data(uuid).isEnabled(type);
     }
 
     /**
-     * Toggle the specified setting for the given player and persist the change.
+     * Toggle the specified setting for the given player.
      *
-     * Updates the in-memory cache and writes the new boolean value for the player's setting into the persistent settings file.
+     * Updates the player's cached settings; the change is persisted asynchronously in the next batch.
      *
      * @param player the player whose setting will be toggled
      * @param type   the SettingType to toggle
      */
     public void toggle(Player player, SettingType type) {
         UUID uuid = player.getUniqueId();
-        boolean current = isEnabled(uuid, type);
-        boolean currentNew = !current;
-
-        cache.computeIfAbsent(uuid, k -> new HashMap<>()).put(type, currentNew);
-        config.set(uuid.toString() + "." + type.name(), currentNew);
-        save();
-
-        // 簡易フィードバック不要なら削除可
-        // player.sendMessage("§7[設定] " + type.getDisplayName() + ": " + (currentNew ? "§aON" : "§cOFF"));
+        PlayerSettingsData data = data(uuid);
+        if (data == DEFAULTS) return;
+        data.toggle(type);
+        markDirty(uuid);
     }
 
     /**
      * Retrieves the rarity filter string associated with the given player.
      *
      * @param player the player whose rarity filter to retrieve
-     * @return the player's rarity filter string; cached if available, otherwise the default {@literal &f&lコモン}
+     * @return the player's rarity filter string; defaults to {@literal &f&lコモン}
      */
     public String getRarityFilter(Player player) {
         return getRarityFilter(player.getUniqueId());
     }
 
     /**
-     * Retrieve the player's rarity filter string, loading it from the settings file and caching it if not already cached.
+     * Retrieve the player's rarity filter string from the cached settings.
      *
      * @param uuid the player's UUID whose rarity filter to retrieve
      * @return the rarity filter string for the player; defaults to {@literal &f&lコモン} when not set
      */
     public String getRarityFilter(UUID uuid) {
-        if (rarityFilterCache.containsKey(uuid)) {
-            return rarityFilterCache.get(uuid);
-        }
-
-        String path = uuid.toString() + ".rarity_filter";
-        String rarity = config.getString(path, "&f&lコモン"); // デフォルトはコモン
-
-        rarityFilterCache.put(uuid, rarity);
-        return rarity;
+        return data(uuid).getRarityFilter();
     }
 
     /**
-     * Set the player's rarity filter and persist the change to the settings file.
+     * Set the player's rarity filter; the change is persisted asynchronously in the next batch.
      *
      * @param player the player whose rarity filter will be updated
      * @param rarity the rarity filter string to assign to the player
      */
     public void setRarityFilter(Player player, String rarity) {
         UUID uuid = player.getUniqueId();
-        rarityFilterCache.put(uuid, rarity);
-        config.set(uuid.toString() + ".rarity_filter", rarity);
-        save();
+        PlayerSettingsData data = data(uuid);
+        if (data == DEFAULTS) return;
+        data.setRarityFilter(rarity);
+        markDirty(uuid);
     }
 
     public boolean hasAgreedToAlpha(UUID uuid) {
-        return config.getBoolean(uuid.toString() + ".alpha_agreed", false);
+        return data(uuid).isAlphaAgreed();
     }
 
     public void setAgreedToAlpha(UUID uuid, boolean agreed) {
-        config.set(uuid.toString() + ".alpha_agreed", agreed);
-        save();
+        PlayerSettingsData data = data(uuid);
+        if (data == DEFAULTS) return;
+        data.setAlphaAgreed(agreed);
+        markDirty(uuid);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.lunar_prototype.deepwither;
 
+import com.destroystokyo.paper.event.player.PlayerArmorChangeEvent;
 import com.lunar_prototype.deepwither.api.stat.IStatManager;
+import com.lunar_prototype.deepwither.api.stat.StatSource;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import org.bukkit.event.EventHandler;
@@ -9,8 +11,16 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemDamageEvent;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.Bukkit;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -37,6 +47,7 @@ public class PlayerStatListener implements Listener, IManager {
     @EventHandler
     public void onJoin(PlayerJoinEvent e) {
         Bukkit.getScheduler().runTaskLater(Deepwither.getInstance(), () -> {
+            statManager.invalidateStats(e.getPlayer().getUniqueId());
             statManager.updatePlayerStats(e.getPlayer());
             double maxMana = statManager.getTotalStats(e.getPlayer()).getFlat(StatType.MAX_MANA);
             Deepwither.getInstance().getManaManager().get(e.getPlayer().getUniqueId()).setMaxMana(maxMana);
@@ -49,6 +60,7 @@ public class PlayerStatListener implements Listener, IManager {
     @EventHandler
     public void onRespawn(PlayerRespawnEvent e) {
         Bukkit.getScheduler().runTaskLater(Deepwither.getInstance(), () -> {
+            statManager.invalidateStats(e.getPlayer().getUniqueId());
             statManager.resetHealthOnEvent(e.getPlayer(), true);
             statManager.updatePlayerStats(e.getPlayer());
             double maxMana = statManager.getTotalStats(e.getPlayer()).getFlat(StatType.MAX_MANA);
@@ -58,7 +70,9 @@ public class PlayerStatListener implements Listener, IManager {
 
     @EventHandler
     public void onHeldChange(PlayerItemHeldEvent e) {
+        invalidateEquipmentNextTick(e.getPlayer());
         Bukkit.getScheduler().runTaskLater(Deepwither.getInstance(), () -> {
+            statManager.invalidateStats(e.getPlayer().getUniqueId(), StatSource.MAIN_HAND);
             statManager.updatePlayerStats(e.getPlayer());
             double maxMana = statManager.getTotalStats(e.getPlayer()).getFlat(StatType.MAX_MANA);
             Deepwither.getInstance().getManaManager().get(e.getPlayer().getUniqueId()).setMaxMana(maxMana);
@@ -67,7 +81,9 @@ public class PlayerStatListener implements Listener, IManager {
 
     @EventHandler
     public void onSwapHand(PlayerSwapHandItemsEvent e) {
+        invalidateEquipmentNextTick(e.getPlayer());
         Bukkit.getScheduler().runTaskLater(Deepwither.getInstance(), () -> {
+            statManager.invalidateStats(e.getPlayer().getUniqueId(), StatSource.MAIN_HAND, StatSource.OFF_HAND);
             statManager.updatePlayerStats(e.getPlayer());
             double maxMana = statManager.getTotalStats(e.getPlayer()).getFlat(StatType.MAX_MANA);
             Deepwither.getInstance().getManaManager().get(e.getPlayer().getUniqueId()).setMaxMana(maxMana);
@@ -82,11 +98,64 @@ public class PlayerStatListener implements Listener, IManager {
         if (e.getSlotType() == InventoryType.SlotType.ARMOR ||
                 e.getClickedInventory() != null && e.getClickedInventory().getType() == InventoryType.PLAYER) {
 
+            invalidateEquipmentNextTick(player);
             Bukkit.getScheduler().runTaskLater(Deepwither.getInstance(), () -> {
+                statManager.invalidateStats(player.getUniqueId(), StatSource.EQUIPMENT);
                 statManager.updatePlayerStats(player);
                 double maxMana = statManager.getTotalStats(player).getFlat(StatType.MAX_MANA);
                 Deepwither.getInstance().getManaManager().get(player.getUniqueId()).setMaxMana(maxMana);
             }, 3L);
         }
     }
+
+    @EventHandler
+    public void onArmorChange(PlayerArmorChangeEvent e) {
+        statManager.invalidateStats(e.getPlayer().getUniqueId(), StatSource.ARMOR);
+    }
+
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent e) {
+        if (!(e.getWhoClicked() instanceof Player player)) return;
+        invalidateEquipmentNextTick(player);
+    }
+
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent e) {
+        if (!(e.getPlayer() instanceof Player player)) return;
+        // GUI (鍛冶屋など) による手持ちアイテムの書き換えを拾う
+        statManager.invalidateStats(player.getUniqueId(), StatSource.EQUIPMENT);
+    }
+
+    @EventHandler
+    public void onDrop(PlayerDropItemEvent e) {
+        invalidateEquipmentNextTick(e.getPlayer());
+    }
+
+    @EventHandler
+    public void onPickup(EntityPickupItemEvent e) {
+        if (!(e.getEntity() instanceof Player player)) return;
+        invalidateEquipmentNextTick(player);
+    }
+
+    @EventHandler
+    public void onItemBreak(PlayerItemBreakEvent e) {
+        invalidateEquipmentNextTick(e.getPlayer());
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onItemDamage(PlayerItemDamageEvent e) {
+        // 耐久値が尽きかけた武器はステータスを読まないため、しきい値を跨ぐときだけ無効化する
+        ItemStack item = e.getItem();
+        if (!(item.getItemMeta() instanceof Damageable damageable)) return;
+
+        int max = damageable.hasMaxDamage() ? damageable.getMaxDamage() : item.getType().getMaxDurability();
+        if (max > 0 && max - (damageable.getDamage() + e.getDamage()) <= 1) {
+            invalidateEquipmentNextTick(e.getPlayer());
+        }
+    }
+
+    private void invalidateEquipmentNextTick(Player player) {
+        Bukkit.getScheduler().runTask(Deepwither.getInstance(),
+                () -> statManager.invalidateStats(player.getUniqueId(), StatSource.EQUIPMENT));
+    }
 }
@@ -1,32 +1,82 @@
 package com.lunar_prototype.deepwither;
 
+import com.lunar_prototype.deepwither.api.DW;
 import com.lunar_prototype.deepwither.api.stat.IStatManager;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerTickEffects;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.inventory.ItemStack;
 import com.lunar_prototype.deepwither.api.item.ISpecialItemEffect;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HP・マナの自然回復と、装備の特殊効果 ({@link ISpecialItemEffect#onTick}) の定期処理。
+ *
+ * <p>
+ * 全プレイヤーを同じ tick に処理せず、{@link #BUCKETS} 個のバケットに振り分けて毎 tick 1 バケットずつ処理します。
+ * 各プレイヤーの処理間隔は従来どおり {@value #INTERVAL_SECONDS} 秒です。HP・マナが満タンのプレイヤーは回復処理を省略し、
+ * 特殊効果は {@link PlayerTickEffects} にまとめた一覧 (装備変更時のみ作り直す) だけを呼び出します。
+ * </p>
+ */
 @DependsOn({StatManager.class})
-public class RegenTask extends BukkitRunnable implements IManager {
+public class RegenTask extends BukkitRunnable implements IManager, Listener {
 
     private IStatManager statManager;
     private final JavaPlugin plugin;
     private BukkitTask task;
     // タスクが実行される間隔（秒）
     private static final double INTERVAL_SECONDS = 2.0;
+    private static final int BUCKETS = (int) (INTERVAL_SECONDS * 20);
+
+    private static final EquipmentSlot[] EQUIPMENT_SLOTS = {
+            EquipmentSlot.HAND, EquipmentSlot.OFF_HAND,
+            EquipmentSlot.FEET, EquipmentSlot.LEGS, EquipmentSlot.CHEST, EquipmentSlot.HEAD
+    };
+
+    @SuppressWarnings("unchecked")
+    private final Set<UUID>[] buckets = new Set[BUCKETS];
+    private final Map<UUID, Integer> bucketOf = new HashMap<>();
+    private int currentBucket;
+
+    /** onTick を実装している特殊効果のクラス */
+    private final Map<Class<?>, Boolean> tickingEffectTypes = new ConcurrentHashMap<>();
 
     public RegenTask(JavaPlugin plugin) {
         this.plugin = plugin;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LinkedHashSet<>();
+        }
     }
 
     @Override
     public void init() {
         this.statManager = Deepwither.getInstance().getStatManager();
-        this.task = this.runTaskTimer(plugin, 0L, (long) (INTERVAL_SECONDS * 20));
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        // リロード時など、既にオンラインのプレイヤーを振り分ける
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            assign(player.getUniqueId());
+        }
+        this.task = this.runTaskTimer(plugin, 0L, 1L);
     }
 
     @Override
@@ -34,58 +84,146 @@ public class RegenTask extends BukkitRunnable implements IManager {
         if (task != null && !task.isCancelled()) {
             task.cancel();
         }
+        HandlerList.unregisterAll(this);
+        for (Set<UUID> bucket : buckets) {
+            bucket.clear();
+        }
+        bucketOf.clear();
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent e) {
+        assign(e.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) {
+        Integer bucket = bucketOf.remove(e.getPlayer().getUniqueId());
+        if (bucket != null) {
+            buckets[bucket].remove(e.getPlayer().getUniqueId());
+        }
+    }
+
+    /**
+     * 最も人数の少ないバケットに割り当てる
+     */
+    private void assign(UUID uuid) {
+        if (bucketOf.containsKey(uuid)) return;
+        int target = 0;
+        for (int i = 1; i < BUCKETS; i++) {
+            if (buckets[i].size() < buckets[target].size()) target = i;
+        }
+        buckets[target].add(uuid);
+        bucketOf.put(uuid, target);
     }
 
     @Override
     public void run() {
-        for (Player player : Deepwither.getInstance().getServer().getOnlinePlayers()) {
+        Set<UUID> bucket = buckets[currentBucket];
+        currentBucket = (currentBucket + 1) % BUCKETS;
+        if (bucket.isEmpty()) return;
+
+        SpecialItemEffectManager effectManager = Deepwither.getInstance().getSpecialItemEffectManager();
+        for (UUID uuid : bucket) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) continue;
 
-            // 死亡していないかチェック (HPが0.0でなければ回復)
-            if (statManager.getActualCurrentHealth(player) > 0.0) {
-                statManager.naturalRegeneration(player, INTERVAL_SECONDS);
+            regenerate(player);
 
-                // マナの自然回復
-                StatMap stats = statManager.getTotalStats(player);
-                double maxMana = stats.getFinal(StatType.MAX_MANA);
-                double manaRegen = stats.getFinal(StatType.MANA_REGEN);
+            // 特殊効果の onTick
+            if (effectManager != null) {
+                tickEffects(player, effectManager);
+            }
+        }
+    }
 
-                // 基礎回復量 (最大マナの2%) + ステータスによる回復量
-                double baseManaRegenPerSecond = maxMana * 0.02 + manaRegen;
-                double actualManaRegen = baseManaRegenPerSecond * INTERVAL_SECONDS;
+    private void regenerate(Player player) {
+        // 死亡していないかチェック (HPが0.0でなければ回復)
+        double currentHp = statManager.getActualCurrentHealth(player);
+        if (currentHp <= 0.0) return;
 
-                Deepwither.getInstance().getManaManager().get(player.getUniqueId()).regen(actualManaRegen);
+        StatMap stats = statManager.getTotalStats(player);
+        if (currentHp < stats.getFinal(StatType.MAX_HEALTH)) {
+            statManager.naturalRegeneration(player, INTERVAL_SECONDS);
+        }
+
+        // マナの自然回復
+        ManaData mana = Deepwither.getInstance().getManaManager().get(player.getUniqueId());
+        if (mana.getCurrentMana() >= mana.getMaxMana()) return;
+
+        double maxMana = stats.getFinal(StatType.MAX_MANA);
+        double manaRegen = stats.getFinal(StatType.MANA_REGEN);
+
+        // 基礎回復量 (最大マナの2%) + ステータスによる回復量
+        double baseManaRegenPerSecond = maxMana * 0.02 + manaRegen;
+        double actualManaRegen = baseManaRegenPerSecond * INTERVAL_SECONDS;
+
+        mana.regen(actualManaRegen);
+    }
+
+    private void tickEffects(Player player, SpecialItemEffectManager effectManager) {
+        PlayerTickEffects tickEffects = DW.cache().getCache(player.getUniqueId())
+                .getOrPut(PlayerTickEffects.class, PlayerTickEffects::new);
+
+        List<PlayerTickEffects.Entry> entries;
+        synchronized (tickEffects) {
+            if (tickEffects.isDirty()) {
+                tickEffects.set(collectTickEffects(player, effectManager));
             }
+            entries = tickEffects.getEntries();
+        }
+        if (entries.isEmpty()) return;
 
-            // 特殊効果の onTick
-            SpecialItemEffectManager effectManager = Deepwither.getInstance().getSpecialItemEffectManager();
-            if (effectManager != null) {
-                // メインハンド・オフハンド
-                handleEffectTick(player, player.getInventory().getItemInMainHand(), effectManager);
-                handleEffectTick(player, player.getInventory().getItemInOffHand(), effectManager);
-
-                // 防具
-                for (ItemStack armor : player.getInventory().getArmorContents()) {
-                    handleEffectTick(player, armor, effectManager);
-                }
-
-                // アーティファクト
-                ArtifactManager artifactManager = Deepwither.getInstance().getArtifactManager();
-                if (artifactManager != null) {
-                    for (ItemStack artifact : artifactManager.getPlayerArtifacts(player)) {
-                        handleEffectTick(player, artifact, effectManager);
-                    }
-                    // 背中装備
-                    handleEffectTick(player, artifactManager.getPlayerBackpack(player), effectManager);
-                }
+        PlayerInventory inventory = player.getInventory();
+        for (PlayerTickEffects.Entry entry : entries) {
+            ItemStack item = entry.slot() != null ? inventory.getItem(entry.slot()) : entry.item();
+            if (item == null || item.getType().isAir()) continue;
+            // イベントを伴わずにスロットのアイテムが差し替えられた場合は、別の効果を呼ばずに次回作り直す
+            if (entry.slot() != null && effectManager.getEffect(item) != entry.effect()) {
+                tickEffects.invalidate();
+                continue;
+            }
+            entry.effect().onTick(player, item);
+        }
+    }
+
+    /**
+     * 装備 (メインハンド・オフハンド・防具・アーティファクト・背中装備) から onTick を持つ特殊効果を集める
+     */
+    private List<PlayerTickEffects.Entry> collectTickEffects(Player player, SpecialItemEffectManager effectManager) {
+        List<PlayerTickEffects.Entry> entries = new ArrayList<>();
+        PlayerInventory inventory = player.getInventory();
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            addIfTicking(entries, slot, inventory.getItem(slot), effectManager);
+        }
+
+        ArtifactManager artifactManager = Deepwither.getInstance().getArtifactManager();
+        if (artifactManager != null) {
+            for (ItemStack artifact : artifactManager.getPlayerArtifacts(player)) {
+                addIfTicking(entries, null, artifact, effectManager);
             }
+            // 背中装備
+            addIfTicking(entries, null, artifactManager.getPlayerBackpack(player), effectManager);
         }
+        return entries;
     }
 
-    private void handleEffectTick(Player player, ItemStack item, SpecialItemEffectManager manager) {
+    private void addIfTicking(List<PlayerTickEffects.Entry> entries, EquipmentSlot slot, ItemStack item,
+                              SpecialItemEffectManager manager) {
         if (item == null || item.getType().isAir()) return;
         ISpecialItemEffect effect = manager.getEffect(item);
-        if (effect != null) {
-            effect.onTick(player, item);
+        if (effect != null && overridesOnTick(effect)) {
+            entries.add(new PlayerTickEffects.Entry(slot, slot != null ? null : item, effect));
         }
     }
+
+    private boolean overridesOnTick(ISpecialItemEffect effect) {
+        return tickingEffectTypes.computeIfAbsent(effect.getClass(), type -> {
+            try {
+                return type.getMethod("onTick", Player.class, ItemStack.class).getDeclaringClass() != ISpecialItemEffect.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        });
+    }
 }
@@ -179,7 +179,7 @@ public class SkillCastManager implements IManager {
         if (isCastSuccessful) {
             ManaData mana = Deepwither.getInstance().getManaManager().get(player.getUniqueId());
             mana.consume(def.manaCost);
-            Deepwither.getInstance().getCooldownManager().setCooldown(player.getUniqueId(), def.id);
+            Deepwither.getInstance().getCooldownManager().setCooldown(player.getUniqueId(), def.id, def.cooldown, def.cooldown_min);
             Bukkit.getPluginManager().callEvent(new SkillCastEvent(player));
             player.sendMessage(Component.text("スキル「" + def.name + "」を発動！", NamedTextColor.GREEN));
         } else {
@@ -35,74 +35,85 @@ public class SkillCastSessionManager implements Listener, IManager {
         this.actionBarTask = new BukkitRunnable() {
             @Override
             public void run() {
-                SkillLoader skillLoader = Deepwither.getInstance().getSkillLoader();
-                SkillSlotManager slotManager = Deepwither.getInstance().getSkillSlotManager();
-                CooldownManager cooldownManager = Deepwither.getInstance().getCooldownManager();
-                ManaManager manaManager = Deepwither.getInstance().getManaManager();
-                SkillCastManager castManager = Deepwither.getInstance().getSkillCastManager();
-
                 for (Player player : Bukkit.getOnlinePlayers()) {
-                    UUID uuid = player.getUniqueId();
-                    if (!skillModePlayers.contains(uuid)) continue;
-
-                    SkillSlotData slotData = slotManager.get(uuid);
-
-                    // 詠唱中の場合は専用メッセージを表示
-                    if (castManager.isCasting(player)) {
-                        DW.ui(player).simpleActionBar(
-                            Component.text("⟳ 詠唱中... (Fキーでキャンセル)", NamedTextColor.YELLOW)
-                        );
-                        continue;
-                    }
-
-                    Component actionBar = Component.empty();
-
-                    for (int i = 0; i < 9; i++) {
-                        String skillId = slotData.getSkill(i);
-                        int displayKey = i + 1;
-
-                        if (skillId == null) {
-                            continue;
-                        }
-
-                        Component keyPrefix = Component.text("[", NamedTextColor.GRAY)
-                                .append(Component.text(displayKey, NamedTextColor.YELLOW))
-                                .append(Component.text("] ", NamedTextColor.GRAY));
-
-                        SkillDefinition def = skillLoader.get(skillId);
-                        if (def == null) {
-                            actionBar = actionBar.append(keyPrefix)
-                                    .append(Component.text("ERROR  ", NamedTextColor.RED));
-                            continue;
-                        }
-
-                        boolean onCooldown = cooldownManager.isOnCooldown(uuid, skillId, def.cooldown, def.cooldown_min);
-                        boolean notEnoughMana = manaManager.get(uuid).getCurrentMana() < def.manaCost;
-
-                        Component display;
-                        if (onCooldown) {
-                            double remaining = cooldownManager.getRemaining(uuid, skillId, def.cooldown, def.cooldown_min);
-                            display = Component.text(def.name, NamedTextColor.RED)
-                                    .append(Component.text(" (" + String.format("%.1f", remaining) + "s)", NamedTextColor.DARK_RED));
-                        } else if (notEnoughMana) {
-                            // マナ不足: 青 + ✗ プレフィクスで明確に区別
-                            display = Component.text("✗ ", NamedTextColor.BLUE)
-                                    .append(Component.text(def.name, NamedTextColor.BLUE));
-                        } else {
-                            // 発動可能: 緑 + ボールド
-                            display = Component.text(def.name, NamedTextColor.GREEN, TextDecoration.BOLD);
-                        }
-
-                        actionBar = actionBar.append(keyPrefix).append(display).append(Component.text("  "));
-                    }
-
-                    DW.ui(player).simpleActionBar(actionBar);
+                    if (skillModePlayers.contains(player.getUniqueId())) updateActionBar(player);
                 }
             }
         }.runTaskTimer(plugin, 0L, 10L);
+        // クールダウンが明けた瞬間に表示を更新する (定期更新を待たない)
+        Deepwither.getInstance().getCooldownManager().addExpiryListener((uuid, skillId) -> {
+            if (!skillModePlayers.contains(uuid)) return;
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) updateActionBar(player);
+        });
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
+    /**
+     * スキルモード中のプレイヤーのアクションバー (スロットごとのスキル名・クールダウン) を描画します。
+     */
+    private void updateActionBar(Player player) {
+        SkillLoader skillLoader = Deepwither.getInstance().getSkillLoader();
+        SkillSlotManager slotManager = Deepwither.getInstance().getSkillSlotManager();
+        CooldownManager cooldownManager = Deepwither.getInstance().getCooldownManager();
+        ManaManager manaManager = Deepwither.getInstance().getManaManager();
+        SkillCastManager castManager = Deepwither.getInstance().getSkillCastManager();
+        UUID uuid = player.getUniqueId();
+
+        SkillSlotData slotData = slotManager.get(uuid);
+
+        // 詠唱中の場合は専用メッセージを表示
+        if (castManager.isCasting(player)) {
+            DW.ui(player).simpleActionBar(
+                Component.text("⟳ 詠唱中... (Fキーでキャンセル)", NamedTextColor.YELLOW)
+            );
+            return;
+        }
+
+        Component actionBar = Component.empty();
+
+        for (int i = 0; i < 9; i++) {
+            String skillId = slotData.getSkill(i);
+            int displayKey = i + 1;
+
+            if (skillId == null) {
+                continue;
+            }
+
+            Component keyPrefix = Component.text("[", NamedTextColor.GRAY)
+                    .append(Component.text(displayKey, NamedTextColor.YELLOW))
+                    .append(Component.text("] ", NamedTextColor.GRAY));
+
+            SkillDefinition def = skillLoader.get(skillId);
+            if (def == null) {
+                actionBar = actionBar.append(keyPrefix)
+                        .append(Component.text("ERROR  ", NamedTextColor.RED));
+                continue;
+            }
+
+            boolean onCooldown = cooldownManager.isOnCooldown(uuid, skillId, def.cooldown, def.cooldown_min);
+            boolean notEnoughMana = manaManager.get(uuid).getCurrentMana() < def.manaCost;
+
+            Component display;
+            if (onCooldown) {
+                double remaining = cooldownManager.getRemaining(uuid, skillId, def.cooldown, def.cooldown_min);
+                display = Component.text(def.name, NamedTextColor.RED)
+                        .append(Component.text(" (" + String.format("%.1f", remaining) + "s)", NamedTextColor.DARK_RED));
+            } else if (notEnoughMana) {
+                // マナ不足: 青 + ✗ プレフィクスで明確に区別
+                display = Component.text("✗ ", NamedTextColor.BLUE)
+                        .append(Component.text(def.name, NamedTextColor.BLUE));
+            } else {
+                // 発動可能: 緑 + ボールド
+                display = Component.text(def.name, NamedTextColor.GREEN, TextDecoration.BOLD);
+            }
+
+            actionBar = actionBar.append(keyPrefix).append(display).append(Component.text("  "));
+        }
+
+        DW.ui(player).simpleActionBar(actionBar);
+    }
+
     @Override
     public void shutdown() {
         if (actionBarTask != null && !actionBarTask.isCancelled()) {
@@ -1,6 +1,6 @@
 package com.lunar_prototype.deepwither;
 
-import com.lunar_prototype.deepwither.api.playerdata.IPlayerDataHandler;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
 import com.lunar_prototype.deepwither.core.PlayerCache;
 import java.util.concurrent.CompletableFuture;
 
@@ -20,7 +20,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 @DependsOn({DatabaseManager.class, CacheManager.class})
-public class SkilltreeManager implements IManager, IPlayerDataHandler {
+public class SkilltreeManager implements IManager, IBulkPlayerDataHandler {
     
     private final Gson gson = new Gson();
     private File treeFile;
@@ -93,28 +93,11 @@ public class SkilltreeManager implements IManager, IPlayerDataHandler {
             if (cached != null) return cached;
 
             try (Connection conn = db.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(
-                    "SELECT skill_point, skills FROM player_skilltree WHERE uuid = ?")) {
+                 PreparedStatement ps = conn.prepareStatement(bulkLoadQuery())) {
                 ps.setString(1, uuid.toString());
                 try (ResultSet rs = ps.executeQuery()) {
-                    SkillData data;
-                    if (rs.next()) {
-                        int skillPoint = rs.getInt("skill_point");
-                        String skillsJson = rs.getString("skills");
-                        Map<String, Integer> skillsMap = new HashMap<>();
-
-                        if (skillsJson != null && !skillsJson.isEmpty()) {
-                            skillsMap = gson.fromJson(skillsJson, new TypeToken<Map<String, Integer>>(){}.getType());
-                        }
-
-                        data = new SkillData(skillPoint, skillsMap);
-                    } else {
-                        // ユーザーが見つからない場合はデフォルトデータを生成してキャッシュする。初期ボーナス +2 = 3
-                        data = new SkillData(3, new HashMap<>());
-                    }
-                    data.recalculatePassiveStats(treeConfig);
-                    cache.set(SkillData.class, data);
-                    return data;
+                    applyBulkLoad(uuid, cache, rs);
+                    return cache.get(SkillData.class);
                 }
             } catch (SQLException e) {
                 plugin.getLogger().severe("Failed to load SkillData for " + uuid + " due to database error.");
@@ -123,6 +106,32 @@ public class SkilltreeManager implements IManager, IPlayerDataHandler {
         }
     }
 
+    @Override
+    public String bulkLoadQuery() {
+        return "SELECT skill_point, skills FROM player_skilltree WHERE uuid = ?";
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException {
+        SkillData data;
+        if (rs.next()) {
+            int skillPoint = rs.getInt("skill_point");
+            String skillsJson = rs.getString("skills");
+            Map<String, Integer> skillsMap = new HashMap<>();
+
+            if (skillsJson != null && !skillsJson.isEmpty()) {
+                skillsMap = gson.fromJson(skillsJson, new TypeToken<Map<String, Integer>>(){}.getType());
+            }
+
+            data = new SkillData(skillPoint, skillsMap);
+        } else {
+            // ユーザーが見つからない場合はデフォルトデータを生成してキャッシュする。初期ボーナス +2 = 3
+            data = new SkillData(3, new HashMap<>());
+        }
+        data.recalculatePassiveStats(treeConfig);
+        cache.set(SkillData.class, data);
+    }
+
     /**
      * 非同期でスキルデータを保存します。
      */
@@ -1,6 +1,13 @@
 package com.lunar_prototype.deepwither;
 
+import com.lunar_prototype.deepwither.api.DW;
 import com.lunar_prototype.deepwither.api.stat.IStatManager;
+import com.lunar_prototype.deepwither.api.stat.StatSource;
+import com.lunar_prototype.deepwither.core.CacheManager;
+import com.lunar_prototype.deepwither.core.PlayerCache;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerStatSnapshot;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerTickEffects;
+import com.lunar_prototype.deepwither.item.ItemStatCodec;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import net.kyori.adventure.text.Component;
@@ -11,33 +18,62 @@ import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.attribute.AttributeModifier;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
-@DependsOn({})
+@DependsOn({CacheManager.class})
 public class StatManager implements IManager, IStatManager {
 
     private final Map<UUID, Double> actualCurrentHealth = new HashMap<>();
     private final Map<UUID, StatMap> temporaryBuffs = new HashMap<>();
 
+    // ステータスキャッシュの計測
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder[] sourceRecomputes = newCounters(StatSource.values().length);
+
     private static final UUID ATTACK_DAMAGE_MODIFIER_ID = UUID.fromString("a3bb7af7-3c5b-4df1-a17e-cdeae1db1d32");
     private static final UUID MAX_HEALTH_MODIFIER_ID = UUID.fromString("ff5dd7e3-d781-4fee-b3d4-bfe3a5fda85d");
 
     public static final NamespacedKey VIRTUAL_HP_KEY = new NamespacedKey(Deepwither.getInstance(), "virtual_hp");
     public static final NamespacedKey VIRTUAL_MAX_HP_KEY = new NamespacedKey(Deepwither.getInstance(), "virtual_max_hp");
 
+    /** 装備由来のソース ({@link #getEquipmentFlat}) */
+    private static final StatSource[] EQUIPMENT_PARTS = {
+            StatSource.MAIN_HAND, StatSource.OFF_HAND, StatSource.ARMOR, StatSource.ARTIFACTS, StatSource.BACKPACK
+    };
+
+    /** 手持ち・防具の定期照合の間隔 (tick) */
+    private static final long EQUIPMENT_AUDIT_INTERVAL_TICKS = 20L;
+    private static final EquipmentSlot[] AUDITED_SLOTS = {
+            EquipmentSlot.HAND, EquipmentSlot.OFF_HAND,
+            EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+
+    private BukkitTask equipmentAuditTask;
+
     @Override
     public void init() {
+        equipmentAuditTask = Bukkit.getScheduler().runTaskTimer(Deepwither.getInstance(), this::auditEquipment,
+                EQUIPMENT_AUDIT_INTERVAL_TICKS, EQUIPMENT_AUDIT_INTERVAL_TICKS);
     }
 
     @Override
     public void shutdown() {
+        if (equipmentAuditTask != null) {
+            equipmentAuditTask.cancel();
+            equipmentAuditTask = null;
+        }
     }
 
     @Override
@@ -78,6 +114,10 @@ public class StatManager implements IManager, IStatManager {
     @Override
     public void updatePlayerStats(Player player) {
         StatMap total = getTotalStats(player);
+        CooldownManager cooldownManager = Deepwither.getInstance().getCooldownManager();
+        if (cooldownManager != null) {
+            cooldownManager.refreshReduction(player.getUniqueId(), getEquipmentFlat(player, StatType.COOLDOWN_REDUCTION));
+        }
         syncAttackDamage(player, total);
         syncAttributes(player, total);
         syncBukkitHealth(player);
@@ -85,7 +125,111 @@ public class StatManager implements IManager, IStatManager {
 
     @Override
     public StatMap getTotalStats(Player player) {
-        return getTotalStatsFromEquipment(player);
+        PlayerStatSnapshot snapshot = DW.cache().getCache(player.getUniqueId())
+                .getOrPut(PlayerStatSnapshot.class, PlayerStatSnapshot::new);
+
+        synchronized (snapshot) {
+            checkStamps(player, snapshot);
+            if (!snapshot.isDirty()) {
+                cacheHits.increment();
+                return snapshot.getTotal();
+            }
+
+            cacheMisses.increment();
+            for (StatSource source : snapshot.drainDirty()) {
+                snapshot.setPart(source, computeSource(player, source));
+                sourceRecomputes[source.ordinal()].increment();
+            }
+            return snapshot.rebuildTotal();
+        }
+    }
+
+    @Override
+    public double getEquipmentFlat(Player player, StatType type) {
+        PlayerStatSnapshot snapshot = DW.cache().getCache(player.getUniqueId())
+                .getOrPut(PlayerStatSnapshot.class, PlayerStatSnapshot::new);
+        synchronized (snapshot) {
+            // 無効化されているソースを再計算してから合計する
+            getTotalStats(player);
+            return snapshot.sumFlat(type, EQUIPMENT_PARTS);
+        }
+    }
+
+    @Override
+    public void invalidateStats(UUID playerUUID, StatSource... sources) {
+        CooldownManager cooldownManager = Deepwither.getInstance().getCooldownManager();
+        if (cooldownManager != null) cooldownManager.markReductionStale(playerUUID);
+
+        // 装備が変わった場合は定期処理を持つ特殊効果の一覧も作り直す
+        PlayerTickEffects tickEffects = DW.cache().getCache(playerUUID).get(PlayerTickEffects.class);
+        if (tickEffects != null && affectsEquipment(sources)) {
+            tickEffects.invalidate();
+        }
+
+        PlayerStatSnapshot snapshot = DW.cache().getCache(playerUUID).get(PlayerStatSnapshot.class);
+        if (snapshot == null) return;
+
+        if (sources.length == 0) {
+            snapshot.invalidateAll();
+            return;
+        }
+        for (StatSource source : sources) {
+            snapshot.invalidate(source);
+        }
+    }
+
+    private static boolean affectsEquipment(StatSource[] sources) {
+        if (sources.length == 0) return true;
+        for (StatSource source : sources) {
+            switch (source) {
+                case MAIN_HAND, OFF_HAND, ARMOR, ARTIFACTS, BACKPACK -> {
+                    return true;
+                }
+                default -> {
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ステータスキャッシュのヒット/ミス/ソース別再計算回数を取得します。
+     */
+    public StatCacheMetrics getCacheMetrics() {
+        Map<StatSource, Long> recomputes = new EnumMap<>(StatSource.class);
+        for (StatSource source : StatSource.values()) {
+            recomputes.put(source, sourceRecomputes[source.ordinal()].sum());
+        }
+        return new StatCacheMetrics(cacheHits.sum(), cacheMisses.sum(), recomputes);
+    }
+
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    public void resetCacheMetrics() {
+        cacheHits.reset();
+        cacheMisses.reset();
+        for (LongAdder counter : sourceRecomputes) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * ステータスキャッシュの計測値。
+     * @param hits 再計算なしで返せた回数
+     * @param misses 1つ以上のソースを再計算した回数
+     * @param recomputes ソースごとの再計算回数
+     */
+    public record StatCacheMetrics(long hits, long misses, Map<StatSource, Long> recomputes) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
     }
 
     @Override
@@ -97,11 +241,13 @@ public class StatManager implements IManager, IStatManager {
     @Override
     public void applyTemporaryBuff(UUID playerUUID, StatMap buff) {
         temporaryBuffs.put(playerUUID, buff);
+        invalidateStats(playerUUID, StatSource.BUFF);
     }
 
     @Override
     public void removeTemporaryBuff(UUID playerUUID) {
         temporaryBuffs.remove(playerUUID);
+        invalidateStats(playerUUID, StatSource.BUFF);
     }
 
     public void resetHealthOnEvent(Player player, boolean isLogin) {
@@ -221,91 +367,163 @@ public class StatManager implements IManager, IStatManager {
 
     @Deprecated
     public static StatMap getTotalStatsFromEquipment(Player player) {
-        StatMap total = new StatMap();
-        PlayerLevelData data = Deepwither.getInstance().getLevelManager().get(player);
-        int level = data != null ? data.getLevel() : 1;
-
-        // 体力の基礎値とレベルボーナスを最初に追加 (これでパーセント補正が基礎値にも乗るようになる)
-        double baseHp = 20.0;
-        double levelhp = 2 * level;
-        total.addFlat(StatType.MAX_HEALTH, baseHp + levelhp);
-
-        // マナの基礎値を追加
-        double baseMana = 100.0;
-        total.addFlat(StatType.MAX_MANA, baseMana);
-
-        ItemStack mainHand = player.getInventory().getItemInMainHand();
-        if (shouldReadStats(mainHand)) {
-            total.add(readStatsFromItem(mainHand));
-        }
-
-        for (ItemStack armor : player.getInventory().getArmorContents()) {
-            total.add(readStatsFromItem(armor));
-        }
-
-        List<ItemStack> artifacts = Deepwither.getInstance().getArtifactManager().getPlayerArtifacts(player);
-        for (ItemStack artifact : artifacts) {
-            total.add(readStatsFromItem(artifact));
-        }
-        total.add(Deepwither.getInstance().getArtifactManager().getFullSetBonus(artifacts));
-
-        ItemStack backpack = Deepwither.getInstance().getArtifactManager().getPlayerBackpack(player);
-        total.add(readStatsFromItem(backpack));
-
-        ItemStack offHand = player.getInventory().getItemInOffHand();
-        if (isOffHandEquipment(offHand)) {
-            total.add(readStatsFromItem(offHand));
-        }
-
-        PlayerAttributeData attr = Deepwither.getInstance().getAttributeManager().get(player.getUniqueId());
-        if (attr != null) {
-            for (StatType type : StatType.values()) {
-                int points = attr.getAllocated(type);
-                switch (type) {
-                    case STR -> {
-                        double currentPercent = total.getPercent(StatType.ATTACK_DAMAGE);
-                        total.setPercent(StatType.ATTACK_DAMAGE, currentPercent + (points * 1.0));
-                    }
-                    case VIT -> {
-                        double hpPercent = total.getPercent(StatType.MAX_HEALTH);
-                        total.setPercent(StatType.MAX_HEALTH, hpPercent + (points * 1.0));
-                        double defPercent = total.getPercent(StatType.DEFENSE);
-                        total.setPercent(StatType.DEFENSE, defPercent + (points * 0.5));
-                    }
-                    case MND -> {
-                        double val = total.getFlat(StatType.CRIT_DAMAGE);
-                        total.setFlat(StatType.CRIT_DAMAGE, val + points * 1.5);
-                        double pDmgPercent = total.getPercent(StatType.PROJECTILE_DAMAGE);
-                        total.setPercent(StatType.PROJECTILE_DAMAGE, pDmgPercent + (points * 1.5));
-                        double manaRegenPercent = total.getPercent(StatType.MANA_REGEN);
-                        total.setPercent(StatType.MANA_REGEN, manaRegenPercent + (points * 1.5));
-                    }
-                    case INT -> {
-                        double cdVal = total.getFlat(StatType.COOLDOWN_REDUCTION);
-                        total.setFlat(StatType.COOLDOWN_REDUCTION, cdVal + points * 0.1);
-                        double manaPercent = total.getPercent(StatType.MAX_MANA);
-                        total.setPercent(StatType.MAX_MANA, manaPercent + (points * 2.0));
-                    }
-                    case AGI -> {
-                        double critChanceVal = total.getFlat(StatType.CRIT_CHANCE);
-                        total.setFlat(StatType.CRIT_CHANCE, critChanceVal + points * 0.1);
-                    }
-                }
-            }
+        return Deepwither.getInstance().getStatManager().getTotalStats(player);
+    }
+
+    /**
+     * 装備以外のソースについて、状態を表すスタンプを照合して変更を検知します。
+     * 手持ち・防具はイベント ({@link PlayerStatListener}) と {@link #auditEquipment()} で検知するため、ここでは照合しません。
+     */
+    private void checkStamps(Player player, PlayerStatSnapshot snapshot) {
+        UUID uuid = player.getUniqueId();
+
+        // アーティファクトは装備の構成 (変更のたびに作り直される) とそのバージョンで判定する
+        ArtifactLoadout loadout = Deepwither.getInstance().getArtifactManager().getLoadout(player);
+        if (snapshot.checkStamp(StatSource.ARTIFACTS, loadout, loadout.getVersion())) {
+            PlayerTickEffects tickEffects = DW.cache().getCache(uuid).get(PlayerTickEffects.class);
+            if (tickEffects != null) tickEffects.invalidate();
         }
 
-        SkillData skillData = Deepwither.getInstance().getSkilltreeManager().load(player.getUniqueId());
-        if (skillData != null) {
-            total.add(skillData.getPassiveStats());
+        PlayerLevelData level = Deepwither.getInstance().getLevelManager().get(player);
+        snapshot.checkStamp(StatSource.BASE, level, level != null ? level.getLevel() : 1);
+
+        PlayerAttributeData attr = Deepwither.getInstance().getAttributeManager().get(uuid);
+        snapshot.checkStamp(StatSource.ATTRIBUTES, attr, attr != null ? attr.getVersion() : 0);
+
+        SkillData skillData = DW.cache().getCache(uuid).get(SkillData.class);
+        snapshot.checkStamp(StatSource.SKILL_TREE, skillData != null ? skillData.getPassiveStats() : null, 0);
+
+        snapshot.checkStamp(StatSource.BUFF, temporaryBuffs.get(uuid), 0);
+    }
+
+    /**
+     * イベントを伴わない手持ち・防具の変更 (プラグインからの setItemInMainHand、/give、/clear、GUI からの防具の書き換えなど) を拾うため、
+     * {@value #EQUIPMENT_AUDIT_INTERVAL_TICKS} tick ごとに前回確認したアイテムと比較し、変わったスロットのソースを無効化します。
+     * 通常の装備変更はイベントで即座に無効化されるため、ここでの検知は遅れても問題ありません。
+     */
+    private void auditEquipment() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            PlayerCache cache = DW.cache().getCacheIfPresent(player.getUniqueId());
+            PlayerStatSnapshot snapshot = cache != null ? cache.get(PlayerStatSnapshot.class) : null;
+            if (snapshot == null) continue;
+
+            PlayerInventory inventory = player.getInventory();
+            boolean hands = false, armor = false;
+            for (int i = 0; i < AUDITED_SLOTS.length; i++) {
+                if (!snapshot.auditEquipment(i, inventory.getItem(AUDITED_SLOTS[i]))) continue;
+                if (i < 2) hands = true;
+                else armor = true;
+            }
+            if (hands && armor) {
+                invalidateStats(player.getUniqueId(), StatSource.EQUIPMENT);
+            } else if (hands) {
+                invalidateStats(player.getUniqueId(), StatSource.MAIN_HAND, StatSource.OFF_HAND);
+            } else if (armor) {
+                invalidateStats(player.getUniqueId(), StatSource.ARMOR);
+            }
         }
+    }
 
-        StatManager instance = (StatManager) Deepwither.getInstance().getStatManager();
-        StatMap tempBuff = instance.temporaryBuffs.get(player.getUniqueId());
-        if (tempBuff != null) {
-            total.add(tempBuff);
+    private StatMap computeSource(Player player, StatSource source) {
+        StatMap part = new StatMap();
+        switch (source) {
+            case BASE -> {
+                PlayerLevelData data = Deepwither.getInstance().getLevelManager().get(player);
+                int level = data != null ? data.getLevel() : 1;
+
+                // 体力の基礎値とレベルボーナス (これでパーセント補正が基礎値にも乗るようになる)
+                double baseHp = 20.0;
+                double levelhp = 2 * level;
+                part.addFlat(StatType.MAX_HEALTH, baseHp + levelhp);
+
+                // マナの基礎値
+                double baseMana = 100.0;
+                part.addFlat(StatType.MAX_MANA, baseMana);
+            }
+            case MAIN_HAND -> {
+                ItemStack mainHand = player.getInventory().getItemInMainHand();
+                if (shouldReadStats(mainHand)) {
+                    ItemStatCodec.readInto(mainHand, part);
+                }
+            }
+            case ARMOR -> {
+                for (ItemStack armor : player.getInventory().getArmorContents()) {
+                    ItemStatCodec.readInto(armor, part);
+                }
+            }
+            case OFF_HAND -> {
+                ItemStack offHand = player.getInventory().getItemInOffHand();
+                if (isOffHandEquipment(offHand)) {
+                    ItemStatCodec.readInto(offHand, part);
+                }
+            }
+            case ARTIFACTS -> {
+                ArtifactLoadout loadout = Deepwither.getInstance().getArtifactManager().getLoadout(player);
+                for (ItemStack artifact : loadout.getArtifacts()) {
+                    ItemStatCodec.readInto(artifact, part);
+                }
+                part.add(loadout.getFullSetBonus());
+            }
+            case BACKPACK -> {
+                ItemStack backpack = Deepwither.getInstance().getArtifactManager().getPlayerBackpack(player);
+                ItemStatCodec.readInto(backpack, part);
+            }
+            case ATTRIBUTES -> {
+                PlayerAttributeData attr = Deepwither.getInstance().getAttributeManager().get(player.getUniqueId());
+                if (attr != null) {
+                    applyAttributeBonus(part, attr);
+                }
+            }
+            case SKILL_TREE -> {
+                SkillData skillData = Deepwither.getInstance().getSkilltreeManager().load(player.getUniqueId());
+                if (skillData != null) {
+                    part.add(skillData.getPassiveStats());
+                }
+            }
+            case BUFF -> {
+                StatMap tempBuff = temporaryBuffs.get(player.getUniqueId());
+                if (tempBuff != null) {
+                    part.add(tempBuff);
+                }
+            }
         }
+        return part;
+    }
 
-        return total;
+    private static void applyAttributeBonus(StatMap total, PlayerAttributeData attr) {
+        for (StatType type : StatType.values()) {
+            int points = attr.getAllocated(type);
+            switch (type) {
+                case STR -> {
+                    double currentPercent = total.getPercent(StatType.ATTACK_DAMAGE);
+                    total.setPercent(StatType.ATTACK_DAMAGE, currentPercent + (points * 1.0));
+                }
+                case VIT -> {
+                    double hpPercent = total.getPercent(StatType.MAX_HEALTH);
+                    total.setPercent(StatType.MAX_HEALTH, hpPercent + (points * 1.0));
+                    double defPercent = total.getPercent(StatType.DEFENSE);
+                    total.setPercent(StatType.DEFENSE, defPercent + (points * 0.5));
+                }
+                case MND -> {
+                    double val = total.getFlat(StatType.CRIT_DAMAGE);
+                    total.setFlat(StatType.CRIT_DAMAGE, val + points * 1.5);
+                    double pDmgPercent = total.getPercent(StatType.PROJECTILE_DAMAGE);
+                    total.setPercent(StatType.PROJECTILE_DAMAGE, pDmgPercent + (points * 1.5));
+                    double manaRegenPercent = total.getPercent(StatType.MANA_REGEN);
+                    total.setPercent(StatType.MANA_REGEN, manaRegenPercent + (points * 1.5));
+                }
+                case INT -> {
+                    double cdVal = total.getFlat(StatType.COOLDOWN_REDUCTION);
+                    total.setFlat(StatType.COOLDOWN_REDUCTION, cdVal + points * 0.1);
+                    double manaPercent = total.getPercent(StatType.MAX_MANA);
+                    total.setPercent(StatType.MAX_MANA, manaPercent + (points * 2.0));
+                }
+                case AGI -> {
+                    double critChanceVal = total.getFlat(StatType.CRIT_CHANCE);
+                    total.setFlat(StatType.CRIT_CHANCE, critChanceVal + points * 0.1);
+                }
+            }
+        }
     }
 
     public static double getEffectiveCooldown(Player player, double baseCooldown) {
@@ -316,22 +534,7 @@ public class StatManager implements IManager, IStatManager {
 
     @Deprecated
     public static StatMap readStatsFromItem(ItemStack item) {
-        StatMap stats = new StatMap();
-        if (item == null || !item.hasItemMeta())
-            return stats;
-
-        PersistentDataContainer container = item.getItemMeta().getPersistentDataContainer();
-        for (StatType type : StatType.values()) {
-            Double flat = container.get(new NamespacedKey("rpgstats", type.name().toLowerCase() + "_flat"),
-                    PersistentDataType.DOUBLE);
-            Double percent = container.get(new NamespacedKey("rpgstats", type.name().toLowerCase() + "_percent"),
-                    PersistentDataType.DOUBLE);
-            if (flat != null)
-                stats.setFlat(type, flat);
-            if (percent != null)
-                stats.setPercent(type, percent);
-        }
-        return stats;
+        return ItemStatCodec.read(item);
     }
 
     public static void syncAttackDamage(Player player, StatMap stats) {
@@ -409,11 +612,8 @@ public class StatManager implements IManager, IStatManager {
         if (item == null || !item.hasItemMeta())
             return false;
 
-        ItemMeta meta = item.getItemMeta();
-        PersistentDataContainer pdc = meta.getPersistentDataContainer();
-        
-        // PDCからアイテムタイプを取得 (ItemFactory.ITEM_TYPE_KEYを使用)
-        String itemType = pdc.get(ItemFactory.ITEM_TYPE_KEY, PersistentDataType.STRING);
+        // PDCからアイテムタイプを取得 (ItemFactory.ITEM_TYPE_KEYを使用、メタを複製しない読み取り専用ビュー)
+        String itemType = item.getPersistentDataContainer().get(ItemFactory.ITEM_TYPE_KEY, PersistentDataType.STRING);
         
         if (itemType != null && itemType.equals("オフハンド装備")) {
             return true;
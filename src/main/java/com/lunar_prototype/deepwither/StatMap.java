@@ -1,63 +1,97 @@
 package com.lunar_prototype.deepwither;
 
-import java.util.EnumMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.EnumSet;
 import java.util.Set;
 
+/**
+ * StatType ごとの Flat 値と Percent 値を保持するマップ。
+ *
+ * <p>
+ * 値は {@link StatType#ordinal()} をインデックスとする double 配列に保持し、
+ * 一度でも設定された StatType をビットセットで記録します。
+ * {@link #add(StatMap)} と {@link #multiplyAll(double)} は設定済みのビットだけを走査し、オブジェクトを生成しません。
+ * 丸めは {@link #getFinal(StatType)} と表示側 ({@link #round(double)}) でのみ行います。
+ * </p>
+ */
 public class StatMap {
-    private final Map<StatType, Double> flatValues = new EnumMap<>(StatType.class);
-    private final Map<StatType, Double> percentValues = new EnumMap<>(StatType.class);
+    private static final StatType[] TYPES = StatType.values();
+    private static final int WORDS = (TYPES.length + 63) >>> 6;
+
+    private final double[] flatValues = new double[TYPES.length];
+    private final double[] percentValues = new double[TYPES.length];
+    // 値が設定された StatType のビットセット
+    private final long[] present = new long[WORDS];
 
     public void setFlat(StatType type, double value) {
-        flatValues.put(type, round(value));
+        int i = type.ordinal();
+        flatValues[i] = value;
+        mark(i);
     }
 
     public void setPercent(StatType type, double value) {
-        percentValues.put(type, round(value));
+        int i = type.ordinal();
+        percentValues[i] = value;
+        mark(i);
     }
 
-    private double round(double value) {
+    /**
+     * 表示用に小数第2位で丸めます。
+     */
+    public static double round(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
 
     public double getFlat(StatType type) {
-        return flatValues.getOrDefault(type, 0.0);
+        return flatValues[type.ordinal()];
     }
 
     public double getPercent(StatType type) {
-        return percentValues.getOrDefault(type, 0.0);
+        return percentValues[type.ordinal()];
     }
 
     public double getFinal(StatType type) {
-        double flat = getFlat(type);
-        double percent = getPercent(type);
-        return Math.round((flat * (1 + percent / 100.0)) * 100.0) / 100.0;
+        int i = type.ordinal();
+        return round(flatValues[i] * (1 + percentValues[i] / 100.0));
     }
 
     public void addFlat(StatType type, double value) {
-        double newValue = getFlat(type) + value;
-        setFlat(type, newValue);
+        int i = type.ordinal();
+        flatValues[i] += value;
+        mark(i);
     }
 
     public void addPercent(StatType type, double value) {
-        double newValue = getPercent(type) + value;
-        setPercent(type, newValue);
+        int i = type.ordinal();
+        percentValues[i] += value;
+        mark(i);
     }
 
     public void add(StatMap other) {
-        for (StatType type : other.getAllTypes()) {
-            double flat = this.getFlat(type) + other.getFlat(type);
-            double percent = this.getPercent(type) + other.getPercent(type);
-            this.setFlat(type, flat);
-            this.setPercent(type, percent);
+        long[] otherPresent = other.present;
+        for (int w = 0; w < WORDS; w++) {
+            long bits = otherPresent[w];
+            present[w] |= bits;
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                flatValues[i] += other.flatValues[i];
+                percentValues[i] += other.percentValues[i];
+                bits &= bits - 1;
+            }
         }
     }
 
+    /**
+     * 値が設定されている StatType の集合を返します（表示用。呼び出しごとに生成されます）。
+     */
     public Set<StatType> getAllTypes() {
-        Set<StatType> types = new HashSet<>();
-        types.addAll(flatValues.keySet());
-        types.addAll(percentValues.keySet());
+        Set<StatType> types = EnumSet.noneOf(StatType.class);
+        for (int w = 0; w < WORDS; w++) {
+            long bits = present[w];
+            while (bits != 0) {
+                types.add(TYPES[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
         return types;
     }
 
@@ -66,15 +100,18 @@ public class StatMap {
      * * @param multiplier 乗数 (例: 1.10 for +10% boost)
      */
     public void multiplyAll(double multiplier) {
-        for (StatType type : getAllTypes()) {
-            double currentFlat = getFlat(type);
-            double currentPercent = getPercent(type);
-
-            // Flat値を更新
-            setFlat(type, currentFlat * multiplier);
-
-            // Percent値を更新
-            setPercent(type, currentPercent * multiplier);
+        for (int w = 0; w < WORDS; w++) {
+            long bits = present[w];
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                flatValues[i] *= multiplier;
+                percentValues[i] *= multiplier;
+                bits &= bits - 1;
+            }
         }
     }
+
+    private void mark(int index) {
+        present[index >>> 6] |= 1L << index;
+    }
 }
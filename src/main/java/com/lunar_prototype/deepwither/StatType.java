@@ -395,7 +395,7 @@ class LoreBuilder {
                     .append(Component.text("+" + Math.round(percent) + "%", NamedTextColor.GREEN))
                     .append(Component.text(")", NamedTextColor.WHITE));
         } else {
-            valComp = Component.text(String.valueOf(flat));
+            valComp = Component.text(String.valueOf(StatMap.round(flat)));
         }
 
         return Component.text("• ", NamedTextColor.WHITE)
@@ -1,5 +1,6 @@
 package com.lunar_prototype.deepwither;
 
+import com.lunar_prototype.deepwither.core.ParticleRenderer;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
@@ -9,13 +10,23 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.List;
+
 /**
  * 武器の特殊エフェクト（視覚効果）を描画するための定期タスク。
+ *
+ * <p>螺旋の座標は {@link ParticleRenderer.Helix} で事前計算し、表示は {@link ParticleRenderer} が
+ * 近くの (エフェクト表示を有効にしている) プレイヤーにだけ送ります。</p>
  */
 public class WeaponEffectTask extends BukkitRunnable {
     private final Deepwither plugin;
     private int ticks = 0;
 
+    // 半径, 高さ, パーティクルの垂直間隔, 回転速度, ねじれ
+    private static final ParticleRenderer.Helix LAVA_HELIX = new ParticleRenderer.Helix(1.0, 2.0, 0.5, 0.3, 2.5);
+    private static final ParticleRenderer.Helix OCEAN_HELIX = new ParticleRenderer.Helix(1.0, 2.0, 0.4, 0.25, 2.0);
+    private static final ParticleRenderer.Helix ABYSS_HELIX = new ParticleRenderer.Helix(0.8, 2.2, 0.3, -0.2, 3.0); // 逆回転
+
     public WeaponEffectTask(Deepwither plugin) {
         this.plugin = plugin;
     }
@@ -23,13 +34,10 @@ public class WeaponEffectTask extends BukkitRunnable {
     @Override
     public void run() {
         ticks++;
-        PlayerSettingsManager settingsManager = plugin.get(PlayerSettingsManager.class);
+        ParticleRenderer renderer = plugin.get(ParticleRenderer.class);
+        if (renderer == null) return;
 
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (settingsManager != null && !settingsManager.isEnabled(player, PlayerSettingsManager.SettingType.WEAPON_EFFECT)) {
-                continue;
-            }
-
             ItemStack item = player.getInventory().getItemInMainHand();
             if (item == null || item.getType().isAir() || !item.hasItemMeta()) continue;
 
@@ -37,93 +45,78 @@ public class WeaponEffectTask extends BukkitRunnable {
             if (meta == null) continue;
 
             String effect = meta.getPersistentDataContainer().get(ItemLoader.WEAPON_EFFECT_KEY, PersistentDataType.STRING);
+            if (effect == null) continue;
+
+            // 見る人がいなければ計算しない (表示設定は見る側のものを使う)
+            Location loc = player.getLocation();
+            List<Player> viewers = renderer.getViewers(loc);
+            if (viewers.isEmpty()) continue;
 
             if ("lava".equals(effect)) {
-                spawnLavaHelix(player);
+                spawnLavaHelix(renderer, viewers, loc);
             } else if ("ocean".equals(effect)) {
-                spawnOceanHelix(player);
+                spawnOceanHelix(renderer, viewers, loc);
             } else if ("abyss".equals(effect)) {
-                spawnAbyssHelix(player);
+                spawnAbyssHelix(renderer, viewers, loc);
             }
         }
     }
 
-    private void spawnLavaHelix(Player player) {
-        Location loc = player.getLocation();
-        double radius = 1.0;    // 螺旋の半径
-        double heightMax = 2.0; // 螺旋の高さ
-        double step = 0.5;      // パーティクルの垂直間隔 (0.25から0.5に増やして密度を減少)
-        double speed = 0.3;     // 回転速度
-
+    private void spawnLavaHelix(ParticleRenderer renderer, List<Player> viewers, Location loc) {
+        int phase = LAVA_HELIX.phase(ticks);
         // プレイヤーの周囲に炎の螺旋を描画
-        for (double y = 0; y <= heightMax; y += step) {
-            // 時間(ticks)と高さ(y)を組み合わせて螺旋の角度を計算
-            double angle = (ticks * speed) + (y * 2.5);
-            double x = Math.cos(angle) * radius;
-            double z = Math.sin(angle) * radius;
-
-            Location particleLoc = loc.clone().add(x, y, z);
-            
+        for (int i = 0; i < LAVA_HELIX.size(); i++) {
+            double y = LAVA_HELIX.height(i);
+            double px = loc.getX() + LAVA_HELIX.offsetX(phase, i);
+            double py = loc.getY() + y;
+            double pz = loc.getZ() + LAVA_HELIX.offsetZ(phase, i);
+
             // 軽く揺らぎを加える
-            player.getWorld().spawnParticle(Particle.FLAME, particleLoc, 1, 0.02, 0.02, 0.02, 0.01);
-            
+            renderer.queue(viewers, Particle.FLAME, px, py, pz, 1, 0.02, 0.02, 0.02, 0.01, null);
+
             // 頂点付近には煙を少し混ぜる
             if (y > 1.5 && ticks % 4 == 0) {
-                player.getWorld().spawnParticle(Particle.SMOKE, particleLoc, 1, 0, 0, 0, 0.01);
+                renderer.queue(viewers, Particle.SMOKE, px, py, pz, 1, 0, 0, 0, 0.01, null);
             }
         }
     }
 
-    private void spawnOceanHelix(Player player) {
-        Location loc = player.getLocation();
-        double radius = 1.0;
-        double heightMax = 2.0;
-        double step = 0.4;
-        double speed = 0.25;
-
-        for (double y = 0; y <= heightMax; y += step) {
-            double angle = (ticks * speed) + (y * 2.0);
-            double x = Math.cos(angle) * radius;
-            double z = Math.sin(angle) * radius;
+    private void spawnOceanHelix(ParticleRenderer renderer, List<Player> viewers, Location loc) {
+        int phase = OCEAN_HELIX.phase(ticks);
+        for (int i = 0; i < OCEAN_HELIX.size(); i++) {
+            double px = loc.getX() + OCEAN_HELIX.offsetX(phase, i);
+            double py = loc.getY() + OCEAN_HELIX.height(i);
+            double pz = loc.getZ() + OCEAN_HELIX.offsetZ(phase, i);
 
-            Location particleLoc = loc.clone().add(x, y, z);
-            
             // 泡と水しぶき
-            player.getWorld().spawnParticle(Particle.BUBBLE, particleLoc, 1, 0.05, 0.05, 0.05, 0.02);
+            renderer.queue(viewers, Particle.BUBBLE, px, py, pz, 1, 0.05, 0.05, 0.05, 0.02, null);
             if (ticks % 2 == 0) {
-                player.getWorld().spawnParticle(Particle.SPLASH, particleLoc, 1, 0.02, 0.02, 0.02, 0.01);
+                renderer.queue(viewers, Particle.SPLASH, px, py, pz, 1, 0.02, 0.02, 0.02, 0.01, null);
             }
         }
-        
+
         // 足元に波紋のような演出
         if (ticks % 10 == 0) {
-            player.getWorld().spawnParticle(Particle.DRIPPING_WATER, loc, 3, 0.5, 0.1, 0.5, 0.05);
+            renderer.queue(viewers, Particle.DRIPPING_WATER, loc.getX(), loc.getY(), loc.getZ(), 3, 0.5, 0.1, 0.5, 0.05, null);
         }
     }
 
-    private void spawnAbyssHelix(Player player) {
-        Location loc = player.getLocation();
-        double radius = 0.8;
-        double heightMax = 2.2;
-        double step = 0.3;
-        double speed = -0.2; // 逆回転
-
-        for (double y = 0; y <= heightMax; y += step) {
-            double angle = (ticks * speed) + (y * 3.0);
-            double x = Math.cos(angle) * radius;
-            double z = Math.sin(angle) * radius;
+    private void spawnAbyssHelix(ParticleRenderer renderer, List<Player> viewers, Location loc) {
+        int phase = ABYSS_HELIX.phase(ticks);
+        for (int i = 0; i < ABYSS_HELIX.size(); i++) {
+            double px = loc.getX() + ABYSS_HELIX.offsetX(phase, i);
+            double py = loc.getY() + ABYSS_HELIX.height(i);
+            double pz = loc.getZ() + ABYSS_HELIX.offsetZ(phase, i);
 
-            Location particleLoc = loc.clone().add(x, y, z);
-            
             // 黒い煙と龍の息（紫色）
-            player.getWorld().spawnParticle(Particle.LARGE_SMOKE, particleLoc, 1, 0.02, 0.02, 0.02, 0.01);
+            renderer.queue(viewers, Particle.LARGE_SMOKE, px, py, pz, 1, 0.02, 0.02, 0.02, 0.01, null);
             if (ticks % 3 == 0) {
-                player.getWorld().spawnParticle(Particle.DRAGON_BREATH, particleLoc, 1, 0.01, 0.01, 0.01, 0.005);
+                renderer.queue(viewers, Particle.DRAGON_BREATH, px, py, pz, 1, 0.01, 0.01, 0.01, 0.005, null);
             }
-            
+
             // 時折白い火花（深淵の裂け目）
             if (ticks % 15 == 0 && Math.random() < 0.2) {
-                player.getWorld().spawnParticle(Particle.END_ROD, particleLoc, 1, 0, 0, 0, 0.01);
+                renderer.queue(viewers, Particle.END_ROD, px, py, pz, 1, 0, 0, 0, 0.01, null);
             }
         }
     }
@@ -144,7 +144,7 @@ public class WeaponMechanicManager implements IManager {
         victim.getWorld().spawnParticle(Particle.SPLASH, victim.getLocation().add(0, 1, 0), 20, 0.5, 0.5, 0.5, 0.1);
         victim.getWorld().playSound(victim.getLocation(), Sound.ENTITY_PLAYER_SPLASH_HIGH_SPEED, 1.0f, 1.2f);
 
-        cm.setCooldown(attacker.getUniqueId(), skillId);
+        cm.setCooldown(attacker.getUniqueId(), skillId, 8.0, 1.0);
     }
 
     private void handleAbyssEffect(DamageContext context) {
@@ -173,7 +173,7 @@ public class WeaponMechanicManager implements IManager {
         victim.getWorld().playSound(victim.getLocation(), Sound.ENTITY_WITHER_AMBIENT, 0.6f, 0.5f);
         
         uiManager.of(attacker).combatAction("深淵の侵食", NamedTextColor.DARK_PURPLE);
-        cm.setCooldown(attacker.getUniqueId(), skillId);
+        cm.setCooldown(attacker.getUniqueId(), skillId, 8.0, 1.0);
     }
 
     private void handleHalberdAttack(Player attacker, LivingEntity target, double damage, DamageProcessor processor) {
@@ -0,0 +1,29 @@
+package com.lunar_prototype.deepwither.api.playerdata;
+
+import com.lunar_prototype.deepwither.core.PlayerCache;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * ログイン時の一括ロードに参加するハンドラー。
+ * PlayerDataManager は 1 つの接続で各ハンドラーの {@link #bulkLoadQuery()} を順に実行し、結果を {@link #applyBulkLoad} に渡します。
+ * 一括ロードに失敗した場合は {@link #loadData} が個別に呼び出されます。
+ */
+public interface IBulkPlayerDataHandler extends IPlayerDataHandler {
+
+    /**
+     * プレイヤー 1 人分の行を取得する SELECT 文。唯一のパラメータにプレイヤーの UUID 文字列が渡されます。
+     */
+    String bulkLoadQuery();
+
+    /**
+     * 結果セット (先頭行の前) からデータを読み込み、キャッシュに格納します。
+     * 行が存在しない場合は初期データを格納してください。
+     * @param uuid 対象プレイヤーのUUID
+     * @param cache 対象プレイヤーのキャッシュコンテナ
+     * @param rs {@link #bulkLoadQuery()} の結果
+     */
+    void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException;
+}
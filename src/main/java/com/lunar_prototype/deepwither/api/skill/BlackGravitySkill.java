@@ -13,7 +13,6 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Collection;
@@ -37,7 +36,7 @@ public class BlackGravitySkill implements ISkillLogic {
         // チャージ開始音
         caster.getWorld().playSound(caster.getLocation(), Sound.ENTITY_EVOKER_PREPARE_ATTACK, 1.2f, 0.5f);
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int chargeTicks = 0;
             final int maxCharge = 60; // 3秒
 
@@ -70,7 +69,7 @@ public class BlackGravitySkill implements ISkillLogic {
                 }
                 chargeTicks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -119,13 +118,13 @@ public class BlackGravitySkill implements ISkillLogic {
                 this.cancel();
             }
 
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 
     private void startBlackHole(LivingEntity caster, Location center, int level) {
         final java.util.UUID blackHoleId = java.util.UUID.randomUUID();
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final int maxTicks = 40; // 80 -> 40 (2秒) に短縮
             final java.util.Set<java.util.UUID> centeredEntities = new java.util.HashSet<>();
@@ -236,6 +235,6 @@ public class BlackGravitySkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
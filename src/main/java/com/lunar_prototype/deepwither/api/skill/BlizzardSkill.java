@@ -10,7 +10,6 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.RayTraceResult;
 import org.bukkit.util.Vector;
 
@@ -42,7 +41,7 @@ public class BlizzardSkill implements ISkillLogic {
     }
 
     private void startBlizzard(LivingEntity caster, Location center, int level) {
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final int maxTicks = 80; // 4秒間 (repeat=80)
 
@@ -94,7 +93,7 @@ public class BlizzardSkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 
     private void applyBlizzardDamage(LivingEntity caster, Location center, int level) {
@@ -9,7 +9,6 @@ import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -62,7 +61,7 @@ public class BloodReversalFieldSkill implements ISkillLogic {
         player.getWorld().spawnParticle(Particle.DAMAGE_INDICATOR, player.getLocation().add(0, 1, 0), 8);
 
         // 持続中のパーティクル演出 (120tick)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             @Override
             public void run() {
@@ -81,7 +80,7 @@ public class BloodReversalFieldSkill implements ISkillLogic {
                 }
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         player.sendMessage(Component.text(">>> ", NamedTextColor.DARK_GRAY)
                 .append(Component.text("反転血界", NamedTextColor.DARK_RED))
@@ -9,7 +9,6 @@ import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 /**
@@ -52,7 +51,7 @@ public class CelestialHealSkill implements ISkillLogic {
         loc.getWorld().playSound(loc, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.8f, 1.8f);
 
         // 演出用スレッド (数ミリ秒間の継続エフェクト)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             @Override
             public void run() {
@@ -91,6 +90,6 @@ public class CelestialHealSkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
@@ -10,7 +10,6 @@ import org.bukkit.Sound;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Collection;
@@ -40,7 +39,7 @@ public class ChargeWarriorSkill implements ISkillLogic {
         caster.getWorld().playSound(caster.getLocation(), Sound.ITEM_ARMOR_EQUIP_CHAIN, 1.0f, 0.8f);
 
         // 2. 継続タスク (repeat=20;i=1)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final Set<UUID> hitEntities = new HashSet<>();
             
@@ -117,7 +116,7 @@ public class ChargeWarriorSkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -5,7 +5,6 @@ import com.lunar_prototype.deepwither.SkillDefinition;
 import org.bukkit.Location;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Collections;
@@ -25,7 +24,7 @@ public class ClusterExplosionArrowSkill implements ISkillLogic {
     @Override
     public boolean cast(LivingEntity caster, SkillDefinition def, int level) {
         // 7発連射タスク (10発から削減)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int count = 0;
 
             @Override
@@ -50,11 +49,11 @@ public class ClusterExplosionArrowSkill implements ISkillLogic {
                 // 発射
                 ClusterArrowProjectile arrow = new ClusterArrowProjectile(caster, eyeLoc, direction);
                 activeArrows.add(arrow);
-                arrow.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+                arrow.schedule();
 
                 count++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
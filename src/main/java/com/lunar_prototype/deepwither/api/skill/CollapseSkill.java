@@ -7,7 +7,6 @@ import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 /**
  * 崩落スキル: Collapse
@@ -27,7 +26,7 @@ public class CollapseSkill implements ISkillLogic {
         player.getWorld().playSound(player.getLocation(), Sound.BLOCK_AMETHYST_BLOCK_CHIME, 1.0f, 0.8f);
 
         // オーラ演出 (金色の粒子をまとわせる)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             @Override
             public void run() {
@@ -46,7 +45,7 @@ public class CollapseSkill implements ISkillLogic {
                 ticks++;
                 if (ticks > 120) this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 2L);
+        }.schedule(0L, 2L);
 
         return true;
     }
@@ -106,7 +106,7 @@ public class CrimsonSpearSkill implements ISkillLogic {
                 playImpactEffects(block.getLocation().add(0.5, 0.5, 0.5));
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -41,7 +41,7 @@ public class DarkStarSkill implements ISkillLogic {
             
             DarkStarProjectile projectile = new DarkStarProjectile(caster, caster.getEyeLocation().add(caster.getEyeLocation().getDirection()), spreadDir);
             activeProjectiles.add(projectile);
-            projectile.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+            projectile.schedule();
         }
         return true;
     }
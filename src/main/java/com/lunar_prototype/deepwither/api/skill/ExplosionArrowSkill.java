@@ -60,7 +60,7 @@ public class ExplosionArrowSkill implements ISkillLogic {
                 com.lunar_prototype.deepwither.api.skill.utils.ExplosionUtil.triggerExplosionArrowEffect(caster, currentLocation);
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
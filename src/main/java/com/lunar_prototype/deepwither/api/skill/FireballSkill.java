@@ -88,7 +88,7 @@ public class FireballSkill implements ISkillLogic {
                 
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L); // 1tickごとにTick
+        }.schedule(); // 1tickごとにTick
 
         return true;
     }
@@ -10,7 +10,6 @@ import org.bukkit.Sound;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Collection;
@@ -27,7 +26,7 @@ public class FlashSlashSkill implements ISkillLogic {
     @Override
     public boolean cast(LivingEntity caster, SkillDefinition def, int level) {
         
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
 
             @Override
@@ -56,7 +55,7 @@ public class FlashSlashSkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -8,7 +8,6 @@ import org.bukkit.Color;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.scheduler.BukkitRunnable;
 
 /**
  * Four Consecutive Attacks (4連撃) スキル
@@ -29,7 +28,7 @@ public class FourConsecutiveAttacksSkill implements ISkillLogic {
     public static void triggerHit(LivingEntity caster, LivingEntity target) {
         Deepwither.getInstance().getAuraManager().removeAura(caster, "four_consecutive_attacks");
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int hits = 0;
             @Override
             public void run() {
@@ -50,6 +49,6 @@ public class FourConsecutiveAttacksSkill implements ISkillLogic {
                 hits++;
                 if (hits >= 4) this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 10L); // 10 tick間隔
+        }.schedule(0L, 10L); // 10 tick間隔
     }
 }
@@ -5,7 +5,6 @@ import com.lunar_prototype.deepwither.SkillDefinition;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,7 +26,7 @@ public class FrostArmorSkill implements ISkillLogic {
         Deepwither.getInstance().getAuraManager().addAura(caster, "frost_armor", 150, meta);
 
         // 持続エフェクト (150tick)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             @Override
             public void run() {
@@ -41,7 +40,7 @@ public class FrostArmorSkill implements ISkillLogic {
                 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
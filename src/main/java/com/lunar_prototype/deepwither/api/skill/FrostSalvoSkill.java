@@ -64,7 +64,7 @@ public class FrostSalvoSkill implements ISkillLogic {
         }
 
         // 魔法陣展開アニメーション & 射撃タスク
-        new BukkitRunnable() {
+        new SkillEffect() {
             int currentIdx = 0;
 
             @Override
@@ -91,7 +91,7 @@ public class FrostSalvoSkill implements ISkillLogic {
 
                 currentIdx++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -184,7 +184,7 @@ public class FrostSalvoSkill implements ISkillLogic {
 
             private void explode(Location hitLoc) {
                 // 地面から氷のトゲが突き出す演出 (アニメーション)
-                new BukkitRunnable() {
+                new SkillEffect() {
                     int step = 0;
                     @Override
                     public void run() {
@@ -195,7 +195,7 @@ public class FrostSalvoSkill implements ISkillLogic {
                         hitLoc.getWorld().spawnParticle(Particle.DUST, spikeLoc, 5, 0.2, 0.2, 0.2, 0, new Particle.DustOptions(Color.WHITE, 1.0f));
                         step++;
                     }
-                }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+                }.schedule();
 
                 hitLoc.getWorld().spawnParticle(Particle.ITEM_SNOWBALL, hitLoc, 20, 0.5, 0.5, 0.5, 0.2);
                 hitLoc.getWorld().playSound(hitLoc, Sound.BLOCK_GLASS_BREAK, 1.2f, 0.5f);
@@ -219,6 +219,6 @@ public class FrostSalvoSkill implements ISkillLogic {
                     }
                 }
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
@@ -9,7 +9,6 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 /**
@@ -27,7 +26,7 @@ public class GravitonAcceleratorCannonSkill implements ISkillLogic {
         // チャージ開始音
         caster.getWorld().playSound(caster.getLocation(), Sound.BLOCK_RESPAWN_ANCHOR_CHARGE, 1.0f, 0.0f);
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final int CHARGE_TICKS = 20; // 1秒
 
@@ -65,7 +64,7 @@ public class GravitonAcceleratorCannonSkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -126,6 +125,6 @@ public class GravitonAcceleratorCannonSkill implements ISkillLogic {
                 target.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, 40, 1));
                 target.addPotionEffect(new PotionEffect(PotionEffectType.DARKNESS, 40, 1));
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
@@ -6,7 +6,6 @@ import com.lunar_prototype.deepwither.api.event.DeepwitherDamageEvent;
 import com.lunar_prototype.deepwither.core.damage.DamageContext;
 import org.bukkit.*;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.RayTraceResult;
 import org.bukkit.util.Vector;
 
@@ -22,7 +21,7 @@ public class HeatRaySkill implements ISkillLogic {
         caster.getWorld().playSound(caster.getLocation(), Sound.BLOCK_BEACON_ACTIVATE, 0.6f, 1.5f);
         caster.getWorld().playSound(caster.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 0.4f, 0.5f);
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final int CHARGE_TICKS = 20; // 1秒間の予備動作
 
@@ -65,7 +64,7 @@ public class HeatRaySkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -104,7 +104,7 @@ public class HemorrhagePactSkill implements ISkillLogic {
     }
 
     private void startBleed(LivingEntity attacker, LivingEntity victim) {
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticksLived = 0;
 
             @Override
@@ -126,7 +126,7 @@ public class HemorrhagePactSkill implements ISkillLogic {
 
                 ticksLived += BLEED_INTERVAL_TICKS;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, BLEED_INTERVAL_TICKS);
+        }.schedule(0L, BLEED_INTERVAL_TICKS);
     }
 
     private static final class HemorrhageState {
@@ -9,7 +9,6 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Collection;
 
@@ -25,7 +24,7 @@ public class HolyInitiationSkill implements ISkillLogic {
         caster.getWorld().playSound(caster.getLocation(), Sound.BLOCK_BEACON_ACTIVATE, 1.0f, 1.0f);
         caster.getWorld().spawnParticle(Particle.FLASH, caster.getLocation().add(0, 1, 0), 10, 0.5, 0.5, 0.5, 0, Color.WHITE);
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final int maxTicks = 60; // 3秒間維持
 
@@ -59,7 +58,7 @@ public class HolyInitiationSkill implements ISkillLogic {
 
                 ticks++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
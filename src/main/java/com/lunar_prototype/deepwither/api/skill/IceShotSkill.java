@@ -88,6 +88,6 @@ public class IceShotSkill implements ISkillLogic {
                 }
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
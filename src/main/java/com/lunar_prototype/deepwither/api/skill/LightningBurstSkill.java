@@ -7,7 +7,6 @@ import com.lunar_prototype.deepwither.core.damage.DamageContext;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Random;
@@ -30,7 +29,7 @@ public class LightningBurstSkill implements ISkillLogic {
         world.spawnParticle(Particle.ELECTRIC_SPARK, eyeLoc.add(eyeLoc.getDirection().multiply(0.5)), 20, 0.3, 0.3, 0.3, 0.1);
 
         // 2. バースト発射 (15連射, 間隔を詰めて高速化)
-        new BukkitRunnable() {
+        new SkillEffect() {
             int count = 0;
 
             @Override
@@ -43,7 +42,7 @@ public class LightningBurstSkill implements ISkillLogic {
                 fireLightningBolt(caster);
                 count++;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 5L, 1L); // 5Tick溜めた後、1Tick毎に発射
+        }.schedule(5L, 1L); // 5Tick溜めた後、1Tick毎に発射
 
         return true;
     }
@@ -110,6 +109,6 @@ public class LightningBurstSkill implements ISkillLogic {
                 
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
@@ -8,7 +8,6 @@ import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -27,7 +26,7 @@ public class LuminaryVeilSkill implements ISkillLogic {
         caster.getWorld().spawnParticle(Particle.GLOW, caster.getLocation().add(0, 1, 0), 50, 1, 1, 1, 0.1);
 
         // 継続的な球体パーティクル演出
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             @Override
             public void run() {
@@ -46,7 +45,7 @@ public class LuminaryVeilSkill implements ISkillLogic {
                 }
                 ticks += 2;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 2L);
+        }.schedule(0L, 2L);
 
         // 1. CC解除
         caster.removePotionEffect(PotionEffectType.SLOWNESS);
@@ -12,7 +12,6 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.RayTraceResult;
 import org.bukkit.util.Vector;
 
@@ -40,7 +39,7 @@ public class MeteorSkill implements ISkillLogic {
         }
 
         // --- フェーズ1: 予測円描画とチャージ (約1.5秒 = 30Tick) ---
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             final int maxTicks = 30;
             final double radius = 5.0; // AOE半径
@@ -73,7 +72,7 @@ public class MeteorSkill implements ISkillLogic {
                     dropMeteor(caster, targetLoc, radius, level);
                 }
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
@@ -150,6 +149,6 @@ public class MeteorSkill implements ISkillLogic {
                 }
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
     }
 }
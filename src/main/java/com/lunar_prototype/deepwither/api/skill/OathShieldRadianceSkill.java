@@ -7,7 +7,6 @@ import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -27,7 +26,7 @@ public class OathShieldRadianceSkill implements ISkillLogic {
         meta.put("projectile_reduction", 1.0);
         Deepwither.getInstance().getAuraManager().addAura(caster, "oath_shield", 80, meta);
 
-        new BukkitRunnable() {
+        new SkillEffect() {
             int ticks = 0;
             @Override
             public void run() {
@@ -44,7 +43,7 @@ public class OathShieldRadianceSkill implements ISkillLogic {
                 }
                 ticks += 2;
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 2L);
+        }.schedule(0L, 2L);
         return true;
     }
 }
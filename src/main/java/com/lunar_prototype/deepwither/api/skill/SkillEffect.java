@@ -0,0 +1,72 @@
+package com.lunar_prototype.deepwither.api.skill;
+
+import com.lunar_prototype.deepwither.api.DW;
+import com.lunar_prototype.deepwither.core.SkillEffectScheduler;
+
+/**
+ * {@link SkillEffectScheduler} によって毎tick (または指定間隔で) 実行されるスキル効果。
+ *
+ * <p>
+ * {@code BukkitRunnable} と同じ感覚で {@link #run()} を実装し、終了時に {@link #cancel()} を呼び出してください。
+ * 個別のスケジューラータスクは作成されず、全ての効果が 1 つのタスクでまとめて処理されます。
+ * </p>
+ */
+public abstract class SkillEffect implements Runnable {
+
+    private boolean scheduled;
+    private volatile boolean cancelled;
+
+    /**
+     * 次のtickから毎tick実行します。
+     */
+    public SkillEffect schedule() {
+        return schedule(0L, 1L);
+    }
+
+    /**
+     * 指定したtick数の遅延の後、period tickごとに実行します。
+     *
+     * @param delay 初回実行までの遅延tick (0 の場合は次のtick)
+     * @param period 実行間隔tick (1 以上)
+     */
+    public SkillEffect schedule(long delay, long period) {
+        if (scheduled) throw new IllegalStateException("Already scheduled: " + getLabel());
+        scheduled = true;
+        DW.get(SkillEffectScheduler.class).schedule(this, delay, period);
+        return this;
+    }
+
+    /**
+     * スケジューラーから呼び出されます。
+     * 処理予算の超過で持ち越された場合、{@code elapsedRuns} には遅れた分を含めた実行間隔の数が渡されます (通常は 1)。
+     * 既定では {@link #run()} を 1 回だけ呼び出します (遅れは取り戻しません)。
+     * 弾の位置や持続時間など経過時間に比例して進む状態を持つ効果は、上書きして 1 回の処理で {@code elapsedRuns} 分進めてください。
+     *
+     * @param elapsedRuns 前回の実行から経過した実行間隔の数 (1 以上)
+     */
+    public void run(int elapsedRuns) {
+        run();
+    }
+
+    /**
+     * 効果を終了します。スケジューラーからは次の処理時に取り除かれます。
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 計測用のラベル。匿名クラスやローカルクラスの場合は、それを定義したスキルのクラス名になります。
+     */
+    public String getLabel() {
+        Class<?> type = getClass();
+        while ((type.isAnonymousClass() || type.isLocalClass()) && type.getEnclosingClass() != null) {
+            type = type.getEnclosingClass();
+        }
+        return type.getSimpleName();
+    }
+}
@@ -1,11 +1,12 @@
 package com.lunar_prototype.deepwither.api.skill;
 
+import com.lunar_prototype.deepwither.api.DW;
+import com.lunar_prototype.deepwither.core.spatial.EntitySpatialIndex;
 import org.bukkit.FluidCollisionMode;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.RayTraceResult;
 import org.bukkit.util.Vector;
 
@@ -13,7 +14,10 @@ import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-public abstract class SkillProjectile extends BukkitRunnable {
+/**
+ * 毎tick移動と当たり判定を行うスキルの弾。{@link #schedule()} で発射します。
+ */
+public abstract class SkillProjectile extends SkillEffect {
 
     private static final Set<SkillProjectile> activeProjectiles = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
@@ -29,6 +33,12 @@ public abstract class SkillProjectile extends BukkitRunnable {
     protected double hitboxRadius = 1.0;
     protected int maxTicks = 100;
     protected int ticksLived = 0;
+    // 今回の run() で進めるtick数 (処理予算の超過で持ち越された場合は 2 以上)
+    private int stepTicks = 1;
+
+    // 大型モブの当たり判定の大きさを見込んだ検索半径の余裕
+    private static final double ENTITY_SEARCH_MARGIN = 4.0;
+    private final EntitySpatialIndex spatialIndex = DW.get(EntitySpatialIndex.class);
 
     public SkillProjectile(LivingEntity caster, Location spawnLoc, Vector direction) {
         this.caster = caster;
@@ -51,6 +61,19 @@ public abstract class SkillProjectile extends BukkitRunnable {
         return caster;
     }
 
+    /**
+     * 持ち越された場合は遅れた分の移動を 1 回の当たり判定でまとめて進めます ({@link #onTick()} は 1 回だけ呼び出されます)。
+     */
+    @Override
+    public void run(int elapsedRuns) {
+        stepTicks = Math.max(1, elapsedRuns);
+        try {
+            run();
+        } finally {
+            stepTicks = 1;
+        }
+    }
+
     @Override
     public void run() {
         if (ticksLived >= maxTicks || !caster.isValid()) {
@@ -58,18 +81,12 @@ public abstract class SkillProjectile extends BukkitRunnable {
             return;
         }
 
-        Vector velocity = direction.clone().multiply(speed);
+        int steps = Math.min(stepTicks, maxTicks - ticksLived);
+        double distance = speed * steps;
+        Vector velocity = direction.clone().multiply(distance);
 
         // RayTrace (当たり判定) を行う
-        RayTraceResult result = currentLocation.getWorld().rayTrace(
-                currentLocation,
-                direction,
-                speed,
-                FluidCollisionMode.NEVER,
-                true,
-                hitboxRadius,
-                entity -> entity instanceof LivingEntity && !entity.getUniqueId().equals(caster.getUniqueId())
-        );
+        RayTraceResult result = rayTrace(distance);
 
         if (result != null) {
             if (result.getHitEntity() != null && result.getHitEntity() instanceof LivingEntity) {
@@ -89,7 +106,34 @@ public abstract class SkillProjectile extends BukkitRunnable {
         // 何もヒットしなければ移動して onTick()
         currentLocation.add(velocity);
         onTick();
-        ticksLived++;
+        ticksLived += steps;
+    }
+
+    /**
+     * 今回の移動経路 ({@code distance} ブロック) 上で最も近いブロックまたはエンティティとの衝突を求めます。
+     * エンティティの候補はワールドではなく {@link EntitySpatialIndex} から取得します。
+     */
+    private RayTraceResult rayTrace(double distance) {
+        RayTraceResult blockHit = currentLocation.getWorld().rayTraceBlocks(
+                currentLocation, direction, distance, FluidCollisionMode.NEVER, true);
+        double maxDistance = (blockHit != null) ? blockHit.getHitPosition().distance(currentLocation.toVector()) : distance;
+
+        Vector start = currentLocation.toVector();
+        RayTraceResult entityHit = null;
+        double entityDistanceSq = Double.MAX_VALUE;
+        for (LivingEntity entity : spatialIndex.getNearby(currentLocation, distance + hitboxRadius + ENTITY_SEARCH_MARGIN)) {
+            if (entity.getUniqueId().equals(caster.getUniqueId())) continue;
+
+            RayTraceResult hit = entity.getBoundingBox().expand(hitboxRadius).rayTrace(start, direction, maxDistance);
+            if (hit == null) continue;
+
+            double distanceSq = hit.getHitPosition().distanceSquared(start);
+            if (distanceSq < entityDistanceSq) {
+                entityDistanceSq = distanceSq;
+                entityHit = new RayTraceResult(hit.getHitPosition(), entity, hit.getHitBlockFace());
+            }
+        }
+        return (entityHit != null) ? entityHit : blockHit;
     }
 
     /**
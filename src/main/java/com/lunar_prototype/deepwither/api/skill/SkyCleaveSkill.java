@@ -65,7 +65,7 @@ public class SkyCleaveSkill implements ISkillLogic {
                 explode(currentLocation, caster);
                 this.cancel();
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }.schedule();
 
         return true;
     }
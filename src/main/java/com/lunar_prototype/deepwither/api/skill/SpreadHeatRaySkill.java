@@ -71,7 +71,7 @@ public class SpreadHeatRaySkill implements ISkillLogic {
 
                 @Override
                 public void onHitBlock(Block block) { this.cancel(); }
-            }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+            }.schedule();
         }
         return true;
     }
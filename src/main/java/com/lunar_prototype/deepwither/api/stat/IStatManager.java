@@ -1,6 +1,7 @@
 package com.lunar_prototype.deepwither.api.stat;
 
 import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 
@@ -64,11 +65,29 @@ public interface IStatManager {
 
     /**
      * プレイヤーの現在の全ステータス（装備、ステ振り、バフ込）を取得します。
+     * 結果はプレイヤーごとにキャッシュされ、変更のあったソースのみ再計算されます。
      * @param player 対象プレイヤー
-     * @return 合計ステータス
+     * @return 合計ステータス（キャッシュ共有のため変更しないでください）
      */
     StatMap getTotalStats(Player player);
 
+    /**
+     * 装備（手持ち・防具・アーティファクト・背中装備）由来の固定値の合計を取得します。
+     * ステ振りのボーナスやバフは含みません。
+     * @param player 対象プレイヤー
+     * @param type 取得するステータス
+     * @return 装備由来の固定値
+     */
+    double getEquipmentFlat(Player player, StatType type);
+
+    /**
+     * キャッシュされた合計ステータスの指定ソースを無効化します。
+     * ソースを省略した場合は全ソースを無効化します。
+     * @param playerUUID 対象プレイヤーのUUID
+     * @param sources 無効化するソース
+     */
+    void invalidateStats(UUID playerUUID, StatSource... sources);
+
     /**
      * 一時的なバフを適用します。
      * @param playerUUID 対象プレイヤーのUUID
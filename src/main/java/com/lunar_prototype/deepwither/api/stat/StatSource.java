@@ -0,0 +1,29 @@
+package com.lunar_prototype.deepwither.api.stat;
+
+/**
+ * プレイヤーの合計ステータスを構成する要素（ソース）の列挙。
+ * ステータスキャッシュはこの単位で無効化・再計算されます。
+ */
+public enum StatSource {
+    /** レベルによる基礎HP・基礎マナ */
+    BASE,
+    /** メインハンド装備 */
+    MAIN_HAND,
+    /** 防具スロット */
+    ARMOR,
+    /** オフハンド装備 */
+    OFF_HAND,
+    /** アーティファクトとフルセットボーナス */
+    ARTIFACTS,
+    /** 背中装備 */
+    BACKPACK,
+    /** 属性ポイントの割り振り */
+    ATTRIBUTES,
+    /** スキルツリーのパッシブ */
+    SKILL_TREE,
+    /** 一時的なバフ */
+    BUFF;
+
+    /** 装備変更イベントで無効化されるソース */
+    public static final StatSource[] EQUIPMENT = {MAIN_HAND, ARMOR, OFF_HAND};
+}
@@ -1,6 +1,8 @@
 package com.lunar_prototype.deepwither.booster;
 
 import com.lunar_prototype.deepwither.DatabaseManager;
+import com.lunar_prototype.deepwither.core.database.WriteTable;
+import com.lunar_prototype.deepwither.util.AsyncInit;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import org.bukkit.entity.Player;
@@ -10,8 +12,11 @@ import java.sql.SQLException;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+@AsyncInit
 @DependsOn({DatabaseManager.class})
 public class BoosterManager implements IManager {
+    private static final WriteTable BOOSTERS = WriteTable.of("player_boosters", "uuid").withColumns("multiplier", "end_time");
+
     private final DatabaseManager db;
     private final ConcurrentHashMap<UUID, BoosterData> activeBoosters = new ConcurrentHashMap<>();
 
@@ -55,58 +60,14 @@ public class BoosterManager implements IManager {
     }
 
     private void save(UUID uuid, BoosterData data) {
-        String uuidStr = uuid.toString();
-        try (java.sql.Connection conn = db.getConnection()) {
-            // 存在チェック
-            boolean exists = false;
-            try (PreparedStatement checkPs = conn.prepareStatement("SELECT 1 FROM player_boosters WHERE uuid = ?")) {
-                checkPs.setString(1, uuidStr);
-                try (ResultSet rs = checkPs.executeQuery()) {
-                    exists = rs.next();
-                }
-            }
-
-            if (exists) {
-                // UPDATE
-                try (PreparedStatement ps = conn.prepareStatement(
-                        "UPDATE player_boosters SET multiplier = ?, end_time = ? WHERE uuid = ?")) {
-                    ps.setDouble(1, data.multiplier);
-                    ps.setLong(2, data.endTime);
-                    ps.setString(3, uuidStr);
-                    ps.executeUpdate();
-                }
-            } else {
-                // INSERT
-                try (PreparedStatement ps = conn.prepareStatement(
-                        "INSERT INTO player_boosters (uuid, multiplier, end_time) VALUES (?, ?, ?)")) {
-                    ps.setString(1, uuidStr);
-                    ps.setDouble(2, data.multiplier);
-                    ps.setLong(3, data.endTime);
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    if (e.getSQLState().startsWith("23")) {
-                        try (PreparedStatement ps = conn.prepareStatement(
-                                "UPDATE player_boosters SET multiplier = ?, end_time = ? WHERE uuid = ?")) {
-                            ps.setDouble(1, data.multiplier);
-                            ps.setLong(2, data.endTime);
-                            ps.setString(3, uuidStr);
-                            ps.executeUpdate();
-                        }
-                    } else {
-                        throw e;
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        db.getWriteQueue().upsert(BOOSTERS, new Object[]{uuid.toString()}, data.multiplier, data.endTime);
     }
 
     public void addBooster(Player player, double multiplier, int minutes) {
         UUID uuid = player.getUniqueId();
         BoosterData data = new BoosterData(multiplier, (long) minutes * 60 * 1000, false);
         activeBoosters.put(uuid, data);
-        // 即座にDBにも反映（不慮のクラッシュ対策）
+        // DBにも反映（書き込みキュー経由で数百ms以内）
         save(uuid, data);
     }
 
@@ -125,13 +86,7 @@ public class BoosterManager implements IManager {
     }
 
     private void removeFromDb(UUID uuid) {
-        try (java.sql.Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement("DELETE FROM player_boosters WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        db.getWriteQueue().delete(BOOSTERS, uuid.toString());
     }
 
     public long getRemainingSeconds(Player player) {
@@ -1,9 +1,25 @@
 package com.lunar_prototype.deepwither.command;
 
+import com.lunar_prototype.deepwither.DatabaseManager;
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.StatManager;
+import com.lunar_prototype.deepwither.api.DW;
+import com.lunar_prototype.deepwither.api.stat.StatSource;
 import com.lunar_prototype.deepwither.api.commands.DeepwitherCommand;
 import com.lunar_prototype.deepwither.api.playerdata.IPlayerComponent;
+import com.lunar_prototype.deepwither.core.ParticleRenderer;
 import com.lunar_prototype.deepwither.core.PlayerCache;
+import com.lunar_prototype.deepwither.core.SkillEffectScheduler;
+import com.lunar_prototype.deepwither.core.database.WriteBehindQueue;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerDataManager;
+import com.lunar_prototype.deepwither.dungeon.DungeonPartLibrary;
+import com.lunar_prototype.deepwither.dungeon.instance.InstanceWorldPool;
+import com.lunar_prototype.deepwither.modules.mob.util.MobRegionService;
+import com.lunar_prototype.deepwither.seeker.SeekerAIEngine;
+import com.lunar_prototype.deepwither.seeker.SeekerAIScheduler;
+import com.lunar_prototype.deepwither.seeker.SeekerDecisionLog;
+import com.lunar_prototype.deepwither.seeker.SeekerPolicyStore;
+import com.lunar_prototype.deepwither.util.LatencyHistogram;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
@@ -17,6 +33,7 @@ import org.bukkit.entity.Player;
 import org.jspecify.annotations.NullMarked;
 
 import java.util.List;
+import java.util.Map;
 
 import static io.papermc.paper.command.brigadier.Commands.*;
 
@@ -31,6 +48,37 @@ public class DebugCommand implements DeepwitherCommand {
     public LiteralCommandNode<CommandSourceStack> node() {
         return literal(name())
             .requires(source -> !(source.getSender() instanceof Player player) || player.hasPermission("deepwither.admin"))
+            .then(literal("statcache")
+                .executes(DebugCommand::statCache)
+                .then(literal("reset").executes(DebugCommand::resetStatCache))
+            )
+            .then(literal("skills")
+                .executes(DebugCommand::skillEffects)
+                .then(literal("reset").executes(DebugCommand::resetSkillEffects))
+            )
+            .then(literal("playerdata")
+                .executes(DebugCommand::playerDataTimings)
+                .then(literal("reset").executes(DebugCommand::resetPlayerDataTimings))
+            )
+            .then(literal("db")
+                .executes(DebugCommand::writeQueue)
+                .then(literal("flush").executes(DebugCommand::flushWriteQueue))
+                .then(literal("reset").executes(DebugCommand::resetWriteQueue))
+            )
+            .then(literal("seeker")
+                .executes(DebugCommand::seekerAi)
+                .then(literal("log").executes(DebugCommand::seekerLog))
+                .then(literal("reset").executes(DebugCommand::resetSeekerAi))
+            )
+            .then(literal("dungeon")
+                .executes(DebugCommand::dungeonParts)
+                .then(literal("clear").executes(DebugCommand::clearDungeonParts))
+            )
+            .then(literal("particles").executes(DebugCommand::particles))
+            .then(literal("zones")
+                .executes(DebugCommand::regionCache)
+                .then(literal("clear").executes(DebugCommand::clearRegionCache))
+            )
             .then(argument("player", ArgumentTypes.player())
                 .then(literal("dump")
                     .executes(DebugCommand::dumpPlayer)
@@ -85,6 +133,208 @@ public class DebugCommand implements DeepwitherCommand {
         return 1;
     }
 
+    private static int statCache(CommandContext<CommandSourceStack> context) {
+        StatManager.StatCacheMetrics metrics = DW.get(StatManager.class).getCacheMetrics();
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== ステータスキャッシュ ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text(String.format("ヒット: %d / ミス: %d (ヒット率 %.1f%%)",
+                metrics.hits(), metrics.misses(), metrics.hitRate() * 100.0), NamedTextColor.WHITE));
+        for (Map.Entry<StatSource, Long> entry : metrics.recomputes().entrySet()) {
+            sender.sendMessage(Component.text("  " + entry.getKey().name() + ": ", NamedTextColor.YELLOW)
+                    .append(Component.text(entry.getValue() + " 回再計算", NamedTextColor.WHITE)));
+        }
+        return 1;
+    }
+
+    private static int resetStatCache(CommandContext<CommandSourceStack> context) {
+        DW.get(StatManager.class).resetCacheMetrics();
+        context.getSource().getSender().sendMessage(Component.text("ステータスキャッシュの計測値をリセットしました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
+    private static int skillEffects(CommandContext<CommandSourceStack> context) {
+        SkillEffectScheduler scheduler = DW.get(SkillEffectScheduler.class);
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== スキル効果スケジューラー ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text(String.format("実行中: %d / 直前tick: %.2fms / 持ち越し: %d (累計 %d)",
+                scheduler.getActiveCount(), scheduler.getLastTickNanos() / 1_000_000.0,
+                scheduler.getLastDeferredCount(), scheduler.getTotalDeferredCount()), NamedTextColor.WHITE));
+        for (SkillEffectScheduler.SkillTickStats stats : scheduler.getStats()) {
+            sender.sendMessage(Component.text("  " + stats.skill() + ": ", NamedTextColor.YELLOW)
+                    .append(Component.text(String.format("%d 件 / %d 回 / 平均 %.1fμs",
+                            stats.active(), stats.runs(), stats.averageMicros()), NamedTextColor.WHITE)));
+        }
+        return 1;
+    }
+
+    private static int resetSkillEffects(CommandContext<CommandSourceStack> context) {
+        DW.get(SkillEffectScheduler.class).resetStats();
+        context.getSource().getSender().sendMessage(Component.text("スキル効果の計測値をリセットしました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
+    private static int playerDataTimings(CommandContext<CommandSourceStack> context) {
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== プレイヤーデータ ロード/セーブ時間 (p50 / p95 / 最大) ===", NamedTextColor.AQUA));
+        DW.get(PlayerDataManager.class).getTimings().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    LatencyHistogram load = entry.getValue().load();
+                    LatencyHistogram save = entry.getValue().save();
+                    sender.sendMessage(Component.text("  " + entry.getKey() + ": ", NamedTextColor.YELLOW)
+                            .append(Component.text(String.format("ロード %.1f / %.1f / %.1fms (%d 回)  セーブ %.1f / %.1f / %.1fms (%d 回)",
+                                    load.getPercentileMillis(0.5), load.getPercentileMillis(0.95), load.getMaxMillis(), load.getCount(),
+                                    save.getPercentileMillis(0.5), save.getPercentileMillis(0.95), save.getMaxMillis(), save.getCount()),
+                                    NamedTextColor.WHITE)));
+                });
+        return 1;
+    }
+
+    private static int resetPlayerDataTimings(CommandContext<CommandSourceStack> context) {
+        DW.get(PlayerDataManager.class).resetTimings();
+        context.getSource().getSender().sendMessage(Component.text("プレイヤーデータの計測値をリセットしました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
+    private static int writeQueue(CommandContext<CommandSourceStack> context) {
+        WriteBehindQueue.WriteQueueMetrics metrics = DW.get(DatabaseManager.class).getWriteQueue().getMetrics();
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== DB 書き込みキュー ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text(String.format("待機中: %d / 受付: %d (まとめ %d) / 実行文: %d / 失敗: %d",
+                metrics.queueDepth(), metrics.enqueued(), metrics.coalesced(), metrics.statements(), metrics.failed()), NamedTextColor.WHITE));
+        sender.sendMessage(Component.text(String.format("反映: %d 回 / 直前 %d 件 %.2fms / 平均 %.2fms / 最大 %.2fms",
+                metrics.flushes(), metrics.lastFlushSize(), metrics.lastFlushNanos() / 1_000_000.0,
+                metrics.averageFlushNanos() / 1_000_000.0, metrics.maxFlushNanos() / 1_000_000.0), NamedTextColor.WHITE));
+        return 1;
+    }
+
+    private static int flushWriteQueue(CommandContext<CommandSourceStack> context) {
+        WriteBehindQueue queue = DW.get(DatabaseManager.class).getWriteQueue();
+        var sender = context.getSource().getSender();
+        org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(Deepwither.getInstance(), () -> {
+            queue.flush();
+            sender.sendMessage(Component.text("DB 書き込みキューを反映しました。", NamedTextColor.GREEN));
+        });
+        return 1;
+    }
+
+    private static int resetWriteQueue(CommandContext<CommandSourceStack> context) {
+        DW.get(DatabaseManager.class).getWriteQueue().resetMetrics();
+        context.getSource().getSender().sendMessage(Component.text("DB 書き込みキューの計測値をリセットしました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
+    private static int seekerAi(CommandContext<CommandSourceStack> context) {
+        SeekerAIScheduler scheduler = DW.get(SeekerAIScheduler.class);
+        SeekerAIEngine engine = DW.get(SeekerAIEngine.class);
+        LatencyHistogram think = engine.getThinkTimes();
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== Seeker AI ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text(String.format("追跡中: %d / 脳: %d / 直前tick: %d 回 %.2fms / 持ち越し: %d (累計 %d)",
+                scheduler.getTrackedCount(), engine.getBrainCount(), scheduler.getLastThinkCount(),
+                scheduler.getLastBatchNanos() / 1_000_000.0, scheduler.getLastDeferredCount(),
+                scheduler.getTotalDeferred()), NamedTextColor.WHITE));
+        sender.sendMessage(Component.text("  推論: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("p50 %.3f / p95 %.3f / 最大 %.3fms (%d 回)",
+                        think.getPercentileMillis(0.5), think.getPercentileMillis(0.95), think.getMaxMillis(),
+                        think.getCount()), NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  Qテーブル: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("使用中 %d / 確保 %d (%.1fMB)",
+                        engine.getQPool().getLiveCount(), engine.getQPool().getCapacity(),
+                        engine.getQPool().getSlabBytes() / (1024.0 * 1024.0)), NamedTextColor.WHITE)));
+        SeekerPolicyStore policies = DW.get(SeekerPolicyStore.class);
+        sender.sendMessage(Component.text("  学習済み方策: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("%d 件 / 初期化に使用 %d 回 / 直前の統合 %d 体 %.1fms",
+                        policies.getSnapshot().getPolicies().size(), policies.getSeededCount(),
+                        policies.getLastMergeSamples(), policies.getLastMergeNanos() / 1_000_000.0), NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  決定ログ: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("%d 件記録 (抽選率 %.0f%%)",
+                        engine.getDecisionLog().getSampledCount(), engine.getDecisionLog().getSampleRate() * 100.0),
+                        NamedTextColor.WHITE)));
+        return 1;
+    }
+
+    private static int seekerLog(CommandContext<CommandSourceStack> context) {
+        List<SeekerDecisionLog.Entry> entries = DW.get(SeekerAIEngine.class).getDecisionLog().recent(10);
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== Seeker AI 決定ログ (新しい順) ===", NamedTextColor.AQUA));
+        if (entries.isEmpty()) {
+            sender.sendMessage(Component.text("記録がありません。", NamedTextColor.RED));
+            return 1;
+        }
+        for (SeekerDecisionLog.Entry entry : entries) {
+            sender.sendMessage(Component.text(entry.format(), NamedTextColor.WHITE));
+        }
+        return 1;
+    }
+
+    private static int resetSeekerAi(CommandContext<CommandSourceStack> context) {
+        DW.get(SeekerAIScheduler.class).resetStats();
+        context.getSource().getSender().sendMessage(Component.text("Seeker AI の計測値と決定ログをリセットしました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
+    private static int dungeonParts(CommandContext<CommandSourceStack> context) {
+        DungeonPartLibrary library = DW.get(DungeonPartLibrary.class);
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== Dungeon Part Library ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text("  パーツ: ", NamedTextColor.YELLOW)
+                .append(Component.text(library.getPartCount() + " 件 / Clipboard " + library.getClipboardCount() + " 件", NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  ブロック数: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("%,d / 上限 %,d", library.getCachedBlocks(), library.getMaxBlocks()), NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  ヒット / ミス / 解放: ", NamedTextColor.YELLOW)
+                .append(Component.text(library.getHits() + " / " + library.getMisses() + " / " + library.getEvictions(), NamedTextColor.WHITE)));
+        InstanceWorldPool pool = DW.get(InstanceWorldPool.class);
+        sender.sendMessage(Component.text("  インスタンスワールド: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("待機 %d / 使用中 %d / 作成 %d / 再利用 %d / 削除 %d",
+                        pool.getIdleCount(), pool.getLeasedCount(), pool.getCreatedCount(), pool.getReusedCount(),
+                        pool.getRetiredCount()), NamedTextColor.WHITE)));
+        return 1;
+    }
+
+    private static int clearDungeonParts(CommandContext<CommandSourceStack> context) {
+        DW.get(DungeonPartLibrary.class).invalidateAll();
+        context.getSource().getSender().sendMessage(Component.text("ダンジョンパーツのキャッシュを破棄しました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
+    private static int particles(CommandContext<CommandSourceStack> context) {
+        ParticleRenderer renderer = DW.get(ParticleRenderer.class);
+        var sender = context.getSource().getSender();
+        sender.sendMessage(Component.text("=== パーティクル描画 ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text("  送信: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("パケット %,d / Bukkit %,d", renderer.getSentPackets(),
+                        renderer.getSentFallbacks()), NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  破棄: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("上限超過 %,d / 間引き %,d", renderer.getDroppedByBudget(),
+                        renderer.getDroppedByLod()), NamedTextColor.WHITE)));
+        return 1;
+    }
+
+    private static int regionCache(CommandContext<CommandSourceStack> context) {
+        MobRegionService regions = DW.get(MobRegionService.class);
+        var sender = context.getSource().getSender();
+        long hits = regions.getHits();
+        long total = hits + regions.getMisses();
+        sender.sendMessage(Component.text("=== リージョン情報キャッシュ ===", NamedTextColor.AQUA));
+        sender.sendMessage(Component.text("  セクション: ", NamedTextColor.YELLOW)
+                .append(Component.text(regions.getCachedSectionCount() + " 件", NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  ヒット / ミス: ", NamedTextColor.YELLOW)
+                .append(Component.text(String.format("%d / %d (ヒット率 %.1f%%)", hits, regions.getMisses(),
+                        total == 0 ? 0.0 : hits * 100.0 / total), NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  境界での個別問い合わせ: ", NamedTextColor.YELLOW)
+                .append(Component.text(regions.getPartialLookups() + " 回", NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("  破棄: ", NamedTextColor.YELLOW)
+                .append(Component.text(regions.getInvalidations() + " 回", NamedTextColor.WHITE)));
+        return 1;
+    }
+
+    private static int clearRegionCache(CommandContext<CommandSourceStack> context) {
+        DW.get(MobRegionService.class).invalidateRegionCache();
+        context.getSource().getSender().sendMessage(Component.text("リージョン情報のキャッシュを破棄しました。", NamedTextColor.GREEN));
+        return 1;
+    }
+
     private static int healHp(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
         var player = resolve(context).getFirst();
         var sm = Deepwither.getInstance().getStatManager();
@@ -66,6 +66,10 @@ public class ItemCommand implements CommandExecutor, TabCompleter {
 
         if (args.length == 1 && args[0].equalsIgnoreCase("reload")) {
             itemFactory.init(); // ItemFactory has loadAllItems called in init()
+            ArtifactManager artifactManager = Deepwither.getInstance().getArtifactManager();
+            if (artifactManager != null) {
+                artifactManager.recomputeSetBonuses();
+            }
             sender.sendMessage(Component.text("アイテム設定をリロードしました。", NamedTextColor.GREEN));
             return true;
         }
@@ -1,8 +1,10 @@
 package com.lunar_prototype.deepwither.companion;
 
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.util.AsyncInit;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
+import com.lunar_prototype.deepwither.util.ItemCodec;
 import io.lumine.mythic.bukkit.MythicBukkit;
 import kr.toxicity.model.api.tracker.EntityTracker;
 import kr.toxicity.model.api.tracker.ModelScaler;
@@ -23,6 +25,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
+@AsyncInit
 @DependsOn({})
 public class CompanionManager implements IManager {
 
@@ -49,6 +52,7 @@ public class CompanionManager implements IManager {
             try { storageFile.createNewFile(); } catch (IOException e) { e.printStackTrace(); }
         }
         this.storageConfig = YamlConfiguration.loadConfiguration(storageFile);
+        migrateStorage();
         loadConfig();
         startCompanionTask();
     }
@@ -56,14 +60,39 @@ public class CompanionManager implements IManager {
     @Override
     public void shutdown() {}
 
+    /**
+     * ItemStack を YAML のまま保存していた旧形式のエントリを {@link ItemCodec} の文字列に変換します。
+     */
+    private void migrateStorage() {
+        int migrated = 0;
+        for (String key : storageConfig.getKeys(false)) {
+            if (storageConfig.isString(key)) continue;
+            ItemStack item = storageConfig.getItemStack(key);
+            storageConfig.set(key, item == null || item.getType().isAir() ? null : ItemCodec.encodeToString(item));
+            migrated++;
+        }
+        if (migrated == 0) return;
+        try {
+            storageConfig.save(storageFile);
+            plugin.getLogger().info("[Companion] " + migrated + " 件の保管アイテムを新しい形式に変換しました。");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     // プレイヤーがセットしているコンパニオンアイテムを取得
     public ItemStack getStoredItem(UUID playerUUID) {
-        return storageConfig.getItemStack(playerUUID.toString());
+        String key = playerUUID.toString();
+        if (!storageConfig.isString(key)) {
+            return storageConfig.getItemStack(key);
+        }
+        return ItemCodec.decodeFromString(storageConfig.getString(key));
     }
 
     // コンパニオンアイテムを保存
     public void saveStoredItem(UUID playerUUID, ItemStack item) {
-        storageConfig.set(playerUUID.toString(), item);
+        storageConfig.set(playerUUID.toString(),
+                item == null || item.getType().isAir() ? null : ItemCodec.encodeToString(item));
         try {
             storageConfig.save(storageFile);
         } catch (IOException e) {
@@ -34,6 +34,13 @@ public class CacheManager implements IManager {
         return cacheMap.computeIfAbsent(uuid, PlayerCache::new);
     }
 
+    /**
+     * 指定されたプレイヤーのキャッシュを取得します。存在しない場合は作成せずに null を返します。
+     */
+    public PlayerCache getCacheIfPresent(UUID uuid) {
+        return cacheMap.get(uuid);
+    }
+
     /**
      * 指定されたプレイヤーのキャッシュを削除します。
      */
@@ -0,0 +1,288 @@
+package com.lunar_prototype.deepwither.core;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.particle.data.ParticleData;
+import com.github.retrooper.packetevents.protocol.particle.type.ParticleType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerParticle;
+import com.lunar_prototype.deepwither.PlayerSettingsManager;
+import com.lunar_prototype.deepwither.core.spatial.EntitySpatialIndex;
+import com.lunar_prototype.deepwither.util.DependsOn;
+import com.lunar_prototype.deepwither.util.IManager;
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 演出用パーティクルを、見えるプレイヤーにだけパケットで送る描画サービス。
+ *
+ * <p>
+ * {@code World.spawnParticle} は範囲内の全員へ個別に送信しますが、このサービスは
+ * {@link EntitySpatialIndex} から max-distance 以内で {@link PlayerSettingsManager.SettingType#WEAPON_EFFECT} を
+ * 有効にしているプレイヤーだけを選びます。lod-distance より遠いプレイヤーにはパーティクルを 1 つおきに間引いて送ります。
+ * </p>
+ * <p>
+ * 送信は tick の終わりにまとめて行い、プレイヤーごとにパケットを書き込んでから 1 回だけ flush します。
+ * 1 tick にプレイヤーへ送るパーティクル数には上限 (budget-per-tick) があり、超えた分は捨てます。
+ * 追加データが必要なパーティクル (色付きの FLASH など) は Bukkit の {@link Player#spawnParticle} で該当プレイヤーにだけ送ります。
+ * </p>
+ * <p>
+ * メインスレッド専用です。
+ * </p>
+ */
+@DependsOn({PlayerSettingsManager.class, EntitySpatialIndex.class})
+public class ParticleRenderer implements IManager {
+
+    private final JavaPlugin plugin;
+    private final PlayerSettingsManager settingsManager;
+    private final EntitySpatialIndex spatialIndex;
+    private BukkitTask task;
+
+    private double lodDistanceSquared;
+    private double maxDistance;
+    private int budgetPerTick;
+
+    private final Map<UUID, ViewerQueue> queues = new HashMap<>();
+    private final Map<Particle, ParticleType<?>> packetTypes = new EnumMap<>(Particle.class);
+
+    private long sentPackets;
+    private long sentFallbacks;
+    private long droppedByBudget;
+    private long droppedByLod;
+
+    private record Pending(Particle particle, double x, double y, double z, int count,
+                           float offsetX, float offsetY, float offsetZ, float speed, Object data) {
+    }
+
+    private static final class ViewerQueue {
+        final Player viewer;
+        final List<Pending> pending = new ArrayList<>();
+        int particles;
+        int lodToggle;
+
+        ViewerQueue(Player viewer) {
+            this.viewer = viewer;
+        }
+    }
+
+    public ParticleRenderer(JavaPlugin plugin, PlayerSettingsManager settingsManager, EntitySpatialIndex spatialIndex) {
+        this.plugin = plugin;
+        this.settingsManager = settingsManager;
+        this.spatialIndex = spatialIndex;
+    }
+
+    @Override
+    public void init() {
+        FileConfiguration config = plugin.getConfig();
+        double lodDistance = config.getDouble("effects.particles.lod-distance", 16.0);
+        maxDistance = Math.max(1.0, config.getDouble("effects.particles.max-distance", 32.0));
+        lodDistanceSquared = Math.min(lodDistance, maxDistance) * Math.min(lodDistance, maxDistance);
+        budgetPerTick = Math.max(1, config.getInt("effects.particles.budget-per-tick", 200));
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, 1L, 1L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queues.clear();
+    }
+
+    /**
+     * 指定位置の演出を見るプレイヤー (距離と設定で絞り込み済み) を返します。
+     * 同じ位置に複数のパーティクルを出す場合は、一度だけ取得して {@link #queue} に渡してください。
+     */
+    public List<Player> getViewers(Location center) {
+        List<Player> viewers = new ArrayList<>();
+        double maxSquared = maxDistance * maxDistance;
+        for (LivingEntity entity : spatialIndex.getNearby(center, maxDistance)) {
+            if (!(entity instanceof Player player)) continue;
+            if (!player.isOnline() || player.getWorld() != center.getWorld()) continue;
+            if (player.getLocation().distanceSquared(center) > maxSquared) continue;
+            if (!settingsManager.isEnabled(player, PlayerSettingsManager.SettingType.WEAPON_EFFECT)) continue;
+            viewers.add(player);
+        }
+        return viewers;
+    }
+
+    public void spawn(Location loc, Particle particle, int count, double offsetX, double offsetY, double offsetZ, double speed) {
+        spawn(loc, particle, count, offsetX, offsetY, offsetZ, speed, null);
+    }
+
+    public void spawn(Location loc, Particle particle, int count, double offsetX, double offsetY, double offsetZ,
+                      double speed, Object data) {
+        queue(getViewers(loc), particle, loc.getX(), loc.getY(), loc.getZ(), count, offsetX, offsetY, offsetZ, speed, data);
+    }
+
+    /**
+     * パーティクルを各プレイヤーの送信待ちに追加します。実際の送信は tick の終わりです。
+     */
+    public void queue(List<Player> viewers, Particle particle, double x, double y, double z, int count,
+                      double offsetX, double offsetY, double offsetZ, double speed, Object data) {
+        if (viewers.isEmpty()) return;
+        Pending pending = null;
+        for (Player viewer : viewers) {
+            ViewerQueue queue = queues.computeIfAbsent(viewer.getUniqueId(), k -> new ViewerQueue(viewer));
+            if (queue.particles + count > budgetPerTick) {
+                droppedByBudget++;
+                continue;
+            }
+            Location eye = viewer.getLocation();
+            double dx = eye.getX() - x, dy = eye.getY() - y, dz = eye.getZ() - z;
+            if (dx * dx + dy * dy + dz * dz > lodDistanceSquared && (queue.lodToggle++ & 1) == 1) {
+                droppedByLod++;
+                continue;
+            }
+            if (pending == null) {
+                pending = new Pending(particle, x, y, z, count, (float) offsetX, (float) offsetY, (float) offsetZ,
+                        (float) speed, data);
+            }
+            queue.pending.add(pending);
+            queue.particles += count;
+        }
+    }
+
+    /**
+     * 送信待ちのパーティクルをプレイヤーごとにまとめて送る
+     */
+    private void flush() {
+        if (queues.isEmpty()) return;
+        for (ViewerQueue queue : queues.values()) {
+            Player viewer = queue.viewer;
+            if (!viewer.isOnline() || queue.pending.isEmpty()) continue;
+
+            User user = PacketEvents.getAPI().getPlayerManager().getUser(viewer);
+            boolean written = false;
+            for (Pending p : queue.pending) {
+                ParticleType<?> type = user != null ? packetType(p.particle()) : null;
+                if (type == null) {
+                    viewer.spawnParticle(p.particle(), p.x(), p.y(), p.z(), p.count(),
+                            p.offsetX(), p.offsetY(), p.offsetZ(), p.speed(), p.data());
+                    sentFallbacks++;
+                    continue;
+                }
+                user.writePacket(new WrapperPlayServerParticle(particle(type), false,
+                        new Vector3d(p.x(), p.y(), p.z()), new Vector3f(p.offsetX(), p.offsetY(), p.offsetZ()),
+                        p.speed(), p.count()));
+                sentPackets++;
+                written = true;
+            }
+            if (written) {
+                user.flushPackets();
+            }
+        }
+        queues.clear();
+    }
+
+    /**
+     * 追加データを持たないパーティクルの PacketEvents 上の種類。データが必要なものは null (Bukkit で送る)
+     */
+    private ParticleType<?> packetType(Particle particle) {
+        if (particle.getDataType() != Void.class) return null;
+        return packetTypes.computeIfAbsent(particle, SpigotConversionUtil::fromBukkitParticle);
+    }
+
+    private static <T extends ParticleData> com.github.retrooper.packetevents.protocol.particle.Particle<T> particle(ParticleType<T> type) {
+        return new com.github.retrooper.packetevents.protocol.particle.Particle<>(type);
+    }
+
+    public long getSentPackets() {
+        return sentPackets;
+    }
+
+    public long getSentFallbacks() {
+        return sentFallbacks;
+    }
+
+    public long getDroppedByBudget() {
+        return droppedByBudget;
+    }
+
+    public long getDroppedByLod() {
+        return droppedByLod;
+    }
+
+    /**
+     * 回転する螺旋の各点を、回転の位相ごとに事前計算したもの。
+     *
+     * <p>
+     * 位相 (時間 × 回転速度) を 1 周 {@value #PHASES} 段階に丸め、段階ごとに各点の相対座標を保持します。
+     * 点 i の角度は {@code phase + y_i * twist} です。
+     * </p>
+     */
+    public static final class Helix {
+        public static final int PHASES = 64;
+
+        private final double speed;
+        private final double[] heights;
+        private final double[][] offsets;
+
+        /**
+         * @param radius    半径
+         * @param heightMax 高さ
+         * @param step      点の垂直間隔
+         * @param speed     1 回あたりの回転角 (ラジアン。負の値は逆回転)
+         * @param twist     高さ 1 あたりのねじれ (ラジアン)
+         */
+        public Helix(double radius, double heightMax, double step, double speed, double twist) {
+            this.speed = speed;
+            int points = 0;
+            for (double y = 0; y <= heightMax; y += step) points++;
+            heights = new double[points];
+            int i = 0;
+            for (double y = 0; y <= heightMax; y += step) heights[i++] = y;
+
+            offsets = new double[PHASES][points * 2];
+            for (int phase = 0; phase < PHASES; phase++) {
+                double base = phase * (Math.PI * 2 / PHASES);
+                for (int p = 0; p < points; p++) {
+                    double angle = base + heights[p] * twist;
+                    offsets[phase][p * 2] = Math.cos(angle) * radius;
+                    offsets[phase][p * 2 + 1] = Math.sin(angle) * radius;
+                }
+            }
+        }
+
+        public int size() {
+            return heights.length;
+        }
+
+        public double height(int point) {
+            return heights[point];
+        }
+
+        /**
+         * 経過回数 ticks における位相の段階
+         */
+        public int phase(int ticks) {
+            double turns = (ticks * speed) / (Math.PI * 2);
+            int phase = (int) Math.round((turns - Math.floor(turns)) * PHASES);
+            return phase % PHASES;
+        }
+
+        public double offsetX(int phase, int point) {
+            return offsets[phase][point * 2];
+        }
+
+        public double offsetZ(int phase, int point) {
+            return offsets[phase][point * 2 + 1];
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.lunar_prototype.deepwither.core;
+
+import com.lunar_prototype.deepwither.api.skill.SkillEffect;
+import com.lunar_prototype.deepwither.util.IManager;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * スキルの弾や持続効果 ({@link SkillEffect}) を 1 つのタスクでまとめて進めるスケジューラー。
+ *
+ * <p>
+ * 実行中の効果は平坦な配列に保持し、毎tick 1 回の走査で実行します。
+ * 1tick あたりの処理時間には上限 (予算) があり、超過した場合は残りの効果を次のtickの先頭に持ち越します。
+ * 持ち越された効果には遅れた実行間隔の数が {@link SkillEffect#run(int)} で渡され (最大 {@link #MAX_CATCH_UP_RUNS})、
+ * 弾など対応した効果だけが 1 回の処理で遅れを取り戻します。それ以外の効果は 1 回分だけ実行されます。
+ * 効果の実行時間はスキル (ラベル) ごとに集計され、{@link #getStats()} で参照できます。
+ * </p>
+ * <p>
+ * メインスレッド専用です。
+ * </p>
+ */
+public class SkillEffectScheduler implements IManager {
+
+    /** 1tick あたりの既定の処理予算 (ナノ秒) */
+    public static final long DEFAULT_BUDGET_NANOS = 5_000_000L;
+
+    /** 持ち越された効果に渡す経過実行間隔の上限 */
+    public static final int MAX_CATCH_UP_RUNS = 4;
+
+    private final JavaPlugin plugin;
+    private BukkitTask task;
+    private long budgetNanos = DEFAULT_BUDGET_NANOS;
+
+    private long currentTick;
+    private SkillEffect[] effects = new SkillEffect[256];
+    private long[] nextRunTicks = new long[256];
+    private long[] periods = new long[256];
+    private int[] labelIds = new int[256];
+    private int size;
+    // 予算超過で持ち越した位置 (次のtickはここから処理する)
+    private int cursor;
+
+    // tick 処理中に追加された効果 (次のtickの先頭で取り込む)
+    private final List<SkillEffect> pendingEffects = new ArrayList<>();
+    private final List<long[]> pendingTimings = new ArrayList<>();
+
+    private final Map<String, Integer> labelIndex = new HashMap<>();
+    private String[] labels = new String[32];
+    private long[] labelRuns = new long[32];
+    private long[] labelNanos = new long[32];
+
+    private int lastDeferred;
+    private long lastTickNanos;
+    private long totalDeferred;
+
+    public SkillEffectScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void init() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flushPending();
+        for (int i = 0; i < size; i++) {
+            effects[i].cancel();
+        }
+        Arrays.fill(effects, 0, size, null);
+        size = 0;
+        cursor = 0;
+    }
+
+    /**
+     * 効果を登録します。通常は {@link SkillEffect#schedule(long, long)} から呼び出されます。
+     *
+     * @param delay 初回実行までの遅延tick (0 の場合は次のtick)
+     * @param period 実行間隔tick (1 以上)
+     */
+    public void schedule(SkillEffect effect, long delay, long period) {
+        if (period < 1) throw new IllegalArgumentException("period must be >= 1: " + period);
+        pendingEffects.add(effect);
+        pendingTimings.add(new long[]{currentTick + Math.max(1L, delay), period});
+    }
+
+    /**
+     * 1tick あたりの処理予算を設定します。
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = Math.max(0L, budgetNanos);
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    void tick() {
+        currentTick++;
+        flushPending();
+
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int count = size;
+        int deferred = 0;
+        int next = 0;
+
+        for (int k = 0; k < count; k++) {
+            int i = cursor + k;
+            if (i >= count) i -= count;
+
+            // 最低 1 件は処理し、予算を超えた時点で残りを持ち越す
+            long now = System.nanoTime();
+            if (k > 0 && now >= deadline) {
+                deferred = count - k;
+                next = i;
+                break;
+            }
+
+            SkillEffect effect = effects[i];
+            if (effect.isCancelled() || nextRunTicks[i] > currentTick) continue;
+
+            // 持ち越しで実行予定tickを過ぎた分を経過間隔として渡す (取り戻すかどうかは効果側が決める)
+            int elapsedRuns = (int) Math.min(MAX_CATCH_UP_RUNS, 1 + (currentTick - nextRunTicks[i]) / periods[i]);
+            try {
+                effect.run(elapsedRuns);
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.WARNING, "Skill effect " + labels[labelIds[i]] + " threw an exception and was cancelled", t);
+                effect.cancel();
+            }
+            nextRunTicks[i] = currentTick + periods[i];
+
+            int label = labelIds[i];
+            labelRuns[label]++;
+            labelNanos[label] += System.nanoTime() - now;
+        }
+
+        cursor = next;
+        lastDeferred = deferred;
+        totalDeferred += deferred;
+        compact();
+        lastTickNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 終了した効果を取り除き、順序を保ったまま詰めます。
+     */
+    private void compact() {
+        int write = 0;
+        int newCursor = 0;
+        for (int read = 0; read < size; read++) {
+            if (read == cursor) newCursor = write;
+            SkillEffect effect = effects[read];
+            if (effect.isCancelled()) continue;
+            if (write != read) {
+                effects[write] = effect;
+                nextRunTicks[write] = nextRunTicks[read];
+                periods[write] = periods[read];
+                labelIds[write] = labelIds[read];
+            }
+            write++;
+        }
+        Arrays.fill(effects, write, size, null);
+        size = write;
+        cursor = (newCursor < size) ? newCursor : 0;
+    }
+
+    private void flushPending() {
+        int added = pendingEffects.size();
+        if (added == 0) return;
+
+        ensureCapacity(size + added);
+        for (int j = 0; j < added; j++) {
+            SkillEffect effect = pendingEffects.get(j);
+            long[] timing = pendingTimings.get(j);
+            effects[size] = effect;
+            nextRunTicks[size] = timing[0];
+            periods[size] = timing[1];
+            labelIds[size] = labelId(effect.getLabel());
+            size++;
+        }
+        pendingEffects.clear();
+        pendingTimings.clear();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= effects.length) return;
+        int capacity = Math.max(required, effects.length * 2);
+        effects = Arrays.copyOf(effects, capacity);
+        nextRunTicks = Arrays.copyOf(nextRunTicks, capacity);
+        periods = Arrays.copyOf(periods, capacity);
+        labelIds = Arrays.copyOf(labelIds, capacity);
+    }
+
+    private int labelId(String label) {
+        Integer id = labelIndex.get(label);
+        if (id != null) return id;
+
+        int newId = labelIndex.size();
+        if (newId >= labels.length) {
+            labels = Arrays.copyOf(labels, labels.length * 2);
+            labelRuns = Arrays.copyOf(labelRuns, labels.length);
+            labelNanos = Arrays.copyOf(labelNanos, labels.length);
+        }
+        labels[newId] = label;
+        labelIndex.put(label, newId);
+        return newId;
+    }
+
+    /**
+     * 実行中 (登録待ちを含む) の効果の数を返します。
+     */
+    public int getActiveCount() {
+        return size + pendingEffects.size();
+    }
+
+    /**
+     * 直前のtickで予算超過により持ち越された効果の数を返します。
+     */
+    public int getLastDeferredCount() {
+        return lastDeferred;
+    }
+
+    public long getTotalDeferredCount() {
+        return totalDeferred;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * スキルごとの実行中の効果数・実行回数・累計実行時間を、累計実行時間の降順で返します。
+     */
+    public List<SkillTickStats> getStats() {
+        int[] active = new int[labelIndex.size()];
+        for (int i = 0; i < size; i++) {
+            if (!effects[i].isCancelled()) active[labelIds[i]]++;
+        }
+
+        List<SkillTickStats> stats = new ArrayList<>(active.length);
+        for (int id = 0; id < active.length; id++) {
+            stats.add(new SkillTickStats(labels[id], active[id], labelRuns[id], labelNanos[id]));
+        }
+        stats.sort((a, b) -> Long.compare(b.totalNanos(), a.totalNanos()));
+        return stats;
+    }
+
+    public void resetStats() {
+        Arrays.fill(labelRuns, 0L);
+        Arrays.fill(labelNanos, 0L);
+        totalDeferred = 0;
+    }
+
+    /**
+     * スキル単位の実行コスト。
+     */
+    public record SkillTickStats(String skill, int active, long runs, long totalNanos) {
+        public double averageMicros() {
+            return runs == 0 ? 0.0 : totalNanos / (double) runs / 1000.0;
+        }
+    }
+}
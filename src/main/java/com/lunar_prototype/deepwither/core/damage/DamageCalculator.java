@@ -1,6 +1,8 @@
 package com.lunar_prototype.deepwither.core.damage;
 
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
 import com.lunar_prototype.deepwither.core.PlayerCache;
 import com.lunar_prototype.deepwither.core.playerdata.PlayerCombatData;
 import com.lunar_prototype.deepwither.util.PseudoRandom;
@@ -21,6 +23,61 @@ public class DamageCalculator {
         return damage * (1.0 - reduction);
     }
 
+    /**
+     * 防御側ステータスの防御力 (魔法の場合は魔法耐性) によるダメージ減算を計算する
+     */
+    public static double applyDefenseStats(double damage, StatMap victimStats, boolean magic) {
+        double defenseValue = magic
+                ? victimStats.getFlat(StatType.MAGIC_RESIST)
+                : victimStats.getFlat(StatType.DEFENSE);
+        return applyDefense(damage, defenseValue, 250.0); // 統一除数
+    }
+
+    /**
+     * 攻撃側ステータスによる基礎攻撃力・武器種別ボーナス・クリティカル倍率・距離倍率を適用する
+     */
+    public static double applyAttackerStats(double damage, StatMap attackerStats, DamageContext context) {
+        // 基礎攻撃力加算 (物理/魔法)
+        if (context.isMagic()) {
+            double magicDmg = attackerStats.getFlat(StatType.MAGIC_DAMAGE);
+
+            if (context.hasTag("AOE")) {
+                damage += magicDmg * 0.6;
+                // AoEの%ボーナス乗算
+                double aoePct = attackerStats.getFinal(StatType.MAGIC_AOE_BONUS);
+                if (aoePct > 0) damage *= (1.0 + aoePct / 100.0);
+            } else if (context.hasTag("BURST")) {
+                damage += magicDmg * 0.4;
+                // バーストの%ボーナス乗算
+                double burstPct = attackerStats.getFinal(StatType.MAGIC_BURST_BONUS);
+                if (burstPct > 0) damage *= (1.0 + burstPct / 100.0);
+            } else {
+                // 通常の魔法攻撃は100%加算
+                damage += magicDmg;
+            }
+        } else {
+            damage += attackerStats.getFlat(StatType.ATTACK_DAMAGE);
+        }
+
+        // 武器種別の追加ダメージ加算
+        StatType weaponType = context.getWeaponStatType();
+        if (weaponType != null) {
+            damage += attackerStats.getFlat(weaponType);
+        }
+
+        // クリティカル倍率適用
+        if (context.isCrit()) {
+            double critMultiplier = attackerStats.getFinal(StatType.CRIT_DAMAGE) / 100.0;
+            damage *= Math.max(1.0, critMultiplier);
+        }
+
+        // 距離倍率適用 (遠距離武器)
+        if (context.getDistanceMultiplier() > 0) {
+            damage *= context.getDistanceMultiplier();
+        }
+        return damage;
+    }
+
     /**
      * 距離によるダメージ倍率を計算する (遠距離武器用)
      */
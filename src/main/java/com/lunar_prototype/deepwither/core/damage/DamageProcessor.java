@@ -1,13 +1,16 @@
 package com.lunar_prototype.deepwither.core.damage;
 
+import com.lunar_prototype.deepwither.CooldownManager;
 import com.lunar_prototype.deepwither.PlayerSettingsManager;
 import com.lunar_prototype.deepwither.StatManager;
 import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.SpecialItemEffectManager;
+import com.lunar_prototype.deepwither.api.DW;
 import com.lunar_prototype.deepwither.api.DeepwitherPartyAPI;
 import com.lunar_prototype.deepwither.api.event.DeepwitherDamageEvent;
 import com.lunar_prototype.deepwither.api.event.onPlayerRecevingDamageEvent;
 import com.lunar_prototype.deepwither.api.stat.IStatManager;
+import com.lunar_prototype.deepwither.core.ParticleRenderer;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import net.kyori.adventure.text.Component;
@@ -29,6 +32,7 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.ItemFactory;
@@ -42,7 +46,7 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.potion.PotionEffectType;
 
-@DependsOn({StatManager.class, PlayerSettingsManager.class, com.lunar_prototype.deepwither.core.UIManager.class, com.lunar_prototype.deepwither.party.PartyManager.class})
+@DependsOn({StatManager.class, PlayerSettingsManager.class, com.lunar_prototype.deepwither.core.UIManager.class, com.lunar_prototype.deepwither.party.PartyManager.class, CooldownManager.class})
 public class DamageProcessor implements IManager, org.bukkit.event.Listener {
 
     private final JavaPlugin plugin;
@@ -50,8 +54,10 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
     private final com.lunar_prototype.deepwither.core.UIManager uiManager;
     private final DeepwitherPartyAPI partyAPI;
     private final Set<UUID> isProcessingDamage = new HashSet<>();
+    private CooldownManager cooldowns;
+    private int onHitCooldownKey;
+    private int aerodynamicsCooldownKey;
 
-    private final Map<UUID, Long> onHitCooldowns = new HashMap<>();
     private static final Set<String> UNDEAD_MOB_IDS = Set.of("melee_skeleton", "ranged_skeleton", "melee_zombi");
     private final Map<UUID, Integer> comboCounts = new HashMap<>();
     private final Map<UUID, Long> lastComboHitTimes = new HashMap<>();
@@ -59,7 +65,6 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
     private static final long COOLDOWN_IGNORE_MS = 300;
     private final Map<UUID, Long> lastSpecialAttackTime = new HashMap<>();
 
-    private final Map<UUID, Long> aerodynamicsCooldown = new HashMap<>();
     private final Map<UUID, Map<UUID, Integer>> rhythmStacks = new HashMap<>();
     private final Map<UUID, Map<UUID, Long>> rhythmLastHit = new HashMap<>();
     private final Map<UUID, Integer> precisionStacks = new HashMap<>();
@@ -74,6 +79,9 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
 
     @Override
     public void init() {
+        this.cooldowns = DW.get(CooldownManager.class);
+        this.onHitCooldownKey = cooldowns.key("on_hit_skill");
+        this.aerodynamicsCooldownKey = cooldowns.key("trait_aerodynamics");
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
@@ -157,10 +165,8 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
 
             // 4. [韋駄天] Aerodynamics: 初撃強化 (CD15秒)
             if (attackerStats.getFlat(com.lunar_prototype.deepwither.StatType.TRAIT_AERODYNAMICS) > 0) {
-                long lastAero = aerodynamicsCooldown.getOrDefault(attackerUUID, 0L);
-                if (currentTime - lastAero >= 15000L) {
+                if (cooldowns.tryAcquire(attackerUUID, aerodynamicsCooldownKey, 15000L)) {
                     damage += (baseAttack * 0.30) * (moveSpeed / 0.1); // 移動速度が高いほど強化
-                    aerodynamicsCooldown.put(attackerUUID, currentTime);
                     uiManager.of(player).message(PlayerSettingsManager.SettingType.SHOW_SPECIAL_LOG, 
                             Component.text("★ [韋駄天] 疾風の初撃！", NamedTextColor.YELLOW));
                 }
@@ -200,45 +206,10 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
                 }
             }
             
-            // 基礎攻撃力加算 (物理/魔法)
-            if (context.isMagic()) {
-                double magicDmg = attackerStats.getFlat(com.lunar_prototype.deepwither.StatType.MAGIC_DAMAGE);
-
-                if (context.hasTag("AOE")) {
-                    damage += magicDmg * 0.6;
-                    // AoEの%ボーナス乗算
-                    double aoePct = attackerStats.getFinal(com.lunar_prototype.deepwither.StatType.MAGIC_AOE_BONUS);
-                    if (aoePct > 0) damage *= (1.0 + aoePct / 100.0);
-                } else if (context.hasTag("BURST")) {
-                    damage += magicDmg * 0.4;
-                    // バーストの%ボーナス乗算
-                    double burstPct = attackerStats.getFinal(com.lunar_prototype.deepwither.StatType.MAGIC_BURST_BONUS);
-                    if (burstPct > 0) damage *= (1.0 + burstPct / 100.0);
-                } else {
-                    // 通常の魔法攻撃は100%加算
-                    damage += magicDmg;
-                }
-            } else {
-                damage += attackerStats.getFlat(com.lunar_prototype.deepwither.StatType.ATTACK_DAMAGE);
-            }
-
-            // 武器種別の追加ダメージ加算
+            // 基礎攻撃力・武器種別・クリティカル・距離倍率の適用
+            damage = DamageCalculator.applyAttackerStats(damage, attackerStats, context);
             com.lunar_prototype.deepwither.StatType weaponType = context.getWeaponStatType();
-            if (weaponType != null) {
-                damage += attackerStats.getFlat(weaponType);
-            }
-
-            // クリティカル倍率適用
-            if (context.isCrit()) {
-                double critMultiplier = attackerStats.getFinal(com.lunar_prototype.deepwither.StatType.CRIT_DAMAGE) / 100.0;
-                damage *= Math.max(1.0, critMultiplier);
-            }
 
-            // 距離倍率適用 (遠距離武器)
-            if (context.getDistanceMultiplier() > 0) {
-                damage *= context.getDistanceMultiplier();
-            }
-            
             // コンボとクールダウン (近接物理ダメージのみ)
             if (!context.isProjectile() && !context.isMagic()) {
                 damage = applyComboAndCooldown(player, damage, context);
@@ -286,14 +257,7 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
             }
             
             // 防御力計算
-            double defenseValue;
-            double divisor = 250.0; // 統一除数
-            if (context.isMagic()) {
-                defenseValue = vStats.getFlat(com.lunar_prototype.deepwither.StatType.MAGIC_RESIST);
-            } else {
-                defenseValue = vStats.getFlat(com.lunar_prototype.deepwither.StatType.DEFENSE);
-            }
-            damage = DamageCalculator.applyDefense(damage, defenseValue, divisor);
+            damage = DamageCalculator.applyDefenseStats(damage, vStats, context.isMagic());
         }
 
         context.setFinalDamage(Math.max(0.1, damage));
@@ -390,11 +354,17 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
             
             Location hitLoc = victim.getLocation().add(0, 1.2, 0);
             World world = hitLoc.getWorld();
-            world.spawnParticle(Particle.FLASH, hitLoc, 1, 0, 0, 0, 0, Color.WHITE);
-            world.spawnParticle(Particle.SONIC_BOOM, hitLoc, 1, 0, 0, 0, 0);
-            world.spawnParticle(Particle.LAVA, hitLoc, 8, 0.4, 0.4, 0.4, 0.1);
-            world.spawnParticle(Particle.CRIT, hitLoc, 30, 0.5, 0.5, 0.5, 0.5);
-            world.spawnParticle(Particle.LARGE_SMOKE, hitLoc, 15, 0.2, 0.2, 0.2, 0.05);
+            ParticleRenderer renderer = DW.get(ParticleRenderer.class);
+            if (renderer != null) {
+                // 近くでエフェクト表示を有効にしているプレイヤーにだけまとめて送る
+                List<Player> viewers = renderer.getViewers(hitLoc);
+                double x = hitLoc.getX(), y = hitLoc.getY(), z = hitLoc.getZ();
+                renderer.queue(viewers, Particle.FLASH, x, y, z, 1, 0, 0, 0, 0, Color.WHITE);
+                renderer.queue(viewers, Particle.SONIC_BOOM, x, y, z, 1, 0, 0, 0, 0, null);
+                renderer.queue(viewers, Particle.LAVA, x, y, z, 8, 0.4, 0.4, 0.4, 0.1, null);
+                renderer.queue(viewers, Particle.CRIT, x, y, z, 30, 0.5, 0.5, 0.5, 0.5, null);
+                renderer.queue(viewers, Particle.LARGE_SMOKE, x, y, z, 15, 0.2, 0.2, 0.2, 0.05, null);
+            }
             world.playSound(hitLoc, Sound.ENTITY_PLAYER_ATTACK_CRIT, 1.2f, 0.8f);
             world.playSound(hitLoc, Sound.BLOCK_ANVIL_LAND, 0.6f, 0.5f);
             world.playSound(hitLoc, Sound.ENTITY_ZOMBIE_ATTACK_IRON_DOOR, 0.8f, 0.6f);
@@ -414,13 +384,11 @@ public class DamageProcessor implements IManager, org.bukkit.event.Listener {
         Integer cooldown = container.get(ItemLoader.SKILL_COOLDOWN_KEY, PersistentDataType.INTEGER);
         String skillId = container.get(ItemLoader.SKILL_ID_KEY, PersistentDataType.STRING);
         if (chance == null || skillId == null) return;
-        long lastTrigger = onHitCooldowns.getOrDefault(attacker.getUniqueId(), 0L);
-        long currentTime = System.currentTimeMillis();
         long cooldownMillis = (cooldown != null) ? cooldown * 1000L : 0L;
-        if (currentTime < lastTrigger + cooldownMillis) return;
+        if (cooldowns.isOnCooldown(attacker.getUniqueId(), onHitCooldownKey, cooldownMillis)) return;
         if (Math.random() * 100 <= chance) {
             MythicBukkit.inst().getAPIHelper().castSkill(attacker.getPlayer(), skillId);
-            onHitCooldowns.put(attacker.getUniqueId(), currentTime);
+            cooldowns.setCooldown(attacker.getUniqueId(), onHitCooldownKey);
             uiManager.of(attacker).message(PlayerSettingsManager.SettingType.SHOW_SPECIAL_LOG,
                     Component.text("[On-Hit] スキル「", NamedTextColor.GREEN)
                             .append(Component.text(skillId, NamedTextColor.AQUA))
@@ -0,0 +1,75 @@
+package com.lunar_prototype.deepwither.core.database;
+
+/**
+ * データベース種別ごとの UPSERT 構文。
+ */
+public enum SqlDialect {
+    H2,
+    MYSQL,
+    SQLITE;
+
+    public static SqlDialect fromConfig(String type) {
+        return switch (type) {
+            case "mysql" -> MYSQL;
+            case "sqlite" -> SQLITE;
+            default -> H2;
+        };
+    }
+
+    /**
+     * キーが存在すれば指定列を更新し、存在しなければ挿入する文を返します。
+     * パラメータはキー列、値列の順です。
+     */
+    public String upsert(String table, String[] keyColumns, String[] columns) {
+        String allColumns = join(keyColumns, columns);
+        String placeholders = placeholders(keyColumns.length + columns.length);
+        return switch (this) {
+            case H2 -> "MERGE INTO " + table + " (" + allColumns + ") KEY (" + String.join(", ", keyColumns) + ") VALUES (" + placeholders + ")";
+            case MYSQL -> "INSERT INTO " + table + " (" + allColumns + ") VALUES (" + placeholders + ")"
+                    + (columns.length == 0 ? " ON DUPLICATE KEY UPDATE " + keyColumns[0] + " = " + keyColumns[0]
+                    : " ON DUPLICATE KEY UPDATE " + assignments(columns, "VALUES(", ")"));
+            case SQLITE -> "INSERT INTO " + table + " (" + allColumns + ") VALUES (" + placeholders + ")"
+                    + " ON CONFLICT(" + String.join(", ", keyColumns) + ")"
+                    + (columns.length == 0 ? " DO NOTHING" : " DO UPDATE SET " + assignments(columns, "excluded.", ""));
+        };
+    }
+
+    /**
+     * キーが存在しない場合のみ行を挿入する文を返します。パラメータはキー列、値列の順です。
+     */
+    public String insertIfAbsent(String table, String[] keyColumns, String[] columns) {
+        String allColumns = join(keyColumns, columns);
+        String placeholders = placeholders(keyColumns.length + columns.length);
+        return switch (this) {
+            case H2 -> "INSERT INTO " + table + " (" + allColumns + ") VALUES (" + placeholders + ") ON CONFLICT DO NOTHING";
+            case MYSQL -> "INSERT IGNORE INTO " + table + " (" + allColumns + ") VALUES (" + placeholders + ")";
+            case SQLITE -> "INSERT OR IGNORE INTO " + table + " (" + allColumns + ") VALUES (" + placeholders + ")";
+        };
+    }
+
+    private static String join(String[] keyColumns, String[] columns) {
+        StringBuilder sb = new StringBuilder(String.join(", ", keyColumns));
+        for (String column : columns) {
+            sb.append(", ").append(column);
+        }
+        return sb.toString();
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    private static String assignments(String[] columns, String prefix, String suffix) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(columns[i]).append(" = ").append(prefix).append(columns[i]).append(suffix);
+        }
+        return sb.toString();
+    }
+}
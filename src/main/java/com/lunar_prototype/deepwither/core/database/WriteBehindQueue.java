@@ -0,0 +1,458 @@
+package com.lunar_prototype.deepwither.core.database;
+
+import com.lunar_prototype.deepwither.api.database.IDatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 書き込みを一定時間ためてからまとめて反映する、ライトビハインド方式のキュー。
+ *
+ * <p>
+ * 同じテーブル・同じキーへの書き込みはキュー内で 1 件にまとめられます (UPSERT / DELETE は後勝ち、加算は合算)。
+ * 専用スレッドが {@code flushIntervalMillis} ごと、または {@code batchSize} 件たまった時点で、
+ * 同じ SQL ごとに JDBC バッチにまとめ、1 トランザクションで実行します。
+ * </p>
+ * <p>
+ * 同じキーに対してまとめられない書き込み (DELETE の後の加算など) は順序を保って実行されます。
+ * キューに残っている内容を読み直す場合は、先に {@link #flush()} を呼び出してください。
+ * </p>
+ */
+public class WriteBehindQueue {
+
+    private enum Kind { UPSERT, UPDATE, DELETE, INCREMENT }
+
+    private final IDatabaseManager db;
+    private final SqlDialect dialect;
+    private final Logger logger;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private List<PendingWrite> ordered = new ArrayList<>();
+    private Map<PendingKey, PendingWrite> latest = new HashMap<>();
+    private boolean flushRequested;
+    private volatile boolean closed;
+
+    // flushLock 内でのみ参照する
+    private final Map<String, String> sqlCache = new HashMap<>();
+
+    private volatile long totalEnqueued;
+    private volatile long totalCoalesced;
+    private volatile long totalStatements;
+    private volatile long totalFailed;
+    private volatile long flushCount;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile long totalFlushNanos;
+    private volatile int lastFlushSize;
+
+    public WriteBehindQueue(IDatabaseManager db, SqlDialect dialect, Logger logger, long flushIntervalMillis, int batchSize) {
+        this.db = db;
+        this.dialect = dialect;
+        this.logger = logger;
+        this.flushIntervalMillis = Math.max(10L, flushIntervalMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Deepwither-DB-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 定期実行を止め、キューに残っている書き込みをすべて反映します。
+     */
+    public void shutdown() {
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+
+        int remaining = getQueueDepth();
+        if (remaining > 0) {
+            logger.severe("[WriteBehind] " + remaining + " pending writes could not be flushed on shutdown.");
+        }
+    }
+
+    // --- 書き込み API ---
+
+    /**
+     * キーの行を {@link WriteTable#valueColumns()} の値で挿入または更新します。
+     */
+    public void upsert(WriteTable table, Object[] key, Object... values) {
+        if (values.length != table.valueColumns().length) {
+            throw new IllegalArgumentException("Expected " + table.valueColumns().length + " values for " + table.name());
+        }
+        enqueue(table, key, Kind.UPSERT, table.valueColumns(), values.clone());
+    }
+
+    /**
+     * 既存の行の 1 列だけを更新します。行が存在しない場合は何もしません。
+     */
+    public void update(WriteTable table, String column, Object value, Object... key) {
+        enqueue(table, key, Kind.UPDATE, new String[]{column}, new Object[]{value});
+    }
+
+    /**
+     * キーの行を削除します。
+     */
+    public void delete(WriteTable table, Object... key) {
+        enqueue(table, key, Kind.DELETE, new String[0], new Object[0]);
+    }
+
+    /**
+     * 数値列に delta を加算します。行が存在しない場合は 0 から加算します。
+     */
+    public void increment(WriteTable table, String column, double delta, Object... key) {
+        enqueue(table, key, Kind.INCREMENT, new String[]{column}, new Object[]{delta});
+    }
+
+    private void enqueue(WriteTable table, Object[] key, Kind kind, String[] columns, Object[] values) {
+        if (closed) {
+            logger.warning("[WriteBehind] Write to " + table.name() + " after shutdown was ignored.");
+            return;
+        }
+
+        PendingKey pendingKey = new PendingKey(table.name(), List.of(key));
+        boolean scheduleFlush = false;
+        synchronized (lock) {
+            totalEnqueued++;
+            PendingWrite previous = latest.get(pendingKey);
+            if (previous != null && previous.absorb(kind, columns, values)) {
+                totalCoalesced++;
+                return;
+            }
+
+            PendingWrite write = new PendingWrite(table, key, kind, columns, values);
+            write.generation = previous == null ? 0 : previous.generation + 1;
+            ordered.add(write);
+            latest.put(pendingKey, write);
+
+            if (ordered.size() >= batchSize && !flushRequested) {
+                flushRequested = true;
+                scheduleFlush = true;
+            }
+        }
+
+        if (scheduleFlush) {
+            executor.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 指定したテーブルへの書き込みがキューに残っているかを返します。
+     */
+    public boolean hasPending(WriteTable table) {
+        synchronized (lock) {
+            for (PendingKey key : latest.keySet()) {
+                if (key.table().equals(table.name())) return true;
+            }
+        }
+        return false;
+    }
+
+    // --- 反映 ---
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "[WriteBehind] Unexpected error while flushing", t);
+        }
+    }
+
+    /**
+     * 呼び出し時点までにキューへ入った書き込みを反映します。呼び出し元のスレッドで実行されます。
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<PendingWrite> batch;
+            synchronized (lock) {
+                flushRequested = false;
+                if (ordered.isEmpty()) return;
+                batch = ordered;
+                ordered = new ArrayList<>();
+                latest = new HashMap<>();
+            }
+
+            long start = System.nanoTime();
+            List<Statement> statements = toStatements(batch);
+            try (Connection conn = db.getConnection()) {
+                execute(conn, statements);
+            } catch (SQLException e) {
+                // 接続できない場合は次回に持ち越す
+                logger.warning("[WriteBehind] Could not obtain a connection, " + batch.size() + " writes will be retried: " + e.getMessage());
+                requeue(batch);
+                return;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            lastFlushNanos = elapsed;
+            maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+            totalFlushNanos += elapsed;
+            lastFlushSize = batch.size();
+            flushCount++;
+            totalStatements += statements.size();
+        }
+    }
+
+    private void execute(Connection conn, List<Statement> statements) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int i = 0;
+            while (i < statements.size()) {
+                Statement first = statements.get(i);
+                int end = i + 1;
+                while (end < statements.size() && statements.get(end).order == first.order
+                        && statements.get(end).sql.equals(first.sql)) {
+                    end++;
+                }
+                try (PreparedStatement ps = conn.prepareStatement(first.sql)) {
+                    for (int j = i; j < end; j++) {
+                        bind(ps, statements.get(j).params);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                i = end;
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            logger.warning("[WriteBehind] Batch of " + statements.size() + " statements failed, retrying one by one: " + e.getMessage());
+            conn.setAutoCommit(true);
+            executeIndividually(conn, statements);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * バッチが失敗した場合に 1 文ずつ実行し、失敗した文だけを破棄します。
+     */
+    private void executeIndividually(Connection conn, List<Statement> statements) {
+        for (Statement statement : statements) {
+            try (PreparedStatement ps = conn.prepareStatement(statement.sql)) {
+                bind(ps, statement.params);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                totalFailed++;
+                logger.severe("[WriteBehind] Dropped write (" + statement.sql + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private void requeue(List<PendingWrite> failed) {
+        synchronized (lock) {
+            List<PendingWrite> combined = new ArrayList<>(failed.size() + ordered.size());
+            combined.addAll(failed);
+            combined.addAll(ordered);
+
+            Map<PendingKey, PendingWrite> rebuilt = new HashMap<>();
+            for (PendingWrite write : combined) {
+                PendingKey key = new PendingKey(write.table.name(), List.of(write.key));
+                PendingWrite previous = rebuilt.get(key);
+                write.generation = previous == null ? 0 : previous.generation + 1;
+                rebuilt.put(key, write);
+            }
+            ordered = combined;
+            latest = rebuilt;
+        }
+    }
+
+    private List<Statement> toStatements(List<PendingWrite> batch) {
+        List<Statement> statements = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            WriteTable table = write.table;
+            int order = write.generation * 2;
+            switch (write.kind) {
+                case UPSERT -> statements.add(new Statement(order,
+                        sql("U", table, write.columns, () -> dialect.upsert(table.name(), table.keyColumns(), write.columns)),
+                        concat(write.key, write.values)));
+                case UPDATE -> statements.add(new Statement(order,
+                        sql("S", table, write.columns, () -> "UPDATE " + table.name() + " SET " + write.columns[0] + " = ? WHERE " + where(table)),
+                        concat(write.values, write.key)));
+                case DELETE -> statements.add(new Statement(order,
+                        sql("D", table, write.columns, () -> "DELETE FROM " + table.name() + " WHERE " + where(table)),
+                        write.key));
+                case INCREMENT -> {
+                    String column = write.columns[0];
+                    statements.add(new Statement(order,
+                            sql("I", table, write.columns, () -> dialect.insertIfAbsent(table.name(), table.keyColumns(), write.columns)),
+                            concat(write.key, new Object[]{0.0})));
+                    statements.add(new Statement(order + 1,
+                            sql("A", table, write.columns, () -> "UPDATE " + table.name() + " SET " + column + " = " + column + " + ? WHERE " + where(table)),
+                            concat(write.values, write.key)));
+                }
+            }
+        }
+        // 同じキーの書き込み順 (order) を保ったまま、同じ SQL を隣接させる
+        statements.sort(Comparator.comparingInt((Statement s) -> s.order).thenComparing(s -> s.sql));
+        return statements;
+    }
+
+    private String sql(String kind, WriteTable table, String[] columns, java.util.function.Supplier<String> builder) {
+        return sqlCache.computeIfAbsent(kind + ':' + table.name() + ':' + String.join(",", columns), k -> builder.get());
+    }
+
+    private static String where(WriteTable table) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < table.keyColumns().length; i++) {
+            if (i > 0) sb.append(" AND ");
+            sb.append(table.keyColumns()[i]).append(" = ?");
+        }
+        return sb.toString();
+    }
+
+    private static Object[] concat(Object[] a, Object[] b) {
+        Object[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+
+    // --- 計測 ---
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return ordered.size();
+        }
+    }
+
+    public WriteQueueMetrics getMetrics() {
+        long flushes = flushCount;
+        return new WriteQueueMetrics(getQueueDepth(), totalEnqueued, totalCoalesced, totalStatements, totalFailed,
+                flushes, lastFlushSize, lastFlushNanos, maxFlushNanos, flushes == 0 ? 0L : totalFlushNanos / flushes);
+    }
+
+    public void resetMetrics() {
+        synchronized (flushLock) {
+            totalEnqueued = 0;
+            totalCoalesced = 0;
+            totalStatements = 0;
+            totalFailed = 0;
+            flushCount = 0;
+            maxFlushNanos = 0;
+            totalFlushNanos = 0;
+        }
+    }
+
+    /**
+     * キューの状態と反映にかかった時間。
+     *
+     * @param coalesced 既存の書き込みにまとめられた件数
+     * @param statements 実行した SQL 文の数
+     */
+    public record WriteQueueMetrics(int queueDepth, long enqueued, long coalesced, long statements, long failed,
+                                    long flushes, int lastFlushSize, long lastFlushNanos, long maxFlushNanos,
+                                    long averageFlushNanos) {
+    }
+
+    private record PendingKey(String table, List<Object> key) {
+    }
+
+    private record Statement(int order, String sql, Object[] params) {
+    }
+
+    /**
+     * キュー内の 1 件の書き込み。後続の書き込みを取り込んで内容が変わることがあります。
+     */
+    private static final class PendingWrite {
+        final WriteTable table;
+        final Object[] key;
+        Kind kind;
+        String[] columns;
+        Object[] values;
+        int generation;
+
+        PendingWrite(WriteTable table, Object[] key, Kind kind, String[] columns, Object[] values) {
+            this.table = table;
+            this.key = key;
+            this.kind = kind;
+            this.columns = columns;
+            this.values = values;
+        }
+
+        /**
+         * 後続の書き込みをこの書き込みにまとめられる場合はまとめて true を返します。
+         */
+        boolean absorb(Kind nextKind, String[] nextColumns, Object[] nextValues) {
+            switch (nextKind) {
+                case UPSERT, DELETE -> {
+                    kind = nextKind;
+                    columns = nextColumns;
+                    values = nextValues;
+                    return true;
+                }
+                case UPDATE -> {
+                    if (kind == Kind.DELETE) return true; // 削除済みの行への UPDATE は何も変えない
+                    if (kind == Kind.UPDATE && columns[0].equals(nextColumns[0])) {
+                        values = nextValues;
+                        return true;
+                    }
+                    if (kind == Kind.UPSERT) {
+                        int index = indexOf(nextColumns[0]);
+                        if (index < 0) return false;
+                        values[index] = nextValues[0];
+                        return true;
+                    }
+                    return false;
+                }
+                case INCREMENT -> {
+                    double delta = (Double) nextValues[0];
+                    if (kind == Kind.INCREMENT && columns[0].equals(nextColumns[0])) {
+                        values = new Object[]{(Double) values[0] + delta};
+                        return true;
+                    }
+                    if (kind == Kind.UPSERT) {
+                        int index = indexOf(nextColumns[0]);
+                        if (index < 0 || !(values[index] instanceof Number number)) return false;
+                        values[index] = number.doubleValue() + delta;
+                        return true;
+                    }
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private int indexOf(String column) {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equals(column)) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.lunar_prototype.deepwither.core.database;
+
+/**
+ * {@link WriteBehindQueue} で書き込むテーブルの定義。
+ *
+ * @param name テーブル名
+ * @param keyColumns 主キー (一意制約) の列
+ * @param valueColumns UPSERT で書き込む値の列
+ */
+public record WriteTable(String name, String[] keyColumns, String[] valueColumns) {
+
+    public static WriteTable of(String name, String... keyColumns) {
+        return new WriteTable(name, keyColumns, new String[0]);
+    }
+
+    public WriteTable withColumns(String... valueColumns) {
+        return new WriteTable(name, keyColumns, valueColumns);
+    }
+}
@@ -1,10 +1,17 @@
 package com.lunar_prototype.deepwither.core.engine;
 
+import com.lunar_prototype.deepwither.util.AsyncInit;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,12 +26,14 @@ import java.util.logging.Logger;
  * <li>シングルトンインスタンス管理</li>
  * <li>IManagerインターフェースによるライフサイクル管理の統合</li>
  * <li>@DependsOnアノテーションによる初期化順序の制御</li>
+ * <li>@AsyncInit を付けたマネージャーの並列初期化 (依存関係を満たした順にスレッドプールで実行)</li>
  * </ul>
  */
 public class ServiceContainer {
 
-    private final Map<Class<?>, Object> instances = new HashMap<>();
-    private final Map<Class<?>, Object> registeredInstances = new HashMap<>();
+    /** 並列初期化中に他スレッドから参照されるため ConcurrentHashMap */
+    private final Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> registeredInstances = new ConcurrentHashMap<>();
     private final Set<Class<?>> currentlyCreating = new HashSet<>();
     private final Logger logger;
 
@@ -32,6 +41,9 @@ public class ServiceContainer {
     private final List<IManager> orderedLifecycleManaged = new ArrayList<>();
     private boolean initialized = false;
 
+    /** 並列初期化に使うスレッド数の上限 */
+    private static final int MAX_INIT_THREADS = 4;
+
     /**
      * 依存関係グラフのノード
      */
@@ -83,7 +95,11 @@ public class ServiceContainer {
         return createInstance(clazz);
     }
 
-    private <T> T createInstance(Class<T> clazz) {
+    private synchronized <T> T createInstance(Class<T> clazz) {
+        Object existing = instances.get(clazz);
+        if (existing != null) {
+            return clazz.cast(existing);
+        }
         if (currentlyCreating.contains(clazz)) {
             throw new IllegalStateException("Circular dependency detected: " + clazz.getName());
         }
@@ -129,6 +145,13 @@ public class ServiceContainer {
 
     /**
      * 登録された全 IManager を依存関係順に初期化します。
+     *
+     * <p>
+     * 依存先の初期化がすべて終わったマネージャーから順に初期化します。{@link AsyncInit} を付けたマネージャーは
+     * スレッドプール上で並行して、それ以外はこのメソッドを呼び出したスレッド (メインスレッド) で 1 つずつ実行します。
+     * 完了後、各マネージャーの初期化タイムラインとクリティカルパス (起動時間を決めている依存の連鎖) をログに出力します。
+     * いずれかの初期化が失敗した場合は、実行中のものの完了を待ってから最初の例外を投げます。
+     * </p>
      */
     public void initializeAll() throws Exception {
         if (initialized) return;
@@ -139,16 +162,208 @@ public class ServiceContainer {
         logger.info("--- [DI] Initialization Sequence ---");
         for (int i = 0; i < orderedLifecycleManaged.size(); i++) {
             IManager manager = orderedLifecycleManaged.get(i);
-            logger.info(String.format("  [%d] %s", (i + 1), manager.getClass().getSimpleName()));
+            logger.info(String.format("  [%d] %s%s", (i + 1), manager.getClass().getSimpleName(),
+                    isAsyncInit(manager) ? " (async)" : ""));
         }
 
-        for (IManager manager : orderedLifecycleManaged) {
-            manager.init();
+        List<InitRecord> records = runInitGraph();
+        // 停止は実際に初期化が終わった順の逆順で行う
+        orderedLifecycleManaged.clear();
+        for (InitRecord record : records) {
+            orderedLifecycleManaged.add(record.manager);
         }
         initialized = true;
+        logInitTimeline(records);
         logger.info("--- [DI] All Services Initialized ---");
     }
 
+    /**
+     * 初期化 1 件分の記録
+     */
+    private static final class InitRecord {
+        final IManager manager;
+        final List<InitRecord> dependencies = new ArrayList<>();
+        final List<InitRecord> dependents = new ArrayList<>();
+        final boolean async;
+        int remaining;
+        long startNanos;
+        long endNanos;
+        String thread;
+        Throwable failure;
+
+        InitRecord(IManager manager, boolean async) {
+            this.manager = manager;
+            this.async = async;
+        }
+
+        long durationNanos() {
+            return endNanos - startNanos;
+        }
+    }
+
+    /**
+     * 依存関係グラフに従って init() を実行し、完了順の記録を返します。
+     */
+    private List<InitRecord> runInitGraph() throws Exception {
+        // 1. 記録と依存関係 (同一インスタンスが複数のクラスで登録されている場合も 1 件にまとめる)
+        Map<IManager, InitRecord> byManager = new IdentityHashMap<>();
+        for (IManager manager : orderedLifecycleManaged) {
+            byManager.put(manager, new InitRecord(manager, isAsyncInit(manager)));
+        }
+        for (IManager manager : orderedLifecycleManaged) {
+            InitRecord record = byManager.get(manager);
+            for (Class<?> dep : buildNode(manager.getClass()).dependencies) {
+                Object depInstance = instances.get(dep);
+                InitRecord depRecord = depInstance instanceof IManager m ? byManager.get(m) : null;
+                if (depRecord == null || depRecord == record || record.dependencies.contains(depRecord)) continue;
+                record.dependencies.add(depRecord);
+                depRecord.dependents.add(record);
+            }
+            record.remaining = record.dependencies.size();
+        }
+
+        // 2. 依存先が揃ったものから実行する
+        Deque<InitRecord> mainReady = new ArrayDeque<>();
+        List<InitRecord> asyncReady = new ArrayList<>();
+        for (IManager manager : orderedLifecycleManaged) {
+            InitRecord record = byManager.get(manager);
+            if (record.remaining == 0) {
+                (record.async ? asyncReady : mainReady).add(record);
+            }
+        }
+
+        List<InitRecord> completed = new ArrayList<>();
+        BlockingQueue<InitRecord> asyncDone = new LinkedBlockingQueue<>();
+        ExecutorService pool = null;
+        int inFlight = 0;
+        Throwable failure = null;
+        long origin = System.nanoTime();
+
+        try {
+            while (completed.size() < byManager.size()) {
+                if (failure == null && !asyncReady.isEmpty()) {
+                    if (pool == null) pool = createInitPool();
+                    for (InitRecord record : asyncReady) {
+                        pool.execute(() -> {
+                            runInit(record);
+                            asyncDone.add(record);
+                        });
+                        inFlight++;
+                    }
+                    asyncReady.clear();
+                }
+
+                InitRecord done;
+                if (failure == null && !mainReady.isEmpty()) {
+                    done = mainReady.poll();
+                    runInit(done);
+                } else if (inFlight > 0) {
+                    done = asyncDone.take();
+                    inFlight--;
+                } else {
+                    break;
+                }
+
+                if (done.failure != null) {
+                    if (failure == null) failure = done.failure;
+                    continue;
+                }
+                completed.add(done);
+                for (InitRecord dependent : done.dependents) {
+                    if (--dependent.remaining == 0) {
+                        (dependent.async ? asyncReady : mainReady).add(dependent);
+                    }
+                }
+            }
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+
+        for (InitRecord record : byManager.values()) {
+            record.startNanos -= origin;
+            record.endNanos -= origin;
+        }
+
+        if (failure != null) {
+            if (failure instanceof Exception e) throw e;
+            if (failure instanceof Error e) throw e;
+            throw new RuntimeException(failure);
+        }
+        if (completed.size() < byManager.size()) {
+            // resolveLifecycleOrder で循環は検出済みのため、通常は到達しない
+            throw new IllegalStateException("Some managers could not be initialized (unresolved dependencies)");
+        }
+        return completed;
+    }
+
+    private void runInit(InitRecord record) {
+        record.thread = Thread.currentThread().getName();
+        record.startNanos = System.nanoTime();
+        try {
+            record.manager.init();
+        } catch (Throwable t) {
+            record.failure = t;
+            logger.log(Level.SEVERE, "[DI] Failed to initialize: " + record.manager.getClass().getSimpleName(), t);
+        } finally {
+            record.endNanos = System.nanoTime();
+        }
+    }
+
+    private ExecutorService createInitPool() {
+        int threads = Math.max(2, Math.min(MAX_INIT_THREADS, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Deepwither-Init-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static boolean isAsyncInit(IManager manager) {
+        return manager.getClass().isAnnotationPresent(AsyncInit.class);
+    }
+
+    /**
+     * 初期化タイムライン (開始時刻順) とクリティカルパスを出力する
+     */
+    private void logInitTimeline(List<InitRecord> records) {
+        if (records.isEmpty()) return;
+
+        logger.info("--- [DI] Initialization Timeline ---");
+        List<InitRecord> byStart = new ArrayList<>(records);
+        byStart.sort(Comparator.comparingLong(r -> r.startNanos));
+        long total = 0;
+        long wall = 0;
+        for (InitRecord record : byStart) {
+            logger.info(String.format("  +%7.1fms %8.1fms  %-32s [%s]", millis(record.startNanos),
+                    millis(record.durationNanos()), record.manager.getClass().getSimpleName(), record.thread));
+            total += record.durationNanos();
+            wall = Math.max(wall, record.endNanos);
+        }
+
+        // 最後に終わったものから、開始を遅らせていた (最後に終わった) 依存先をたどる
+        InitRecord last = records.get(0);
+        for (InitRecord record : records) {
+            if (record.endNanos > last.endNanos) last = record;
+        }
+        List<String> path = new ArrayList<>();
+        for (InitRecord record = last; record != null; ) {
+            path.add(String.format("%s(%.1fms)", record.manager.getClass().getSimpleName(), millis(record.durationNanos())));
+            InitRecord gate = null;
+            for (InitRecord dep : record.dependencies) {
+                if (gate == null || dep.endNanos > gate.endNanos) gate = dep;
+            }
+            record = gate;
+        }
+        Collections.reverse(path);
+        logger.info(String.format("[DI] Critical path: %s", String.join(" -> ", path)));
+        logger.info(String.format("[DI] Init wall time %.1fms (sum of init() %.1fms)", millis(wall), millis(total)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
     /**
      * 初期化の逆順で全 IManager を停止します。
      */
@@ -7,16 +7,27 @@ import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
 @DependsOn({
     PlayerDataManager.class
 })
 public class PlayerConnectionListener implements Listener, IManager {
 
+    /** ログイン処理中にプレイヤーデータの読み込みを待つ上限 (秒) */
+    private static final long PREFETCH_TIMEOUT_SECONDS = 10L;
+
     private final JavaPlugin plugin;
     private PlayerDataManager playerDataManager;
 
@@ -34,6 +45,26 @@ public class PlayerConnectionListener implements Listener, IManager {
     public void shutdown() {
     }
 
+    /**
+     * ログイン処理中 (非同期) にプレイヤーデータを読み込み、完了まで待つ。
+     * 参加時 (PlayerJoinEvent) の処理は設定などがキャッシュに読み込まれている前提で参照できる。
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        CompletableFuture<Void> prefetch = playerDataManager.prefetch(e.getUniqueId());
+        try {
+            prefetch.get(PREFETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException ex) {
+            plugin.getLogger().warning("[PlayerData] Prefetch for " + e.getName() + " did not finish within "
+                    + PREFETCH_TIMEOUT_SECONDS + "s; join-time settings may use defaults");
+        } catch (ExecutionException ex) {
+            plugin.getLogger().log(Level.WARNING, "[PlayerData] Prefetch for " + e.getName() + " failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @EventHandler
     public void onJoin(PlayerJoinEvent e) {
         playerDataManager.loadData(e.getPlayer().getUniqueId());
@@ -2,28 +2,56 @@ package com.lunar_prototype.deepwither.core.playerdata;
 
 import com.lunar_prototype.deepwither.DatabaseManager;
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
 import com.lunar_prototype.deepwither.api.playerdata.IPlayerDataHandler;
 import com.lunar_prototype.deepwither.core.CacheManager;
 import com.lunar_prototype.deepwither.core.PlayerCache;
+import com.lunar_prototype.deepwither.core.database.WriteBehindQueue;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
+import com.lunar_prototype.deepwither.util.LatencyHistogram;
+import org.bukkit.Bukkit;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.logging.Level;
 
 /**
  * プレイヤーデータの読み込み・保存・移行を一括管理するマネージャー。
  * Observerパターンを用いて、各機能マネージャーから登録されたハンドラーを並列実行します。
+ *
+ * <p>
+ * {@link IBulkPlayerDataHandler} を実装したハンドラーは、1 つの接続でまとめて読み込まれます (一括ロード)。
+ * ログイン前 ({@code AsyncPlayerPreLoginEvent}) に {@link #prefetch(UUID)} で読み込みを開始しておくと、
+ * 参加時の {@link #loadData(UUID)} はその結果を待つだけになります。
+ * ハンドラーごとのロード・セーブ時間は {@link #getTimings()} で参照できます。
+ * </p>
  */
 @DependsOn({DatabaseManager.class, CacheManager.class})
 public class PlayerDataManager implements IManager {
 
+    /** 参加しなかったプレイヤーの先読みデータを破棄するまでの時間 (tick) */
+    private static final long PREFETCH_EXPIRY_TICKS = 20L * 60;
+    private static final String BULK_LOAD = "BulkLoad";
+
     private final Deepwither plugin;
     private final CacheManager cache;
     private final List<IPlayerDataHandler> handlers = new CopyOnWriteArrayList<>();
+    private DatabaseManager db;
+
+    private final Map<UUID, CompletableFuture<Void>> prefetches = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Void>> pendingUnloads = new ConcurrentHashMap<>();
+    private final Map<String, HandlerTimings> timings = new ConcurrentHashMap<>();
 
     public PlayerDataManager(Deepwither plugin, CacheManager cache) {
         this.plugin = plugin;
@@ -32,10 +60,12 @@ public class PlayerDataManager implements IManager {
 
     @Override
     public void init() {
+        this.db = plugin.get(DatabaseManager.class);
     }
 
     @Override
     public void shutdown() {
+        prefetches.clear();
     }
 
     /**
@@ -44,29 +74,111 @@ public class PlayerDataManager implements IManager {
      */
     public void registerHandler(IPlayerDataHandler handler) {
         handlers.add(handler);
-        plugin.getLogger().info("[PlayerData] Registered handler: " + handler.getHandlerName());
+        plugin.getLogger().info("[PlayerData] Registered handler: " + handler.getHandlerName()
+                + (handler instanceof IBulkPlayerDataHandler ? " (bulk)" : ""));
+    }
+
+    /**
+     * ログイン前にプレイヤーデータの読み込みを開始します。非同期スレッドから呼び出せます。
+     * 既にオンラインのプレイヤー (多重ログイン) は、現在のデータを上書きしないよう対象外です。
+     *
+     * @return 読み込みの完了を表す Future (対象外の場合は完了済み)
+     */
+    public CompletableFuture<Void> prefetch(UUID uuid) {
+        if (Bukkit.getPlayer(uuid) != null) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> future = prefetches.computeIfAbsent(uuid, this::startLoad);
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            // 参加しなかった場合は読み込んだキャッシュを破棄する
+            if (prefetches.remove(uuid, future) && Bukkit.getPlayer(uuid) == null) {
+                future.whenComplete((v, ex) -> cache.removeCache(uuid));
+            }
+        }, PREFETCH_EXPIRY_TICKS);
+        return future;
     }
 
     /**
      * 登録された全ハンドラーを並列実行し、プレイヤーデータを読み込みます。
+     * 先読み済みの場合はその結果を返します。
      */
     public CompletableFuture<Void> loadData(UUID uuid) {
+        CompletableFuture<Void> prefetched = prefetches.remove(uuid);
+        if (prefetched != null) return prefetched;
+        return startLoad(uuid);
+    }
+
+    /**
+     * 直前のログアウトの保存が終わってから読み込みを開始します。
+     */
+    private CompletableFuture<Void> startLoad(UUID uuid) {
+        CompletableFuture<Void> unload = pendingUnloads.get(uuid);
+        if (unload == null) return loadNow(uuid);
+        return unload.handle((v, ex) -> null).thenCompose(v -> loadNow(uuid));
+    }
+
+    private CompletableFuture<Void> loadNow(UUID uuid) {
         PlayerCache pc = cache.getCache(uuid);
         List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<IBulkPlayerDataHandler> bulkHandlers = new ArrayList<>();
         for (IPlayerDataHandler handler : handlers) {
-            try {
-                futures.add(handler.loadData(uuid, pc).exceptionally(ex -> {
-                    plugin.getLogger().log(java.util.logging.Level.SEVERE, "Handler " + handler.getHandlerName() + " failed to load data for " + uuid, ex);
-                    throw new java.util.concurrent.CompletionException(ex);
-                }));
-            } catch (Exception ex) {
-                plugin.getLogger().log(java.util.logging.Level.SEVERE, "Handler " + handler.getHandlerName() + " threw a synchronous exception during loadData for " + uuid, ex);
-                futures.add(CompletableFuture.failedFuture(ex));
+            if (handler instanceof IBulkPlayerDataHandler bulk && db != null) {
+                bulkHandlers.add(bulk);
+            } else {
+                futures.add(loadIndividually(handler, uuid, pc));
             }
         }
+        if (!bulkHandlers.isEmpty()) {
+            futures.add(loadBulk(uuid, pc, bulkHandlers));
+        }
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    /**
+     * 一括ロード対象のハンドラーを 1 つの接続で順に読み込みます。失敗したハンドラーは個別ロードにフォールバックします。
+     */
+    private CompletableFuture<Void> loadBulk(UUID uuid, PlayerCache pc, List<IBulkPlayerDataHandler> bulkHandlers) {
+        return CompletableFuture.supplyAsync(() -> {
+            long bulkStart = System.nanoTime();
+            // ログアウト時の保存がキューに残っていれば先に反映する
+            WriteBehindQueue queue = db.getWriteQueue();
+            if (queue.getQueueDepth() > 0) queue.flush();
+
+            List<IPlayerDataHandler> failed = new ArrayList<>();
+            try (Connection conn = db.getConnection()) {
+                for (IBulkPlayerDataHandler handler : bulkHandlers) {
+                    long start = System.nanoTime();
+                    try (PreparedStatement ps = conn.prepareStatement(handler.bulkLoadQuery())) {
+                        ps.setString(1, uuid.toString());
+                        try (ResultSet rs = ps.executeQuery()) {
+                            handler.applyBulkLoad(uuid, pc, rs);
+                        }
+                        timings(handler.getHandlerName()).load.record(System.nanoTime() - start);
+                    } catch (Exception ex) {
+                        plugin.getLogger().log(Level.WARNING, "Bulk load failed for " + handler.getHandlerName() + ", falling back to individual load", ex);
+                        failed.add(handler);
+                    }
+                }
+            } catch (SQLException ex) {
+                plugin.getLogger().log(Level.WARNING, "Bulk load connection failed for " + uuid + ", falling back to individual loads", ex);
+                failed.clear();
+                failed.addAll(bulkHandlers);
+            }
+            timings(BULK_LOAD).load.record(System.nanoTime() - bulkStart);
+            return failed;
+        }, plugin.getAsyncExecutor()).thenCompose(failed -> {
+            if (failed.isEmpty()) return CompletableFuture.completedFuture(null);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (IPlayerDataHandler handler : failed) {
+                futures.add(loadIndividually(handler, uuid, pc));
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    private CompletableFuture<Void> loadIndividually(IPlayerDataHandler handler, UUID uuid, PlayerCache pc) {
+        return run(handler, uuid, "load", timings(handler.getHandlerName()).load, h -> h.loadData(uuid, pc));
+    }
+
     /**
      * 登録された全ハンドラーを並列実行し、プレイヤーデータを保存します。
      */
@@ -74,19 +186,25 @@ public class PlayerDataManager implements IManager {
         PlayerCache pc = cache.getCache(uuid);
         List<CompletableFuture<Void>> futures = new ArrayList<>();
         for (IPlayerDataHandler handler : handlers) {
-            try {
-                futures.add(handler.saveData(uuid, pc).exceptionally(ex -> {
-                    plugin.getLogger().log(java.util.logging.Level.SEVERE, "Handler " + handler.getHandlerName() + " failed to save data for " + uuid, ex);
-                    throw new java.util.concurrent.CompletionException(ex);
-                }));
-            } catch (Exception ex) {
-                plugin.getLogger().log(java.util.logging.Level.SEVERE, "Handler " + handler.getHandlerName() + " threw a synchronous exception during saveData for " + uuid, ex);
-                futures.add(CompletableFuture.failedFuture(ex));
-            }
+            futures.add(run(handler, uuid, "save", timings(handler.getHandlerName()).save, h -> h.saveData(uuid, pc)));
         }
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    private CompletableFuture<Void> run(IPlayerDataHandler handler, UUID uuid, String action, LatencyHistogram histogram,
+                                        Function<IPlayerDataHandler, CompletableFuture<Void>> task) {
+        long start = System.nanoTime();
+        try {
+            return task.apply(handler).whenComplete((v, ex) -> histogram.record(System.nanoTime() - start)).exceptionally(ex -> {
+                plugin.getLogger().log(Level.SEVERE, "Handler " + handler.getHandlerName() + " failed to " + action + " data for " + uuid, ex);
+                throw new java.util.concurrent.CompletionException(ex);
+            });
+        } catch (Exception ex) {
+            plugin.getLogger().log(Level.SEVERE, "Handler " + handler.getHandlerName() + " threw a synchronous exception during " + action + "Data for " + uuid, ex);
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
     /**
      * プレイヤーデータを保存し、キャッシュを破棄します（同期）。
      */
@@ -97,10 +215,48 @@ public class PlayerDataManager implements IManager {
 
     /**
      * プレイヤーデータを非同期で保存し、完了後にキャッシュを破棄します。
+     * 保存中に同じプレイヤーが再ログインした場合、読み込みは保存の完了後に行われます。
      * @param uuid 対象プレイヤーの UUID
      * @return 処理の完了を表す CompletableFuture
      */
     public CompletableFuture<Void> unloadDataAsync(UUID uuid) {
-        return saveData(uuid).thenRun(() -> cache.removeCache(uuid));
+        CompletableFuture<Void> future = saveData(uuid).thenRun(() -> cache.removeCache(uuid));
+        pendingUnloads.put(uuid, future);
+        future.whenComplete((v, ex) -> pendingUnloads.remove(uuid, future));
+        return future;
+    }
+
+    private HandlerTimings timings(String handlerName) {
+        return timings.computeIfAbsent(handlerName, k -> new HandlerTimings());
+    }
+
+    /**
+     * ハンドラー名ごとのロード・セーブ時間。一括ロード全体は "BulkLoad" として記録されます。
+     */
+    public Map<String, HandlerTimings> getTimings() {
+        return timings;
+    }
+
+    public void resetTimings() {
+        for (HandlerTimings t : timings.values()) {
+            t.load.reset();
+            t.save.reset();
+        }
+    }
+
+    /**
+     * 1 ハンドラー分のロード・セーブ時間の分布。
+     */
+    public static final class HandlerTimings {
+        private final LatencyHistogram load = new LatencyHistogram();
+        private final LatencyHistogram save = new LatencyHistogram();
+
+        public LatencyHistogram load() {
+            return load;
+        }
+
+        public LatencyHistogram save() {
+            return save;
+        }
     }
 }
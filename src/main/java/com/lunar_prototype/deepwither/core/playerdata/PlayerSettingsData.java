@@ -0,0 +1,106 @@
+package com.lunar_prototype.deepwither.core.playerdata;
+
+import com.lunar_prototype.deepwither.PlayerSettingsManager.SettingType;
+import com.lunar_prototype.deepwither.api.playerdata.IPlayerComponent;
+
+/**
+ * プレイヤーの個人設定。
+ *
+ * <p>
+ * ON/OFF の設定は「既定値から変更したか」を {@link SettingType} の ordinal 番目のビットで持ちます。
+ * ビットが 0 の項目は既定値なので、設定項目を末尾に追加しても既存のデータはそのまま読めます
+ * (項目の並び替え・削除は保存済みのビットがずれるため不可。最大 31 項目)。
+ * </p>
+ * <p>
+ * 変更すると dirty になり、{@link com.lunar_prototype.deepwither.PlayerSettingsManager} がまとめて保存します。
+ * 読み取りはロックなしで行えます。保存用に複数の値をまとめて読む場合はこのインスタンスを同期してください。
+ * </p>
+ */
+public class PlayerSettingsData implements IPlayerComponent {
+
+    public static final String DEFAULT_RARITY_FILTER = "&f&lコモン";
+
+    private volatile int overrides;
+    private volatile String rarityFilter;
+    private volatile boolean alphaAgreed;
+    private volatile boolean dirty;
+
+    public PlayerSettingsData() {
+        this(0, DEFAULT_RARITY_FILTER, false);
+    }
+
+    public PlayerSettingsData(int overrides, String rarityFilter, boolean alphaAgreed) {
+        this.overrides = overrides;
+        this.rarityFilter = rarityFilter != null ? rarityFilter : DEFAULT_RARITY_FILTER;
+        this.alphaAgreed = alphaAgreed;
+    }
+
+    public boolean isEnabled(SettingType type) {
+        return type.getDefault() ^ ((overrides & bit(type)) != 0);
+    }
+
+    /**
+     * @return 切り替え後の値
+     */
+    public synchronized boolean toggle(SettingType type) {
+        overrides ^= bit(type);
+        dirty = true;
+        return isEnabled(type);
+    }
+
+    public synchronized void set(SettingType type, boolean enabled) {
+        if (isEnabled(type) != enabled) toggle(type);
+    }
+
+    public String getRarityFilter() {
+        return rarityFilter;
+    }
+
+    public synchronized void setRarityFilter(String rarityFilter) {
+        if (rarityFilter.equals(this.rarityFilter)) return;
+        this.rarityFilter = rarityFilter;
+        dirty = true;
+    }
+
+    public boolean isAlphaAgreed() {
+        return alphaAgreed;
+    }
+
+    public synchronized void setAlphaAgreed(boolean alphaAgreed) {
+        if (this.alphaAgreed == alphaAgreed) return;
+        this.alphaAgreed = alphaAgreed;
+        dirty = true;
+    }
+
+    /**
+     * 既定値から変更した項目のビット列 (保存用)
+     */
+    public int getOverrides() {
+        return overrides;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * dirty を解除します。
+     *
+     * @return 解除前に dirty だった場合 true
+     */
+    public synchronized boolean clearDirty() {
+        boolean was = dirty;
+        dirty = false;
+        return was;
+    }
+
+    private static int bit(SettingType type) {
+        return 1 << type.ordinal();
+    }
+
+    @Override
+    public String toDebugSummary() {
+        return "overrides=" + Integer.toBinaryString(overrides) + ", rarity=" + rarityFilter
+                + ", alpha=" + alphaAgreed + ", dirty=" + dirty;
+    }
+}
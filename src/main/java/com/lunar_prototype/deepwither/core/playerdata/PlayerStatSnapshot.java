@@ -0,0 +1,130 @@
+package com.lunar_prototype.deepwither.core.playerdata;
+
+import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
+import com.lunar_prototype.deepwither.api.playerdata.IPlayerComponent;
+import com.lunar_prototype.deepwither.api.stat.StatSource;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.EnumSet;
+
+/**
+ * プレイヤーの合計ステータスをソースごとに保持するキャッシュコンポーネント。
+ * 無効化されたソースのみを再計算し、合計値を組み立て直します。
+ *
+ * <p>複合操作は呼び出し側でこのインスタンスを同期してから行ってください。</p>
+ */
+public class PlayerStatSnapshot implements IPlayerComponent {
+    private static final int SOURCE_COUNT = StatSource.values().length;
+
+    private final StatMap[] parts = new StatMap[SOURCE_COUNT];
+    private final Object[] stampRefs = new Object[SOURCE_COUNT];
+    private final long[] stampValues = new long[SOURCE_COUNT];
+    // 定期照合で最後に確認した手持ち・防具 (変更を検知したときだけ複製する)
+    private final ItemStack[] auditedEquipment = new ItemStack[6];
+    private final EnumSet<StatSource> dirty = EnumSet.allOf(StatSource.class);
+    private StatMap total = new StatMap();
+    private long rebuildCount;
+
+    /**
+     * 指定したソースを無効化します。次回の取得時に再計算されます。
+     */
+    public synchronized void invalidate(StatSource source) {
+        dirty.add(source);
+    }
+
+    /**
+     * 全ソースを無効化します。
+     */
+    public synchronized void invalidateAll() {
+        dirty.addAll(EnumSet.allOf(StatSource.class));
+    }
+
+    /**
+     * ソースの状態を表すスタンプ（参照と値）を照合し、前回から変化していれば無効化します。
+     * レベルや属性ポイント、イベントを伴わない装備の変更などの検知に使用します。
+     *
+     * @return 変化していた (無効化した) 場合 true
+     */
+    public synchronized boolean checkStamp(StatSource source, Object ref, long value) {
+        int i = source.ordinal();
+        if (stampRefs[i] != ref || stampValues[i] != value) {
+            stampRefs[i] = ref;
+            stampValues[i] = value;
+            dirty.add(source);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 定期照合で、指定スロットのアイテムが前回確認したものから変わったかを判定し、変わっていれば記録し直します。
+     * 初回の照合は記録のみ行います (参加時には全ソースが無効化されるため)。
+     *
+     * @param index 照合するスロットの番号 (0 〜 5)
+     * @return 前回から変わっていた場合 true
+     */
+    public synchronized boolean auditEquipment(int index, ItemStack current) {
+        ItemStack previous = auditedEquipment[index];
+        if (previous != null && previous.equals(current)) return false;
+        auditedEquipment[index] = current != null ? current.clone() : ItemStack.empty();
+        return previous != null;
+    }
+
+    public synchronized boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * 無効化されているソースを取り出し、無効化状態をクリアします。
+     */
+    public synchronized StatSource[] drainDirty() {
+        StatSource[] sources = dirty.toArray(new StatSource[0]);
+        dirty.clear();
+        return sources;
+    }
+
+    public synchronized void setPart(StatSource source, StatMap part) {
+        parts[source.ordinal()] = part;
+    }
+
+    /**
+     * 各ソースの値を合算して合計ステータスを再構築します。
+     * @return 再構築された合計ステータス
+     */
+    public synchronized StatMap rebuildTotal() {
+        StatMap rebuilt = new StatMap();
+        for (StatMap part : parts) {
+            if (part != null) {
+                rebuilt.add(part);
+            }
+        }
+        total = rebuilt;
+        rebuildCount++;
+        return rebuilt;
+    }
+
+    /**
+     * 指定したソースの固定値の合計を返します。無効化されているソースは前回計算した値です。
+     */
+    public synchronized double sumFlat(StatType type, StatSource... sources) {
+        double sum = 0.0;
+        for (StatSource source : sources) {
+            StatMap part = parts[source.ordinal()];
+            if (part != null) sum += part.getFlat(type);
+        }
+        return sum;
+    }
+
+    /**
+     * キャッシュされている合計ステータスを返します。返された StatMap は変更しないでください。
+     */
+    public synchronized StatMap getTotal() {
+        return total;
+    }
+
+    @Override
+    public synchronized String toDebugSummary() {
+        return "rebuilds=" + rebuildCount + ", dirty=" + dirty;
+    }
+}
@@ -0,0 +1,51 @@
+package com.lunar_prototype.deepwither.core.playerdata;
+
+import com.lunar_prototype.deepwither.api.item.ISpecialItemEffect;
+import com.lunar_prototype.deepwither.api.playerdata.IPlayerComponent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * プレイヤーが装備している、定期処理 ({@link ISpecialItemEffect#onTick}) を持つ特殊効果の一覧。
+ * 装備が変わって無効化されたときだけ作り直します。
+ *
+ * <p>複合操作は呼び出し側でこのインスタンスを同期してから行ってください。</p>
+ */
+public class PlayerTickEffects implements IPlayerComponent {
+
+    /**
+     * @param slot インベントリのスロット (毎回スロットから現在のアイテムを取り出す)。アーティファクトと背中装備は null
+     * @param item slot が null の場合のアイテム
+     */
+    public record Entry(EquipmentSlot slot, ItemStack item, ISpecialItemEffect effect) {
+    }
+
+    private List<Entry> entries = List.of();
+    private boolean dirty = true;
+    private long rebuildCount;
+
+    public synchronized void invalidate() {
+        dirty = true;
+    }
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    public synchronized void set(List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+        this.dirty = false;
+        rebuildCount++;
+    }
+
+    public synchronized List<Entry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public synchronized String toDebugSummary() {
+        return "effects=" + entries.size() + ", rebuilds=" + rebuildCount + ", dirty=" + dirty;
+    }
+}
@@ -0,0 +1,359 @@
+package com.lunar_prototype.deepwither.core.spatial;
+
+import com.lunar_prototype.deepwither.util.IManager;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 戦闘中の視線 (遮蔽) 判定に使う、チャンク単位のブロック占有ボクセルのキャッシュ。
+ *
+ * <p>
+ * チャンクのスナップショットをメインスレッドで取得し、占有ビット列 (完全なブロック / それ以外の衝突判定を持つブロック) への変換は非同期で行います。
+ * 判定は {@link #resolve} で 1 回の攻撃分の視線をまとめて DDA (ボクセル走査) で解決します。
+ * 未構築のチャンクを通る視線は {@link #UNKNOWN} となるため、呼び出し側で {@code World#rayTraceBlocks} にフォールバックしてください。
+ * </p>
+ * <p>
+ * ボクセル単位で遮蔽と確定できるのは 1 ブロック全体を占める不透過ブロック ({@link Material#isOccluding()}) だけです。
+ * ハーフブロック・階段・フェンス・ガラスなど形状が部分的なブロックを通る視線は {@link #UNKNOWN} となり、呼び出し側の Ray Trace で判定されます。
+ * 設置・破壊・爆発・ピストン・エンティティによる変化・ブロックの生成/消滅/焼失で無効化されるほか、{@link #TTL_MILLIS} を過ぎたチャンクは再構築されます。
+ * イベントを伴わないブロックの変更 (スケマティックの設置など) の後は {@link #invalidateRegion} を呼び出してください。
+ * </p>
+ */
+public class BlockOcclusionCache implements IManager, Listener {
+
+    public static final byte CLEAR = 0;
+    public static final byte BLOCKED = 1;
+    public static final byte UNKNOWN = 2;
+
+    /** キャッシュの有効期間 (ミリ秒) */
+    public static final long TTL_MILLIS = 5_000L;
+
+    /** 走査中に部分的なブロックを通過したことを示す内部状態 */
+    private static final byte PARTIAL = 3;
+
+    private static final byte SHAPE_NONE = 0;
+    private static final byte SHAPE_FULL = 1;
+    private static final byte SHAPE_PARTIAL = 2;
+
+    /** Material の ordinal ごとの形状。完全なブロックのみ {@link #SHAPE_FULL} */
+    private static final byte[] SHAPES = new byte[Material.values().length];
+
+    static {
+        for (Material material : Material.values()) {
+            if (material.isLegacy() || !material.isBlock() || !material.isSolid()) continue;
+            SHAPES[material.ordinal()] = material.isOccluding() ? SHAPE_FULL : SHAPE_PARTIAL;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final Map<UUID, Map<Long, ChunkVoxels>> worlds = new ConcurrentHashMap<>();
+    private BukkitTask cleanupTask;
+
+    public BlockOcclusionCache(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void init() {
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        cleanupTask = Bukkit.getScheduler().runTaskTimer(plugin, this::evictExpired, 100L, 100L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (cleanupTask != null) {
+            cleanupTask.cancel();
+            cleanupTask = null;
+        }
+        worlds.clear();
+    }
+
+    /**
+     * 起点から各ターゲット座標への視線がブロックに遮られているかをまとめて判定します。メインスレッドから呼び出してください。
+     *
+     * @param targets ターゲット座標を x, y, z の順に並べた配列
+     * @param count ターゲット数
+     * @param results 判定結果の出力先 ({@link #CLEAR}, {@link #BLOCKED}, {@link #UNKNOWN})
+     */
+    public void resolve(World world, double ox, double oy, double oz, double[] targets, int count, byte[] results) {
+        Map<Long, ChunkVoxels> chunks = worlds.computeIfAbsent(world.getUID(), k -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+        Lookup lookup = new Lookup(world, chunks, now);
+
+        for (int i = 0; i < count; i++) {
+            results[i] = traverse(lookup, ox, oy, oz, targets[i * 3], targets[i * 3 + 1], targets[i * 3 + 2]);
+        }
+    }
+
+    /**
+     * Amanatides-Woo 法で起点から終点までのボクセルを順に走査します。
+     */
+    private byte traverse(Lookup lookup, double x0, double y0, double z0, double x1, double y1, double z1) {
+        double dx = x1 - x0, dy = y1 - y0, dz = z1 - z0;
+        int x = (int) Math.floor(x0), y = (int) Math.floor(y0), z = (int) Math.floor(z0);
+        int endX = (int) Math.floor(x1), endY = (int) Math.floor(y1), endZ = (int) Math.floor(z1);
+
+        int stepX = (int) Math.signum(dx), stepY = (int) Math.signum(dy), stepZ = (int) Math.signum(dz);
+        double tDeltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.MAX_VALUE;
+        double tDeltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.MAX_VALUE;
+        double tDeltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.MAX_VALUE;
+        double tMaxX = stepX > 0 ? (x + 1 - x0) * tDeltaX : stepX < 0 ? (x0 - x) * tDeltaX : Double.MAX_VALUE;
+        double tMaxY = stepY > 0 ? (y + 1 - y0) * tDeltaY : stepY < 0 ? (y0 - y) * tDeltaY : Double.MAX_VALUE;
+        double tMaxZ = stepZ > 0 ? (z + 1 - z0) * tDeltaZ : stepZ < 0 ? (z0 - z) * tDeltaZ : Double.MAX_VALUE;
+
+        int maxSteps = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z) + 1;
+        boolean crossedPartial = false;
+        for (int step = 0; step < maxSteps; step++) {
+            byte state = lookup.state(x, y, z);
+            if (state == PARTIAL) {
+                // 形状によっては隙間を通る可能性があるため、完全なブロックに当たらなければ Ray Trace に任せる
+                crossedPartial = true;
+            } else if (state != CLEAR) {
+                return state;
+            }
+            if (x == endX && y == endY && z == endZ) break;
+
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                x += stepX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxZ) {
+                y += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                z += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+        }
+        return crossedPartial ? UNKNOWN : CLEAR;
+    }
+
+    /**
+     * 指定チャンクの構築を要求します。スナップショットはメインスレッドで取得し、変換は非同期で行います。
+     */
+    private ChunkVoxels request(World world, Map<Long, ChunkVoxels> chunks, int chunkX, int chunkZ, long key, long now) {
+        if (!world.isChunkLoaded(chunkX, chunkZ)) return null;
+
+        ChunkVoxels voxels = new ChunkVoxels(world.getMinHeight(), world.getMaxHeight(), now);
+        chunks.put(key, voxels);
+        ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> voxels.build(snapshot));
+        return voxels;
+    }
+
+    /**
+     * 指定範囲 (ブロック座標) に掛かるチャンクのキャッシュを破棄します。
+     * スケマティックの設置など、ブロック変更のイベントが発生しない方法でワールドを書き換えた後に呼び出してください。
+     */
+    public void invalidateRegion(World world, int minX, int minZ, int maxX, int maxZ) {
+        Map<Long, ChunkVoxels> chunks = worlds.get(world.getUID());
+        if (chunks == null) return;
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                chunks.remove(chunkKey(cx, cz));
+            }
+        }
+    }
+
+    private void invalidate(Block block) {
+        Map<Long, ChunkVoxels> chunks = worlds.get(block.getWorld().getUID());
+        if (chunks != null) chunks.remove(chunkKey(block.getX() >> 4, block.getZ() >> 4));
+    }
+
+    private void invalidateAll(List<Block> blocks) {
+        for (Block block : blocks) {
+            invalidate(block);
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Map<Long, ChunkVoxels> chunks : worlds.values()) {
+            chunks.values().removeIf(voxels -> now - voxels.createdAt > TTL_MILLIS);
+        }
+        worlds.keySet().removeIf(uid -> Bukkit.getWorld(uid) == null);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockMultiPlace(BlockMultiPlaceEvent e) {
+        for (BlockState state : e.getReplacedBlockStates()) {
+            invalidate(state.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent e) {
+        invalidateAll(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent e) {
+        invalidateAll(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent e) {
+        invalidate(e.getBlock());
+        invalidateAll(e.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent e) {
+        invalidate(e.getBlock());
+        invalidateAll(e.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    /**
+     * {@link org.bukkit.event.block.EntityBlockFormEvent} (フロストウォーカーなど) も含みます
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        Map<Long, ChunkVoxels> chunks = worlds.get(e.getWorld().getUID());
+        if (chunks != null) chunks.remove(chunkKey(e.getChunk().getX(), e.getChunk().getZ()));
+    }
+
+    /**
+     * 1 回の {@link #resolve} 内で直前に参照したチャンクを覚えておくための補助。
+     */
+    private final class Lookup {
+        private final World world;
+        private final Map<Long, ChunkVoxels> chunks;
+        private final long now;
+        private final Map<Long, ChunkVoxels> requested = new HashMap<>();
+        private long lastKey = Long.MIN_VALUE;
+        private ChunkVoxels last;
+
+        Lookup(World world, Map<Long, ChunkVoxels> chunks, long now) {
+            this.world = world;
+            this.chunks = chunks;
+            this.now = now;
+        }
+
+        byte state(int x, int y, int z) {
+            int chunkX = x >> 4, chunkZ = z >> 4;
+            long key = chunkKey(chunkX, chunkZ);
+            if (key != lastKey) {
+                lastKey = key;
+                last = chunks.get(key);
+                if (last == null || now - last.createdAt > TTL_MILLIS) {
+                    last = requested.containsKey(key) ? requested.get(key) : request(world, chunks, chunkX, chunkZ, key, now);
+                    requested.put(key, last);
+                }
+            }
+            if (last == null || !last.ready) return UNKNOWN;
+            return last.state(x & 15, y, z & 15);
+        }
+    }
+
+    /**
+     * 1 チャンク分の占有ビット列 (完全なブロックと部分的なブロックの 2 面)。{@link #ready} になるまでは参照しません。
+     */
+    private static final class ChunkVoxels {
+        private final int minY;
+        private final int height;
+        private final long createdAt;
+        private final long[] full;
+        private final long[] partial;
+        private volatile boolean ready;
+
+        ChunkVoxels(int minY, int maxY, long createdAt) {
+            this.minY = minY;
+            this.height = maxY - minY;
+            this.createdAt = createdAt;
+            this.full = new long[(height * 256 + 63) >>> 6];
+            this.partial = new long[full.length];
+        }
+
+        void build(ChunkSnapshot snapshot) {
+            for (int section = 0; section * 16 < height; section++) {
+                if (snapshot.isSectionEmpty(section)) continue;
+                int baseY = minY + section * 16;
+                for (int ly = 0; ly < 16 && baseY + ly < minY + height; ly++) {
+                    int y = baseY + ly;
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            byte shape = SHAPES[snapshot.getBlockType(x, y, z).ordinal()];
+                            if (shape == SHAPE_NONE) continue;
+                            int index = index(x, y, z);
+                            long[] bits = shape == SHAPE_FULL ? full : partial;
+                            bits[index >>> 6] |= 1L << index;
+                        }
+                    }
+                }
+            }
+            ready = true;
+        }
+
+        byte state(int x, int y, int z) {
+            if (y < minY || y >= minY + height) return CLEAR;
+            int index = index(x, y, z);
+            long mask = 1L << index;
+            if ((full[index >>> 6] & mask) != 0) return BLOCKED;
+            return (partial[index >>> 6] & mask) != 0 ? PARTIAL : CLEAR;
+        }
+
+        private int index(int x, int y, int z) {
+            return ((y - minY) << 8) | (z << 4) | x;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.lunar_prototype.deepwither.core.spatial;
+
+import com.lunar_prototype.deepwither.util.IManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 全ワールドの LivingEntity の位置を tick ごとに {@link SpatialGrid} へ取り込み、近傍検索を提供するインデックス。
+ *
+ * <p>
+ * 当たり判定・Seeker AI のセンサー・スキルの弾などは、ワールドへ個別に問い合わせる代わりにこのインデックスを参照します。
+ * 位置は最大 1tick 前のスナップショットのため、厳密な判定が必要な場合は候補に対して現在位置で再判定してください。
+ * 結果には中心のエンティティ自身も含まれます。
+ * </p>
+ * <p>
+ * メインスレッド専用です。
+ * </p>
+ */
+public class EntitySpatialIndex implements IManager {
+
+    private final JavaPlugin plugin;
+    private final Map<UUID, SpatialGrid> grids = new HashMap<>();
+    private BukkitTask task;
+    private long lastRefreshNanos;
+
+    public EntitySpatialIndex(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void init() {
+        refresh();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::refresh, 1L, 1L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        grids.clear();
+    }
+
+    /**
+     * 全ワールドのグリッドを現在のエンティティ位置で作り直します。
+     */
+    public void refresh() {
+        long start = System.nanoTime();
+        List<World> worlds = Bukkit.getWorlds();
+        if (grids.size() > worlds.size()) {
+            grids.keySet().removeIf(uid -> Bukkit.getWorld(uid) == null);
+        }
+        for (World world : worlds) {
+            grids.computeIfAbsent(world.getUID(), k -> new SpatialGrid()).rebuild(world.getLivingEntities());
+        }
+        lastRefreshNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 中心から半径 radius 以内のエンティティを返します。
+     */
+    public List<LivingEntity> getNearby(Location center, double radius) {
+        List<LivingEntity> out = new ArrayList<>();
+        SpatialGrid grid = grid(center.getWorld());
+        if (grid != null) grid.queryRadius(center.getX(), center.getY(), center.getZ(), radius, out);
+        return out;
+    }
+
+    /**
+     * 中心から各軸 rx / ry / rz 以内 (直方体) のエンティティを返します。{@code getNearbyEntities} と同じ範囲です。
+     */
+    public List<LivingEntity> getNearby(Location center, double rx, double ry, double rz) {
+        List<LivingEntity> out = new ArrayList<>();
+        SpatialGrid grid = grid(center.getWorld());
+        if (grid != null) grid.queryBox(center.getX(), center.getY(), center.getZ(), rx, ry, rz, out);
+        return out;
+    }
+
+    /**
+     * 起点から direction 方向の円錐 (半頂角 halfAngleDegrees, 長さ range) に含まれるエンティティを返します。
+     */
+    public List<LivingEntity> getInCone(Location origin, Vector direction, double range, double halfAngleDegrees) {
+        List<LivingEntity> out = new ArrayList<>();
+        SpatialGrid grid = grid(origin.getWorld());
+        if (grid == null) return out;
+
+        Vector dir = direction.clone().normalize();
+        grid.queryCone(origin.getX(), origin.getY(), origin.getZ(), dir.getX(), dir.getY(), dir.getZ(), range, halfAngleDegrees, out);
+        return out;
+    }
+
+    public long getLastRefreshNanos() {
+        return lastRefreshNanos;
+    }
+
+    public int getIndexedCount() {
+        int total = 0;
+        for (SpatialGrid grid : grids.values()) {
+            total += grid.size();
+        }
+        return total;
+    }
+
+    private SpatialGrid grid(World world) {
+        return world == null ? null : grids.get(world.getUID());
+    }
+}
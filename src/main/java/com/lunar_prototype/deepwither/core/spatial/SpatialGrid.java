@@ -0,0 +1,186 @@
+package com.lunar_prototype.deepwither.core.spatial;
+
+import org.bukkit.Location;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 1 ワールド分の LivingEntity の位置を X-Z 平面の一様グリッドに格納する空間ハッシュ。
+ *
+ * <p>
+ * エンティティと座標は平坦な配列に保持し、セルごとの連結リストも配列 ({@code next}) で表現します。
+ * セルの探索はオープンアドレス法のハッシュテーブルで行い、世代番号によってテーブルを再構築ごとにクリアせず再利用します。
+ * 座標は {@link #rebuild(Collection)} 時点のスナップショットです。
+ * </p>
+ */
+public final class SpatialGrid {
+
+    /** セルの一辺の長さ (ブロック) */
+    public static final double CELL_SIZE = 8.0;
+    private static final double INV_CELL_SIZE = 1.0 / CELL_SIZE;
+
+    private LivingEntity[] entities = new LivingEntity[64];
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private double[] zs = new double[64];
+    private int[] next = new int[64];
+    private int size;
+
+    private long[] slotKeys = new long[128];
+    private int[] slotHeads = new int[128];
+    private int[] slotGenerations = new int[128];
+    // 0 は未使用スロットを表すため 1 から始める
+    private int generation = 1;
+    private int mask = 127;
+
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    /**
+     * 指定したエンティティの現在位置でグリッドを作り直します。
+     */
+    public void rebuild(Collection<? extends LivingEntity> living) {
+        int count = living.size();
+        ensureCapacity(count);
+        ensureTable(count);
+        generation++;
+        size = 0;
+
+        for (LivingEntity entity : living) {
+            if (size == count) break;
+            entity.getLocation(scratch);
+            int i = size++;
+            entities[i] = entity;
+            xs[i] = scratch.getX();
+            ys[i] = scratch.getY();
+            zs[i] = scratch.getZ();
+
+            int slot = slotFor(cellKey(cell(xs[i]), cell(zs[i])), true);
+            next[i] = slotHeads[slot];
+            slotHeads[slot] = i;
+        }
+        // 前回の参照を残さない
+        Arrays.fill(entities, size, entities.length, null);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 中心からの各軸の距離が rx / ry / rz 以内 (直方体) のエンティティを out に追加します。
+     */
+    public void queryBox(double x, double y, double z, double rx, double ry, double rz, List<LivingEntity> out) {
+        int minCx = cell(x - rx), maxCx = cell(x + rx);
+        int minCz = cell(z - rz), maxCz = cell(z + rz);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                int slot = slotFor(cellKey(cx, cz), false);
+                if (slot < 0) continue;
+                for (int i = slotHeads[slot]; i >= 0; i = next[i]) {
+                    if (Math.abs(xs[i] - x) <= rx && Math.abs(ys[i] - y) <= ry && Math.abs(zs[i] - z) <= rz
+                            && entities[i].isValid()) {
+                        out.add(entities[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 中心から半径 radius 以内 (球) のエンティティを out に追加します。
+     */
+    public void queryRadius(double x, double y, double z, double radius, List<LivingEntity> out) {
+        double radiusSq = radius * radius;
+        int minCx = cell(x - radius), maxCx = cell(x + radius);
+        int minCz = cell(z - radius), maxCz = cell(z + radius);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                int slot = slotFor(cellKey(cx, cz), false);
+                if (slot < 0) continue;
+                for (int i = slotHeads[slot]; i >= 0; i = next[i]) {
+                    double dx = xs[i] - x, dy = ys[i] - y, dz = zs[i] - z;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSq && entities[i].isValid()) {
+                        out.add(entities[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 起点から direction 方向の半頂角 halfAngleDegrees の円錐 (長さ range) に含まれるエンティティを out に追加します。
+     *
+     * @param dirX 正規化済みの方向ベクトル
+     */
+    public void queryCone(double x, double y, double z, double dirX, double dirY, double dirZ,
+                          double range, double halfAngleDegrees, List<LivingEntity> out) {
+        double rangeSq = range * range;
+        double cosHalf = Math.cos(Math.toRadians(halfAngleDegrees));
+        int minCx = cell(x - range), maxCx = cell(x + range);
+        int minCz = cell(z - range), maxCz = cell(z + range);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                int slot = slotFor(cellKey(cx, cz), false);
+                if (slot < 0) continue;
+                for (int i = slotHeads[slot]; i >= 0; i = next[i]) {
+                    double dx = xs[i] - x, dy = ys[i] - y, dz = zs[i] - z;
+                    double distSq = dx * dx + dy * dy + dz * dz;
+                    if (distSq > rangeSq) continue;
+                    double dot = dx * dirX + dy * dirY + dz * dirZ;
+                    if (distSq > 1.0E-6 && dot < cosHalf * Math.sqrt(distSq)) continue;
+                    if (entities[i].isValid()) out.add(entities[i]);
+                }
+            }
+        }
+    }
+
+    private static int cell(double coord) {
+        return (int) Math.floor(coord * INV_CELL_SIZE);
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * セルのスロットを返します。create が false で存在しない場合は -1 を返します。
+     */
+    private int slotFor(long key, boolean create) {
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (true) {
+            if (slotGenerations[slot] != generation) {
+                if (!create) return -1;
+                slotGenerations[slot] = generation;
+                slotKeys[slot] = key;
+                slotHeads[slot] = -1;
+                return slot;
+            }
+            if (slotKeys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= entities.length) return;
+        int capacity = Math.max(required, entities.length * 2);
+        entities = Arrays.copyOf(entities, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    private void ensureTable(int entityCount) {
+        // 使用率 50% 以下を保つ
+        if (entityCount * 2 <= slotKeys.length) return;
+        int capacity = Integer.highestOneBit(entityCount * 2 - 1) << 1;
+        slotKeys = new long[capacity];
+        slotHeads = new int[capacity];
+        slotGenerations = new int[capacity];
+        generation = 1;
+        mask = capacity - 1;
+    }
+}
@@ -1,35 +1,40 @@
 package com.lunar_prototype.deepwither.dungeon;
 
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.api.DW;
+import com.lunar_prototype.deepwither.core.spatial.BlockOcclusionCache;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
 import com.sk89q.worldedit.function.operation.Operation;
 import com.sk89q.worldedit.function.operation.Operations;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.math.transform.AffineTransform;
 import com.sk89q.worldedit.session.ClipboardHolder;
+import com.sk89q.worldedit.util.SideEffect;
+import com.sk89q.worldedit.util.SideEffectSet;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class DungeonGenerator {
     private final String dungeonName;
+    private final DungeonPartLibrary partLibrary;
     private final List<DungeonPart> partList = new ArrayList<>();
     private final File dungeonFolder;
     private final String difficulty;
@@ -37,13 +42,15 @@ public class DungeonGenerator {
     private final Random random = new Random();
 
     // Store placed parts for collision detection (Used during async calculation)
-    private final List<PlacedPart> placedParts = new ArrayList<>();
+    private final PlacedPartIndex<PlacedPart> placedParts = new PlacedPartIndex<>();
+    private long seed;
     private final List<Location> validSpawnLocations = new ArrayList<>();
 
     private final List<String> dungeonMobList = new ArrayList<>();
     // pendingSpawners populated during Sync Paste phase
     private final List<PendingSpawner> pendingSpawners = new ArrayList<>();
     private boolean isMonitoring = false;
+    private BukkitTask spawnerMonitor;
 
     private final List<Endpoint> potentialEndpoints = new ArrayList<>();
 
@@ -54,6 +61,12 @@ public class DungeonGenerator {
     // --- Async Generation Queue ---
     private final Queue<PendingPaste> pasteQueue = new ConcurrentLinkedQueue<>();
     private int totalPartsToPaste = 0;
+    private int pastedParts = 0;
+    private BlockVector3 startOrigin = BlockVector3.at(0, 64, 0);
+    // 設置の進捗 (設置済みパーツ数, 全パーツ数)。Main Thread から呼ばれる
+    private BiConsumer<Integer, Integer> progressListener;
+    // 設置中に読み込んだままにしておくチャンク (x, z)
+    private final List<int[]> ticketedChunks = new ArrayList<>();
 
     private static class Endpoint {
         final BlockVector3 connectionPoint;
@@ -129,52 +142,17 @@ public class DungeonGenerator {
             this.part = part;
             this.origin = origin;
             this.rotation = rotation;
-
-            BlockVector3 min = part.getMinPoint();
-            BlockVector3 max = part.getMaxPoint();
-
-            List<BlockVector3> corners = new ArrayList<>();
-            corners.add(rotate(min.x(), min.y(), min.z(), rotation));
-            corners.add(rotate(min.x(), min.y(), max.z(), rotation));
-            corners.add(rotate(min.x(), max.y(), min.z(), rotation));
-            corners.add(rotate(min.x(), max.y(), max.z(), rotation));
-            corners.add(rotate(max.x(), min.y(), min.z(), rotation));
-            corners.add(rotate(max.x(), min.y(), max.z(), rotation));
-            corners.add(rotate(max.x(), max.y(), min.z(), rotation));
-            corners.add(rotate(max.x(), max.y(), max.z(), rotation));
-
-            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
-            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
-
-            for (BlockVector3 v : corners) {
-                minX = Math.min(minX, v.x());
-                minY = Math.min(minY, v.y());
-                minZ = Math.min(minZ, v.z());
-                maxX = Math.max(maxX, v.x());
-                maxY = Math.max(maxY, v.y());
-                maxZ = Math.max(maxZ, v.z());
-            }
-
-            this.minBound = BlockVector3.at(minX, minY, minZ).add(origin);
-            this.maxBound = BlockVector3.at(maxX, maxY, maxZ).add(origin);
-        }
-
-        private BlockVector3 rotate(int x, int y, int z, int angle) {
-            AffineTransform transform = new AffineTransform().rotateY(angle);
-            var v = transform.apply(BlockVector3.at(x, y, z).toVector3());
-            return BlockVector3.at(Math.round(v.x()), Math.round(v.y()), Math.round(v.z()));
-        }
-
-        public boolean intersects(PlacedPart other) {
-            return this.minBound.x() < other.maxBound.x() - 3 && this.maxBound.x() > other.minBound.x() + 3
-                    &&
-                    this.minBound.y() < other.maxBound.y() && this.maxBound.y() > other.minBound.y() &&
-                    this.minBound.z() < other.maxBound.z() - 3
-                    && this.maxBound.z() > other.minBound.z() + 3;
+            this.minBound = part.getRotatedMinPoint(rotation).add(origin);
+            this.maxBound = part.getRotatedMaxPoint(rotation).add(origin);
         }
     }
 
     public DungeonGenerator(String dungeonName, String difficulty) {
+        this(DW.get(DungeonPartLibrary.class), dungeonName, difficulty);
+    }
+
+    public DungeonGenerator(DungeonPartLibrary partLibrary, String dungeonName, String difficulty) {
+        this.partLibrary = partLibrary;
         this.dungeonName = dungeonName;
         this.difficulty = difficulty;
         this.dungeonFolder = new File(Deepwither.getInstance().getDataFolder(), "dungeons/" + dungeonName);
@@ -209,51 +187,36 @@ public class DungeonGenerator {
             String type = (String) map.get("type");
 
             if (fileName != null && type != null) {
-                DungeonPart part = new DungeonPart(fileName, type.toUpperCase(), length);
                 File schemFile = new File(dungeonFolder, fileName);
-                if (schemFile.exists()) {
-                    scanPartMarkers(part, schemFile);
-                } else {
+                if (!schemFile.exists()) {
                     Deepwither.getInstance().getLogger().warning("Schematic file not found: " + fileName);
                 }
-                partList.add(part);
+                // スキャン済みのパーツはライブラリで共有される (2回目以降はファイルを読まない)
+                partList.add(partLibrary.getPart(schemFile, type.toUpperCase(), length));
             }
         }
     }
 
-    private void scanPartMarkers(DungeonPart part, File file) {
-        ClipboardFormat format = ClipboardFormats.findByFile(file);
-        if (format == null)
-            return;
-        try (ClipboardReader reader = format.getReader(new FileInputStream(file))) {
-            Clipboard clipboard = reader.read();
-            part.scanMarkers(clipboard);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
     /**
      * 非同期でダンジョンレイアウトを計算し、その後Syncタスクで設置を行う
      */
     public void generateBranchingAsync(World world, int startRotation, Consumer<List<Location>> callback) {
-        placedParts.clear();
-        pasteQueue.clear();
-        validSpawnLocations.clear();
-        pendingSpawners.clear();
-        potentialEndpoints.clear();
+        generateBranchingAsync(world, startRotation, random.nextLong(), callback);
+    }
 
+    /**
+     * シードを指定して生成する。同じパーツ構成・シード・開始回転からは常に同じレイアウトになる
+     */
+    public void generateBranchingAsync(World world, int startRotation, long seed, Consumer<List<Location>> callback) {
         Deepwither.getInstance().getLogger()
-                .info("=== [Async] Generating Dungeon Layout (MaxDepth:" + maxDepth + ") ===");
+                .info("=== [Async] Generating Dungeon Layout (MaxDepth:" + maxDepth + ", Seed:" + seed + ") ===");
 
         new BukkitRunnable() {
             @Override
             public void run() {
                 try {
                     // レイアウト計算とクリップボード読み込み（重い処理）
-                    calculateLayout(startRotation);
-
-                    finalizeLayout();
+                    planLayout(startRotation, seed);
 
                     Deepwither.getInstance().getLogger()
                             .info("=== [Async] Layout Calculated. Total Parts: " + pasteQueue.size() + " ===");
@@ -262,7 +225,7 @@ public class DungeonGenerator {
                     new BukkitRunnable() {
                         @Override
                         public void run() {
-                            startPasteTask(world, callback);
+                            pasteLayout(world, callback);
                         }
                     }.runTask(Deepwither.getInstance());
 
@@ -280,10 +243,54 @@ public class DungeonGenerator {
         }.runTaskAsynchronously(Deepwither.getInstance());
     }
 
+    /**
+     * レイアウトだけを計算し、設置待ちのキューに積む (ワールドには触れないため非同期スレッドから呼べる)。
+     * 事前に計算しておき、後から {@link #pasteLayout} で設置することもできる
+     *
+     * @return 設置するパーツの数
+     */
+    public int planLayout(int startRotation, long seed) {
+        placedParts.clear();
+        pasteQueue.clear();
+        validSpawnLocations.clear();
+        pendingSpawners.clear();
+        potentialEndpoints.clear();
+        this.seed = seed;
+        random.setSeed(seed);
+
+        calculateLayout(startRotation);
+        finalizeLayout();
+        return pasteQueue.size();
+    }
+
+    /**
+     * {@link #planLayout} で計算したレイアウトを設置する (Main Thread)
+     */
+    public void pasteLayout(World world, Consumer<List<Location>> callback) {
+        startPasteTask(world, callback);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 入口パーツを置く位置 (既定は 0, 64, 0)。再利用するワールドでは前回と重ならない位置を指定する
+     */
+    public void setStartOrigin(int x, int y, int z) {
+        this.startOrigin = BlockVector3.at(x, y, z);
+    }
+
+    /**
+     * 設置の進捗を受け取るリスナー (設置済みパーツ数, 全パーツ数)。tick ごとに Main Thread から呼ばれる
+     */
+    public void setProgressListener(BiConsumer<Integer, Integer> progressListener) {
+        this.progressListener = progressListener;
+    }
+
     // --- Async Layout Calculation Logic ---
 
     private void calculateLayout(int startRotation) {
-        BlockVector3 startOrigin = BlockVector3.at(0, 64, 0);
         DungeonPart startPart = findPartByType("ENTRANCE");
 
         if (startPart == null) {
@@ -344,7 +351,7 @@ public class DungeonGenerator {
                             .collect(Collectors.toList());
                     if (candidates.isEmpty())
                         continue;
-                    Collections.shuffle(candidates);
+                    Collections.shuffle(candidates, random);
 
                     for (DungeonPart nextPart : candidates) {
                         int nextRotation = (nextPart.getIntrinsicYaw() - exitWorldYaw + 360) % 360;
@@ -391,7 +398,7 @@ public class DungeonGenerator {
                     .collect(Collectors.toList());
             if (candidates.isEmpty())
                 continue;
-            Collections.shuffle(candidates);
+            Collections.shuffle(candidates, random);
 
             for (DungeonPart capPart : candidates) {
                 int baseRotation = (capPart.getIntrinsicYaw() - exitWorldYaw + 360) % 360;
@@ -407,7 +414,7 @@ public class DungeonGenerator {
     }
 
     private void finalizeLayout() {
-        Collections.shuffle(potentialEndpoints);
+        Collections.shuffle(potentialEndpoints, random);
         boolean bossPlaced = false;
 
         for (Endpoint ep : potentialEndpoints) {
@@ -436,60 +443,95 @@ public class DungeonGenerator {
      * Main Threadではないので安全にIO可能
      */
     private boolean planPartPlacement(DungeonPart part, BlockVector3 origin, int rotation, BlockVector3 ignoreOrigin) {
-        // 1. Collision Check (In-Memory)
+        // 1. Collision Check (In-Memory, グリッドで近くのパーツだけを判定)
         PlacedPart candidate = new PlacedPart(part, origin, rotation);
-        for (PlacedPart existing : placedParts) {
-            if (ignoreOrigin != null && existing.origin.equals(ignoreOrigin))
-                continue;
-            if (candidate.intersects(existing))
-                return false;
-        }
-
-        // 2. Load Clipboard (IO)
-        File schemFile = new File(dungeonFolder, part.getFileName());
-        ClipboardFormat format = ClipboardFormats.findByFile(schemFile);
-        if (format == null)
+        BlockVector3 min = candidate.minBound;
+        BlockVector3 max = candidate.maxBound;
+        PlacedPart hit = placedParts.findIntersecting(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(),
+                ignoreOrigin == null ? null : existing -> existing.origin.equals(ignoreOrigin));
+        if (hit != null)
             return false;
 
-        try (ClipboardReader reader = format.getReader(new FileInputStream(schemFile))) {
-            Clipboard clipboard = reader.read();
-            // 成功したらキューに追加
-            placedParts.add(candidate);
-            pasteQueue.add(new PendingPaste(part, origin, rotation, clipboard));
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
+        // 2. Load Clipboard (キャッシュになければ IO)
+        Clipboard clipboard = partLibrary.getClipboard(new File(dungeonFolder, part.getFileName()));
+        if (clipboard == null)
             return false;
-        }
+
+        // 成功したらキューに追加
+        placedParts.add(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), candidate);
+        pasteQueue.add(new PendingPaste(part, origin, rotation, clipboard));
+        return true;
     }
 
     // --- Sync Paste Logic ---
 
     private void startPasteTask(World world, Consumer<List<Location>> callback) {
         totalPartsToPaste = pasteQueue.size();
+        pastedParts = 0;
+        // 1tick あたりに設置へ使う時間の上限。最低 1 パーツは設置する
+        long budgetNanos = (long) (Deepwither.getInstance().getConfig().getDouble("dungeon.paste.budget-ms", 10.0) * 1_000_000L);
 
-        new BukkitRunnable() {
+        preloadChunks(world, () -> new BukkitRunnable() {
             @Override
             public void run() {
-                // 1tickあたり複数個処理して速度を稼ぐ（でも重くならない程度に）
-                int processPerTick = 2;
-
-                for (int i = 0; i < processPerTick; i++) {
+                long start = System.nanoTime();
+                do {
                     PendingPaste task = pasteQueue.poll();
                     if (task == null) {
                         // 全て完了
                         this.cancel();
-                        finishGeneration(callback);
+                        finishGeneration(world, callback);
                         return;
                     }
                     realPaste(world, task);
+                    pastedParts++;
+                } while (System.nanoTime() - start < budgetNanos);
+
+                if (progressListener != null) {
+                    progressListener.accept(pastedParts, totalPartsToPaste);
+                }
+            }
+        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L));
+    }
+
+    /**
+     * 設置先のチャンクを非同期で読み込み、設置が終わるまでアンロードされないようにしてから {@code then} を Main Thread で実行する
+     */
+    private void preloadChunks(World world, Runnable then) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (PendingPaste task : pasteQueue) {
+            BlockVector3 min = task.part.getRotatedMinPoint(task.rotation).add(task.origin);
+            BlockVector3 max = task.part.getRotatedMaxPoint(task.rotation).add(task.origin);
+            for (int cx = min.x() >> 4; cx <= max.x() >> 4; cx++) {
+                for (int cz = min.z() >> 4; cz <= max.z() >> 4; cz++) {
+                    keys.add(((long) cx << 32) | (cz & 0xFFFFFFFFL));
                 }
             }
-        }.runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+        }
+
+        Deepwither plugin = Deepwither.getInstance();
+        List<CompletableFuture<Chunk>> futures = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            int cx = (int) (key >> 32);
+            int cz = (int) key;
+            futures.add(world.getChunkAtAsync(cx, cz).thenApply(chunk -> {
+                world.addPluginChunkTicket(cx, cz, plugin);
+                ticketedChunks.add(new int[]{cx, cz});
+                return chunk;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            if (e != null) {
+                plugin.getLogger().warning("[AsyncGen] Chunk preload failed: " + e.getMessage());
+            }
+            Bukkit.getScheduler().runTask(plugin, then);
+        });
     }
 
     private void realPaste(World world, PendingPaste task) {
         try (EditSession editSession = WorldEdit.getInstance().newEditSession(BukkitAdapter.adapt(world))) {
+            // 設置中のワールドにはプレイヤーがいないため、近隣ブロックの更新などの副作用を省く (照明は最後にまとめて計算)
+            editSession.setSideEffectApplier(SideEffectSet.none().with(SideEffect.LIGHTING, SideEffect.State.DELAYED));
             ClipboardHolder holder = new ClipboardHolder(task.clipboard);
             holder.setTransform(new AffineTransform().rotateY(task.rotation));
 
@@ -504,6 +546,11 @@ public class DungeonGenerator {
             e.printStackTrace();
         }
 
+        // WorldEdit での設置はブロック変更イベントを発生させないため、視線判定のキャッシュを明示的に破棄する
+        BlockVector3 pastedMin = task.part.getRotatedMinPoint(task.rotation).add(task.origin);
+        BlockVector3 pastedMax = task.part.getRotatedMaxPoint(task.rotation).add(task.origin);
+        DW.get(BlockOcclusionCache.class).invalidateRegion(world, pastedMin.x(), pastedMin.z(), pastedMax.x(), pastedMax.z());
+
         // --- マーカー処理 (Sync) ---
         BlockVector3 origin = task.origin;
         DungeonPart part = task.part;
@@ -552,9 +599,16 @@ public class DungeonGenerator {
         }
     }
 
-    private void finishGeneration(Consumer<List<Location>> callback) {
+    private void finishGeneration(World world, Consumer<List<Location>> callback) {
         Deepwither.getInstance().getLogger()
                 .info("=== [AsyncGen] Pasting Complete! Total parts: " + placedParts.size() + " ===");
+        for (int[] chunk : ticketedChunks) {
+            world.removePluginChunkTicket(chunk[0], chunk[1], Deepwither.getInstance());
+        }
+        ticketedChunks.clear();
+        if (progressListener != null) {
+            progressListener.accept(totalPartsToPaste, totalPartsToPaste);
+        }
         if (!pendingSpawners.isEmpty()) {
             startSpawnerMonitor();
         }
@@ -579,11 +633,24 @@ public class DungeonGenerator {
         return valid.get(random.nextInt(valid.size()));
     }
 
+    /**
+     * スポナーの監視を止め、未出現のスポナーを破棄します。
+     * ワールドを別のダンジョンに再利用する前に呼び出してください (前回の配置でモブが出現しないように)。
+     */
+    public void stopSpawnerMonitor() {
+        if (spawnerMonitor != null) {
+            spawnerMonitor.cancel();
+            spawnerMonitor = null;
+        }
+        pendingSpawners.clear();
+        isMonitoring = false;
+    }
+
     private void startSpawnerMonitor() {
         if (isMonitoring) return;
         isMonitoring = true;
 
-        new BukkitRunnable() {
+        spawnerMonitor = new BukkitRunnable() {
             @Override
             public void run() {
                 if (pendingSpawners.isEmpty()) {
@@ -7,9 +7,16 @@ import com.sk89q.worldedit.math.transform.AffineTransform;
 import com.sk89q.worldedit.world.block.BlockTypes;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * ダンジョンを構成する 1 つのパーツ (Schematic) と、そのマーカー位置。
+ *
+ * <p>{@link #scanMarkers} の後は変更されないため、{@link DungeonPartLibrary} が複数のジェネレーター・スレッドで共有します。
+ * 90度単位の回転結果 (マーカー位置と境界) はスキャン時に計算済みです。</p>
+ */
 public class DungeonPart {
     private final String fileName;
     private final String type;
@@ -43,6 +50,14 @@ public class DungeonPart {
     // Flow direction (Yaw) from Entry to Exit
     private int intrinsicYaw = 0;
 
+    // 0, 90, 180, 270 度の回転結果 (scanMarkers で計算)
+    private Rotated[] rotations;
+
+    private record Rotated(BlockVector3 entry, List<BlockVector3> exits, List<BlockVector3> mobSpawners,
+                           List<BlockVector3> lootChests, List<BlockVector3> playerSpawns,
+                           List<BlockVector3> bossSpawns, BlockVector3 min, BlockVector3 max) {
+    }
+
     public void scanMarkers(Clipboard clipboard) {
         BlockVector3 origin = clipboard.getOrigin();
 
@@ -140,9 +155,65 @@ public class DungeonPart {
         }
 
         calculateIntrinsicYaw();
+
+        Rotated[] computed = new Rotated[4];
+        for (int i = 0; i < 4; i++) {
+            computed[i] = computeRotation(i * 90);
+        }
+        this.rotations = computed;
+    }
+
+    private Rotated computeRotation(int rotation) {
+        BlockVector3[] bounds = computeRotatedBounds(rotation);
+        return new Rotated(
+                transformVector(getEntryOffset(), rotation),
+                transformAll(exitOffsets, rotation),
+                transformAll(mobSpawnerOffsets, rotation),
+                transformAll(lootChestOffsets, rotation),
+                transformAll(playerSpawnOffsets, rotation),
+                transformAll(bossSpawnOffsets, rotation),
+                bounds[0], bounds[1]);
+    }
+
+    private List<BlockVector3> transformAll(List<BlockVector3> offsets, int rotation) {
+        return offsets.stream()
+                .map(vec -> transformVector(vec, rotation))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * 境界ボックスの 8 頂点を回転し、回転後の {min, max} を求める
+     */
+    private BlockVector3[] computeRotatedBounds(int rotation) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < 8; i++) {
+            BlockVector3 v = transformVector(BlockVector3.at(
+                    (i & 4) == 0 ? minPoint.x() : maxPoint.x(),
+                    (i & 2) == 0 ? minPoint.y() : maxPoint.y(),
+                    (i & 1) == 0 ? minPoint.z() : maxPoint.z()), rotation);
+            minX = Math.min(minX, v.x());
+            minY = Math.min(minY, v.y());
+            minZ = Math.min(minZ, v.z());
+            maxX = Math.max(maxX, v.x());
+            maxY = Math.max(maxY, v.y());
+            maxZ = Math.max(maxZ, v.z());
+        }
+        return new BlockVector3[]{BlockVector3.at(minX, minY, minZ), BlockVector3.at(maxX, maxY, maxZ)};
+    }
+
+    /**
+     * 計算済みの回転結果。スキャン前、または 90度単位でない角度の場合は null
+     */
+    private Rotated rotated(int rotation) {
+        Rotated[] r = rotations;
+        if (r == null || rotation % 90 != 0) return null;
+        return r[Math.floorMod(rotation, 360) / 90];
     }
 
     public List<BlockVector3> getRotatedMobSpawnerOffsets(int rotation) {
+        Rotated r = rotated(rotation);
+        if (r != null) return r.mobSpawners();
         return mobSpawnerOffsets.stream()
                 .map(vec -> transformVector(vec, rotation))
                 .collect(Collectors.toList());
@@ -152,12 +223,16 @@ public class DungeonPart {
      * 回転後のルートチェスト（エメラルドブロック）の座標リストを取得
      */
     public List<BlockVector3> getRotatedLootChestOffsets(int rotation) {
+        Rotated r = rotated(rotation);
+        if (r != null) return r.lootChests();
         return lootChestOffsets.stream()
                 .map(vec -> transformVector(vec, rotation))
                 .collect(Collectors.toList());
     }
 
     public List<BlockVector3> getRotatedPlayerSpawnOffsets(int rotation) {
+        Rotated r = rotated(rotation);
+        if (r != null) return r.playerSpawns();
         return playerSpawnOffsets.stream()
                 .map(vec -> transformVector(vec, rotation))
                 .collect(Collectors.toList());
@@ -167,6 +242,8 @@ public class DungeonPart {
      * 回転後のボススポナー座標リストを取得
      */
     public List<BlockVector3> getRotatedBossSpawnOffsets(int rotation) {
+        Rotated r = rotated(rotation);
+        if (r != null) return r.bossSpawns();
         return bossSpawnOffsets.stream()
                 .map(vec -> transformVector(vec, rotation))
                 .collect(Collectors.toList());
@@ -198,6 +275,8 @@ public class DungeonPart {
      * 回転後の「入口」オフセットを取得
      */
     public BlockVector3 getRotatedEntryOffset(int rotation) {
+        Rotated r = rotated(rotation);
+        if (r != null) return r.entry();
         return transformVector(getEntryOffset(), rotation);
     }
 
@@ -205,6 +284,8 @@ public class DungeonPart {
      * 回転後の「出口」オフセットリストを取得
      */
     public List<BlockVector3> getRotatedExitOffsets(int rotation) {
+        Rotated r = rotated(rotation);
+        if (r != null) return r.exits();
         return exitOffsets.stream()
                 .map(vec -> transformVector(vec, rotation))
                 .collect(Collectors.toList());
@@ -236,7 +317,7 @@ public class DungeonPart {
     }
 
     public List<BlockVector3> getExitOffsets() {
-        return exitOffsets;
+        return Collections.unmodifiableList(exitOffsets);
     }
 
     public BlockVector3 getMinPoint() {
@@ -247,6 +328,29 @@ public class DungeonPart {
         return maxPoint;
     }
 
+    /**
+     * 回転後の境界ボックスの最小点 (Origin からの相対座標)
+     */
+    public BlockVector3 getRotatedMinPoint(int rotation) {
+        Rotated r = rotated(rotation);
+        return r != null ? r.min() : computeRotatedBounds(rotation)[0];
+    }
+
+    /**
+     * 回転後の境界ボックスの最大点 (Origin からの相対座標)
+     */
+    public BlockVector3 getRotatedMaxPoint(int rotation) {
+        Rotated r = rotated(rotation);
+        return r != null ? r.max() : computeRotatedBounds(rotation)[1];
+    }
+
+    /**
+     * マーカーのスキャンが済んでいるか
+     */
+    public boolean isScanned() {
+        return rotations != null;
+    }
+
     public int getExitDirection(BlockVector3 exit) {
         // Determine direction based on which face the exit is on
         int tolerance = 1;
@@ -0,0 +1,220 @@
+package com.lunar_prototype.deepwither.dungeon;
+
+import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.util.DependsOn;
+import com.lunar_prototype.deepwither.util.IManager;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * ダンジョンパーツ (.schem) のプロセス共通ライブラリ。
+ *
+ * <p>
+ * 各ファイルは初めて要求されたときに一度だけ読み込み、{@link Clipboard} と、マーカーをスキャン済みの {@link DungeonPart}
+ * (回転後の境界・出口位置を含む) をキャッシュします。キャッシュはファイルパスと更新日時・サイズで管理し、
+ * ファイルが差し替えられると次回の要求で読み直します。
+ * </p>
+ * <p>
+ * Clipboard はブロック数の合計 (dungeon.part-cache.max-blocks) を上限とする LRU で、上限を超えると
+ * 最も長く使われていないものから解放します (スキャン結果は小さいため保持し、Clipboard だけを次回の要求で読み直します)。
+ * 生成処理は非同期スレッドから呼ぶため、全メソッドはスレッドセーフです。
+ * </p>
+ */
+@DependsOn({})
+public class DungeonPartLibrary implements IManager {
+
+    private final Deepwither plugin;
+
+    // パーツのスキャン結果。キーは絶対パス + タイプ + 長さ (guarded by this)
+    private final Map<PartKey, PartEntry> parts = new HashMap<>();
+    // Clipboard の LRU (アクセス順, guarded by this)
+    private final LinkedHashMap<String, ClipboardEntry> clipboards = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBlocks;
+    private long maxBlocks;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DungeonPartLibrary(Deepwither plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void init() {
+        maxBlocks = Math.max(0L, plugin.getConfig().getLong("dungeon.part-cache.max-blocks", 8_000_000L));
+    }
+
+    @Override
+    public void shutdown() {
+        invalidateAll();
+    }
+
+    private record PartKey(String path, String type, int length) {
+    }
+
+    private record Stamp(long modified, long size) {
+        static Stamp of(File file) {
+            return new Stamp(file.lastModified(), file.length());
+        }
+    }
+
+    private record PartEntry(Stamp stamp, DungeonPart part) {
+    }
+
+    private record ClipboardEntry(Stamp stamp, Clipboard clipboard, long blocks) {
+    }
+
+    /**
+     * マーカーをスキャン済みのパーツを取得します。ファイルを読み込めない場合はスキャンされていないパーツを返します。
+     *
+     * <p>返されるパーツは共有されるため、呼び出し側で変更しないでください。</p>
+     */
+    public DungeonPart getPart(File file, String type, int length) {
+        PartKey key = new PartKey(file.getAbsolutePath(), type, length);
+        Stamp stamp = Stamp.of(file);
+        synchronized (this) {
+            PartEntry entry = parts.get(key);
+            if (entry != null && entry.stamp().equals(stamp)) {
+                hits.incrementAndGet();
+                return entry.part();
+            }
+        }
+
+        DungeonPart part = new DungeonPart(file.getName(), type, length);
+        Clipboard clipboard = getClipboard(file);
+        if (clipboard == null) {
+            return part;
+        }
+        part.scanMarkers(clipboard);
+
+        synchronized (this) {
+            // 同時に読み込んだ場合は先に登録されたものを使う
+            PartEntry existing = parts.get(key);
+            if (existing != null && existing.stamp().equals(stamp)) {
+                return existing.part();
+            }
+            parts.put(key, new PartEntry(stamp, part));
+        }
+        return part;
+    }
+
+    /**
+     * ファイルの Clipboard を取得します。キャッシュになければ読み込みます。
+     *
+     * <p>返される Clipboard は共有されるため、貼り付けなど読み取りにのみ使用してください。</p>
+     *
+     * @return 読み込めない場合は null
+     */
+    public Clipboard getClipboard(File file) {
+        String path = file.getAbsolutePath();
+        Stamp stamp = Stamp.of(file);
+        synchronized (this) {
+            ClipboardEntry entry = clipboards.get(path);
+            if (entry != null && entry.stamp().equals(stamp)) {
+                hits.incrementAndGet();
+                return entry.clipboard();
+            }
+        }
+
+        misses.incrementAndGet();
+        Clipboard clipboard = read(file);
+        if (clipboard == null) {
+            return null;
+        }
+
+        long blocks = clipboard.getRegion().getVolume();
+        synchronized (this) {
+            ClipboardEntry existing = clipboards.get(path);
+            if (existing != null && existing.stamp().equals(stamp)) {
+                return existing.clipboard();
+            }
+            ClipboardEntry replaced = clipboards.put(path, new ClipboardEntry(stamp, clipboard, blocks));
+            if (replaced != null) {
+                cachedBlocks -= replaced.blocks();
+            }
+            cachedBlocks += blocks;
+            evictOverCap(path);
+        }
+        return clipboard;
+    }
+
+    /**
+     * 上限を超えている間、最も長く使われていない Clipboard を解放する (今読み込んだものは残す)
+     */
+    private void evictOverCap(String keep) {
+        Iterator<Map.Entry<String, ClipboardEntry>> it = clipboards.entrySet().iterator();
+        while (cachedBlocks > maxBlocks && it.hasNext()) {
+            Map.Entry<String, ClipboardEntry> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue;
+            cachedBlocks -= eldest.getValue().blocks();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private Clipboard read(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        ClipboardFormat format = ClipboardFormats.findByFile(file);
+        if (format == null) {
+            plugin.getLogger().warning("Unknown schematic format: " + file.getName());
+            return null;
+        }
+        try (ClipboardReader reader = format.getReader(new FileInputStream(file))) {
+            return reader.read();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read schematic: " + file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * キャッシュをすべて破棄します (次回の要求で読み直します)。
+     */
+    public synchronized void invalidateAll() {
+        parts.clear();
+        clipboards.clear();
+        cachedBlocks = 0;
+    }
+
+    public synchronized int getPartCount() {
+        return parts.size();
+    }
+
+    public synchronized int getClipboardCount() {
+        return clipboards.size();
+    }
+
+    public synchronized long getCachedBlocks() {
+        return cachedBlocks;
+    }
+
+    public long getMaxBlocks() {
+        return maxBlocks;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+}
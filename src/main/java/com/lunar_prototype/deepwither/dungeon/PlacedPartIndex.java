@@ -0,0 +1,190 @@
+package com.lunar_prototype.deepwither.dungeon;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * 配置済みパーツの境界ボックス (AABB) を X-Z 平面の一様グリッドに格納し、衝突判定の候補を絞り込むインデックス。
+ *
+ * <p>
+ * 1 つのボックスは重なるすべてのセルに登録し、セルごとの参照リストは配列 ({@code refNext}) の連結リストで表現します。
+ * セルの探索はオープンアドレス法のハッシュテーブルで行います。1 回の問い合わせで同じボックスを二度判定しないよう、
+ * ボックスごとに最後に判定した問い合わせ番号を記録します。
+ * </p>
+ * <p>
+ * 衝突の条件は {@link #intersects} で、X-Z 方向は接続部の重なりを許すため {@value #MARGIN} ブロック分縮めて判定します。
+ * スレッドセーフではありません (1 回のレイアウト計算は 1 スレッドで行います)。
+ * </p>
+ */
+public final class PlacedPartIndex<T> {
+
+    /** セルの一辺の長さ (ブロック) = 1 << CELL_SHIFT */
+    public static final int CELL_SHIFT = 4;
+    /** X-Z 方向の衝突判定で許容する重なり (ブロック) */
+    public static final int MARGIN = 3;
+
+    private Object[] values = new Object[32];
+    private int[] minXs = new int[32], minYs = new int[32], minZs = new int[32];
+    private int[] maxXs = new int[32], maxYs = new int[32], maxZs = new int[32];
+    private int[] visited = new int[32];
+    private int size;
+    private int queryStamp;
+
+    // セル -> ボックスの参照 (連結リスト)
+    private int[] refBoxes = new int[128];
+    private int[] refNext = new int[128];
+    private int refCount;
+
+    private long[] slotKeys = new long[64];
+    private int[] slotHeads = new int[64];
+    private boolean[] slotUsed = new boolean[64];
+    private int cellCount;
+    private int mask = 63;
+
+    /**
+     * {@code a} (新しく置くパーツ) が {@code b} (配置済みのパーツ) と衝突するか。
+     */
+    public static boolean intersects(int aMinX, int aMinY, int aMinZ, int aMaxX, int aMaxY, int aMaxZ,
+                                     int bMinX, int bMinY, int bMinZ, int bMaxX, int bMaxY, int bMaxZ) {
+        return aMinX < bMaxX - MARGIN && aMaxX > bMinX + MARGIN
+                && aMinY < bMaxY && aMaxY > bMinY
+                && aMinZ < bMaxZ - MARGIN && aMaxZ > bMinZ + MARGIN;
+    }
+
+    public void add(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, T value) {
+        ensureCapacity(size + 1);
+        int box = size++;
+        values[box] = value;
+        minXs[box] = minX;
+        minYs[box] = minY;
+        minZs[box] = minZ;
+        maxXs[box] = maxX;
+        maxYs[box] = maxY;
+        maxZs[box] = maxZ;
+        visited[box] = 0;
+
+        int minCx = minX >> CELL_SHIFT, maxCx = maxX >> CELL_SHIFT;
+        int minCz = minZ >> CELL_SHIFT, maxCz = maxZ >> CELL_SHIFT;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                int slot = slotFor(cellKey(cx, cz), true);
+                if (refCount == refBoxes.length) {
+                    refBoxes = Arrays.copyOf(refBoxes, refCount * 2);
+                    refNext = Arrays.copyOf(refNext, refCount * 2);
+                }
+                int ref = refCount++;
+                refBoxes[ref] = box;
+                refNext[ref] = slotHeads[slot];
+                slotHeads[slot] = ref;
+            }
+        }
+    }
+
+    /**
+     * 指定したボックスと衝突する配置済みパーツを 1 つ返します。
+     *
+     * @param skip true を返した値は判定から除外する (接続元のパーツなど)。null なら除外しない
+     * @return 衝突するパーツ。なければ null
+     */
+    @SuppressWarnings("unchecked")
+    public T findIntersecting(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Predicate<? super T> skip) {
+        if (size == 0) return null;
+        if (++queryStamp == 0) {
+            Arrays.fill(visited, 0, size, 0);
+            queryStamp = 1;
+        }
+        int minCx = minX >> CELL_SHIFT, maxCx = maxX >> CELL_SHIFT;
+        int minCz = minZ >> CELL_SHIFT, maxCz = maxZ >> CELL_SHIFT;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                int slot = slotFor(cellKey(cx, cz), false);
+                if (slot < 0) continue;
+                for (int ref = slotHeads[slot]; ref >= 0; ref = refNext[ref]) {
+                    int b = refBoxes[ref];
+                    if (visited[b] == queryStamp) continue;
+                    visited[b] = queryStamp;
+                    if (!intersects(minX, minY, minZ, maxX, maxY, maxZ,
+                            minXs[b], minYs[b], minZs[b], maxXs[b], maxYs[b], maxZs[b])) continue;
+                    T value = (T) values[b];
+                    if (skip != null && skip.test(value)) continue;
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        refCount = 0;
+        Arrays.fill(slotUsed, false);
+        cellCount = 0;
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * セルのスロットを返します。create が false で存在しない場合は -1 を返します。
+     */
+    private int slotFor(long key, boolean create) {
+        int slot = hash(key) & mask;
+        while (slotUsed[slot]) {
+            if (slotKeys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        if (!create) return -1;
+        // 使用率 50% 以下を保つ
+        if ((cellCount + 1) * 2 > slotKeys.length) {
+            grow();
+            return slotFor(key, true);
+        }
+        slotUsed[slot] = true;
+        slotKeys[slot] = key;
+        slotHeads[slot] = -1;
+        cellCount++;
+        return slot;
+    }
+
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40);
+    }
+
+    private void grow() {
+        long[] oldKeys = slotKeys;
+        int[] oldHeads = slotHeads;
+        boolean[] oldUsed = slotUsed;
+        int capacity = oldKeys.length * 2;
+        slotKeys = new long[capacity];
+        slotHeads = new int[capacity];
+        slotUsed = new boolean[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (slotUsed[slot]) slot = (slot + 1) & mask;
+            slotUsed[slot] = true;
+            slotKeys[slot] = oldKeys[i];
+            slotHeads[slot] = oldHeads[i];
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= values.length) return;
+        int capacity = Math.max(required, values.length * 2);
+        values = Arrays.copyOf(values, capacity);
+        minXs = Arrays.copyOf(minXs, capacity);
+        minYs = Arrays.copyOf(minYs, capacity);
+        minZs = Arrays.copyOf(minZs, capacity);
+        maxXs = Arrays.copyOf(maxXs, capacity);
+        maxYs = Arrays.copyOf(maxYs, capacity);
+        maxZs = Arrays.copyOf(maxZs, capacity);
+        visited = Arrays.copyOf(visited, capacity);
+    }
+}
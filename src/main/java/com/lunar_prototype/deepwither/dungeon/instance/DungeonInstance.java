@@ -4,6 +4,7 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
@@ -19,6 +20,7 @@ import java.util.UUID;
 public class DungeonInstance {
     private final String instanceId;
     private final World world;
+    private final Location startLocation;
     private final Set<UUID> currentPlayers;
     private long lastEmptyTime;
     private final String type;
@@ -32,8 +34,16 @@ public class DungeonInstance {
     public String getDifficulty() { return difficulty; }
 
     public DungeonInstance(String instanceId, World world, String type, String difficulty) {
+        this(instanceId, world, type, difficulty, new Location(world, 0.5, 64, 0.5));
+    }
+
+    /**
+     * @param startLocation 参加時の転送先 (入口パーツの位置)
+     */
+    public DungeonInstance(String instanceId, World world, String type, String difficulty, Location startLocation) {
         this.instanceId = instanceId;
         this.world = world;
+        this.startLocation = startLocation;
         this.currentPlayers = new HashSet<>();
         this.lastEmptyTime = System.currentTimeMillis();
         this.type = type;
@@ -49,6 +59,7 @@ public class DungeonInstance {
 
     public String getInstanceId() { return instanceId; }
     public World getWorld() { return world; }
+    public Location getStartLocation() { return startLocation.clone(); }
     public Set<UUID> getPlayers() { return currentPlayers; }
 
     public void addPlayer(UUID uuid) {
@@ -3,6 +3,7 @@ package com.lunar_prototype.deepwither.dungeon.instance;
 import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.api.DeepwitherPartyAPI;
 import com.lunar_prototype.deepwither.dungeon.DungeonGenerator;
+import com.lunar_prototype.deepwither.dungeon.DungeonPartLibrary;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import net.kyori.adventure.text.Component;
@@ -12,14 +13,14 @@ import org.bukkit.*;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 
-@DependsOn({})
+@DependsOn({DungeonPartLibrary.class, InstanceWorldPool.class})
 public class DungeonInstanceManager implements IManager {
 
     private final Deepwither plugin;
+    private final DungeonPartLibrary partLibrary;
+    private final InstanceWorldPool worldPool;
     private final Map<String, DungeonInstance> activeInstances = new HashMap<>(); // Key: World Name (Instance ID)
     private final Map<UUID, String> playerInstanceMap = new HashMap<>(); // Key: Player UUID, Value: World Name
 
@@ -28,9 +29,12 @@ public class DungeonInstanceManager implements IManager {
 
     // 定数: インスタンスが空になってから削除するまでの時間 (ミリ秒) - 例: 5分
     private static final long REMOVE_THRESHOLD_MS = 5 * 60 * 1000;
+    private static final String WORLD_PREFIX = "dw_inst_";
 
-    public DungeonInstanceManager(Deepwither plugin) {
+    public DungeonInstanceManager(Deepwither plugin, DungeonPartLibrary partLibrary, InstanceWorldPool worldPool) {
         this.plugin = plugin;
+        this.partLibrary = partLibrary;
+        this.worldPool = worldPool;
         instance = this;
     }
 
@@ -47,6 +51,13 @@ public class DungeonInstanceManager implements IManager {
 
     @Override
     public void init() {
+        worldPool.registerKind(WORLD_PREFIX, world -> {
+            // ゲームルールの設定
+            world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+            world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+            world.setGameRule(GameRule.KEEP_INVENTORY, true); // Keep Inventory有効
+            world.setTime(18000); // 深夜
+        });
         // 1分ごとにクリーンアップタスクを実行
         cleanupTask = Bukkit.getScheduler().runTaskTimer(plugin, this::cleanupInactiveInstances, 1200L, 1200L);
         plugin.getLogger().info("DungeonInstanceManager initialized.");
@@ -68,52 +79,55 @@ public class DungeonInstanceManager implements IManager {
      * 新しいダンジョンインスタンスを生成し、ホストプレイヤーとそのパーティーを転送する
      */
     public void createDungeonInstance(Player host, String dungeonType, String difficulty) {
-        UUID hostId = host.getUniqueId();
-        String worldName = "dw_inst_" + hostId.toString().substring(0, 8) + "_" + System.currentTimeMillis();
-
-        plugin.getLogger().info("Generating dungeon instance: " + worldName + " type: " + dungeonType);
-
-        // 1. 空のワールド（Void）を作成
-        WorldCreator creator = new WorldCreator(worldName);
-        creator.type(WorldType.FLAT);
-        creator.generatorSettings(
-                "{\"layers\":[{\"block\":\"minecraft:air\",\"height\":1}],\"biome\":\"minecraft:the_void\"}");
-        creator.generateStructures(false);
-
-        World world = creator.createWorld();
-        if (world == null) {
+        // 1. 空のワールド（Void）を借りる (待機ワールドがあれば作成しない)
+        InstanceWorldPool.Lease lease = worldPool.acquire(WORLD_PREFIX);
+        if (lease == null) {
             host.sendMessage(Component.text("ワールド生成に失敗しました。", NamedTextColor.RED));
             return;
         }
+        World world = lease.world();
+        String worldName = world.getName();
 
-        // ゲームルールの設定
-        world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
-        world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
-        world.setGameRule(GameRule.KEEP_INVENTORY, true); // Keep Inventory有効
-        world.setTime(18000); // 深夜
-
-        // 2. ダンジョン生成実行
-        DungeonGenerator generator = new DungeonGenerator(dungeonType, difficulty);
-        generator.generateBranching(world, 0); // depth10などで生成
-
-        // 3. インスタンス管理に追加
-        DungeonInstance dInstance = new DungeonInstance(worldName, world, dungeonType, difficulty);
-        activeInstances.put(worldName, dInstance);
+        plugin.getLogger().info("Generating dungeon instance: " + worldName + " type: " + dungeonType);
 
-        // 4. パーティーメンバーの転送処理
+        // 生成完了まで待つメンバー
         DeepwitherPartyAPI partyApi = plugin.getPartyAPI(); // APIのインスタンスを取得
+        List<Player> members = partyApi.isInParty(host)
+                ? new ArrayList<>(partyApi.getOnlinePartyMembers(host))
+                : List.of(host);
+        for (Player member : members) {
+            member.sendMessage(Component.text("ダンジョン生成中... (数秒お待ちください)", NamedTextColor.YELLOW));
+        }
 
-        if (partyApi.isInParty(host)) {
-            // パーティーを組んでいる場合、オンラインメンバー全員を取得
-            Set<Player> members = partyApi.getOnlinePartyMembers(host);
-
+        // 2. ダンジョン生成実行 (設置は tick ごとの時間上限内で少しずつ行う)
+        DungeonGenerator generator = new DungeonGenerator(partLibrary, dungeonType, difficulty);
+        lease.attach(generator);
+        generator.setStartOrigin(lease.originX(), lease.originY(), lease.originZ());
+        generator.setProgressListener((pasted, total) -> showProgress(members, pasted, total));
+        generator.generateBranchingAsync(world, 0, spawns -> {
+            // 3. インスタンス管理に追加
+            DungeonInstance dInstance = new DungeonInstance(worldName, world, dungeonType, difficulty, lease.origin());
+            activeInstances.put(worldName, dInstance);
+
+            // 4. パーティーメンバーの転送処理
             for (Player member : members) {
-                member.sendMessage(Component.text("パーティーリーダーがダンジョンを生成しました！転送します...", NamedTextColor.LIGHT_PURPLE));
+                if (!member.isOnline()) continue;
+                if (member != host) {
+                    member.sendMessage(Component.text("パーティーリーダーがダンジョンを生成しました！転送します...", NamedTextColor.LIGHT_PURPLE));
+                }
                 joinDungeon(member, worldName);
             }
-        } else {
-            // ソロの場合、自分だけ転送
-            joinDungeon(host, worldName);
+        });
+    }
+
+    /**
+     * 生成を待っているプレイヤーに設置の進捗を表示する
+     */
+    static void showProgress(Collection<Player> players, int pasted, int total) {
+        int percent = total == 0 ? 100 : pasted * 100 / total;
+        Component bar = Component.text("ダンジョン生成中... " + percent + "%", NamedTextColor.YELLOW);
+        for (Player player : players) {
+            if (player.isOnline()) player.sendActionBar(bar);
         }
     }
 
@@ -132,9 +146,8 @@ public class DungeonInstanceManager implements IManager {
             leaveDungeon(player);
         }
 
-        // テレポート (Start: 0, 64, 0)
-        Location startLoc = new Location(dInstance.getWorld(), 0.5, 64, 0.5);
-        player.teleport(startLoc);
+        // テレポート (入口パーツの位置)
+        player.teleport(dInstance.getStartLocation());
 
         // 管理データ更新
         dInstance.addPlayer(player.getUniqueId());
@@ -232,20 +245,10 @@ public class DungeonInstanceManager implements IManager {
 
         dInstance.cleanup(); // Task停止
 
+        // ワールドはプールへ返却する (再利用回数を超えたものはプール側で削除)
         World world = dInstance.getWorld();
         if (world != null) {
-            File worldFolder = world.getWorldFolder();
-            Bukkit.unloadWorld(world, false); // Save false
-
-            // フォルダ削除 (非同期推奨だが、ここでは簡易実装)
-            // BukkitのUnload直後はロックが残る場合があるため、少し遅延させるか、標準APIを使う
-            try {
-                deleteDirectory(worldFolder);
-                plugin.getLogger().info("Deleted world folder: " + worldFolder.getName());
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to delete world folder: " + worldName);
-                e.printStackTrace();
-            }
+            worldPool.release(world);
         }
 
         activeInstances.remove(worldName);
@@ -266,18 +269,4 @@ public class DungeonInstanceManager implements IManager {
         dInstance.addPlayer(player.getUniqueId());
         playerInstanceMap.put(player.getUniqueId(), instanceId);
     }
-
-    private void deleteDirectory(File file) throws IOException {
-        if (file.isDirectory()) {
-            File[] entries = file.listFiles();
-            if (entries != null) {
-                for (File entry : entries) {
-                    deleteDirectory(entry);
-                }
-            }
-        }
-        if (!file.delete()) {
-            throw new IOException("Failed to delete " + file);
-        }
-    }
-}
\ No newline at end of file
+}
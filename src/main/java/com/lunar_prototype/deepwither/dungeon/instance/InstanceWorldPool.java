@@ -0,0 +1,321 @@
+package com.lunar_prototype.deepwither.dungeon.instance;
+
+import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.dungeon.DungeonGenerator;
+import com.lunar_prototype.deepwither.util.DependsOn;
+import com.lunar_prototype.deepwither.util.IManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.WorldType;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * ダンジョンインスタンス用の空ワールドを事前に作成・再利用するプール。
+ *
+ * <p>
+ * ワールドの作成と削除はメインスレッドを止めるため、インスタンスを作るたびに行わず、種類 (ワールド名の接頭辞) ごとに
+ * 待機ワールドを用意しておきます (dungeon.instance-pool.size)。不足分は一定間隔で 1 つずつ補充します。
+ * </p>
+ * <p>
+ * 返却されたワールドは削除せず、次の利用では前回と重ならない位置 ({@link Lease#originX()}) にダンジョンを設置します。
+ * 同じワールドを max-uses 回使ったら、アンロードしてフォルダを非同期で削除します。
+ * </p>
+ */
+@DependsOn({})
+public class InstanceWorldPool implements IManager {
+
+    private final Deepwither plugin;
+
+    private final Map<String, Consumer<World>> kinds = new LinkedHashMap<>();
+    private final Map<String, Deque<PooledWorld>> idle = new HashMap<>();
+    private final Map<String, PooledWorld> leased = new HashMap<>();
+    private BukkitTask refillTask;
+    private int sequence;
+
+    private int size;
+    private int maxUses;
+    private int spacing;
+
+    private long created;
+    private long reused;
+    private long retired;
+
+    public InstanceWorldPool(Deepwither plugin) {
+        this.plugin = plugin;
+    }
+
+    private static final class PooledWorld {
+        final String prefix;
+        final World world;
+        int uses;
+        /** 貸し出し中の場合、その貸し出し */
+        Lease lease;
+
+        PooledWorld(String prefix, World world) {
+            this.prefix = prefix;
+            this.world = world;
+        }
+    }
+
+    /**
+     * 貸し出したワールドと、今回ダンジョンを設置する位置。
+     * ダンジョンを生成したら {@link #attach} で生成器を登録してください (返却時にスポナーの監視を止めるため)。
+     */
+    public static final class Lease {
+        private final World world;
+        private final int originX;
+        private final int originY;
+        private final int originZ;
+        private DungeonGenerator generator;
+
+        Lease(World world, int originX, int originY, int originZ) {
+            this.world = world;
+            this.originX = originX;
+            this.originY = originY;
+            this.originZ = originZ;
+        }
+
+        public World world() {
+            return world;
+        }
+
+        public int originX() {
+            return originX;
+        }
+
+        public int originY() {
+            return originY;
+        }
+
+        public int originZ() {
+            return originZ;
+        }
+
+        public Location origin() {
+            return new Location(world, originX + 0.5, originY, originZ + 0.5);
+        }
+
+        /**
+         * このワールドでダンジョンを生成する生成器を登録します。
+         */
+        public void attach(DungeonGenerator generator) {
+            this.generator = generator;
+        }
+    }
+
+    @Override
+    public void init() {
+        FileConfiguration config = plugin.getConfig();
+        size = Math.max(0, config.getInt("dungeon.instance-pool.size", 2));
+        maxUses = Math.max(1, config.getInt("dungeon.instance-pool.max-uses", 8));
+        spacing = Math.max(256, config.getInt("dungeon.instance-pool.slot-spacing", 4096));
+        refillTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refill, 200L, 100L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (refillTask != null) {
+            refillTask.cancel();
+            refillTask = null;
+        }
+        for (Deque<PooledWorld> worlds : idle.values()) {
+            for (PooledWorld pooled : worlds) {
+                retire(pooled.world);
+            }
+        }
+        idle.clear();
+        for (PooledWorld pooled : leased.values()) {
+            retire(pooled.world);
+        }
+        leased.clear();
+    }
+
+    /**
+     * ワールドの種類を登録します。登録した種類は待機ワールドが補充されます。
+     *
+     * @param prefix ワールド名の接頭辞 (他の処理がワールド名で種類を判定するため)
+     * @param setup  ワールドを作成したときに一度だけ行う設定 (ゲームルールなど)
+     */
+    public void registerKind(String prefix, Consumer<World> setup) {
+        kinds.put(prefix, setup);
+    }
+
+    /**
+     * ワールドを借ります。待機ワールドがなければその場で作成します。
+     *
+     * @return 作成に失敗した場合は null
+     */
+    public Lease acquire(String prefix) {
+        PooledWorld pooled = null;
+        Deque<PooledWorld> worlds = idle.get(prefix);
+        while (worlds != null && !worlds.isEmpty()) {
+            PooledWorld candidate = worlds.poll();
+            // 他の処理でアンロードされたワールドは使わない
+            if (Bukkit.getWorld(candidate.world.getUID()) != null) {
+                pooled = candidate;
+                break;
+            }
+        }
+        if (pooled == null) {
+            pooled = create(prefix);
+            if (pooled == null) return null;
+        } else {
+            reused++;
+        }
+
+        int slot = pooled.uses++;
+        pooled.lease = new Lease(pooled.world, slot * spacing, 64, 0);
+        leased.put(pooled.world.getName(), pooled);
+        return pooled.lease;
+    }
+
+    /**
+     * ワールドを返却します。プレイヤーは事前に退出させておいてください。
+     * 再利用回数の上限に達したか、待機ワールドが足りている場合は削除します。
+     */
+    public void release(World world) {
+        PooledWorld pooled = leased.remove(world.getName());
+        if (pooled == null) {
+            retire(world);
+            return;
+        }
+
+        // 前回の生成器のスポナー監視が次の利用者のダンジョンでモブを出さないように止める
+        if (pooled.lease != null && pooled.lease.generator != null) {
+            pooled.lease.generator.stopSpawnerMonitor();
+        }
+        pooled.lease = null;
+
+        for (Entity entity : world.getEntities()) {
+            if (!(entity instanceof Player)) entity.remove();
+        }
+
+        Deque<PooledWorld> worlds = idle.computeIfAbsent(pooled.prefix, k -> new ArrayDeque<>());
+        if (pooled.uses >= maxUses || worlds.size() >= size) {
+            retire(world);
+            return;
+        }
+        worlds.add(pooled);
+    }
+
+    /**
+     * 待機ワールドが足りない種類に 1 つだけ補充する (作成の負荷を分散するため)
+     */
+    private void refill() {
+        for (String prefix : kinds.keySet()) {
+            Deque<PooledWorld> worlds = idle.computeIfAbsent(prefix, k -> new ArrayDeque<>());
+            if (worlds.size() >= size) continue;
+            PooledWorld pooled = create(prefix);
+            if (pooled != null) worlds.add(pooled);
+            return;
+        }
+    }
+
+    private PooledWorld create(String prefix) {
+        String worldName = prefix + System.currentTimeMillis() + "_" + (sequence++);
+
+        // 空のワールド（Void）を作成
+        WorldCreator creator = new WorldCreator(worldName);
+        creator.type(WorldType.FLAT);
+        creator.generatorSettings(
+                "{\"layers\":[{\"block\":\"minecraft:air\",\"height\":1}],\"biome\":\"minecraft:the_void\"}");
+        creator.generateStructures(false);
+
+        World world = creator.createWorld();
+        if (world == null) {
+            plugin.getLogger().warning("Failed to create instance world: " + worldName);
+            return null;
+        }
+        Consumer<World> setup = kinds.get(prefix);
+        if (setup != null) {
+            setup.accept(world);
+        }
+        created++;
+        return new PooledWorld(prefix, world);
+    }
+
+    /**
+     * ワールドをアンロードし、フォルダを非同期で削除する (アンロードに失敗した場合は削除しない)
+     */
+    private void retire(World world) {
+        PooledWorld pooled = leased.get(world.getName());
+        if (pooled != null && pooled.lease != null && pooled.lease.generator != null) {
+            pooled.lease.generator.stopSpawnerMonitor();
+        }
+        File worldFolder = world.getWorldFolder();
+        String worldName = world.getName();
+        if (!Bukkit.unloadWorld(world, false)) { // Save false
+            plugin.getLogger().warning("Failed to unload instance world, keeping its folder: " + worldName);
+            return;
+        }
+        retired++;
+
+        Runnable delete = () -> {
+            try {
+                deleteDirectory(worldFolder);
+                plugin.getLogger().info("Deleted world folder: " + worldFolder.getName());
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to delete world folder: " + worldName);
+                e.printStackTrace();
+            }
+        };
+        try {
+            plugin.getAsyncExecutor().execute(delete);
+        } catch (RejectedExecutionException e) {
+            delete.run();
+        }
+    }
+
+    private void deleteDirectory(File file) throws IOException {
+        if (file.isDirectory()) {
+            File[] entries = file.listFiles();
+            if (entries != null) {
+                for (File entry : entries) {
+                    deleteDirectory(entry);
+                }
+            }
+        }
+        if (!file.delete()) {
+            throw new IOException("Failed to delete " + file);
+        }
+    }
+
+    public int getIdleCount() {
+        int count = 0;
+        for (Deque<PooledWorld> worlds : idle.values()) {
+            count += worlds.size();
+        }
+        return count;
+    }
+
+    public int getLeasedCount() {
+        return leased.size();
+    }
+
+    public long getCreatedCount() {
+        return created;
+    }
+
+    public long getReusedCount() {
+        return reused;
+    }
+
+    public long getRetiredCount() {
+        return retired;
+    }
+}
@@ -2,6 +2,7 @@ package com.lunar_prototype.deepwither.dungeon.instance;
 
 import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.dungeon.DungeonGenerator;
+import com.lunar_prototype.deepwither.dungeon.DungeonPartLibrary;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
@@ -19,18 +20,32 @@ import org.bukkit.entity.Player;
 import java.util.*;
 import java.util.stream.Collectors;
 
-@DependsOn({DungeonInstanceManager.class})
+@DependsOn({DungeonInstanceManager.class, DungeonPartLibrary.class, InstanceWorldPool.class})
 public class PvPvEDungeonManager implements IManager {
 
     private final Deepwither plugin;
+    private final DungeonPartLibrary partLibrary;
+    private final InstanceWorldPool worldPool;
     private static final int MAX_PLAYERS_PER_INSTANCE = 3;
+    // 他の処理がこの接頭辞で PvPvE のワールドを判定する
+    private static final String WORLD_PREFIX = "pvpve_";
 
-    public PvPvEDungeonManager(Deepwither plugin) {
+    public PvPvEDungeonManager(Deepwither plugin, DungeonPartLibrary partLibrary, InstanceWorldPool worldPool) {
         this.plugin = plugin;
+        this.partLibrary = partLibrary;
+        this.worldPool = worldPool;
     }
 
     @Override
-    public void init() {}
+    public void init() {
+        worldPool.registerKind(WORLD_PREFIX, world -> {
+            setWorldGuardPvP(world, true);
+            world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+            world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+            world.setGameRule(GameRule.KEEP_INVENTORY, false);
+            world.setTime(18000);
+        });
+    }
 
     @Override
     public void shutdown() {}
@@ -73,36 +88,28 @@ public class PvPvEDungeonManager implements IManager {
     }
 
     private void createNewMatch(Player host, String type, String difficulty) {
-        String worldName = "pvpve_" + System.currentTimeMillis();
-
-        WorldCreator creator = new WorldCreator(worldName);
-        creator.type(WorldType.FLAT);
-        creator.generatorSettings(
-                "{\"layers\":[{\"block\":\"minecraft:air\",\"height\":1}],\"biome\":\"minecraft:the_void\"}");
-        creator.generateStructures(false);
-
-        World world = creator.createWorld();
-        if (world == null) {
+        InstanceWorldPool.Lease lease = worldPool.acquire(WORLD_PREFIX);
+        if (lease == null) {
             host.sendMessage(Component.text("ワールド生成に失敗しました。", NamedTextColor.RED));
             return;
         }
+        World world = lease.world();
+        String worldName = world.getName();
 
-        setWorldGuardPvP(world, true);
-        world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
-        world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
-        world.setGameRule(GameRule.KEEP_INVENTORY, false);
-        world.setTime(18000);
-
-        DungeonGenerator generator = new DungeonGenerator(type, difficulty);
+        DungeonGenerator generator = new DungeonGenerator(partLibrary, type, difficulty);
+        lease.attach(generator);
+        generator.setStartOrigin(lease.originX(), lease.originY(), lease.originZ());
+        generator.setProgressListener((pasted, total) -> DungeonInstanceManager.showProgress(List.of(host), pasted, total));
         host.sendMessage(Component.text("ダンジョン生成中... (数秒お待ちください)", NamedTextColor.YELLOW));
 
         generator.generateBranchingAsync(world, 0, (spawns) -> {
             if (spawns.isEmpty()) {
                 host.sendMessage(Component.text("エラー: ダンジョン生成に失敗しました (スポーン地点なし)", NamedTextColor.RED));
+                worldPool.release(world);
                 return;
             }
 
-            DungeonInstance inst = new DungeonInstance(worldName, world, type, difficulty);
+            DungeonInstance inst = new DungeonInstance(worldName, world, type, difficulty, lease.origin());
             DungeonInstanceManager.getInstance().registerInstance(inst);
             inst.startLifeCycle();
             registerSpawns(inst.getInstanceId(), spawns);
@@ -0,0 +1,275 @@
+package com.lunar_prototype.deepwither.item;
+
+import com.lunar_prototype.deepwither.StatMap;
+import com.lunar_prototype.deepwither.StatType;
+import io.papermc.paper.persistence.PersistentDataContainerView;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * アイテムの PDC に保存されたステータスの読み書きを担当するコーデック。
+ *
+ * <p>
+ * ステータスごとの {@link NamespacedKey} は {@link StatType} から一度だけ生成して使い回します。
+ * アイテム生成時には従来の個別キーに加えて全ステータスを 1 つのバイト列 ({@link #PACKED_KEY}) に
+ * まとめて保存し、読み取り時はそのバイト列のみを参照します。デコード結果はバイト列の内容をキーに
+ * キャッシュされるため、同一内容のアイテムは一度しかデコードされません。
+ * </p>
+ * <p>
+ * バイト列を持たない旧アイテムは、PDC に実在するキーだけを走査して読み取ります。
+ * </p>
+ */
+public final class ItemStatCodec {
+
+    public static final String NAMESPACE = "rpgstats";
+    public static final NamespacedKey PACKED_KEY = new NamespacedKey(NAMESPACE, "packed");
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte HAS_FLAT = 1;
+    private static final byte HAS_PERCENT = 2;
+    private static final int CACHE_CAPACITY = 1024;
+
+    private static final StatType[] TYPES = StatType.values();
+    private static final NamespacedKey[] FLAT_KEYS = new NamespacedKey[TYPES.length];
+    private static final NamespacedKey[] PERCENT_KEYS = new NamespacedKey[TYPES.length];
+    private static final NamespacedKey[] BASE_FLAT_KEYS = new NamespacedKey[TYPES.length];
+    private static final NamespacedKey[] BASE_PERCENT_KEYS = new NamespacedKey[TYPES.length];
+    private static final NamespacedKey[] MOD_KEYS = new NamespacedKey[TYPES.length];
+
+    // 旧形式の最終ステータスキー -> (ordinal << 1) | (percent ? 1 : 0)
+    private static final Map<NamespacedKey, Integer> LEGACY_SLOTS = new HashMap<>();
+    private static final Map<String, StatType> BY_NAME = new HashMap<>();
+
+    static {
+        for (StatType type : TYPES) {
+            int i = type.ordinal();
+            String name = type.name().toLowerCase(Locale.ROOT);
+            FLAT_KEYS[i] = new NamespacedKey(NAMESPACE, name + "_flat");
+            PERCENT_KEYS[i] = new NamespacedKey(NAMESPACE, name + "_percent");
+            BASE_FLAT_KEYS[i] = new NamespacedKey(NAMESPACE, "base." + name + "_flat");
+            BASE_PERCENT_KEYS[i] = new NamespacedKey(NAMESPACE, "base." + name + "_percent");
+            MOD_KEYS[i] = new NamespacedKey(NAMESPACE, "mod." + name);
+            LEGACY_SLOTS.put(FLAT_KEYS[i], i << 1);
+            LEGACY_SLOTS.put(PERCENT_KEYS[i], (i << 1) | 1);
+            BY_NAME.put(type.name(), type);
+        }
+    }
+
+    // バイト列の内容 -> デコード済みステータス (読み取り専用)
+    private static final Map<ByteBuffer, StatMap> DECODE_CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, StatMap> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private ItemStatCodec() {
+    }
+
+    public static NamespacedKey flatKey(StatType type) {
+        return FLAT_KEYS[type.ordinal()];
+    }
+
+    public static NamespacedKey percentKey(StatType type) {
+        return PERCENT_KEYS[type.ordinal()];
+    }
+
+    public static NamespacedKey baseFlatKey(StatType type) {
+        return BASE_FLAT_KEYS[type.ordinal()];
+    }
+
+    public static NamespacedKey basePercentKey(StatType type) {
+        return BASE_PERCENT_KEYS[type.ordinal()];
+    }
+
+    public static NamespacedKey modKey(StatType type) {
+        return MOD_KEYS[type.ordinal()];
+    }
+
+    /**
+     * アイテムに保存された最終ステータスを新しい StatMap として読み取ります。
+     *
+     * @param item 読み取り対象 (null 可)
+     * @return 読み取ったステータス。ステータスを持たない場合は空の StatMap
+     */
+    public static StatMap read(ItemStack item) {
+        StatMap stats = new StatMap();
+        readInto(item, stats);
+        return stats;
+    }
+
+    /**
+     * アイテムに保存された最終ステータスを target に加算します。
+     * 中間の StatMap を生成しないため、複数の装備を合算する場合はこちらを使用してください。
+     *
+     * @param item 読み取り対象 (null 可)
+     * @param target 加算先
+     */
+    public static void readInto(ItemStack item, StatMap target) {
+        if (item == null || item.isEmpty() || !item.hasItemMeta()) return;
+
+        // getItemMeta() はメタ全体を複製するため、読み取り専用ビューを使用する
+        PersistentDataContainerView pdc = item.getPersistentDataContainer();
+        byte[] packed = pdc.get(PACKED_KEY, PersistentDataType.BYTE_ARRAY);
+        if (packed != null) {
+            StatMap decoded = decodeCached(packed);
+            if (decoded != null) {
+                target.add(decoded);
+                return;
+            }
+        }
+        readLegacy(pdc, target);
+    }
+
+    /**
+     * 最終ステータスを従来の個別キーとバイト列の両方に書き込みます。
+     * 保存する値は {@link StatMap#round(double)} で丸められます。
+     */
+    public static void write(PersistentDataContainer container, StatMap stats) {
+        for (StatType type : stats.getAllTypes()) {
+            container.set(flatKey(type), PersistentDataType.DOUBLE, StatMap.round(stats.getFlat(type)));
+            container.set(percentKey(type), PersistentDataType.DOUBLE, StatMap.round(stats.getPercent(type)));
+        }
+        container.set(PACKED_KEY, PersistentDataType.BYTE_ARRAY, encode(stats));
+    }
+
+    /**
+     * 基礎ステータス (base.*) を読み取ります。
+     */
+    public static StatMap readBase(PersistentDataContainerView pdc) {
+        StatMap stats = new StatMap();
+        for (StatType type : TYPES) {
+            Double flat = pdc.get(baseFlatKey(type), PersistentDataType.DOUBLE);
+            Double percent = pdc.get(basePercentKey(type), PersistentDataType.DOUBLE);
+            if (flat != null) stats.setFlat(type, flat);
+            if (percent != null) stats.setPercent(type, percent);
+        }
+        return stats;
+    }
+
+    /**
+     * ランダム補正値 (mod.*) を読み取ります。
+     */
+    public static Map<StatType, Double> readModifiers(PersistentDataContainerView pdc) {
+        Map<StatType, Double> modifiers = new HashMap<>();
+        for (StatType type : TYPES) {
+            Double modVal = pdc.get(modKey(type), PersistentDataType.DOUBLE);
+            if (modVal != null) {
+                modifiers.put(type, modVal);
+            }
+        }
+        return modifiers;
+    }
+
+    /**
+     * StatMap をバイト列に変換します。
+     * 列挙順の変更に耐えられるよう、ステータスは名前で保存します。
+     */
+    public static byte[] encode(StatMap stats) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            Set<StatType> types = stats.getAllTypes();
+            out.writeShort(types.size());
+            for (StatType type : types) {
+                double flat = StatMap.round(stats.getFlat(type));
+                double percent = StatMap.round(stats.getPercent(type));
+                byte flags = 0;
+                if (flat != 0) flags |= HAS_FLAT;
+                if (percent != 0) flags |= HAS_PERCENT;
+
+                out.writeUTF(type.name());
+                out.writeByte(flags);
+                if ((flags & HAS_FLAT) != 0) out.writeDouble(flat);
+                if ((flags & HAS_PERCENT) != 0) out.writeDouble(percent);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode stats", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * バイト列を StatMap に変換します。形式が不正な場合は null を返します。
+     */
+    public static StatMap decode(byte[] packed) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(packed))) {
+            if (in.readByte() != FORMAT_VERSION) return null;
+
+            StatMap stats = new StatMap();
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                StatType type = BY_NAME.get(in.readUTF());
+                byte flags = in.readByte();
+                double flat = (flags & HAS_FLAT) != 0 ? in.readDouble() : 0.0;
+                double percent = (flags & HAS_PERCENT) != 0 ? in.readDouble() : 0.0;
+                // 削除されたステータスは読み飛ばす
+                if (type == null) continue;
+                stats.setFlat(type, flat);
+                stats.setPercent(type, percent);
+            }
+            return stats;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static int getCacheSize() {
+        synchronized (DECODE_CACHE) {
+            return DECODE_CACHE.size();
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (DECODE_CACHE) {
+            DECODE_CACHE.clear();
+        }
+    }
+
+    private static StatMap decodeCached(byte[] packed) {
+        ByteBuffer key = ByteBuffer.wrap(packed);
+        synchronized (DECODE_CACHE) {
+            StatMap cached = DECODE_CACHE.get(key);
+            if (cached != null) return cached;
+        }
+
+        StatMap decoded = decode(packed);
+        if (decoded != null) {
+            synchronized (DECODE_CACHE) {
+                DECODE_CACHE.put(key, decoded);
+            }
+        }
+        return decoded;
+    }
+
+    private static void readLegacy(PersistentDataContainerView pdc, StatMap target) {
+        for (NamespacedKey key : pdc.getKeys()) {
+            Integer slot = LEGACY_SLOTS.get(key);
+            if (slot == null) continue;
+
+            Double value = pdc.get(key, PersistentDataType.DOUBLE);
+            if (value == null) continue;
+
+            StatType type = TYPES[slot >> 1];
+            if ((slot & 1) == 0) {
+                target.addFlat(type, value);
+            } else {
+                target.addPercent(type, value);
+            }
+        }
+    }
+}
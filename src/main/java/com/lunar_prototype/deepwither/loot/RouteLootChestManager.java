@@ -663,16 +663,15 @@ public class RouteLootChestManager implements IManager, Listener {
                 "対象人数: " + recipients.size(),
                 "15秒の開封に成功しました。"
         );
-        for (Map.Entry<UUID, List<ItemStack>> entry : bundles.entrySet()) {
-            UUID recipient = entry.getKey();
+        mailManager.sendMails(title, bundles, recipient -> {
             List<String> body = new ArrayList<>(openerBody);
             if (recipient.equals(openerId)) {
                 body.add("あなたが開封を完了しました。");
             } else {
                 body.add("パーティー報酬として配布されました。");
             }
-            mailManager.sendMail(recipient, title, body, entry.getValue());
-        }
+            return body;
+        });
     }
 
     private List<ItemStack> rollTemplate(LootChestTemplate template) {
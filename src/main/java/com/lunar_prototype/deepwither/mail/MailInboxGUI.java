@@ -58,15 +58,16 @@ public class MailInboxGUI implements Listener, IManager {
         Inventory inv = Bukkit.createInventory(null, GUI_SIZE, GUI_TITLE);
         fillBackground(inv);
 
-        List<MailMessage> mails = mailManager.getInbox(player.getUniqueId());
         List<Integer> slots = getMailSlots();
-        int displayCount = Math.min(mails.size(), slots.size());
+        List<MailMessage> mails = mailManager.getInbox(player.getUniqueId(), 0, slots.size());
+        int total = mailManager.getInboxCount(player.getUniqueId());
+        int displayCount = mails.size();
 
         for (int i = 0; i < displayCount; i++) {
             inv.setItem(slots.get(i), createMailItem(mails.get(i)));
         }
 
-        inv.setItem(4, createInfoItem(mails.size(), Math.max(0, mails.size() - displayCount)));
+        inv.setItem(4, createInfoItem(total, Math.max(0, total - displayCount)));
         inv.setItem(BACK_SLOT, createBackButton());
         inv.setItem(CLOSE_SLOT, createCloseButton());
 
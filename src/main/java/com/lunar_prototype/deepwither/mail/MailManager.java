@@ -2,38 +2,53 @@ package com.lunar_prototype.deepwither.mail;
 
 import com.lunar_prototype.deepwither.DatabaseManager;
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
+import com.lunar_prototype.deepwither.core.CacheManager;
+import com.lunar_prototype.deepwither.core.PlayerCache;
+import com.lunar_prototype.deepwither.core.database.WriteBehindQueue;
+import com.lunar_prototype.deepwither.core.database.WriteTable;
+import com.lunar_prototype.deepwither.core.playerdata.PlayerDataManager;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import com.lunar_prototype.deepwither.util.InventoryHelper;
+import com.lunar_prototype.deepwither.util.ItemCodec;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.logging.Level;
 
-@DependsOn({DatabaseManager.class})
-public class MailManager implements IManager {
+/**
+ * プレイヤー宛てメールの送受信を管理するマネージャー。
+ *
+ * <p>
+ * 受信箱はログイン時に本人の分だけ読み込まれ ({@link IBulkPlayerDataHandler})、{@link Mailbox} として PlayerCache に保持されます。
+ * ログアウトでキャッシュと一緒に破棄されるため、オフラインプレイヤーのメールはメモリに残りません。
+ * オフラインの宛先へのメールは DB に書き込むだけで、次回ログイン時に読み込まれます。
+ * </p>
+ */
+@DependsOn({DatabaseManager.class, CacheManager.class, PlayerDataManager.class})
+public class MailManager implements IManager, IBulkPlayerDataHandler {
+
+    private static final WriteTable MAILBOX = WriteTable.of("player_mailbox", "mail_id").withColumns("recipient_uuid", "mail_json", "created_at");
+    private static final String LOAD_QUERY = "SELECT mail_json FROM player_mailbox WHERE recipient_uuid = ?";
 
     private final Deepwither plugin;
     private final DatabaseManager databaseManager;
-    private final Map<UUID, Map<UUID, MailMessage>> mailboxes = new ConcurrentHashMap<>();
+    private CacheManager cacheManager;
 
     public MailManager(Deepwither plugin, DatabaseManager databaseManager) {
         this.plugin = plugin;
@@ -42,7 +57,9 @@ public class MailManager implements IManager {
 
     @Override
     public void init() throws Exception {
-        loadAllMails();
+        this.cacheManager = plugin.get(CacheManager.class);
+        plugin.get(PlayerDataManager.class).registerHandler(this);
+        databaseManager.runAsync(this::backfillCreatedAt);
     }
 
     @Override
@@ -50,19 +67,46 @@ public class MailManager implements IManager {
     }
 
     public MailMessage sendMail(UUID recipientId, String title, List<String> bodyLines, List<ItemStack> rewards) {
+        MailMessage mail = createMail(recipientId, title, bodyLines, rewards);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> saveMails(List.of(mail)));
+        return mail;
+    }
+
+    /**
+     * 複数の宛先へ同じ件名のメールをまとめて送信します。DB への書き込みは 1 回のバッチにまとめられます。
+     * @param title 件名
+     * @param rewardsByRecipient 宛先ごとの報酬
+     * @param bodyLines 宛先ごとの本文
+     * @return 送信したメール
+     */
+    public List<MailMessage> sendMails(String title, Map<UUID, List<ItemStack>> rewardsByRecipient, Function<UUID, List<String>> bodyLines) {
+        List<MailMessage> mails = new ArrayList<>(rewardsByRecipient.size());
+        for (Map.Entry<UUID, List<ItemStack>> entry : rewardsByRecipient.entrySet()) {
+            mails.add(createMail(entry.getKey(), title, bodyLines.apply(entry.getKey()), entry.getValue()));
+        }
+        if (!mails.isEmpty()) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> saveMails(mails));
+        }
+        return mails;
+    }
+
+    private MailMessage createMail(UUID recipientId, String title, List<String> bodyLines, List<ItemStack> rewards) {
         List<String> rewardPayload = new ArrayList<>();
         if (rewards != null) {
             for (ItemStack reward : rewards) {
                 if (reward == null || reward.getType() == Material.AIR || reward.getAmount() <= 0) {
                     continue;
                 }
-                rewardPayload.add(serializeItem(reward.clone()));
+                rewardPayload.add(ItemCodec.encodeToString(reward));
             }
         }
 
         MailMessage mail = new MailMessage(recipientId, title, bodyLines, rewardPayload);
-        mailboxes.computeIfAbsent(recipientId, ignored -> new ConcurrentHashMap<>()).put(mail.getId(), mail);
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> saveMail(mail));
+        // 受信箱がキャッシュにある (オンライン・読み込み中) 場合のみメモリにも追加する
+        PlayerCache cache = cacheManager.getCacheIfPresent(recipientId);
+        if (cache != null) {
+            cache.getOrPut(Mailbox.class, Mailbox::new).add(mail);
+        }
         return mail;
     }
 
@@ -79,24 +123,42 @@ public class MailManager implements IManager {
     }
 
     public List<MailMessage> getInbox(UUID recipientId) {
-        Map<UUID, MailMessage> mailbox = mailboxes.get(recipientId);
-        if (mailbox == null || mailbox.isEmpty()) {
-            return List.of();
-        }
-        return mailbox.values().stream()
-                .sorted(Comparator.comparingLong(MailMessage::getCreatedAt).reversed())
-                .toList();
+        return getInbox(recipientId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * オンラインプレイヤーの受信メールを新しい順に返します。
+     * 受信箱が未読み込みの場合は読み込みを開始し、読み込み済みの分だけを返します。
+     */
+    public List<MailMessage> getInbox(UUID recipientId, int offset, int limit) {
+        Mailbox mailbox = mailbox(recipientId);
+        return mailbox == null ? List.of() : mailbox.page(offset, limit);
     }
 
     public int getInboxCount(UUID recipientId) {
-        Map<UUID, MailMessage> mailbox = mailboxes.get(recipientId);
+        Mailbox mailbox = mailbox(recipientId);
         return mailbox == null ? 0 : mailbox.size();
     }
 
+    /**
+     * DB から受信メールを新しい順にページ単位で取得します。オフラインの宛先にも使用できます。
+     */
+    public CompletableFuture<List<MailMessage>> queryInbox(UUID recipientId, int offset, int limit) {
+        String sql = "SELECT mail_json FROM player_mailbox WHERE recipient_uuid = ? ORDER BY created_at DESC LIMIT ? OFFSET ?";
+        return CompletableFuture.supplyAsync(() -> {
+            flushPendingWrites();
+            List<MailMessage> result = new ArrayList<>();
+            for (String json : databaseManager.queryList(sql, rs -> rs.getString("mail_json"), recipientId.toString(), limit, offset)) {
+                MailMessage mail = parse(json);
+                if (mail != null) result.add(mail);
+            }
+            return result;
+        }, plugin.getAsyncExecutor());
+    }
+
     public boolean openMail(Player player, UUID mailId) {
-        UUID recipientId = player.getUniqueId();
-        Map<UUID, MailMessage> mailbox = mailboxes.get(recipientId);
-        if (mailbox == null) {
+        Mailbox mailbox = mailbox(player.getUniqueId());
+        if (mailbox == null || mailbox.size() == 0) {
             player.sendMessage(Component.text("[メール] ", NamedTextColor.AQUA)
                     .append(Component.text("受信メールはありません。", NamedTextColor.GRAY)));
             return false;
@@ -109,11 +171,7 @@ public class MailManager implements IManager {
             return false;
         }
 
-        if (mailbox.isEmpty()) {
-            mailboxes.remove(recipientId, mailbox);
-        }
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> deleteMail(mailId));
+        deleteMail(mailId);
 
         player.sendMessage(Component.text("========== [ メール ] ==========", NamedTextColor.GOLD));
         player.sendMessage(Component.text(mail.getTitle(), NamedTextColor.YELLOW));
@@ -130,7 +188,8 @@ public class MailManager implements IManager {
         int delivered = 0;
         int dropped = 0;
         for (String rewardPayload : mail.getRewardItems()) {
-            ItemStack reward = deserializeItem(rewardPayload);
+            // 従来形式のメールもそのまま受け取れる
+            ItemStack reward = ItemCodec.decodeFromString(rewardPayload);
             if (reward == null || reward.getType() == Material.AIR || reward.getAmount() <= 0) {
                 continue;
             }
@@ -163,110 +222,107 @@ public class MailManager implements IManager {
         return true;
     }
 
-    private void loadAllMails() throws SQLException {
-        mailboxes.clear();
-        try (java.sql.Connection conn = databaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT mail_json FROM player_mailbox");
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                MailMessage mail = databaseManager.getGson().fromJson(rs.getString("mail_json"), MailMessage.class);
-                if (mail == null) {
-                    continue;
-                }
-                mail.normalize();
-                if (mail.getId() == null || mail.getRecipientId() == null) {
-                    continue;
-                }
-                mailboxes.computeIfAbsent(mail.getRecipientId(), ignored -> new ConcurrentHashMap<>())
-                        .put(mail.getId(), mail);
-            }
+    /**
+     * オンラインプレイヤーの受信箱を返します。ログイン時の読み込みに失敗していた場合は、ここで読み込みを開始します。
+     */
+    private Mailbox mailbox(UUID recipientId) {
+        PlayerCache cache = cacheManager.getCacheIfPresent(recipientId);
+        if (cache == null) return null;
+        Mailbox mailbox = cache.getOrPut(Mailbox.class, Mailbox::new);
+        if (!mailbox.isLoaded() && mailbox.beginLoad()) {
+            loadData(recipientId, cache).whenComplete((v, ex) -> mailbox.endLoad());
         }
+        return mailbox;
     }
 
-    private void saveMail(MailMessage mail) {
-        String mailIdStr = mail.getId().toString();
-        String recipientIdStr = mail.getRecipientId().toString();
-        String mailJson = databaseManager.getGson().toJson(mail);
-
-        try (java.sql.Connection conn = databaseManager.getConnection()) {
-            // 存在チェック
-            boolean exists = false;
-            try (PreparedStatement checkPs = conn.prepareStatement("SELECT 1 FROM player_mailbox WHERE mail_id = ?")) {
-                checkPs.setString(1, mailIdStr);
-                try (ResultSet rs = checkPs.executeQuery()) {
-                    exists = rs.next();
-                }
+    // ===== IBulkPlayerDataHandler =====
+
+    @Override
+    public String bulkLoadQuery() {
+        return LOAD_QUERY;
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException {
+        List<MailMessage> stored = new ArrayList<>();
+        while (rs.next()) {
+            MailMessage mail = parse(rs.getString("mail_json"));
+            if (mail != null && uuid.equals(mail.getRecipientId())) {
+                stored.add(mail);
             }
+        }
+        cache.getOrPut(Mailbox.class, Mailbox::new).loadFrom(stored);
+    }
 
-            if (exists) {
-                // UPDATE
-                try (PreparedStatement ps = conn.prepareStatement(
-                        "UPDATE player_mailbox SET recipient_uuid = ?, mail_json = ? WHERE mail_id = ?")) {
-                    ps.setString(1, recipientIdStr);
-                    ps.setString(2, mailJson);
-                    ps.setString(3, mailIdStr);
-                    ps.executeUpdate();
-                }
-            } else {
-                // INSERT
-                try (PreparedStatement ps = conn.prepareStatement(
-                        "INSERT INTO player_mailbox (mail_id, recipient_uuid, mail_json) VALUES (?, ?, ?)")) {
-                    ps.setString(1, mailIdStr);
-                    ps.setString(2, recipientIdStr);
-                    ps.setString(3, mailJson);
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    if (e.getSQLState().startsWith("23")) {
-                        try (PreparedStatement ps = conn.prepareStatement(
-                                "UPDATE player_mailbox SET recipient_uuid = ?, mail_json = ? WHERE mail_id = ?")) {
-                            ps.setString(1, recipientIdStr);
-                            ps.setString(2, mailJson);
-                            ps.setString(3, mailIdStr);
-                            ps.executeUpdate();
-                        }
-                    } else {
-                        throw e;
-                    }
+    @Override
+    public CompletableFuture<Void> loadData(UUID uuid, PlayerCache cache) {
+        return databaseManager.runAsync(conn -> {
+            flushPendingWrites();
+            try (PreparedStatement ps = conn.prepareStatement(LOAD_QUERY)) {
+                ps.setString(1, uuid.toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    applyBulkLoad(uuid, cache, rs);
                 }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load mailbox for " + uuid, e);
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("メール保存に失敗しました: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
-    private void deleteMail(UUID mailId) {
-        try (java.sql.Connection conn = databaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement("DELETE FROM player_mailbox WHERE mail_id = ?")) {
-            ps.setString(1, mailId.toString());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("メール削除に失敗しました: " + e.getMessage());
-            e.printStackTrace();
+    @Override
+    public CompletableFuture<Void> saveData(UUID uuid, PlayerCache cache) {
+        // 送信・開封のたびに書き込んでいるため、ログアウト時に保存するものはない
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private MailMessage parse(String json) {
+        MailMessage mail = databaseManager.getGson().fromJson(json, MailMessage.class);
+        if (mail == null) {
+            return null;
         }
+        mail.normalize();
+        if (mail.getId() == null || mail.getRecipientId() == null) {
+            return null;
+        }
+        return mail;
     }
 
-    private String serializeItem(ItemStack item) {
-        try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
-            dataOutput.writeObject(item);
-            dataOutput.close();
-            return Base64.getEncoder().encodeToString(outputStream.toByteArray());
-        } catch (Exception e) {
-            return "";
+    private void flushPendingWrites() {
+        WriteBehindQueue queue = databaseManager.getWriteQueue();
+        if (queue.hasPending(MAILBOX)) queue.flush();
+    }
+
+    private void saveMails(List<MailMessage> mails) {
+        WriteBehindQueue queue = databaseManager.getWriteQueue();
+        for (MailMessage mail : mails) {
+            queue.upsert(MAILBOX, new Object[]{mail.getId().toString()},
+                    mail.getRecipientId().toString(), databaseManager.getGson().toJson(mail), mail.getCreatedAt());
         }
     }
 
-    private ItemStack deserializeItem(String data) {
-        try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64.getDecoder().decode(data));
-            BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
-            ItemStack item = (ItemStack) dataInput.readObject();
-            dataInput.close();
-            return item;
-        } catch (Exception e) {
-            return null;
+    /**
+     * created_at 列の追加前に保存されたメールに、JSON 内の作成日時を書き込みます。
+     */
+    private void backfillCreatedAt(java.sql.Connection conn) {
+        String sql = "SELECT mail_id, mail_json FROM player_mailbox WHERE created_at IS NULL OR created_at = 0";
+        int count = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                MailMessage mail = parse(rs.getString("mail_json"));
+                if (mail == null) continue;
+                databaseManager.getWriteQueue().update(MAILBOX, "created_at", mail.getCreatedAt(), rs.getString("mail_id"));
+                count++;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to backfill mail timestamps", e);
+        }
+        if (count > 0) {
+            plugin.getLogger().info("[Mail] Backfilled created_at for " + count + " mails.");
         }
     }
+
+    private void deleteMail(UUID mailId) {
+        databaseManager.getWriteQueue().delete(MAILBOX, mailId.toString());
+    }
 }
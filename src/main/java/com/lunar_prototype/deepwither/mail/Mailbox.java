@@ -0,0 +1,82 @@
+package com.lunar_prototype.deepwither.mail;
+
+import com.lunar_prototype.deepwither.api.playerdata.IPlayerComponent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * オンラインプレイヤー 1 人分の受信メール。PlayerCache に格納され、ログアウト時にキャッシュと一緒に破棄されます。
+ */
+public class Mailbox implements IPlayerComponent {
+
+    private static final Comparator<MailMessage> NEWEST_FIRST = Comparator.comparingLong(MailMessage::getCreatedAt).reversed();
+
+    private final Map<UUID, MailMessage> mails = new ConcurrentHashMap<>();
+    // 開封済みの ID (遅れて完了した読み込みで復活させないため)
+    private final Set<UUID> opened = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean loaded;
+
+    void add(MailMessage mail) {
+        mails.put(mail.getId(), mail);
+    }
+
+    /**
+     * DB から読み込んだメールを取り込みます。読み込み中に届いたメールは保持し、開封済みのメールは取り込みません。
+     */
+    void loadFrom(Collection<MailMessage> stored) {
+        for (MailMessage mail : stored) {
+            if (!opened.contains(mail.getId())) mails.putIfAbsent(mail.getId(), mail);
+        }
+        loaded = true;
+    }
+
+    MailMessage remove(UUID mailId) {
+        opened.add(mailId);
+        return mails.remove(mailId);
+    }
+
+    /**
+     * 読み込みを開始してよければ true を返します (多重読み込みの防止)。
+     */
+    boolean beginLoad() {
+        return !loaded && loading.compareAndSet(false, true);
+    }
+
+    void endLoad() {
+        loading.set(false);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return mails.size();
+    }
+
+    /**
+     * 新しい順に {@code offset} 件目から最大 {@code limit} 件を返します。
+     */
+    public List<MailMessage> page(int offset, int limit) {
+        List<MailMessage> sorted = new ArrayList<>(mails.values());
+        sorted.sort(NEWEST_FIRST);
+        int from = Math.min(Math.max(0, offset), sorted.size());
+        // limit に Integer.MAX_VALUE を渡された場合に桁あふれしないよう long で計算する
+        int to = (int) Math.min(sorted.size(), (long) from + Math.max(0, limit));
+        return List.copyOf(sorted.subList(from, to));
+    }
+
+    @Override
+    public String toDebugSummary() {
+        return "mails=" + mails.size() + ", loaded=" + loaded;
+    }
+}
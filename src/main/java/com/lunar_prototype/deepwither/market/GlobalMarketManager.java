@@ -2,29 +2,35 @@ package com.lunar_prototype.deepwither.market;
 
 import com.lunar_prototype.deepwither.DatabaseManager;
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.core.database.WriteTable;
+import com.lunar_prototype.deepwither.util.AsyncInit;
+import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
+import com.lunar_prototype.deepwither.util.ItemCodec;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+@AsyncInit
+@DependsOn({DatabaseManager.class})
 public class GlobalMarketManager implements IManager {
 
+    private static final WriteTable LISTINGS = WriteTable.of("market_listings", "id")
+            .withColumns("seller_uuid", "item_stack", "price", "listed_date", "unit_sale");
+    private static final WriteTable EARNINGS = WriteTable.of("market_earnings", "uuid");
+
     private final Deepwither plugin;
-    private final List<MarketListing> allListings = Collections.synchronizedList(new ArrayList<>());
+    private final MarketListingIndex listings = new MarketListingIndex();
     private final Map<UUID, Double> earnings = new ConcurrentHashMap<>();
     private final DatabaseManager databaseManager;
 
@@ -41,8 +47,8 @@ public class GlobalMarketManager implements IManager {
 
     public void listItem(Player seller, ItemStack item, double price, boolean unitSale) {
         MarketListing listing = new MarketListing(seller.getUniqueId(), item.clone(), price, unitSale);
-        allListings.add(listing);
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> saveListingToDB(listing));
+        index(listing);
+        saveListingToDB(listing);
     }
 
 
@@ -51,7 +57,7 @@ public class GlobalMarketManager implements IManager {
     }
 
     public boolean buyItem(Player buyer, MarketListing listing, int amount) {
-        if (!allListings.contains(listing)) {
+        if (!listings.contains(listing)) {
             buyer.sendMessage(Component.text("このアイテムは既に売り切れています。", NamedTextColor.RED));
             return false;
         }
@@ -84,11 +90,11 @@ public class GlobalMarketManager implements IManager {
         if (listing.isUnitSale() && listing.getItem().getAmount() > amount) {
             // 一部購入
             listing.getItem().setAmount(listing.getItem().getAmount() - amount);
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> updateListingInDB(listing));
+            updateListingInDB(listing);
         } else {
             // 全量購入
-            allListings.remove(listing);
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> deleteListingFromDB(listing.getId()));
+            listings.remove(listing);
+            deleteListingFromDB(listing.getId());
         }
 
         addEarnings(listing.getSellerId(), totalPrice);
@@ -105,8 +111,11 @@ public class GlobalMarketManager implements IManager {
             return;
         }
 
-        allListings.remove(listing);
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> deleteListingFromDB(listing.getId()));
+        if (!listings.remove(listing)) {
+            player.sendMessage(Component.text("この出品は既に売り切れているか、取り下げられています。", NamedTextColor.RED));
+            return;
+        }
+        deleteListingFromDB(listing.getId());
 
         if (player.getInventory().firstEmpty() != -1) {
             player.getInventory().addItem(listing.getItem());
@@ -158,18 +167,7 @@ public class GlobalMarketManager implements IManager {
             return;
         }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            String sql = "UPDATE market_earnings SET amount = amount - ? WHERE uuid = ?";
-            try (java.sql.Connection conn = databaseManager.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setDouble(1, amount);
-                ps.setString(2, uuid.toString());
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().severe("売上金のDB更新中にエラーが発生しました: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        databaseManager.getWriteQueue().increment(EARNINGS, "amount", -amount, uuid.toString());
 
         var response = Deepwither.getEconomy().depositPlayer(player, amount);
 
@@ -180,154 +178,102 @@ public class GlobalMarketManager implements IManager {
                     .append(Component.text(" を回収しました！", NamedTextColor.WHITE)));
             player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1f, 1.2f);
         } else {
-            // エコノミー処理が失敗した場合、値を元に戻す（DBも戻す必要があるが、簡単のためここではマップのみ）
+            // エコノミー処理が失敗した場合、値を元に戻す
             earnings.merge(uuid, amount, Double::sum);
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                String sql = "UPDATE market_earnings SET amount = amount + ? WHERE uuid = ?";
-                try (java.sql.Connection conn = databaseManager.getConnection();
-                     PreparedStatement ps = conn.prepareStatement(sql)) {
-                    ps.setDouble(1, amount);
-                    ps.setString(2, uuid.toString());
-                    ps.executeUpdate();
-                } catch (SQLException e) { e.printStackTrace(); }
-            });
+            databaseManager.getWriteQueue().increment(EARNINGS, "amount", amount, uuid.toString());
             player.sendMessage(Component.text("[Market] ", NamedTextColor.RED).append(Component.text("入金処理に失敗しました。管理者にお問い合わせください: " + response.errorMessage, NamedTextColor.WHITE)));
         }
     }
 
     public List<MarketListing> search(String query) {
-        String lowerQuery = query.toLowerCase();
-        synchronized (allListings) {
-            return allListings.stream()
-                    .filter(l -> {
-                        String itemName = l.getItem().hasItemMeta() && l.getItem().getItemMeta().hasDisplayName()
-                                ? l.getItem().getItemMeta().getDisplayName()
-                                : l.getItem().getType().toString();
-                        return itemName.toLowerCase().contains(lowerQuery);
-                    })
-                    .collect(Collectors.toList());
-        }
+        return listings.search(query);
     }
 
     public List<OfflinePlayer> getActiveSellers() {
         long oneMonthAgo = System.currentTimeMillis() - (30L * 24 * 60 * 60 * 1000L);
-        synchronized (allListings) {
-            return allListings.stream()
-                    .map(MarketListing::getSellerId)
-                    .distinct()
-                    .map(Bukkit::getOfflinePlayer)
-                    .filter(p -> p.getLastPlayed() >= oneMonthAgo || p.isOnline())
-                    .collect(Collectors.toList());
+        List<OfflinePlayer> result = new ArrayList<>();
+        for (UUID sellerId : listings.sellers()) {
+            OfflinePlayer p = Bukkit.getOfflinePlayer(sellerId);
+            if (p.getLastPlayed() >= oneMonthAgo || p.isOnline()) result.add(p);
         }
+        return result;
     }
 
     public List<MarketListing> getListingsByPlayer(UUID uuid) {
-        synchronized (allListings) {
-            return allListings.stream()
-                    .filter(l -> l.getSellerId().equals(uuid))
-                    .collect(Collectors.toList());
-        }
+        return listings.bySeller(uuid);
+    }
+
+    /**
+     * 指定した種別の出品を価格の安い順で返します。
+     */
+    public List<MarketListing> getCheapestListings(Material type, int limit) {
+        return listings.byTypeCheapest(type.name(), limit);
+    }
+
+    public MarketListing getListing(UUID listingId) {
+        return listings.get(listingId);
+    }
+
+    private void index(MarketListing listing) {
+        ItemStack item = listing.getItem();
+        String name = item.hasItemMeta() && item.getItemMeta().hasDisplayName()
+                ? item.getItemMeta().getDisplayName()
+                : item.getType().toString();
+        listings.add(listing, name, item.getType().name());
     }
 
     private void saveListingToDB(MarketListing listing) {
-        String sql = "INSERT INTO market_listings (id, seller_uuid, item_stack, price, listed_date, unit_sale) VALUES (?, ?, ?, ?, ?, ?)";
-        try (java.sql.Connection conn = databaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, listing.getId().toString());
-            ps.setString(2, listing.getSellerId().toString());
-            ps.setString(3, serializeItem(listing.getItem()));
-            ps.setDouble(4, listing.getPrice());
-            ps.setLong(5, listing.getListedDate());
-            ps.setBoolean(6, listing.isUnitSale());
-            ps.executeUpdate();
-        } catch (SQLException e) { e.printStackTrace(); }
+        databaseManager.getWriteQueue().upsert(LISTINGS, new Object[]{listing.getId().toString()},
+                listing.getSellerId().toString(), ItemCodec.encodeToString(listing.getItem()), listing.getPrice(),
+                listing.getListedDate(), listing.isUnitSale());
     }
 
     private void updateListingInDB(MarketListing listing) {
-        String sql = "UPDATE market_listings SET item_stack = ? WHERE id = ?";
-        try (java.sql.Connection conn = databaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, serializeItem(listing.getItem()));
-            ps.setString(2, listing.getId().toString());
-            ps.executeUpdate();
-        } catch (SQLException e) { e.printStackTrace(); }
+        databaseManager.getWriteQueue().update(LISTINGS, "item_stack", ItemCodec.encodeToString(listing.getItem()), listing.getId().toString());
     }
 
-
     private void deleteListingFromDB(UUID listingId) {
-        String sql = "DELETE FROM market_listings WHERE id = ?";
-        try (java.sql.Connection conn = databaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, listingId.toString());
-            ps.executeUpdate();
-        } catch (SQLException e) { e.printStackTrace(); }
+        databaseManager.getWriteQueue().delete(LISTINGS, listingId.toString());
     }
 
     private void addEarnings(UUID sellerId, double amount) {
         earnings.merge(sellerId, amount, Double::sum);
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (java.sql.Connection conn = databaseManager.getConnection()) {
-                // 存在チェック
-                boolean exists = false;
-                try (PreparedStatement checkPs = conn.prepareStatement("SELECT 1 FROM market_earnings WHERE uuid = ?")) {
-                    checkPs.setString(1, sellerId.toString());
-                    try (ResultSet rs = checkPs.executeQuery()) {
-                        exists = rs.next();
-                    }
-                }
-
-                if (exists) {
-                    // 累積 UPDATE
-                    try (PreparedStatement ps = conn.prepareStatement("UPDATE market_earnings SET amount = amount + ? WHERE uuid = ?")) {
-                        ps.setDouble(1, amount);
-                        ps.setString(2, sellerId.toString());
-                        ps.executeUpdate();
-                    }
-                } else {
-                    // INSERT
-                    try (PreparedStatement ps = conn.prepareStatement("INSERT INTO market_earnings (uuid, amount) VALUES (?, ?)")) {
-                        ps.setString(1, sellerId.toString());
-                        ps.setDouble(2, amount);
-                        ps.executeUpdate();
-                    } catch (SQLException e) {
-                        if (e.getSQLState().startsWith("23")) {
-                            // 同時実行時は UPDATE
-                            try (PreparedStatement ps = conn.prepareStatement("UPDATE market_earnings SET amount = amount + ? WHERE uuid = ?")) {
-                                ps.setDouble(1, amount);
-                                ps.setString(2, sellerId.toString());
-                                ps.executeUpdate();
-                            }
-                        } else {
-                            throw e;
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        });
+        databaseManager.getWriteQueue().increment(EARNINGS, "amount", amount, sellerId.toString());
     }
 
     private void loadAllData() throws SQLException {
-        allListings.clear();
+        listings.clear();
         ensureColumnExists("market_listings", "unit_sale", "BOOLEAN DEFAULT FALSE");
         String sql = "SELECT * FROM market_listings";
+        int migrated = 0;
         try (java.sql.Connection conn = databaseManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
+                String itemData = rs.getString("item_stack");
                 MarketListing listing = new MarketListing(
                         UUID.fromString(rs.getString("id")),
                         UUID.fromString(rs.getString("seller_uuid")),
-                        deserializeItem(rs.getString("item_stack")),
+                        ItemCodec.decodeFromString(itemData),
                         rs.getDouble("price"),
                         rs.getLong("listed_date"),
                         rs.getBoolean("unit_sale")
                 );
-                allListings.add(listing);
+                if (listing.getItem() == null) {
+                    plugin.getLogger().warning("[Market] 出品 " + listing.getId() + " のアイテムを復元できませんでした。");
+                    continue;
+                }
+                // 従来形式 (BukkitObjectOutputStream) の行は新しい形式で書き直す
+                if (ItemCodec.isLegacy(itemData)) {
+                    updateListingInDB(listing);
+                    migrated++;
+                }
+                index(listing);
             }
         }
+        if (migrated > 0) {
+            plugin.getLogger().info("[Market] " + migrated + " 件の出品を新しいアイテム形式に変換しました。");
+        }
     }
 
     private void ensureColumnExists(String tableName, String columnName, String definition) {
@@ -358,25 +304,5 @@ public class GlobalMarketManager implements IManager {
         }
     }
 
-    private String serializeItem(ItemStack item) {
-        try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
-            dataOutput.writeObject(item);
-            dataOutput.close();
-            return Base64.getEncoder().encodeToString(outputStream.toByteArray());
-        } catch (Exception e) { return ""; }
-    }
-
-    private ItemStack deserializeItem(String data) {
-        try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64.getDecoder().decode(data));
-            BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
-            ItemStack item = (ItemStack) dataInput.readObject();
-            dataInput.close();
-            return item;
-        } catch (Exception e) { return null; }
-    }
-
-    public List<MarketListing> getAllListings() { return Collections.unmodifiableList(allListings); }
+    public List<MarketListing> getAllListings() { return listings.all(); }
 }
@@ -124,9 +124,7 @@ public class MarketGui implements Listener, IManager {
             if (idStr == null) return;
 
             UUID listingId = UUID.fromString(idStr);
-            Optional<MarketListing> listingOpt = manager.getAllListings().stream()
-                    .filter(l -> l.getId().equals(listingId))
-                    .findFirst();
+            Optional<MarketListing> listingOpt = Optional.ofNullable(manager.getListing(listingId));
 
             if (listingOpt.isEmpty()) {
                 p.sendMessage(Component.text("[Market] ", NamedTextColor.RED).append(Component.text("このアイテムは既に売り切れているか、取り下げられています。", NamedTextColor.WHITE)));
@@ -0,0 +1,249 @@
+package com.lunar_prototype.deepwither.market;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * マーケット出品のインメモリ索引。
+ *
+ * <p>
+ * 出品 ID・出品者・アイテム種別 (価格順)・正規化したアイテム名の 3 文字 N-gram で索引を持ちます。
+ * 読み取りはすべて並行コレクションに対するロックなしの走査で、GUI と HTTP API のスレッドから同時に呼び出せます。
+ * 変更 ({@link #add}, {@link #remove}) はメインスレッドから行われる想定ですが、索引ごとの更新はそれぞれアトミックです。
+ * </p>
+ *
+ * <p>
+ * 名前検索は従来通り「部分一致」です。3 文字以上のクエリは N-gram の転置リストのうち最小のものだけを走査し、
+ * 候補を {@link String#contains} で確認します。それより短いクエリは全件を走査します。
+ * </p>
+ */
+public final class MarketListingIndex {
+
+    private static final int GRAM = 3;
+
+    /** 出品日時順 (従来のリスト順に相当) */
+    private static final Comparator<Entry> BY_DATE = Comparator
+            .comparingLong((Entry e) -> e.listing.getListedDate())
+            .thenComparing(e -> e.listing.getId());
+
+    /** 価格の安い順 */
+    private static final Comparator<Entry> BY_PRICE = Comparator
+            .comparingDouble((Entry e) -> e.listing.getPrice())
+            .thenComparing(BY_DATE);
+
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byDate = new ConcurrentSkipListSet<>(BY_DATE);
+    private final Map<UUID, NavigableSet<Entry>> bySeller = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> byType = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Entry>> byGram = new ConcurrentHashMap<>();
+
+    /**
+     * 出品を索引に追加します。同じ ID の出品が既にある場合は置き換えます。
+     * @param listing 出品
+     * @param name 検索対象の名前 (表示名、なければ種別名)
+     * @param type アイテム種別のキー ({@code Material#name()})
+     */
+    public void add(MarketListing listing, String name, String type) {
+        Entry entry = new Entry(listing, normalize(name), type);
+        Entry previous = byId.put(listing.getId(), entry);
+        if (previous != null) unlink(previous);
+
+        byDate.add(entry);
+        addTo(bySeller, listing.getSellerId(), entry, BY_DATE);
+        addTo(byType, type, entry, BY_PRICE);
+        for (long gram : grams(entry.name)) {
+            byGram.compute(gram, (k, set) -> {
+                if (set == null) set = ConcurrentHashMap.newKeySet();
+                set.add(entry);
+                return set;
+            });
+        }
+    }
+
+    /**
+     * 出品を索引から削除します。
+     * @return 削除した場合 true。既に削除済み (売り切れ・取り下げ) なら false
+     */
+    public boolean remove(MarketListing listing) {
+        Entry entry = byId.get(listing.getId());
+        if (entry == null || entry.listing != listing || !byId.remove(listing.getId(), entry)) return false;
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * 指定した出品がまだ索引に残っているかを返します。
+     */
+    public boolean contains(MarketListing listing) {
+        Entry entry = byId.get(listing.getId());
+        return entry != null && entry.listing == listing;
+    }
+
+    public MarketListing get(UUID id) {
+        Entry entry = byId.get(id);
+        return entry == null ? null : entry.listing;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void clear() {
+        byId.clear();
+        byDate.clear();
+        bySeller.clear();
+        byType.clear();
+        byGram.clear();
+    }
+
+    /**
+     * 全出品を出品日時順で返します。
+     */
+    public List<MarketListing> all() {
+        return toListings(byDate);
+    }
+
+    public List<MarketListing> bySeller(UUID sellerId) {
+        NavigableSet<Entry> entries = bySeller.get(sellerId);
+        return entries == null ? Collections.emptyList() : toListings(entries);
+    }
+
+    /**
+     * 出品が 1 件以上ある出品者の一覧を返します。
+     */
+    public Set<UUID> sellers() {
+        return Collections.unmodifiableSet(bySeller.keySet());
+    }
+
+    /**
+     * 指定した種別の出品を価格の安い順で返します。
+     * @param type アイテム種別のキー ({@code Material#name()})
+     * @param limit 最大件数
+     */
+    public List<MarketListing> byTypeCheapest(String type, int limit) {
+        NavigableSet<Entry> entries = byType.get(type);
+        if (entries == null) return Collections.emptyList();
+        List<MarketListing> result = new ArrayList<>(Math.min(limit, 64));
+        for (Entry entry : entries) {
+            if (result.size() >= limit) break;
+            result.add(entry.listing);
+        }
+        return result;
+    }
+
+    /**
+     * 名前に {@code query} を含む出品を出品日時順で返します (大文字小文字・色コードは無視)。
+     */
+    public List<MarketListing> search(String query) {
+        String needle = normalize(query);
+        if (needle.length() < GRAM) {
+            List<MarketListing> result = new ArrayList<>();
+            for (Entry entry : byDate) {
+                if (entry.name.contains(needle)) result.add(entry.listing);
+            }
+            return result;
+        }
+
+        // 最も件数の少ない転置リストを候補にする
+        Set<Entry> candidates = null;
+        for (long gram : grams(needle)) {
+            Set<Entry> posting = byGram.get(gram);
+            if (posting == null) return Collections.emptyList();
+            if (candidates == null || posting.size() < candidates.size()) candidates = posting;
+        }
+
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (entry.name.contains(needle) && byId.get(entry.listing.getId()) == entry) matches.add(entry);
+        }
+        matches.sort(BY_DATE);
+        List<MarketListing> result = new ArrayList<>(matches.size());
+        for (Entry entry : matches) {
+            result.add(entry.listing);
+        }
+        return result;
+    }
+
+    private void unlink(Entry entry) {
+        byDate.remove(entry);
+        removeFrom(bySeller, entry.listing.getSellerId(), entry);
+        removeFrom(byType, entry.type, entry);
+        for (long gram : grams(entry.name)) {
+            byGram.computeIfPresent(gram, (k, set) -> {
+                set.remove(entry);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private static <K> void addTo(Map<K, NavigableSet<Entry>> index, K key, Entry entry, Comparator<Entry> order) {
+        index.compute(key, (k, set) -> {
+            if (set == null) set = new ConcurrentSkipListSet<>(order);
+            set.add(entry);
+            return set;
+        });
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<Entry>> index, K key, Entry entry) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(entry);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static List<MarketListing> toListings(Iterable<Entry> entries) {
+        List<MarketListing> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            result.add(entry.listing);
+        }
+        return result;
+    }
+
+    /**
+     * 色コード (§x) を除去して小文字化します。
+     */
+    static String normalize(String name) {
+        if (name == null) return "";
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '§' && i + 1 < name.length()) {
+                i++;
+                continue;
+            }
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] grams(String s) {
+        int n = s.length() - GRAM + 1;
+        if (n <= 0) return new long[0];
+        long[] grams = new long[n];
+        for (int i = 0; i < n; i++) {
+            grams[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    private static final class Entry {
+        private final MarketListing listing;
+        private final String name;
+        private final String type;
+
+        private Entry(MarketListing listing, String name, String type) {
+            this.listing = listing;
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.lunar_prototype.deepwither.modules.aethelgard;
 
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.util.AsyncInit;
 import com.lunar_prototype.deepwither.util.IManager;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -9,6 +10,7 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import java.io.File;
 import java.util.*;
 
+@AsyncInit
 public class QuestComponentPool implements IManager {
 
     private final Deepwither plugin;
@@ -1,58 +1,44 @@
 package com.lunar_prototype.deepwither.modules.combat;
 
 import org.bukkit.Location;
-import org.bukkit.entity.Entity;
 import org.bukkit.util.Vector;
 
 public class ArcShape implements HitShape {
     private final double angleDegrees;
     private final double thickness;
+    private final double cosHalfAngle;
 
     public ArcShape(double angleDegrees, double thickness) {
         this.angleDegrees = angleDegrees;
         this.thickness = thickness;
+        this.cosHalfAngle = Math.cos(Math.toRadians(angleDegrees / 2.0));
     }
 
     @Override
-    public boolean isHit(Location origin, Vector direction, Entity target, double reach, double rotation) {
-        Location targetLoc = target.getLocation().add(0, target.getHeight() / 2, 0);
-        Vector v = targetLoc.toVector().subtract(origin.toVector());
-        double distance = v.length();
+    public boolean isHit(HitFrame frame, double x, double y, double z, double height, double width, double reach) {
+        double vx = x - frame.originX;
+        double vy = y + height / 2 - frame.originY;
+        double vz = z - frame.originZ;
+        double distSq = vx * vx + vy * vy + vz * vz;
 
-        if (distance > reach) return false;
-        if (distance < 0.01) return true; // 至近距離
-
-        // --- ローカル座標系への変換 ---
-        Vector forward = direction.clone().normalize();
-        
-        // ローカル右軸 (X)
-        Vector right = new Vector(0, 1, 0).crossProduct(forward);
-        if (right.lengthSquared() < 0.001) right = new Vector(1, 0, 0);
-        right.normalize();
-        
-        // ローカル上軸 (Y)
-        Vector up = forward.clone().crossProduct(right).normalize();
-
-        // 指定された rotation (roll) 分、座標軸を回転させる
-        double rad = Math.toRadians(rotation);
-        Vector rotRight = right.clone().multiply(Math.cos(rad)).add(up.clone().multiply(Math.sin(rad)));
-        Vector rotUp = right.clone().multiply(-Math.sin(rad)).add(up.clone().multiply(Math.cos(rad)));
+        if (distSq > reach * reach) return false;
+        if (distSq < 0.0001) return true; // 至近距離
 
         // ターゲットへのベクトルを、回転後のローカル座標系に投影
-        double localX = v.dot(rotRight);
-        double localY = v.dot(rotUp);
-        double localZ = v.dot(forward);
+        double localX = vx * frame.rightX + vy * frame.rightY + vz * frame.rightZ;
+        double localY = vx * frame.upX + vy * frame.upY + vz * frame.upZ;
+        double localZ = vx * frame.forwardX + vy * frame.forwardY + vz * frame.forwardZ;
 
         // Z-X平面での扇形判定
         double distXZ = Math.sqrt(localX * localX + localZ * localZ);
         if (distXZ > reach || distXZ < 0.001) return false;
 
-        double angle = Math.toDegrees(Math.acos(localZ / distXZ));
-        if (angle > angleDegrees / 2.0) return false;
+        // acos を避け、半角の cos と比較する
+        if (localZ < cosHalfAngle * distXZ) return false;
 
         // Y軸（厚み）の判定
         // ターゲットの当たり判定サイズも考慮
-        return Math.abs(localY) <= (thickness / 2.0 + target.getHeight() / 2.0);
+        return Math.abs(localY) <= (thickness / 2.0 + height / 2.0);
     }
 
     @Override
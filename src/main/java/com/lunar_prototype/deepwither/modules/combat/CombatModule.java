@@ -11,6 +11,9 @@ import com.lunar_prototype.deepwither.StatManager;
 import com.lunar_prototype.deepwither.PlayerSettingsManager;
 import com.lunar_prototype.deepwither.ChargeManager;
 import com.lunar_prototype.deepwither.SpecialItemEffectManager;
+import com.lunar_prototype.deepwither.core.SkillEffectScheduler;
+import com.lunar_prototype.deepwither.core.spatial.BlockOcclusionCache;
+import com.lunar_prototype.deepwither.core.spatial.EntitySpatialIndex;
 
 public class CombatModule implements IModule {
 
@@ -56,13 +59,15 @@ public class CombatModule implements IModule {
             ChargeManager chargeManager = container.get(ChargeManager.class);
             com.lunar_prototype.deepwither.core.UIManager uiManager = container.get(com.lunar_prototype.deepwither.core.UIManager.class);
             DeepwitherPartyAPI partyAPI = container.get(DeepwitherPartyAPI.class);
+            EntitySpatialIndex spatialIndex = container.get(EntitySpatialIndex.class);
+            BlockOcclusionCache occlusionCache = container.get(BlockOcclusionCache.class);
 
             // DamageProcessor
             DamageProcessor damageProcessor = new DamageProcessor(plugin, statManager, uiManager, partyAPI);
             container.registerInstance(DamageProcessor.class, damageProcessor);
 
             // HitDetectionManager
-            HitDetectionManager hitDetectionManager = new HitDetectionManager(plugin, statManager, damageProcessor);
+            HitDetectionManager hitDetectionManager = new HitDetectionManager(plugin, statManager, damageProcessor, spatialIndex, occlusionCache);
             container.registerInstance(HitDetectionManager.class, hitDetectionManager);
 
             // WeaponMechanicManager
@@ -74,6 +79,9 @@ public class CombatModule implements IModule {
             DamageManager damageManager = new DamageManager(plugin, statManager, settingsManager, uiManager, hitDetectionManager);
             container.registerInstance(DamageManager.class, damageManager);
 
+            // SkillEffectScheduler
+            container.registerInstance(SkillEffectScheduler.class, new SkillEffectScheduler(plugin));
+
             // SpecialItemEffectManager
             SpecialItemEffectManager specialItemEffectManager = new SpecialItemEffectManager(plugin);
             container.registerInstance(SpecialItemEffectManager.class, specialItemEffectManager);
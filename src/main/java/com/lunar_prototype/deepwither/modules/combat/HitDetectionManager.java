@@ -3,6 +3,8 @@ package com.lunar_prototype.deepwither.modules.combat;
 import com.lunar_prototype.deepwither.*;
 import com.lunar_prototype.deepwither.core.damage.DamageContext;
 import com.lunar_prototype.deepwither.core.damage.DamageProcessor;
+import com.lunar_prototype.deepwither.core.spatial.BlockOcclusionCache;
+import com.lunar_prototype.deepwither.core.spatial.EntitySpatialIndex;
 import com.lunar_prototype.deepwither.api.event.DeepwitherDamageEvent;
 import com.lunar_prototype.deepwither.util.IManager;
 import org.bukkit.FluidCollisionMode;
@@ -25,6 +27,9 @@ public class HitDetectionManager implements IManager {
     private final Deepwither plugin;
     private final StatManager statManager;
     private final DamageProcessor damageProcessor;
+    private final EntitySpatialIndex spatialIndex;
+    private final BlockOcclusionCache occlusionCache;
+    private final Location scratch = new Location(null, 0, 0, 0);
 
     private final Set<UUID> debugPlayers = Collections.newSetFromMap(new ConcurrentHashMap<>());
     
@@ -61,10 +66,13 @@ public class HitDetectionManager implements IManager {
     }
 
 
-    public HitDetectionManager(Deepwither plugin, StatManager statManager, DamageProcessor damageProcessor) {
+    public HitDetectionManager(Deepwither plugin, StatManager statManager, DamageProcessor damageProcessor,
+                               EntitySpatialIndex spatialIndex, BlockOcclusionCache occlusionCache) {
         this.plugin = plugin;
         this.statManager = statManager;
         this.damageProcessor = damageProcessor;
+        this.spatialIndex = spatialIndex;
+        this.occlusionCache = occlusionCache;
     }
 
     @Override
@@ -120,24 +128,41 @@ public class HitDetectionManager implements IManager {
         }
 
         // 判定対象の収集
-        Collection<Entity> candidates = player.getWorld().getNearbyEntities(origin, finalReach + 2, finalReach + 2, finalReach + 2);
-        List<LivingEntity> hits = new ArrayList<>();
-
-        for (Entity entity : candidates) {
-            if (!(entity instanceof LivingEntity target) || entity.equals(player)) continue;
+        List<LivingEntity> candidates = spatialIndex.getNearby(origin, finalReach + 2, finalReach + 2, finalReach + 2);
+        HitFrame frame = new HitFrame(origin, direction, rotation);
+        List<LivingEntity> inShape = new ArrayList<>();
+        double[] centers = new double[candidates.size() * 3];
+
+        for (LivingEntity target : candidates) {
+            Entity entity = target;
+            if (entity.equals(player)) continue;
             
             // 除外対象: アーマースタンド、絵画、額縁などの装飾・システム用エンティティ
             if (entity instanceof org.bukkit.entity.ArmorStand || entity instanceof org.bukkit.entity.Hanging) continue;
 
             // 形状チェック (回転角度を考慮)
-            if (!profile.shape.isHit(origin, direction, target, finalReach, rotation)) continue;
-
-            // 遮蔽チェック
-            RayTraceResult ray = player.getWorld().rayTraceBlocks(origin, target.getLocation().add(0, target.getHeight()/2, 0).toVector().subtract(origin.toVector()),
-                    origin.distance(target.getLocation().add(0, target.getHeight()/2, 0)), FluidCollisionMode.NEVER, true);
-            if (ray != null && ray.getHitBlock() != null) continue;
+            target.getLocation(scratch);
+            double height = target.getHeight();
+            if (!profile.shape.isHit(frame, scratch.getX(), scratch.getY(), scratch.getZ(), height, target.getWidth(), finalReach)) continue;
+
+            int i = inShape.size() * 3;
+            centers[i] = scratch.getX();
+            centers[i + 1] = scratch.getY() + height / 2;
+            centers[i + 2] = scratch.getZ();
+            inShape.add(target);
+        }
 
-            hits.add(target);
+        // 遮蔽チェック (形状内の候補をまとめて判定)
+        List<LivingEntity> hits = new ArrayList<>();
+        if (!inShape.isEmpty()) {
+            byte[] occlusion = new byte[inShape.size()];
+            occlusionCache.resolve(player.getWorld(), origin.getX(), origin.getY(), origin.getZ(), centers, inShape.size(), occlusion);
+
+            for (int i = 0; i < inShape.size(); i++) {
+                if (occlusion[i] == BlockOcclusionCache.BLOCKED) continue;
+                if (occlusion[i] == BlockOcclusionCache.UNKNOWN && isOccludedByRayTrace(origin, centers, i)) continue;
+                hits.add(inShape.get(i));
+            }
         }
 
         if (hits.isEmpty()) return;
@@ -158,6 +183,17 @@ public class HitDetectionManager implements IManager {
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> recentlyHit.remove(player.getUniqueId()), 1L);
     }
 
+    /**
+     * 遮蔽キャッシュが未構築のチャンクを通る場合のフォールバック。
+     */
+    private boolean isOccludedByRayTrace(Location origin, double[] centers, int index) {
+        Vector toTarget = new Vector(centers[index * 3] - origin.getX(), centers[index * 3 + 1] - origin.getY(), centers[index * 3 + 2] - origin.getZ());
+        double distance = toTarget.length();
+        if (distance < 0.0001) return false;
+        RayTraceResult ray = origin.getWorld().rayTraceBlocks(origin, toTarget, distance, FluidCollisionMode.NEVER, true);
+        return ray != null && ray.getHitBlock() != null;
+    }
+
     private void processHit(Player attacker, LivingEntity victim, ItemStack weapon) {
         // DamageManager.onPhysicalDamage のロジックを模倣して DamageProcessor に投げる
         double baseDamage = attacker.getAttribute(org.bukkit.attribute.Attribute.ATTACK_DAMAGE).getValue();
@@ -0,0 +1,59 @@
+package com.lunar_prototype.deepwither.modules.combat;
+
+import org.bukkit.Location;
+import org.bukkit.util.Vector;
+
+/**
+ * 1 回の攻撃判定で共有する起点とローカル座標軸。
+ * 前方 (Z)・右 (X)・上 (Y) の各軸はロール角を適用済みで、候補ごとに作り直す必要はありません。
+ */
+public final class HitFrame {
+    final double originX, originY, originZ;
+    final double forwardX, forwardY, forwardZ;
+    final double rightX, rightY, rightZ;
+    final double upX, upY, upZ;
+
+    /**
+     * @param rotation Z軸の回転（ロール角、度数法）
+     */
+    public HitFrame(Location origin, Vector direction, double rotation) {
+        this.originX = origin.getX();
+        this.originY = origin.getY();
+        this.originZ = origin.getZ();
+
+        double len = Math.sqrt(direction.getX() * direction.getX() + direction.getY() * direction.getY() + direction.getZ() * direction.getZ());
+        double fx = direction.getX() / len, fy = direction.getY() / len, fz = direction.getZ() / len;
+
+        // ローカル右軸 (X) = (0, 1, 0) × forward
+        double rx = fz, ry = 0, rz = -fx;
+        double rLenSq = rx * rx + rz * rz;
+        if (rLenSq < 0.001) {
+            rx = 1;
+            rz = 0;
+        } else {
+            double rLen = Math.sqrt(rLenSq);
+            rx /= rLen;
+            rz /= rLen;
+        }
+
+        // ローカル上軸 (Y) = forward × right
+        double ux = fy * rz - fz * ry, uy = fz * rx - fx * rz, uz = fx * ry - fy * rx;
+        double uLen = Math.sqrt(ux * ux + uy * uy + uz * uz);
+        ux /= uLen;
+        uy /= uLen;
+        uz /= uLen;
+
+        // 指定された rotation (roll) 分、座標軸を回転させる
+        double rad = Math.toRadians(rotation);
+        double cos = Math.cos(rad), sin = Math.sin(rad);
+        this.forwardX = fx;
+        this.forwardY = fy;
+        this.forwardZ = fz;
+        this.rightX = rx * cos + ux * sin;
+        this.rightY = ry * cos + uy * sin;
+        this.rightZ = rz * cos + uz * sin;
+        this.upX = -rx * sin + ux * cos;
+        this.upY = -ry * sin + uy * cos;
+        this.upZ = -rz * sin + uz * cos;
+    }
+}
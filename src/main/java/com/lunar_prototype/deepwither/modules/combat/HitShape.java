@@ -16,7 +16,24 @@ public interface HitShape {
      * @param rotation Z軸の回転（ロール角、度数法）
      * @return ヒットした場合は true
      */
-    boolean isHit(Location origin, Vector direction, Entity target, double reach, double rotation);
+    default boolean isHit(Location origin, Vector direction, Entity target, double reach, double rotation) {
+        Location loc = target.getLocation();
+        return isHit(new HitFrame(origin, direction, rotation), loc.getX(), loc.getY(), loc.getZ(),
+                target.getHeight(), target.getWidth(), reach);
+    }
+
+    /**
+     * 事前に計算した座標系で判定する (オブジェクトを生成しない)
+     * @param frame 攻撃の起点と座標軸
+     * @param x 対象の足元の X 座標
+     * @param y 対象の足元の Y 座標
+     * @param z 対象の足元の Z 座標
+     * @param height 対象の高さ
+     * @param width 対象の幅
+     * @param reach リーチ
+     * @return ヒットした場合は true
+     */
+    boolean isHit(HitFrame frame, double x, double y, double z, double height, double width, double reach);
 
     /**
      * 判定の最大リーチを取得
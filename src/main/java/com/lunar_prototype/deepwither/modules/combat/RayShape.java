@@ -2,7 +2,6 @@ package com.lunar_prototype.deepwither.modules.combat;
 
 import org.bukkit.Location;
 import org.bukkit.Particle;
-import org.bukkit.entity.Entity;
 import org.bukkit.util.Vector;
 
 public class RayShape implements HitShape {
@@ -13,22 +12,23 @@ public class RayShape implements HitShape {
     }
 
     @Override
-    public boolean isHit(Location origin, Vector direction, Entity target, double reach, double rotation) {
-        Vector a = origin.toVector();
-        Vector d = direction.clone().normalize();
-        Vector p = target.getLocation().add(0, target.getHeight() / 2, 0).toVector();
+    public boolean isHit(HitFrame frame, double x, double y, double z, double height, double width, double reach) {
+        double px = x - frame.originX;
+        double py = y + height / 2 - frame.originY;
+        double pz = z - frame.originZ;
 
         // 点Pから直線(a + td)への最短距離を求める
-        Vector ap = p.subtract(a);
-        double t = ap.dot(d);
+        double t = px * frame.forwardX + py * frame.forwardY + pz * frame.forwardZ;
 
         if (t < 0 || t > reach) return false;
 
-        Vector closestPoint = a.add(d.multiply(t));
-        double distSquared = closestPoint.distanceSquared(target.getLocation().add(0, target.getHeight() / 2, 0).toVector());
+        double dx = px - frame.forwardX * t;
+        double dy = py - frame.forwardY * t;
+        double dz = pz - frame.forwardZ * t;
+        double distSquared = dx * dx + dy * dy + dz * dz;
 
         // エンティティの当たり判定（幅）も考慮
-        double targetRadius = target.getWidth() / 2 + radius;
+        double targetRadius = width / 2 + radius;
         return distSquared <= targetRadius * targetRadius;
     }
 
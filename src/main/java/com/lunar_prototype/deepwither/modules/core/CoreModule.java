@@ -2,8 +2,11 @@ package com.lunar_prototype.deepwither.modules.core;
 
 import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.core.CacheManager;
+import com.lunar_prototype.deepwither.core.ParticleRenderer;
 import com.lunar_prototype.deepwither.core.engine.IModule;
 import com.lunar_prototype.deepwither.core.engine.ServiceContainer;
+import com.lunar_prototype.deepwither.core.spatial.BlockOcclusionCache;
+import com.lunar_prototype.deepwither.core.spatial.EntitySpatialIndex;
 import com.lunar_prototype.deepwither.core.playerdata.PlayerDataManager;
 
 import com.lunar_prototype.deepwither.ItemFactory;
@@ -60,8 +63,17 @@ public class CoreModule implements IModule {
         com.lunar_prototype.deepwither.core.UIManager uiManager = new com.lunar_prototype.deepwither.core.UIManager(settingsManager);
         container.registerInstance(com.lunar_prototype.deepwither.core.UIManager.class, uiManager);
 
-        CooldownManager cooldownManager = new CooldownManager();
+        CooldownManager cooldownManager = new CooldownManager(plugin);
         container.registerInstance(CooldownManager.class, cooldownManager);
+
+        EntitySpatialIndex spatialIndex = new EntitySpatialIndex(plugin);
+        container.registerInstance(EntitySpatialIndex.class, spatialIndex);
+
+        BlockOcclusionCache occlusionCache = new BlockOcclusionCache(plugin);
+        container.registerInstance(BlockOcclusionCache.class, occlusionCache);
+
+        ParticleRenderer particleRenderer = new ParticleRenderer(plugin, settingsManager, spatialIndex);
+        container.registerInstance(ParticleRenderer.class, particleRenderer);
     }
 
     /**
@@ -1,6 +1,6 @@
 package com.lunar_prototype.deepwither.modules.economy.advancement;
 
-import com.lunar_prototype.deepwither.api.playerdata.IPlayerDataHandler;
+import com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler;
 import com.lunar_prototype.deepwither.core.PlayerCache;
 import java.util.concurrent.CompletableFuture;
 
@@ -25,6 +25,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -38,7 +39,7 @@ import java.util.logging.Level;
  * バニラの実績は非表示にし、Deepwither独自の実績ツリーを動的に生成・管理する。
  */
 @DependsOn({ TraderManager.class })
-public class AdvancementManager implements IManager, Listener, IPlayerDataHandler {
+public class AdvancementManager implements IManager, Listener, IBulkPlayerDataHandler {
 
     private final JavaPlugin plugin;
     private final Gson gson;
@@ -267,6 +268,17 @@ public class AdvancementManager implements IManager, Listener, IPlayerDataHandle
         }
     }
 
+    @Override
+    public String bulkLoadQuery() {
+        return "SELECT data_json FROM player_advancements WHERE uuid = ?";
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, PlayerCache cache, ResultSet rs) throws SQLException {
+        PlayerAdvancementData data = rs.next() ? gson.fromJson(rs.getString("data_json"), PlayerAdvancementData.class) : null;
+        cache.set(PlayerAdvancementData.class, data != null ? data : new PlayerAdvancementData());
+    }
+
     public void save(UUID uuid) {
         save(uuid, DW.cache().getCache(uuid));
     }
@@ -24,7 +24,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Comparator;
@@ -204,7 +203,7 @@ public class ArkGhoul extends CustomMob {
         entity.getWorld().spawnParticle(Particle.SNOWFLAKE, entity.getEyeLocation(), 8, 0.2, 0.2, 0.2, 0.02);
 
         new HomingIceShotProjectile(entity, entity.getEyeLocation().clone().add(entity.getEyeLocation().getDirection().clone().multiply(0.6)), target)
-                .runTaskTimer(Deepwither.getInstance(), 0L, 1L);
+                .schedule();
     }
 
     private void performCharge(LivingEntity target) {
@@ -152,17 +152,17 @@ public class MobSpawnerService implements IManager {
     }
 
     private int countNearbyBandits(Location loc, double radius) {
+        // 全 ActiveMob を走査せず、ワールドのエンティティ索引から周囲だけを取り出して判定する
         int count = 0;
         double radiusSquared = radius * radius;
-        for (io.lumine.mythic.core.mobs.ActiveMob am : io.lumine.mythic.bukkit.MythicBukkit.inst().getMobManager().getActiveMobs()) {
-            if (am.getEntity() == null || am.getEntity().getBukkitEntity() == null) continue;
-            org.bukkit.entity.Entity entity = am.getEntity().getBukkitEntity();
-            
-            if (!entity.getWorld().equals(loc.getWorld())) continue;
+        var mobManager = MythicBukkit.inst().getMobManager();
+        for (LivingEntity entity : loc.getWorld().getNearbyLivingEntities(loc, radius)) {
+            if (entity instanceof Player) continue;
             if (entity.getLocation().distanceSquared(loc) > radiusSquared) continue;
 
             // エンティティ名または内部タイプ名に "bandit" が含まれるかチェック
-            if (am.getMobType().toLowerCase().contains("bandit")) {
+            var activeMob = mobManager.getActiveMob(entity.getUniqueId());
+            if (activeMob.isPresent() && activeMob.get().getMobType().toLowerCase().contains("bandit")) {
                 count++;
             }
         }
@@ -219,11 +219,8 @@ public class MobSpawnerService implements IManager {
         MobConfigService.MobTierConfig config = configService.getTierConfig(tier);
         int areaMaxLevel = (config != null) ? config.getAreaLevel() : 1;
 
-        List<Player> nearbyPlayers = loc.getWorld().getPlayers().stream()
-                .filter(p -> p.getGameMode() == GameMode.SURVIVAL)
-                .filter(p -> loc.getWorld().equals(p.getLocation().getWorld()))
-                .filter(p -> p.getLocation().distance(loc) <= 20)
-                .toList();
+        List<Player> nearbyPlayers = List.copyOf(loc.getWorld().getNearbyPlayers(loc, 20,
+                p -> p.getGameMode() == GameMode.SURVIVAL && p.getLocation().distanceSquared(loc) <= 20 * 20));
 
         int spawnLevel;
         if (!nearbyPlayers.isEmpty()) {
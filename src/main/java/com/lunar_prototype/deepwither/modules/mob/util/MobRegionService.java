@@ -4,56 +4,185 @@ import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.modules.mob.service.MobRegistryService;
 import com.lunar_prototype.deepwither.util.IManager;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
 import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
-import com.sk89q.worldguard.protection.regions.RegionQuery;
+import com.sk89q.worldguard.protection.regions.RegionType;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * WorldGuard リージョンからスポーン用の情報 (Tier・セーフゾーン・スポーン無効) を引くサービス。
+ *
+ * <p>
+ * スポーン処理はプレイヤーごとに毎回問い合わせるため、結果を 16x16x16 のセクション単位でキャッシュします。
+ * セクション全体を覆うリージョンの組み合わせが一様な場合だけ {@link Zone} を保存し、リージョンの境界が
+ * セクション内を通る場合は {@link #PARTIAL} を保存してブロック単位で問い合わせます (結果は常に従来と同じです)。
+ * </p>
+ * <p>
+ * リージョンの追加・変更を検知するイベントはないため、{@value #REFRESH_INTERVAL_TICKS} tick ごとにワールドの
+ * リージョン一覧の指紋を比べ、変わっていればそのワールドのキャッシュを破棄します。
+ * </p>
+ */
 public class MobRegionService implements IManager {
 
     private final Deepwither plugin;
     private final Map<UUID, Location> spawnLockLocations = new HashMap<>();
     private static final double MOVE_UNLOCK_DISTANCE_SQUARED = 30.0 * 30.0;
 
+    private static final long REFRESH_INTERVAL_TICKS = 100L;
+    /** 1 ワールドあたりのキャッシュ上限 (超えたら破棄して作り直す) */
+    private static final int MAX_SECTIONS_PER_WORLD = 1 << 17;
+
+    /**
+     * 解決済みのリージョン情報。
+     *
+     * @param regionIds 小文字化したリージョン ID (スポーン無効の判定に使う。設定の再読み込みに追従するため ID のまま持つ)
+     */
+    public record Zone(int tier, boolean safeZone, String[] regionIds) {
+    }
+
+    private static final Zone EMPTY = new Zone(0, false, new String[0]);
+    /** リージョンの境界を含むセクション */
+    private static final Zone PARTIAL = new Zone(0, false, new String[0]);
+
+    private final Map<UUID, Map<Long, Zone>> sectionCache = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> regionFingerprints = new ConcurrentHashMap<>();
+    private BukkitTask refreshTask;
+
+    private volatile long hits;
+    private volatile long misses;
+    private volatile long partialLookups;
+    private volatile long invalidations;
+
     public MobRegionService(Deepwither plugin) {
         this.plugin = plugin;
     }
 
     @Override
-    public void init() {}
+    public void init() {
+        refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::checkRegionChanges,
+                REFRESH_INTERVAL_TICKS, REFRESH_INTERVAL_TICKS);
+    }
 
     @Override
     public void shutdown() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
         spawnLockLocations.clear();
+        sectionCache.clear();
+        regionFingerprints.clear();
     }
 
     public boolean isSafeZone(Location loc) {
-        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-        RegionQuery query = container.createQuery();
-        ApplicableRegionSet set = query.getApplicableRegions(BukkitAdapter.adapt(loc));
-        for (ProtectedRegion region : set) {
-            String regionId = region.getId().toLowerCase();
-            if (regionId.contains("safezone") || regionId.contains("kbf")) return true;
-        }
-        return false;
+        return getZone(loc).safeZone();
     }
 
     public int getTierFromLocation(Location loc) {
-        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-        RegionQuery query = container.createQuery();
-        ApplicableRegionSet set = query.getApplicableRegions(BukkitAdapter.adapt(loc));
+        return getZone(loc).tier();
+    }
+
+    /**
+     * 指定位置のリージョン情報を返します。
+     */
+    public Zone getZone(Location loc) {
+        World world = loc.getWorld();
+        if (world == null) return EMPTY;
+        int x = loc.getBlockX(), y = loc.getBlockY(), z = loc.getBlockZ();
+
+        Map<Long, Zone> sections = sectionCache.computeIfAbsent(world.getUID(), worldId -> {
+            RegionManager regionManager = getRegionManager(world);
+            regionFingerprints.put(worldId, regionManager != null ? fingerprint(regionManager) : 0L);
+            return new ConcurrentHashMap<>();
+        });
+        long key = sectionKey(x >> 4, y >> 4, z >> 4);
+        Zone zone = sections.get(key);
+        if (zone == null) {
+            misses++;
+            if (sections.size() >= MAX_SECTIONS_PER_WORLD) sections.clear();
+            zone = resolveSection(world, x >> 4, y >> 4, z >> 4);
+            sections.put(key, zone);
+        } else {
+            hits++;
+        }
+        if (zone != PARTIAL) return zone;
+
+        partialLookups++;
+        RegionManager regionManager = getRegionManager(world);
+        if (regionManager == null) return EMPTY;
+        return toZone(regionManager.getApplicableRegions(BlockVector3.at(x, y, z)));
+    }
+
+    /**
+     * セクションを覆うリージョンを調べます。境界がセクション内を通るリージョンがあれば {@link #PARTIAL} を返します。
+     */
+    private Zone resolveSection(World world, int cx, int cy, int cz) {
+        RegionManager regionManager = getRegionManager(world);
+        if (regionManager == null) return EMPTY;
+        BlockVector3 min = BlockVector3.at(cx << 4, cy << 4, cz << 4);
+        BlockVector3 max = min.add(15, 15, 15);
+        ApplicableRegionSet candidates = regionManager.getApplicableRegions(
+                new ProtectedCuboidRegion("__dw_section__", true, min, max));
+
+        List<ProtectedRegion> covering = new ArrayList<>();
+        for (ProtectedRegion region : candidates) {
+            if (region.getType() == RegionType.GLOBAL) continue;
+            if (!boxesIntersect(region.getMinimumPoint(), region.getMaximumPoint(), min, max)) continue;
+            if (!covers(region, min, max)) return PARTIAL;
+            covering.add(region);
+        }
+        return toZone(covering);
+    }
+
+    /**
+     * 直方体リージョンがセクション全体を含むか。多角形リージョンは凹形の場合があるため含まないものとして扱う。
+     */
+    private static boolean covers(ProtectedRegion region, BlockVector3 min, BlockVector3 max) {
+        if (!(region instanceof ProtectedCuboidRegion)) return false;
+        return region.contains(min) && region.contains(max);
+    }
+
+    private static boolean boxesIntersect(BlockVector3 aMin, BlockVector3 aMax, BlockVector3 bMin, BlockVector3 bMax) {
+        return aMin.x() <= bMax.x() && aMax.x() >= bMin.x()
+                && aMin.y() <= bMax.y() && aMax.y() >= bMin.y()
+                && aMin.z() <= bMax.z() && aMax.z() >= bMin.z();
+    }
+
+    private static Zone toZone(Iterable<ProtectedRegion> regions) {
+        List<String> ids = new ArrayList<>();
+        for (ProtectedRegion region : regions) {
+            ids.add(region.getId().toLowerCase());
+        }
+        if (ids.isEmpty()) return EMPTY;
+        boolean safeZone = false;
+        for (String id : ids) {
+            if (id.contains("safezone") || id.contains("kbf")) {
+                safeZone = true;
+                break;
+            }
+        }
+        return new Zone(parseTier(ids), safeZone, ids.toArray(new String[0]));
+    }
+
+    private static int parseTier(List<String> ids) {
         int maxTier = 0;
-        for (ProtectedRegion region : set) {
-            String id = region.getId().toLowerCase();
+        for (String id : ids) {
             if (id.contains("safezone")) return 0;
             int tierIndex = id.indexOf("t");
             if (tierIndex != -1 && tierIndex + 1 < id.length()) {
@@ -75,6 +204,80 @@ public class MobRegionService implements IManager {
         return maxTier;
     }
 
+    private static long sectionKey(int cx, int cy, int cz) {
+        return ((long) (cx & 0x3FFFFFF) << 38) | ((long) (cz & 0x3FFFFFF) << 12) | (cy & 0xFFF);
+    }
+
+    private static RegionManager getRegionManager(World world) {
+        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+        return container.get(BukkitAdapter.adapt(world));
+    }
+
+    /**
+     * 各ワールドのリージョン一覧の指紋を計算し、変わったワールドのキャッシュを破棄する
+     */
+    private void checkRegionChanges() {
+        sectionCache.keySet().removeIf(worldId -> Bukkit.getWorld(worldId) == null);
+        regionFingerprints.keySet().removeIf(worldId -> Bukkit.getWorld(worldId) == null);
+        for (UUID worldId : sectionCache.keySet()) {
+            World world = Bukkit.getWorld(worldId);
+            RegionManager regionManager = world != null ? getRegionManager(world) : null;
+            long fingerprint = regionManager != null ? fingerprint(regionManager) : 0L;
+            Long previous = regionFingerprints.put(worldId, fingerprint);
+            if (previous != null && previous != fingerprint) {
+                Map<Long, Zone> sections = sectionCache.get(worldId);
+                if (sections != null) sections.clear();
+                invalidations++;
+            }
+        }
+    }
+
+    private static long fingerprint(RegionManager regionManager) {
+        long hash = regionManager.size();
+        for (ProtectedRegion region : regionManager.getRegions().values()) {
+            long h = region.getId().hashCode();
+            h = h * 31 + region.getMinimumPoint().hashCode();
+            h = h * 31 + region.getMaximumPoint().hashCode();
+            h = h * 31 + region.getPoints().hashCode();
+            // 順序に依存しないよう足し合わせる
+            hash += h * 0x9E3779B97F4A7C15L;
+        }
+        return hash;
+    }
+
+    /**
+     * すべてのワールドのキャッシュを破棄します (リージョンを編集した直後に反映させたい場合など)。
+     */
+    public void invalidateRegionCache() {
+        sectionCache.clear();
+        regionFingerprints.clear();
+        invalidations++;
+    }
+
+    public int getCachedSectionCount() {
+        int count = 0;
+        for (Map<Long, Zone> sections : sectionCache.values()) {
+            count += sections.size();
+        }
+        return count;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPartialLookups() {
+        return partialLookups;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
     public Location getRandomLocationInRegion(World world, String regionId, double fixedY) {
         RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
         RegionManager regionManager = container.get(BukkitAdapter.adapt(world));
@@ -94,11 +297,8 @@ public class MobRegionService implements IManager {
     }
 
     public boolean isSpawnDisabledInWGRegion(Location loc, MobRegistryService registry) {
-        RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-        RegionQuery query = container.createQuery();
-        ApplicableRegionSet set = query.getApplicableRegions(BukkitAdapter.adapt(loc));
-        for (ProtectedRegion region : set) {
-            if (registry.isSpawnDisabledInRegion(region.getId().toLowerCase())) return true;
+        for (String regionId : getZone(loc).regionIds()) {
+            if (registry.isSpawnDisabledInRegion(regionId)) return true;
         }
         return false;
     }
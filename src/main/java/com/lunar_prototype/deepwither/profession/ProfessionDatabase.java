@@ -2,6 +2,7 @@ package com.lunar_prototype.deepwither.profession;
 
 import com.lunar_prototype.deepwither.DatabaseManager;
 import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.core.database.WriteTable;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
 import org.bukkit.entity.Player;
@@ -18,6 +19,11 @@ import java.util.logging.Level;
 @DependsOn({DatabaseManager.class})
 public class ProfessionDatabase implements IManager {
 
+    private static final WriteTable PROFESSIONS = WriteTable.of("player_professions", "player_id", "profession_type")
+            .withColumns("experience");
+    /** プレイヤー 1 人分の職業データを取得する SELECT 文 (パラメータ: player_id) */
+    public static final String LOAD_QUERY = "SELECT profession_type, experience FROM player_professions WHERE player_id = ?";
+
     private final Deepwither plugin;
     private final DatabaseManager db;
 
@@ -36,79 +42,43 @@ public class ProfessionDatabase implements IManager {
      * プレイヤーの職業データをロード
      */
     public PlayerProfessionData loadPlayer(UUID playerId) {
-        PlayerProfessionData data = new PlayerProfessionData(playerId);
-        String query = "SELECT profession_type, experience FROM player_professions WHERE player_id = ?";
+        // 直前のログアウトで保存待ちのデータを先に反映する
+        if (db.getWriteQueue().hasPending(PROFESSIONS)) db.getWriteQueue().flush();
 
         try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(query)) {
+             PreparedStatement ps = conn.prepareStatement(LOAD_QUERY)) {
             ps.setString(1, playerId.toString());
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    try {
-                        ProfessionType type = ProfessionType.valueOf(rs.getString("profession_type"));
-                        long exp = rs.getLong("experience");
-                        data.addExp(type, exp);
-                    } catch (IllegalArgumentException ignored) {}
-                }
+                return read(playerId, rs);
             }
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to load profession data for " + playerId, e);
         }
-        return data;
+        return new PlayerProfessionData(playerId);
     }
 
     /**
-     * プレイヤーのデータを保存
+     * {@link #LOAD_QUERY} の結果から職業データを組み立てます
      */
-    public void savePlayer(PlayerProfessionData data) {
-        try (Connection conn = db.getConnection()) {
-            conn.setAutoCommit(false); // トランザクション開始
+    public PlayerProfessionData read(UUID playerId, ResultSet rs) throws SQLException {
+        PlayerProfessionData data = new PlayerProfessionData(playerId);
+        while (rs.next()) {
             try {
-                String checkQuery = "SELECT 1 FROM player_professions WHERE player_id = ? AND profession_type = ?";
-                String updateQuery = "UPDATE player_professions SET experience = ? WHERE player_id = ? AND profession_type = ?";
-                String insertQuery = "INSERT INTO player_professions (player_id, profession_type, experience) VALUES (?, ?, ?)";
-
-                try (PreparedStatement checkPs = conn.prepareStatement(checkQuery);
-                     PreparedStatement updatePs = conn.prepareStatement(updateQuery);
-                     PreparedStatement insertPs = conn.prepareStatement(insertQuery)) {
-
-                    for (Map.Entry<ProfessionType, Long> entry : data.getAllExperience().entrySet()) {
-                        String uuidStr = data.getPlayerId().toString();
-                        String profType = entry.getKey().name();
-                        long exp = entry.getValue();
-
-                        // 存在チェック
-                        checkPs.setString(1, uuidStr);
-                        checkPs.setString(2, profType);
-                        boolean exists = false;
-                        try (ResultSet rs = checkPs.executeQuery()) {
-                            exists = rs.next();
-                        }
+                ProfessionType type = ProfessionType.valueOf(rs.getString("profession_type"));
+                long exp = rs.getLong("experience");
+                data.addExp(type, exp);
+            } catch (IllegalArgumentException ignored) {}
+        }
+        return data;
+    }
 
-                        if (exists) {
-                            // UPDATE
-                            updatePs.setLong(1, exp);
-                            updatePs.setString(2, uuidStr);
-                            updatePs.setString(3, profType);
-                            updatePs.executeUpdate();
-                        } else {
-                            // INSERT
-                            insertPs.setString(1, uuidStr);
-                            insertPs.setString(2, profType);
-                            insertPs.setLong(3, exp);
-                            insertPs.executeUpdate();
-                        }
-                    }
-                }
-                conn.commit();
-            } catch (SQLException e) {
-                conn.rollback();
-                throw e;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save profession data for " + data.getPlayerId(), e);
+    /**
+     * プレイヤーのデータを保存 (書き込みキュー経由)
+     */
+    public void savePlayer(PlayerProfessionData data) {
+        String uuidStr = data.getPlayerId().toString();
+        for (Map.Entry<ProfessionType, Long> entry : data.getAllExperience().entrySet()) {
+            db.getWriteQueue().upsert(PROFESSIONS, new Object[]{uuidStr, entry.getKey().name()}, entry.getValue());
         }
     }
 }
@@ -19,7 +19,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 @DependsOn({ProfessionDatabase.class, CacheManager.class})
-public class ProfessionManager implements IManager, com.lunar_prototype.deepwither.api.playerdata.IPlayerDataHandler {
+public class ProfessionManager implements IManager, com.lunar_prototype.deepwither.api.playerdata.IBulkPlayerDataHandler {
 
     private final Deepwither plugin;
     private final ProfessionDatabase database;
@@ -57,6 +57,16 @@ public class ProfessionManager implements IManager, com.lunar_prototype.deepwith
         }, plugin.getAsyncExecutor());
     }
 
+    @Override
+    public String bulkLoadQuery() {
+        return ProfessionDatabase.LOAD_QUERY;
+    }
+
+    @Override
+    public void applyBulkLoad(UUID uuid, com.lunar_prototype.deepwither.core.PlayerCache cache, java.sql.ResultSet rs) throws java.sql.SQLException {
+        cache.set(PlayerProfessionData.class, database.read(uuid, rs));
+    }
+
     @Override
     public java.util.concurrent.CompletableFuture<Void> saveData(UUID uuid, com.lunar_prototype.deepwither.core.PlayerCache cache) {
         return java.util.concurrent.CompletableFuture.runAsync(() -> {
@@ -53,7 +53,7 @@ public class Actuator {
             if (move.strategy.equals("ORBITAL_SLIDE")) { performOrbitalSlide(entity); return; }
             if (move.strategy.equals("POST_ATTACK_EVADE")) { performPostAttackEvade(entity); return; }
             if (move.strategy.equals("SPRINT_ZIGZAG")) { performSprintZigzag(entity); return; }
-            if (move.strategy.equals("ESCAPE_SQUEEZE")) { performEscapeSqueeze(entity,new SensorProvider().scanEnemies(entity,entity.getNearbyEntities(32, 32, 32))); return; }
+            if (move.strategy.equals("ESCAPE_SQUEEZE")) { performEscapeSqueeze(entity,new SensorProvider().scanEnemies(entity, SensorProvider.nearbyEntities(entity, 32))); return; }
         }
         if (move.strategy != null && move.strategy.equals("MAINTAIN_DISTANCE")) { maintainDistance(entity); return; }
         if (move.destination == null) return;
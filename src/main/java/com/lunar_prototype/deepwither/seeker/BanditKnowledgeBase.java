@@ -21,15 +21,27 @@ public class BanditKnowledgeBase {
     private static final int ACT_BURST_DASH = 6;
     private static final int ACT_ORBITAL_SLIDE = 7;
 
+    // 規則は全個体で共通のため、初回に 1 度だけ生成する
+    private static volatile Rules rules;
+
     /**
-     * 量子化された全状態空間を走査してハミルトニアン規則（状態→行動＋強度）を生成し、指定したエンジンに登録する。
-     *
-     * このメソッドは内部で各状態をデコードし（優位度・距離・HP・回復中フラグ・敵数など）、生存、本能的攻撃、接近、包囲対策、回復時防御の一連のルールに基づいてルール群を構築してから
-     * NativeQEngine#registerHamiltonianRules に配列として渡します。
+     * ハミルトニアン規則を指定したエンジンに登録する。規則は初回呼び出し時に生成し、以降は使い回す。
      *
      * @param engine ルールを受け取る対象の NativeQEngine インスタンス
      */
     public static void inject(NativeQEngine engine) {
+        Rules r = rules;
+        if (r == null) rules = r = buildRules();
+        engine.registerHamiltonianRules(r.conditions(), r.actions(), r.strengths());
+    }
+
+    /**
+     * 量子化された全状態空間を走査してハミルトニアン規則（状態→行動＋強度）を生成する。
+     *
+     * このメソッドは内部で各状態をデコードし（優位度・距離・HP・回復中フラグ・敵数など）、生存、本能的攻撃、接近、包囲対策、回復時防御の一連のルールに基づいてルール群を構築し、
+     * NativeQEngine#registerHamiltonianRules に渡せる配列にまとめます。
+     */
+    private static Rules buildRules() {
         List<Integer> conditions = new ArrayList<>();
         List<Integer> actions = new ArrayList<>();
         List<Float> strengths = new ArrayList<>();
@@ -83,7 +95,10 @@ public class BanditKnowledgeBase {
         float[] sArray = new float[strengths.size()];
         for (int i = 0; i < strengths.size(); i++) sArray[i] = strengths.get(i);
 
-        engine.registerHamiltonianRules(cArray, aArray, sArray);
+        return new Rules(cArray, aArray, sArray);
+    }
+
+    private record Rules(int[] conditions, int[] actions, float[] strengths) {
     }
 
     /**
@@ -230,7 +230,8 @@ public class CombatExperienceListener implements Listener, IManager {
     @EventHandler
     public void onSeekerDeath(EntityDeathEvent event) {
         LivingEntity entity = event.getEntity();
-        LiquidBrain brain = aiEngine.getBrain(entity.getUniqueId());
+        // 脳を持たないエンティティの死亡で脳を作らないよう、既存の脳だけを参照する
+        LiquidBrain brain = aiEngine.findBrain(entity.getUniqueId());
 
         if (brain != null) {
             String killerName = entity.getKiller() != null ? entity.getKiller().getName() : "Unknown";
@@ -252,7 +253,7 @@ public class CombatExperienceListener implements Listener, IManager {
         if (victim.getLastDamageCause() instanceof EntityDamageByEntityEvent nlev) {
             // ダメージを与えたのがMob（山賊）かチェック
             if (nlev.getDamager() instanceof Mob killer) {
-                LiquidBrain brain = aiEngine.getBrain(killer.getUniqueId());
+                LiquidBrain brain = aiEngine.findBrain(killer.getUniqueId());
 
                 if (brain != null) {
                     // 勝利レポート生成
@@ -34,6 +34,9 @@ public class LiquidBrain {
     public float velocityTrust = 1.0f;
 
     private final UUID ownerId;
+    // 方策のキー (初回の思考時に決まる) と、前回方策へ統合してからの思考回数
+    private PolicySnapshot.Key policyKey;
+    private int cyclesSinceSample;
     public Map<UUID, AttackPattern> enemyPatterns = new HashMap<>();
     public final TacticalMemory tacticalMemory = new TacticalMemory();
     public final SelfPattern selfPattern = new SelfPattern();
@@ -43,26 +46,51 @@ public class LiquidBrain {
     /**
      * 指定されたエージェントIDで LiquidBrain インスタンスを初期化する。
      *
-     * ネイティブの思考エンジンを生成し、初期ブートストラップ知識をエンジンに注入することで
+     * プールからネイティブの思考エンジンを確保し、初期ブートストラップ知識をエンジンに注入することで
      * エージェントの初期状態を構築する。
      *
      * @param ownerId エージェント（このBrainの所有者）を識別する UUID
+     * @param pool    Qテーブルを確保するプール
      */
-    public LiquidBrain(UUID ownerId) {
+    public LiquidBrain(UUID ownerId, NativeQEnginePool pool) {
         this.ownerId = ownerId;
-        this.engine = new NativeQEngine();
+        this.engine = pool.acquire();
 
         // [TQH-Bootstrap] 初期知識（ハミルトニアン規則）の注入
         BanditKnowledgeBase.inject(this.engine);
     }
 
     /**
-     * ブレインが保持するリソースを解放するためのフック。
+     * ブレインが保持するリソースを解放する。
      *
-     * <p>現状は実際の解放処理を行わず、必要に応じて履歴のクリアなどの後始末処理を追加できる。
+     * <p>Qテーブルのスロットをプールへ返却する。複数回呼び出しても安全。
      */
     public void dispose() {
-        // 必要に応じて履歴のクリア等
+        engine.release();
+    }
+
+    public boolean isDisposed() {
+        return engine.isReleased();
+    }
+
+    NativeQEngine getEngine() {
+        return engine;
+    }
+
+    public PolicySnapshot.Key getPolicyKey() {
+        return policyKey;
+    }
+
+    void setPolicyKey(PolicySnapshot.Key policyKey) {
+        this.policyKey = policyKey;
+    }
+
+    int getCyclesSinceSample() {
+        return cyclesSinceSample;
+    }
+
+    void resetCyclesSinceSample() {
+        cyclesSinceSample = 0;
     }
 
     /**
@@ -84,6 +112,20 @@ public class LiquidBrain {
      * @return 選択された行動のインデックス
      */
     public int cycle(float[] inputs) {
+        float netReward = beginCycle();
+
+        // 3. エンジンの更新と行動選択
+        return endCycle(engine.update(lastStateIdx, netReward, inputs));
+    }
+
+    /**
+     * 思考サイクルの前半。感情ニューロンの状態をエンジンへ反映し、前回の行動に対する正味の報酬を返す。
+     * 複数の脳をまとめて更新する場合は、この後 {@link NativeQEnginePool#update(NativeQEnginePool.Batch)} を経て
+     * {@link #endCycle(int)} を呼ぶ。
+     *
+     * @return 蓄積報酬 - 蓄積罰
+     */
+    float beginCycle() {
         // 1. 蓄積された報酬/罰を適用 (前回の行動に対する評価)
         float netReward = accumulatedReward - accumulatedPenalty;
 
@@ -92,9 +134,18 @@ public class LiquidBrain {
         engine.setNeuronState(1, (float) fear.get());
         engine.setNeuronState(2, (float) tactical.get());
         engine.setNeuronState(3, (float) reflex.get());
+        return netReward;
+    }
 
-        // 3. エンジンの更新と行動選択
-        this.lastActionIdx = engine.update(lastStateIdx, netReward, inputs);
+    /**
+     * 思考サイクルの後半。選択された行動を記録し、報酬をリセットして内部状態をエンジンから同期する。
+     *
+     * @param actionIdx エンジンが選択した行動のインデックス
+     * @return actionIdx
+     */
+    int endCycle(int actionIdx) {
+        this.lastActionIdx = actionIdx;
+        cyclesSinceSample++;
 
         // 報酬をリセット
         accumulatedReward = 0.0f;
@@ -25,6 +25,18 @@ public class LiquidCombatEngine {
      * @return            行動種別・移動計画・通信情報・推論メタデータを含むBanditDecision
      */
     public BanditDecision think(String version, BanditContext context, LiquidBrain brain, Mob bukkitEntity) {
+        Pending pending = prepare(version, context, brain, bukkitEntity);
+
+        // 4. Native Q-Engine による思考サイクル
+        return complete(pending, brain.cycle(pending.inputs));
+    }
+
+    /**
+     * {@link #think} の前半 (環境認識・報酬計算・状態の量子化) を行う。
+     * 返された {@link Pending} の脳を {@link LiquidBrain#beginCycle()} / {@link NativeQEnginePool#update(NativeQEnginePool.Batch)}
+     * / {@link LiquidBrain#endCycle(int)} で更新してから {@link #complete} に渡すことで、Q学習を複数体まとめて実行できる。
+     */
+    Pending prepare(String version, BanditContext context, LiquidBrain brain, Mob bukkitEntity) {
         BanditDecision d = new BanditDecision();
         d.engine_version = "v5.0-Native-Rebirth";
         d.decision = new BanditDecision.DecisionCore();
@@ -71,8 +83,15 @@ public class LiquidCombatEngine {
         int stateId = packState(advantage, enemyDist, inputs[2], isRecovering, enemies.size());
         brain.setCondition(stateId);
 
-        // 4. Native Q-Engine による思考サイクル
-        int actionIdx = brain.cycle(inputs);
+        return new Pending(d, brain, inputs, stateId, advantage);
+    }
+
+    /**
+     * {@link #think} の後半。選択された行動を決定に反映する。
+     */
+    BanditDecision complete(Pending pending, int actionIdx) {
+        BanditDecision d = pending.decision;
+        LiquidBrain brain = pending.brain;
         String actionName = ACTIONS[actionIdx];
 
         // 5. 決定の反映
@@ -92,7 +111,7 @@ public class LiquidCombatEngine {
 
         // 6. メタデータの付与
         d.reasoning = String.format("A:%s | S:%d | T:%.2f | F:%.2f | Adv:%.2f", 
-                actionName, stateId, brain.systemTemperature, brain.frustration, advantage);
+                actionName, pending.stateId, brain.systemTemperature, brain.frustration, pending.advantage);
 
         brain.recordSnapshot(d.movement.strategy);
 
@@ -205,4 +224,23 @@ public class LiquidCombatEngine {
         float learningRate = (gliaStress > 0.5f) ? 0.5f : 0.2f;
         tacticalMemory.combatAdvantage = (tacticalMemory.combatAdvantage * (1.0 - learningRate)) + (currentSnapshot * learningRate);
     }
-}
\ No newline at end of file
+
+    /**
+     * 行動選択を待っている思考の途中結果。
+     */
+    static final class Pending {
+        final BanditDecision decision;
+        final LiquidBrain brain;
+        final float[] inputs;
+        final int stateId;
+        final float advantage;
+
+        Pending(BanditDecision decision, LiquidBrain brain, float[] inputs, int stateId, float advantage) {
+            this.decision = decision;
+            this.brain = brain;
+            this.inputs = inputs;
+            this.stateId = stateId;
+            this.advantage = advantage;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.lunar_prototype.deepwither.seeker;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 全 {@link NativeQEngine} の Q テーブルと内部状態をまとめて保持するプール。
+ *
+ * <p>
+ * Q テーブルとハミルトニアン作用強度は 1 エンジンあたり 4096 要素 (512 状態 x 8 行動) で、
+ * {@value #SLOTS_PER_SLAB} エンジン分を 1 枚の float 配列 (スラブ) に詰めて確保します。
+ * 温度・フラストレーションなどのスカラー状態はスロット番号を添字とする配列 (Structure of Arrays) です。
+ * 解放されたスロットはテーブルをゼロに戻して再利用されるため、モブの出現・消滅で配列は確保されません。
+ * </p>
+ * <p>
+ * {@link Batch} に複数エンジン分の更新を積み、{@link #update(Batch)} で TD 学習・内部状態の更新・行動選択を
+ * 段階ごとにまとめて実行できます。各段階は単純な配列ループで、JIT の自動ベクトル化が効く形にしています。
+ * </p>
+ * <p>メインスレッド専用です。</p>
+ */
+public final class NativeQEnginePool {
+
+    static final int STATE_COUNT = 512;
+    static final int ACTION_COUNT = 8;
+    static final int TABLE_SIZE = STATE_COUNT * ACTION_COUNT;
+    static final int NEURON_COUNT = 4;
+
+    private static final int SLAB_SHIFT = 6;
+    private static final int SLOTS_PER_SLAB = 1 << SLAB_SHIFT;
+    private static final int SLAB_MASK = SLOTS_PER_SLAB - 1;
+
+    // ハイパーパラメータ
+    private static final float BASE_ALPHA = 0.1f;    // 学習率
+    private static final float GAMMA = 0.9f;         // 割引率
+    private static final float BASE_EPSILON = 0.1f;  // 探索率
+    private static final float INITIAL_TEMPERATURE = 0.5f;
+
+    private float[][] qSlabs = new float[0][];
+    private float[][] strengthSlabs = new float[0][];
+
+    // スロットごとの内部状態 (SoA)
+    private float[] temperature = new float[0];
+    private float[] frustration = new float[0];
+    private float[] adrenaline = new float[0];
+    private float[] imminence = new float[0];
+    private float[] neurons = new float[0];
+    private int[] lastState = new int[0];
+    private int[] lastAction = new int[0];
+
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int capacity;
+    private int live;
+
+    private final SplittableRandom random;
+    private final float[] biasScratch = new float[ACTION_COUNT];
+
+    public NativeQEnginePool() {
+        this(new SplittableRandom());
+    }
+
+    NativeQEnginePool(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * 空のテーブルを持つエンジンを確保します。不要になったら {@link NativeQEngine#release()} で返却してください。
+     */
+    public NativeQEngine acquire() {
+        if (freeCount == 0) grow();
+        int slot = freeSlots[--freeCount];
+        temperature[slot] = INITIAL_TEMPERATURE;
+        frustration[slot] = 0.0f;
+        adrenaline[slot] = 0.0f;
+        imminence[slot] = 0.0f;
+        Arrays.fill(neurons, slot * NEURON_COUNT, (slot + 1) * NEURON_COUNT, 0.0f);
+        lastState[slot] = -1;
+        lastAction[slot] = -1;
+        live++;
+        return new NativeQEngine(this, slot);
+    }
+
+    void release(int slot) {
+        int offset = offset(slot);
+        Arrays.fill(qSlabs[slot >>> SLAB_SHIFT], offset, offset + TABLE_SIZE, 0.0f);
+        Arrays.fill(strengthSlabs[slot >>> SLAB_SHIFT], offset, offset + TABLE_SIZE, 0.0f);
+        freeSlots[freeCount++] = slot;
+        live--;
+    }
+
+    private void grow() {
+        int slab = qSlabs.length;
+        qSlabs = Arrays.copyOf(qSlabs, slab + 1);
+        strengthSlabs = Arrays.copyOf(strengthSlabs, slab + 1);
+        qSlabs[slab] = new float[SLOTS_PER_SLAB * TABLE_SIZE];
+        strengthSlabs[slab] = new float[SLOTS_PER_SLAB * TABLE_SIZE];
+
+        int newCapacity = capacity + SLOTS_PER_SLAB;
+        temperature = Arrays.copyOf(temperature, newCapacity);
+        frustration = Arrays.copyOf(frustration, newCapacity);
+        adrenaline = Arrays.copyOf(adrenaline, newCapacity);
+        imminence = Arrays.copyOf(imminence, newCapacity);
+        neurons = Arrays.copyOf(neurons, newCapacity * NEURON_COUNT);
+        lastState = Arrays.copyOf(lastState, newCapacity);
+        lastAction = Arrays.copyOf(lastAction, newCapacity);
+        freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+        // 番号の小さいスロットから使われるよう、逆順に積む
+        for (int slot = newCapacity - 1; slot >= capacity; slot--) {
+            freeSlots[freeCount++] = slot;
+        }
+        capacity = newCapacity;
+    }
+
+    private static int offset(int slot) {
+        return (slot & SLAB_MASK) * TABLE_SIZE;
+    }
+
+    // ===== 1 エンジン分の操作 (NativeQEngine から呼ばれる) =====
+
+    void registerRules(int slot, int[] conditions, int[] actions, float[] strengths) {
+        float[] q = qSlabs[slot >>> SLAB_SHIFT];
+        float[] s = strengthSlabs[slot >>> SLAB_SHIFT];
+        int base = offset(slot);
+        for (int i = 0; i < conditions.length; i++) {
+            int state = conditions[i];
+            int action = actions[i];
+            if (state >= 0 && state < STATE_COUNT && action >= 0 && action < ACTION_COUNT) {
+                int idx = base + state * ACTION_COUNT + action;
+                s[idx] += strengths[i];
+                // 初期Q値にも反映させておく
+                q[idx] += strengths[i] * 0.5f;
+            }
+        }
+    }
+
+    int update(int slot, int currentState, float reward, float[] inputs) {
+        learn(slot, currentState, reward);
+        updateInternalState(slot, reward, inputs);
+        return selectAction(slot, currentState);
+    }
+
+    /**
+     * 前回の遷移を TD 学習で評価します。学習率は更新前の温度で決まります。
+     */
+    private void learn(int slot, int currentState, float reward) {
+        int prevState = lastState[slot];
+        int prevAction = lastAction[slot];
+        if (prevState == -1 || prevAction == -1) return;
+
+        float[] q = qSlabs[slot >>> SLAB_SHIFT];
+        int base = offset(slot);
+        int next = base + currentState * ACTION_COUNT;
+        float maxNextQ = q[next];
+        for (int a = 1; a < ACTION_COUNT; a++) {
+            maxNextQ = Math.max(maxNextQ, q[next + a]);
+        }
+
+        // 熱力学的学習率の調整
+        int idx = base + prevState * ACTION_COUNT + prevAction;
+        float alpha = BASE_ALPHA * (1.0f + temperature[slot]);
+        q[idx] += alpha * (reward + GAMMA * maxNextQ - q[idx]);
+    }
+
+    /**
+     * 報酬による冷却・ペナルティによる加熱と自然減衰。inputs の 5 番目 (敵の数) があればアドレナリンに反映します。
+     */
+    private void updateInternalState(int slot, float reward, float[] inputs) {
+        float temp = temperature[slot];
+        float frus = frustration[slot];
+        if (reward > 0) {
+            temp = Math.max(0.1f, temp - reward * 0.05f);
+            frus = Math.max(0.0f, frus - reward * 0.1f);
+        } else if (reward < 0) {
+            temp = Math.min(2.0f, temp - reward * 0.1f);
+            frus = Math.min(1.0f, frus - reward * 0.05f);
+        }
+
+        // 自然減衰
+        temperature[slot] = (temp * 0.99f) + (0.5f * 0.01f);
+        frustration[slot] = frus * 0.98f;
+
+        if (inputs != null && inputs.length >= 5) {
+            // 例: 敵の数が多いとアドレナリン上昇
+            adrenaline[slot] = (adrenaline[slot] * 0.9f) + (Math.min(inputs[4], 5) / 5.0f * 0.1f);
+        }
+    }
+
+    /**
+     * 温度で拡張した ε-greedy。活用時は Q値 + ハミルトニアンバイアス + 感情バイアス の最大の行動を選びます。
+     */
+    private int selectAction(int slot, int state) {
+        // GAS状態 (温度が高い) 時はランダム性を増やす
+        float epsilon = BASE_EPSILON * (1.0f + temperature[slot]);
+        int action;
+        if (random.nextDouble() < epsilon) {
+            action = random.nextInt(ACTION_COUNT);
+        } else {
+            float[] q = qSlabs[slot >>> SLAB_SHIFT];
+            float[] s = strengthSlabs[slot >>> SLAB_SHIFT];
+            int row = offset(slot) + state * ACTION_COUNT;
+            float[] bias = biasScratch;
+            emotionalBias(slot, bias, 0);
+            action = 0;
+            float maxScore = -Float.MAX_VALUE;
+            for (int a = 0; a < ACTION_COUNT; a++) {
+                float score = q[row + a] + s[row + a] + bias[a];
+                if (score > maxScore) {
+                    maxScore = score;
+                    action = a;
+                }
+            }
+        }
+        lastState[slot] = state;
+        lastAction[slot] = action;
+        return action;
+    }
+
+    /**
+     * 行動ごとの感情・予測バイアスを {@code out[offset..offset+7]} に書き込みます。
+     * ACTIONS = {"ATTACK", "EVADE", "BAITING", "COUNTER", "OBSERVE", "RETREAT", "BURST_DASH", "ORBITAL_SLIDE"}
+     */
+    private void emotionalBias(int slot, float[] out, int offset) {
+        float aggression = neurons[slot * NEURON_COUNT];
+        float fear = neurons[slot * NEURON_COUNT + 1];
+        // 攻撃が予測される瞬間のバイアス
+        float imm = imminence[slot];
+        float evadeBias = imm > 0.5f ? imm * 0.8f : 0.0f;   // EVADE: 回避率アップ
+        float counterBias = imm > 0.5f ? imm * 0.6f : 0.0f; // COUNTER: カウンター率アップ
+
+        out[offset] = aggression * 0.3f;              // ATTACK: Aggression
+        out[offset + 1] = fear * 0.3f + evadeBias;    // EVADE: Fear + Prediction
+        out[offset + 2] = 0.0f;
+        out[offset + 3] = counterBias;                // COUNTER: Prediction
+        out[offset + 4] = 0.0f;
+        out[offset + 5] = fear * 0.5f;                // RETREAT: Fear
+        out[offset + 6] = aggression * 0.4f;          // BURST_DASH: Aggression
+        out[offset + 7] = 0.0f;
+    }
+
+    // ===== まとめて更新 =====
+
+    /**
+     * バッチに積んだ全エンジンを更新し、選択した行動を {@link Batch#action(int)} に格納します。
+     * 結果は 1 件ずつ {@link NativeQEngine#update} した場合と同じです (乱数の消費順を除く)。
+     */
+    public void update(Batch batch) {
+        int n = batch.size;
+        int[] slots = batch.slots;
+        int[] states = batch.states;
+        float[] rewards = batch.rewards;
+
+        // 1. TD学習 (前回の遷移を評価)
+        for (int i = 0; i < n; i++) {
+            learn(slots[i], states[i], rewards[i]);
+        }
+
+        // 2. 内部状態の更新
+        for (int i = 0; i < n; i++) {
+            updateInternalState(slots[i], rewards[i], batch.inputs[i]);
+        }
+
+        // 3. 行動選択: 探索するエンジンを先に決め、残りはスコアをまとめて計算して最大を取る
+        float[] scores = batch.scores;
+        boolean[] explore = batch.explore;
+        for (int i = 0; i < n; i++) {
+            explore[i] = random.nextDouble() < BASE_EPSILON * (1.0f + temperature[slots[i]]);
+        }
+        for (int i = 0; i < n; i++) {
+            if (explore[i]) continue;
+            int slot = slots[i];
+            float[] q = qSlabs[slot >>> SLAB_SHIFT];
+            float[] s = strengthSlabs[slot >>> SLAB_SHIFT];
+            int row = offset(slot) + states[i] * ACTION_COUNT;
+            int out = i * ACTION_COUNT;
+            emotionalBias(slot, scores, out);
+            for (int a = 0; a < ACTION_COUNT; a++) {
+                scores[out + a] += q[row + a] + s[row + a];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int action;
+            if (explore[i]) {
+                action = random.nextInt(ACTION_COUNT);
+            } else {
+                int out = i * ACTION_COUNT;
+                action = 0;
+                float maxScore = -Float.MAX_VALUE;
+                for (int a = 0; a < ACTION_COUNT; a++) {
+                    if (scores[out + a] > maxScore) {
+                        maxScore = scores[out + a];
+                        action = a;
+                    }
+                }
+            }
+            lastState[slots[i]] = states[i];
+            lastAction[slots[i]] = action;
+            batch.actions[i] = action;
+        }
+    }
+
+    // ===== 状態の参照 =====
+
+    float getTemperature(int slot) {
+        return temperature[slot];
+    }
+
+    void setTemperature(int slot, float value) {
+        temperature[slot] = value;
+    }
+
+    float getFrustration(int slot) {
+        return frustration[slot];
+    }
+
+    float getAdrenaline(int slot) {
+        return adrenaline[slot];
+    }
+
+    void setImminence(int slot, float value) {
+        imminence[slot] = value;
+    }
+
+    float getNeuron(int slot, int idx) {
+        return neurons[slot * NEURON_COUNT + idx];
+    }
+
+    void setNeuron(int slot, int idx, float value) {
+        neurons[slot * NEURON_COUNT + idx] = value;
+    }
+
+    float getQ(int slot, int state, int action) {
+        return qSlabs[slot >>> SLAB_SHIFT][offset(slot) + state * ACTION_COUNT + action];
+    }
+
+    void copyQ(int slot, float[] dst) {
+        System.arraycopy(qSlabs[slot >>> SLAB_SHIFT], offset(slot), dst, 0, TABLE_SIZE);
+    }
+
+    void loadQ(int slot, FloatBuffer src) {
+        src.get(0, qSlabs[slot >>> SLAB_SHIFT], offset(slot), TABLE_SIZE);
+    }
+
+    /**
+     * 使用中のエンジン数。
+     */
+    public int getLiveCount() {
+        return live;
+    }
+
+    /**
+     * 確保済みのスロット数 (スラブ数 x {@value #SLOTS_PER_SLAB})。
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * スラブが占めるメモリ量 (バイト)。
+     */
+    public long getSlabBytes() {
+        return (long) capacity * TABLE_SIZE * Float.BYTES * 2;
+    }
+
+    /**
+     * {@link #update(Batch)} にまとめて渡す更新の入れ物。使い回すことを想定しています。
+     * 1 つのバッチに同じエンジンを 2 回積むことはできません。
+     */
+    public static final class Batch {
+        private int[] slots;
+        private int[] states;
+        private float[] rewards;
+        private float[][] inputs;
+        private int[] actions;
+        private float[] scores;
+        private boolean[] explore;
+        private int size;
+
+        public Batch(int initialCapacity) {
+            resize(Math.max(1, initialCapacity));
+        }
+
+        /**
+         * @return バッチ内の番号 ({@link #action(int)} に使う)
+         */
+        public int add(NativeQEngine engine, int currentState, float reward, float[] inputs) {
+            if (currentState < 0 || currentState >= STATE_COUNT) {
+                throw new IllegalArgumentException("state out of range: " + currentState);
+            }
+            if (size == slots.length) resize(size * 2);
+            slots[size] = engine.slot();
+            states[size] = currentState;
+            rewards[size] = reward;
+            this.inputs[size] = inputs;
+            return size++;
+        }
+
+        public int action(int index) {
+            return actions[index];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void clear() {
+            Arrays.fill(inputs, 0, size, null);
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            slots = slots == null ? new int[capacity] : Arrays.copyOf(slots, capacity);
+            states = states == null ? new int[capacity] : Arrays.copyOf(states, capacity);
+            rewards = rewards == null ? new float[capacity] : Arrays.copyOf(rewards, capacity);
+            inputs = inputs == null ? new float[capacity][] : Arrays.copyOf(inputs, capacity);
+            actions = actions == null ? new int[capacity] : Arrays.copyOf(actions, capacity);
+            scores = new float[capacity * ACTION_COUNT];
+            explore = new boolean[capacity];
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.lunar_prototype.deepwither.seeker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Seeker AI の学習済み方策 (Qテーブル) と集合知のスナップショット。不変で、どのスレッドからも参照できます。
+ *
+ * <p>
+ * ファイル形式 (ビッグエンディアン):
+ * <pre>
+ * int    MAGIC ("DWQP")
+ * int    VERSION
+ * int    状態数 (512), int 行動数 (8)
+ * float  globalAggressionBias, float globalFearBias
+ * int    方策の数
+ *   short+bytes  MobType (UTF-8)
+ *   byte         レベル帯
+ *   int          統合した脳の数 (重み)
+ *   float[4096]  Qテーブル
+ * int    プレイヤープロファイルの数
+ *   long, long   UUID
+ *   float        dangerLevel
+ *   short+bytes  preferredWeapon, identifiedWeakness (UTF-8)
+ * </pre>
+ * 読み込み ({@link #map(Path)}) はファイルをメモリマップし、Qテーブルはマップした領域をそのまま参照します。
+ * </p>
+ */
+public final class PolicySnapshot {
+
+    private static final int MAGIC = 0x44575150; // "DWQP"
+    private static final int VERSION = 1;
+    private static final int TABLE_SIZE = NativeQEnginePool.TABLE_SIZE;
+
+    public static final PolicySnapshot EMPTY = new PolicySnapshot(Map.of(), 0.0, 0.0, List.of());
+
+    private final Map<Key, Policy> policies;
+    private final double aggressionBias;
+    private final double fearBias;
+    private final List<Profile> profiles;
+
+    private PolicySnapshot(Map<Key, Policy> policies, double aggressionBias, double fearBias, List<Profile> profiles) {
+        this.policies = policies;
+        this.aggressionBias = aggressionBias;
+        this.fearBias = fearBias;
+        this.profiles = profiles;
+    }
+
+    /**
+     * 方策のキー。MobType とレベル帯 (0: Lv10未満, 1: Lv20未満, 2: それ以上)。
+     */
+    public record Key(String mobType, int tier) {
+        public static int tierOf(double level) {
+            return level >= 20 ? 2 : (level >= 10 ? 1 : 0);
+        }
+    }
+
+    /**
+     * 1 つの方策。{@code table} は読み取り専用で、先頭から {@value #TABLE_SIZE} 要素が Qテーブルです。
+     */
+    public record Policy(int samples, FloatBuffer table) {
+    }
+
+    /**
+     * 統合する脳 1 体分の Qテーブル (コピー)。
+     */
+    public record Sample(Key key, float[] table) {
+    }
+
+    public record Profile(UUID uuid, float dangerLevel, String preferredWeapon, String identifiedWeakness) {
+    }
+
+    public Policy get(Key key) {
+        return policies.get(key);
+    }
+
+    public Map<Key, Policy> getPolicies() {
+        return policies;
+    }
+
+    public double getAggressionBias() {
+        return aggressionBias;
+    }
+
+    public double getFearBias() {
+        return fearBias;
+    }
+
+    public List<Profile> getProfiles() {
+        return profiles;
+    }
+
+    // ===== 統合 =====
+
+    /**
+     * このスナップショットに脳のサンプルを統合した新しいスナップショットを返します。
+     *
+     * <p>キーごとに、既存の方策 (重み = 統合済みの数、上限 {@code maxSamples}) とサンプルの平均を取ります。
+     * 上限があるため、古い経験の影響は徐々に薄れます。集合知はサンプル採取時点の値で置き換えます。</p>
+     */
+    public PolicySnapshot merge(List<Sample> samples, double aggressionBias, double fearBias, List<Profile> profiles, int maxSamples) {
+        Map<Key, float[]> sums = new HashMap<>();
+        Map<Key, Integer> counts = new HashMap<>();
+        for (Sample sample : samples) {
+            float[] sum = sums.computeIfAbsent(sample.key(), k -> new float[TABLE_SIZE]);
+            float[] table = sample.table();
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                sum[i] += table[i];
+            }
+            counts.merge(sample.key(), 1, Integer::sum);
+        }
+
+        Map<Key, Policy> merged = new HashMap<>(policies);
+        for (Map.Entry<Key, float[]> entry : sums.entrySet()) {
+            Key key = entry.getKey();
+            float[] sum = entry.getValue();
+            int n = counts.get(key);
+            Policy old = policies.get(key);
+            int weight = old == null ? 0 : Math.min(old.samples(), maxSamples);
+
+            float[] table = new float[TABLE_SIZE];
+            float scale = 1.0f / (weight + n);
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                float prev = weight == 0 ? 0.0f : old.table().get(i);
+                table[i] = (prev * weight + sum[i]) * scale;
+            }
+            merged.put(key, new Policy(Math.min(weight + n, maxSamples), FloatBuffer.wrap(table).asReadOnlyBuffer()));
+        }
+        return new PolicySnapshot(Collections.unmodifiableMap(merged), aggressionBias, fearBias, List.copyOf(profiles));
+    }
+
+    // ===== 読み書き =====
+
+    /**
+     * ファイルをメモリマップして読み込みます。Qテーブルはコピーせず、マップした領域を参照します。
+     *
+     * @throws IOException 読み込めない、または形式が異なる場合
+     */
+    public static PolicySnapshot map(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buf.remaining() < 24 || buf.getInt() != MAGIC) throw new IOException("Not a policy snapshot: " + file);
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("Unsupported policy snapshot version: " + version);
+        if (buf.getInt() != NativeQEnginePool.STATE_COUNT || buf.getInt() != NativeQEnginePool.ACTION_COUNT) {
+            throw new IOException("Policy snapshot table shape does not match");
+        }
+        double aggression = buf.getFloat();
+        double fear = buf.getFloat();
+
+        int policyCount = buf.getInt();
+        Map<Key, Policy> policies = new HashMap<>(policyCount * 2);
+        for (int i = 0; i < policyCount; i++) {
+            String mobType = readString(buf);
+            int tier = buf.get();
+            int samples = buf.getInt();
+            FloatBuffer table = buf.slice(buf.position(), TABLE_SIZE * Float.BYTES).asFloatBuffer().asReadOnlyBuffer();
+            buf.position(buf.position() + TABLE_SIZE * Float.BYTES);
+            policies.put(new Key(mobType, tier), new Policy(samples, table));
+        }
+
+        int profileCount = buf.getInt();
+        List<Profile> profiles = new ArrayList<>(profileCount);
+        for (int i = 0; i < profileCount; i++) {
+            UUID uuid = new UUID(buf.getLong(), buf.getLong());
+            float danger = buf.getFloat();
+            profiles.add(new Profile(uuid, danger, readString(buf), readString(buf)));
+        }
+        return new PolicySnapshot(Collections.unmodifiableMap(policies), aggression, fear, List.copyOf(profiles));
+    }
+
+    /**
+     * 一時ファイルに書き出してから置き換えます (書き込み途中のファイルを読まないため)。
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(NativeQEnginePool.STATE_COUNT);
+            out.writeInt(NativeQEnginePool.ACTION_COUNT);
+            out.writeFloat((float) aggressionBias);
+            out.writeFloat((float) fearBias);
+
+            out.writeInt(policies.size());
+            for (Map.Entry<Key, Policy> entry : policies.entrySet()) {
+                writeString(out, entry.getKey().mobType());
+                out.writeByte(entry.getKey().tier());
+                out.writeInt(entry.getValue().samples());
+                FloatBuffer table = entry.getValue().table();
+                for (int i = 0; i < TABLE_SIZE; i++) {
+                    out.writeFloat(table.get(i));
+                }
+            }
+
+            out.writeInt(profiles.size());
+            for (Profile profile : profiles) {
+                out.writeLong(profile.uuid().getMostSignificantBits());
+                out.writeLong(profile.uuid().getLeastSignificantBits());
+                out.writeFloat(profile.dangerLevel());
+                writeString(out, profile.preferredWeapon());
+                writeString(out, profile.identifiedWeakness());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeShort(Math.min(bytes.length, 0xFFFF));
+        out.write(bytes, 0, Math.min(bytes.length, 0xFFFF));
+    }
+}
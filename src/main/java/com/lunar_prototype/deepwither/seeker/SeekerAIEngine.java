@@ -1,15 +1,24 @@
 package com.lunar_prototype.deepwither.seeker;
 
+import com.lunar_prototype.deepwither.Deepwither;
 import com.lunar_prototype.deepwither.util.DependsOn;
 import com.lunar_prototype.deepwither.util.IManager;
+import com.lunar_prototype.deepwither.util.LatencyHistogram;
 import io.lumine.mythic.core.mobs.ActiveMob;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Mob;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.logging.Level;
 
 @DependsOn({})
 public class SeekerAIEngine implements IManager {
@@ -17,7 +26,14 @@ public class SeekerAIEngine implements IManager {
     private final SensorProvider sensorProvider;
     private final LiquidCombatEngine liquidEngine;
     private final Actuator actuator;
+    // メインスレッド (スケジューラー・イベント) からのみ参照する
     private final Map<UUID, LiquidBrain> brainStorage = new HashMap<>();
+    private final NativeQEnginePool qPool = new NativeQEnginePool();
+    private final NativeQEnginePool.Batch qBatch = new NativeQEnginePool.Batch(32);
+    private final List<PendingMob> pending = new ArrayList<>();
+    private SeekerPolicyStore policyStore;
+    private final SeekerDecisionLog decisionLog = new SeekerDecisionLog(256, 0.05);
+    private final LatencyHistogram thinkTimes = new LatencyHistogram();
 
     public SeekerAIEngine() {
         this.sensorProvider = new SensorProvider();
@@ -35,68 +51,121 @@ public class SeekerAIEngine implements IManager {
             brain.dispose();
         }
         brainStorage.clear();
+        pending.clear();
+        qBatch.clear();
     }
 
     /**
-     * アクティブなMobを対象に環境を感知し、近隣の影響を学習して適切なエンジン版で推論を行い、その決定に基づいて行動を実行する。
+     * 1 体分の思考をその場で実行する。{@link #submit} と {@link #flush} を続けて呼ぶのと同じ。
+     *
+     * @param activeMob 処理対象のアクティブMob。Bukkitエンティティが存在し、かつMobでない場合は何も行わず戻る。
+     */
+    public void tick(ActiveMob activeMob) {
+        submit(activeMob);
+        flush();
+    }
+
+    /**
+     * アクティブなMobを対象に環境を感知し、近隣の影響を学習して思考の前半を行い、行動選択を待つ列に積む。
      *
      * <p>処理内容:
-     * - センサーで環境情報と近接の隠れ場所を取得する。
+     * - センサーで環境情報を取得する。
      * - 対象のUUIDに紐づく脳 (LiquidBrain) を取得または生成し、観察と学習を行う。
-     * - 対象のレベルに応じて推論エンジンのバージョンを選択し、推論時間を計測する。
-     * - 推論結果と脳のネイティブメトリクス（Q値、体温、フラストレーション、アドレナリン、戦闘優位など）をログ出力する。
-     * - 対象が生存していればアクチュエータで行動を実行し、死亡していれば脳を破棄してストレージから削除する。
+     * - 対象のレベルに応じて推論エンジンのバージョンを選択し、状態を量子化してQ学習のバッチに積む。
+     * 行動選択と実行は {@link #flush()} でまとめて行う。同じMobを flush までに 2 回積まないこと。
      *
      * @param activeMob 処理対象のアクティブMob。Bukkitエンティティが存在し、かつMobでない場合は何も行わず戻る。
      */
-    public void tick(ActiveMob activeMob) {
+    public void submit(ActiveMob activeMob) {
         if (activeMob.getEntity() == null || !(activeMob.getEntity().getBukkitEntity() instanceof Mob)) return;
         Mob bukkitMob = (Mob) activeMob.getEntity().getBukkitEntity();
         UUID uuid = activeMob.getUniqueId();
 
         // 1. 環境感知
         BanditContext context = sensorProvider.scan(activeMob);
-        Location nearestCover = sensorProvider.findNearestCoverLocation(activeMob);
 
         // 2. 脳の取得と学習
-        LiquidBrain brain = brainStorage.computeIfAbsent(uuid, k -> new LiquidBrain(uuid));
+        LiquidBrain brain = getBrain(uuid);
+        if (brain.getPolicyKey() == null) {
+            // 初回の思考で MobType とレベル帯が決まり、学習済みの方策があればそこから始める
+            brain.setPolicyKey(new PolicySnapshot.Key(activeMob.getMobType(), PolicySnapshot.Key.tierOf(activeMob.getLevel())));
+            if (policyStore != null) policyStore.seed(brain);
+        }
         observeAndLearn(activeMob, brain);
         // [Refactored] digestExperience call removed; integrated into think -> cycle
 
         // 3. バージョン選択
         String version = (activeMob.getLevel() >= 20) ? "v3" : (activeMob.getLevel() >= 10 ? "v2" : "v1");
 
-        // --- 推論時間の計測開始 ---
         long startTime = System.nanoTime();
+        LiquidCombatEngine.Pending thought = liquidEngine.prepare(version, context, brain, bukkitMob);
+        qBatch.add(brain.getEngine(), thought.stateId, brain.beginCycle(), thought.inputs);
+        pending.add(new PendingMob(activeMob, bukkitMob, thought, System.nanoTime() - startTime));
+    }
 
-        BanditDecision decision = liquidEngine.think(version, context, brain, bukkitMob);
-
-        long endTime = System.nanoTime();
-        double durationMs = (endTime - startTime) / 1_000_000.0; // ナノ秒をミリ秒に変換
-        // -----------------------
-
-        // 4. ログ出力 (v5 Native Metrics)
-        String uuidShort = uuid.toString().substring(0, 4);
-        double qScore = brain.getNativeScore(brain.lastActionIdx); // 行動の期待値
-
-        System.out.println(String.format("[%s-%s][%s] Action: %s (Q:%.2f) | Time: %.3fms | T:%.2f F:%.2f Adr:%.2f Adv:%.2f",
-                activeMob.getType().getInternalName(),
-                uuidShort,
-                decision.engine_version,
-                decision.decision.action_type,
-                qScore,
-                durationMs,
-                brain.systemTemperature,
-                brain.frustration,
-                brain.adrenaline,
-                brain.tacticalMemory.combatAdvantage));
-
-        // 5. 行動実行
-        if (!bukkitMob.isDead()) {
-            actuator.execute(activeMob, decision, nearestCover);
-        } else {
-            brain.dispose();
-            brainStorage.remove(uuid);
+    /**
+     * {@link #submit} で積んだMobのQ学習と行動選択をまとめて行い、決定に基づいて行動を実行する。
+     *
+     * <p>処理内容:
+     * - 全Mobの脳を {@link NativeQEnginePool#update(NativeQEnginePool.Batch)} で一括更新する。
+     * - 推論結果と脳のネイティブメトリクス（Q値、体温、フラストレーション、アドレナリン、戦闘優位など）を抽選で決定ログに記録する。
+     * - 対象が生存していればアクチュエータで行動を実行し、死亡していれば脳を破棄してストレージから削除する。
+     *   遮蔽物の探索 (ブロック走査) は、遮蔽物へ移動する決定をした場合のみ行う。
+     */
+    public void flush() {
+        int count = pending.size();
+        if (count == 0) return;
+
+        try {
+            long batchStart = System.nanoTime();
+            qPool.update(qBatch);
+            // 一括更新の時間は体数で割って各Mobの推論時間に含める
+            long batchShare = (System.nanoTime() - batchStart) / count;
+
+            for (int i = 0; i < count; i++) {
+                PendingMob p = pending.get(i);
+                try {
+                    long startTime = System.nanoTime();
+                    LiquidBrain brain = p.thought.brain;
+                    // 他のMobの行動が引き起こしたイベントで破棄された場合
+                    if (brain.isDisposed()) continue;
+                    brain.endCycle(qBatch.action(i));
+                    BanditDecision decision = liquidEngine.complete(p.thought, brain.lastActionIdx);
+                    long thinkNanos = p.prepareNanos + batchShare + (System.nanoTime() - startTime);
+                    thinkTimes.record(thinkNanos);
+
+                    // 4. 決定ログ (v5 Native Metrics)
+                    if (decisionLog.shouldSample()) {
+                        decisionLog.record(new SeekerDecisionLog.Entry(
+                                Bukkit.getCurrentTick(),
+                                p.mob.getType().getInternalName(),
+                                p.mob.getUniqueId(),
+                                decision.engine_version,
+                                decision.decision.action_type,
+                                brain.getNativeScore(brain.lastActionIdx), // 行動の期待値
+                                thinkNanos,
+                                brain.systemTemperature,
+                                brain.frustration,
+                                brain.adrenaline,
+                                brain.tacticalMemory.combatAdvantage));
+                    }
+
+                    // 5. 行動実行
+                    if (!p.bukkitMob.isDead()) {
+                        Location nearestCover = needsCover(decision) ? sensorProvider.findNearestCoverLocation(p.mob) : null;
+                        actuator.execute(p.mob, decision, nearestCover);
+                    } else {
+                        clearBrain(p.mob.getUniqueId());
+                    }
+                } catch (Throwable t) {
+                    // 1 体の失敗で同じバッチの残りの Mob が行動しなくならないよう、記録して次へ進む
+                    Deepwither.getInstance().getLogger().log(Level.WARNING,
+                            "Seeker AI failed for " + p.mob.getUniqueId() + ", skipping this cycle", t);
+                }
+            }
+        } finally {
+            pending.clear();
+            qBatch.clear();
         }
     }
 
@@ -108,7 +177,7 @@ public class SeekerAIEngine implements IManager {
         Mob bukkitSelf = (Mob) self.getEntity().getBukkitEntity();
 
         // 1. 周囲のエンティティを取得 (12m範囲)
-        List<Entity> nearby = bukkitSelf.getNearbyEntities(12, 12, 12);
+        List<LivingEntity> nearby = SensorProvider.nearbyEntities(bukkitSelf, 12);
 
         for (int i = 0; i < nearby.size(); i++) {
             Entity e = nearby.get(i);
@@ -169,14 +238,85 @@ public class SeekerAIEngine implements IManager {
         myBrain.reshapeTopology();
     }
 
-    public void clearBrain(UUID uuid) { brainStorage.remove(uuid); }
+    /**
+     * Actuator が遮蔽物の座標を使うのは、目的地が NEAREST_COVER の場合のみ。
+     */
+    private static boolean needsCover(BanditDecision decision) {
+        return decision.movement != null && "NEAREST_COVER".equals(decision.movement.destination);
+    }
+
+    public SeekerDecisionLog getDecisionLog() {
+        return decisionLog;
+    }
+
+    /**
+     * 1 回の推論 (LiquidCombatEngine の前半・後半と、Q学習の一括更新を体数で割った分) にかかった時間の分布。
+     */
+    public LatencyHistogram getThinkTimes() {
+        return thinkTimes;
+    }
+
+    public int getBrainCount() {
+        return brainStorage.size();
+    }
+
+    /**
+     * 新しい脳の初期方策を提供するストアを設定する ({@link SeekerPolicyStore} の初期化時に呼ばれる)。
+     */
+    void setPolicyStore(SeekerPolicyStore policyStore) {
+        this.policyStore = policyStore;
+    }
+
+    Collection<LiquidBrain> getBrains() {
+        return brainStorage.values();
+    }
+
+    public NativeQEnginePool getQPool() {
+        return qPool;
+    }
+
+    /**
+     * 脳を破棄し、Qテーブルをプールへ返却する。
+     */
+    public void clearBrain(UUID uuid) {
+        LiquidBrain brain = brainStorage.remove(uuid);
+        if (brain != null) brain.dispose();
+    }
+
+    /**
+     * {@code alive} に含まれないMobの脳を破棄する (デスポーンやチャンクのアンロードで消えたMob)。
+     *
+     * @return 破棄した数
+     */
+    public int retainBrains(Set<UUID> alive) {
+        int removed = 0;
+        Iterator<Map.Entry<UUID, LiquidBrain>> it = brainStorage.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, LiquidBrain> entry = it.next();
+            if (alive.contains(entry.getKey())) continue;
+            entry.getValue().dispose();
+            it.remove();
+            removed++;
+        }
+        return removed;
+    }
 
     public LiquidBrain getBrain(UUID uuid) {
         // 脳がまだない場合は作成して返す（これによってリスナー経由でも脳が初期化される）
-        return brainStorage.computeIfAbsent(uuid, k -> new LiquidBrain(uuid));
+        return brainStorage.computeIfAbsent(uuid, k -> new LiquidBrain(uuid, qPool));
+    }
+
+    /**
+     * 脳があれば返す。{@link #getBrain} と異なり、新たに作成しない。
+     */
+    public LiquidBrain findBrain(UUID uuid) {
+        return brainStorage.get(uuid);
     }
 
     public boolean hasBrain(UUID uuid) {
         return brainStorage.containsKey(uuid);
     }
-}
\ No newline at end of file
+
+    private record PendingMob(ActiveMob mob, Mob bukkitMob, LiquidCombatEngine.Pending thought, long prepareNanos) {
+    }
+}
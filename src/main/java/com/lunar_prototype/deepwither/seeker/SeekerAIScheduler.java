@@ -0,0 +1,228 @@
+package com.lunar_prototype.deepwither.seeker;
+
+import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.util.DependsOn;
+import com.lunar_prototype.deepwither.util.IManager;
+import io.lumine.mythic.bukkit.MythicBukkit;
+import io.lumine.mythic.core.mobs.ActiveMob;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Seeker AI (bandit 系モブ) の思考を 1 tick 1 回のバッチで実行するスケジューラー。
+ *
+ * <p>
+ * 各モブは次に思考する tick を持ち、期限が来たモブを期限の古い順に処理します。
+ * 1 tick あたりの処理時間には上限 (seeker-ai.budget-ms) があり、超過した分は次の tick に持ち越します。
+ * Q学習と行動選択は {@value #BATCH_SIZE} 体ずつ {@link SeekerAIEngine#flush()} でまとめて行います。
+ * 思考の間隔は戦闘状態と最寄りプレイヤーまでの距離で決まります (戦闘中 &lt; 近距離 &lt; 遠距離 &lt; 待機)。
+ * </p>
+ * <p>
+ * メインスレッド専用です。
+ * </p>
+ */
+@DependsOn({SeekerAIEngine.class})
+public class SeekerAIScheduler implements IManager {
+
+    /** 一定間隔で、アクティブでなくなったモブの予定を破棄する */
+    private static final long CLEANUP_INTERVAL_TICKS = 200L;
+    /** Q学習をまとめて行う体数。予算の確認もこの単位で行う */
+    private static final int BATCH_SIZE = 16;
+
+    private final Deepwither plugin;
+    private final SeekerAIEngine engine;
+    private BukkitTask task;
+
+    private long budgetNanos;
+    private int combatInterval;
+    private int nearInterval;
+    private int farInterval;
+    private int idleInterval;
+    private double nearDistanceSq;
+    private double farDistanceSq;
+
+    private final Map<UUID, Schedule> schedules = new HashMap<>();
+    private final List<Schedule> due = new ArrayList<>();
+    private long currentTick;
+
+    private int lastThinkCount;
+    private int lastDeferred;
+    private long lastBatchNanos;
+    private long totalThinks;
+    private long totalDeferred;
+
+    public SeekerAIScheduler(Deepwither plugin, SeekerAIEngine engine) {
+        this.plugin = plugin;
+        this.engine = engine;
+    }
+
+    @Override
+    public void init() {
+        reloadConfig();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    @Override
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        schedules.clear();
+        due.clear();
+    }
+
+    public void reloadConfig() {
+        FileConfiguration config = plugin.getConfig();
+        budgetNanos = (long) (config.getDouble("seeker-ai.budget-ms", 2.0) * 1_000_000L);
+        combatInterval = Math.max(1, config.getInt("seeker-ai.interval.combat", 10));
+        nearInterval = Math.max(1, config.getInt("seeker-ai.interval.near", 20));
+        farInterval = Math.max(1, config.getInt("seeker-ai.interval.far", 60));
+        idleInterval = Math.max(1, config.getInt("seeker-ai.interval.idle", 200));
+        double near = config.getDouble("seeker-ai.near-distance", 24.0);
+        double far = config.getDouble("seeker-ai.far-distance", 64.0);
+        nearDistanceSq = near * near;
+        farDistanceSq = far * far;
+        engine.getDecisionLog().configure(config.getInt("seeker-ai.decision-log.size", 256),
+                config.getDouble("seeker-ai.decision-log.sample-rate", 0.05));
+    }
+
+    private void tick() {
+        currentTick++;
+        long start = System.nanoTime();
+
+        // 1. 期限が来たモブを集める
+        due.clear();
+        for (ActiveMob am : MythicBukkit.inst().getMobManager().getActiveMobs()) {
+            if (!am.getMobType().contains("bandit")) continue;
+            Schedule schedule = schedules.get(am.getUniqueId());
+            if (schedule == null) {
+                // 初回は思考のタイミングを分散させる
+                schedule = new Schedule(am, currentTick + Math.floorMod(am.getUniqueId().hashCode(), nearInterval));
+                schedules.put(am.getUniqueId(), schedule);
+            }
+            schedule.mob = am;
+            schedule.seenTick = currentTick;
+            if (schedule.nextTick <= currentTick) due.add(schedule);
+        }
+
+        // 2. 期限の古い順に、予算の範囲で思考させる (Q学習は BATCH_SIZE 体ずつまとめて行う)
+        due.sort((a, b) -> Long.compare(a.nextTick, b.nextTick));
+        int thinks = 0;
+        int deferred = 0;
+        int i = 0;
+        while (i < due.size()) {
+            if (thinks > 0 && System.nanoTime() - start >= budgetNanos) {
+                deferred = due.size() - i;
+                break;
+            }
+            int end = Math.min(due.size(), i + BATCH_SIZE);
+            for (; i < end; i++) {
+                Schedule schedule = due.get(i);
+                schedule.nextTick = currentTick + intervalFor(schedule.mob);
+                try {
+                    engine.submit(schedule.mob);
+                } catch (Exception ex) {
+                    plugin.getLogger().log(Level.WARNING, "Seeker AI tick failed for " + schedule.mob.getUniqueId(), ex);
+                }
+                thinks++;
+            }
+            try {
+                engine.flush();
+            } catch (Exception ex) {
+                plugin.getLogger().log(Level.WARNING, "Seeker AI batch failed", ex);
+            }
+        }
+
+        if (currentTick % CLEANUP_INTERVAL_TICKS == 0) {
+            Iterator<Schedule> it = schedules.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().seenTick < currentTick) it.remove();
+            }
+            // 消えたMob (リスナー経由で作られたものを含む) の脳を破棄し、Qテーブルをプールへ返す
+            engine.retainBrains(schedules.keySet());
+        }
+
+        lastThinkCount = thinks;
+        lastDeferred = deferred;
+        lastBatchNanos = System.nanoTime() - start;
+        totalThinks += thinks;
+        totalDeferred += deferred;
+    }
+
+    /**
+     * 戦闘状態と最寄りプレイヤーまでの距離から、次に思考するまでの間隔 (tick) を決めます。
+     */
+    private int intervalFor(ActiveMob am) {
+        Entity entity = am.getEntity() != null ? am.getEntity().getBukkitEntity() : null;
+        if (!(entity instanceof Mob mob)) return idleInterval;
+
+        LivingEntity target = mob.getTarget();
+        if (target != null && target.isValid() && target.getWorld() == mob.getWorld()) return combatInterval;
+
+        Location loc = mob.getLocation();
+        double nearestSq = Double.MAX_VALUE;
+        for (Player player : mob.getWorld().getPlayers()) {
+            nearestSq = Math.min(nearestSq, player.getLocation().distanceSquared(loc));
+        }
+        if (nearestSq <= nearDistanceSq) return nearInterval;
+        if (nearestSq <= farDistanceSq) return farInterval;
+        return idleInterval;
+    }
+
+    public int getTrackedCount() {
+        return schedules.size();
+    }
+
+    public int getLastThinkCount() {
+        return lastThinkCount;
+    }
+
+    public int getLastDeferredCount() {
+        return lastDeferred;
+    }
+
+    public long getLastBatchNanos() {
+        return lastBatchNanos;
+    }
+
+    public long getTotalThinks() {
+        return totalThinks;
+    }
+
+    public long getTotalDeferred() {
+        return totalDeferred;
+    }
+
+    public void resetStats() {
+        totalThinks = 0;
+        totalDeferred = 0;
+        engine.getThinkTimes().reset();
+        engine.getDecisionLog().clear();
+    }
+
+    private static final class Schedule {
+        private ActiveMob mob;
+        private long nextTick;
+        private long seenTick;
+
+        private Schedule(ActiveMob mob, long nextTick) {
+            this.mob = mob;
+            this.nextTick = nextTick;
+        }
+    }
+}
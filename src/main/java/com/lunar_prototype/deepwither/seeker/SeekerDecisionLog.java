@@ -0,0 +1,92 @@
+package com.lunar_prototype.deepwither.seeker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeker AI の意思決定をサンプリングして保持するリングバッファ。
+ * 記録時は値を保持するだけで、文字列への整形は参照時 ({@link Entry#format()}) に行います。
+ *
+ * <p>メインスレッド専用です。</p>
+ */
+public class SeekerDecisionLog {
+
+    private Entry[] entries;
+    private int next;
+    private int size;
+    private double sampleRate;
+    private long sampled;
+
+    public SeekerDecisionLog(int capacity, double sampleRate) {
+        configure(capacity, sampleRate);
+    }
+
+    /**
+     * 容量とサンプリング率 (0.0 - 1.0) を設定します。容量を変更した場合は記録を破棄します。
+     */
+    public void configure(int capacity, double sampleRate) {
+        int newCapacity = Math.max(1, capacity);
+        if (entries == null || entries.length != newCapacity) {
+            entries = new Entry[newCapacity];
+            next = 0;
+            size = 0;
+        }
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    /**
+     * 今回の意思決定を記録するかどうかを抽選します。false の場合は記録用の値を組み立てる必要はありません。
+     */
+    public boolean shouldSample() {
+        return sampleRate > 0.0 && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public void record(Entry entry) {
+        entries[next] = entry;
+        next = (next + 1) % entries.length;
+        if (size < entries.length) size++;
+        sampled++;
+    }
+
+    /**
+     * 新しい順に最大 {@code limit} 件を返します。
+     */
+    public List<Entry> recent(int limit) {
+        int count = Math.min(limit, size);
+        List<Entry> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return result;
+    }
+
+    public long getSampledCount() {
+        return sampled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(entries, null);
+        next = 0;
+        size = 0;
+        sampled = 0;
+    }
+
+    /**
+     * 1 回分の意思決定。
+     */
+    public record Entry(long tick, String mobType, UUID uuid, String engineVersion, String action, double qScore,
+                        long thinkNanos, float temperature, float frustration, float adrenaline, double advantage) {
+
+        public String format() {
+            return String.format("[%d][%s-%s][%s] Action: %s (Q:%.2f) | Time: %.3fms | T:%.2f F:%.2f Adr:%.2f Adv:%.2f",
+                    tick, mobType, uuid.toString().substring(0, 4), engineVersion, action, qScore,
+                    thinkNanos / 1_000_000.0, temperature, frustration, adrenaline, advantage);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.lunar_prototype.deepwither.seeker;
+
+import com.lunar_prototype.deepwither.Deepwither;
+import com.lunar_prototype.deepwither.util.DependsOn;
+import com.lunar_prototype.deepwither.util.IManager;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Seeker AI の学習済み方策を保存・共有するマネージャー。
+ *
+ * <p>
+ * 起動時に {@code seeker/policies.bin} をメモリマップして読み込み ({@link PolicySnapshot#map})、
+ * 新しい脳は MobType とレベル帯が一致する方策の Qテーブルを自分のスロットへコピーして学習を始めます。
+ * スナップショットは不変で、脳の学習がスナップショットを書き換えることはありません。
+ * </p>
+ * <p>
+ * 一定間隔 (seeker-ai.policy.merge-interval-seconds) で、十分に思考した脳の Qテーブルをメインスレッドでコピーし、
+ * 非同期スレッドで既存の方策と統合してファイルへ書き出します。統合後のスナップショットは差し替えで公開されます。
+ * データフォルダにファイルがなく、プラグインに同名のリソースが同梱されていれば、それを学習済みの初期方策として展開します。
+ * </p>
+ */
+@DependsOn({SeekerAIEngine.class})
+public class SeekerPolicyStore implements IManager {
+
+    private static final String FILE_NAME = "seeker/policies.bin";
+
+    private final Deepwither plugin;
+    private final SeekerAIEngine engine;
+    private final Object mergeLock = new Object();
+    private volatile PolicySnapshot snapshot = PolicySnapshot.EMPTY;
+    private BukkitTask task;
+    private Path file;
+
+    private boolean enabled;
+    private int minCycles;
+    private int maxSamples;
+
+    private volatile boolean merging;
+    private long seeded;
+    private volatile long lastMergeNanos;
+    private volatile int lastMergeSamples;
+
+    public SeekerPolicyStore(Deepwither plugin, SeekerAIEngine engine) {
+        this.plugin = plugin;
+        this.engine = engine;
+    }
+
+    @Override
+    public void init() {
+        FileConfiguration config = plugin.getConfig();
+        enabled = config.getBoolean("seeker-ai.policy.enabled", true);
+        minCycles = Math.max(1, config.getInt("seeker-ai.policy.min-cycles", 20));
+        maxSamples = Math.max(1, config.getInt("seeker-ai.policy.max-samples", 256));
+        long intervalTicks = Math.max(20L, config.getLong("seeker-ai.policy.merge-interval-seconds", 300L) * 20L);
+        if (!enabled) return;
+
+        file = new File(plugin.getDataFolder(), FILE_NAME).toPath();
+        if (!Files.exists(file) && plugin.getResource(FILE_NAME) != null) {
+            plugin.saveResource(FILE_NAME, false);
+        }
+        load();
+
+        engine.setPolicyStore(this);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::mergeAsync, intervalTicks, intervalTicks);
+    }
+
+    @Override
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (!enabled) return;
+        engine.setPolicyStore(null);
+        // 停止時は生きている脳をその場で統合して保存する
+        merge(collectSamples());
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try {
+            snapshot = PolicySnapshot.map(file);
+            for (PolicySnapshot.Profile profile : snapshot.getProfiles()) {
+                CollectiveKnowledge.PlayerTacticalProfile p = new CollectiveKnowledge.PlayerTacticalProfile();
+                p.dangerLevel = profile.dangerLevel();
+                p.preferredWeapon = profile.preferredWeapon();
+                p.identifiedWeakness = profile.identifiedWeakness();
+                CollectiveKnowledge.playerProfiles.putIfAbsent(profile.uuid(), p);
+            }
+            CollectiveKnowledge.globalAggressionBias = snapshot.getAggressionBias();
+            CollectiveKnowledge.globalFearBias = snapshot.getFearBias();
+            plugin.getLogger().info("Seeker AI: 学習済み方策を " + snapshot.getPolicies().size() + " 件読み込みました。");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Seeker AI の方策ファイルを読み込めませんでした: " + file, e);
+        }
+    }
+
+    /**
+     * 脳のQテーブルを、その脳の方策キーに対応する学習済み方策で置き換えます。該当する方策がなければ何もしません。
+     */
+    void seed(LiquidBrain brain) {
+        PolicySnapshot.Policy policy = snapshot.get(brain.getPolicyKey());
+        if (policy == null) return;
+        brain.getEngine().loadQTable(policy.table());
+        seeded++;
+    }
+
+    /**
+     * 十分に思考した脳の Qテーブルをコピーします (メインスレッド)。コピーした脳は思考回数を数え直します。
+     */
+    private Collected collectSamples() {
+        List<PolicySnapshot.Sample> samples = new ArrayList<>();
+        for (LiquidBrain brain : engine.getBrains()) {
+            if (brain.getPolicyKey() == null || brain.isDisposed() || brain.getCyclesSinceSample() < minCycles) continue;
+            float[] table = new float[NativeQEnginePool.TABLE_SIZE];
+            brain.getEngine().copyQTable(table);
+            samples.add(new PolicySnapshot.Sample(brain.getPolicyKey(), table));
+            brain.resetCyclesSinceSample();
+        }
+
+        List<PolicySnapshot.Profile> profiles = new ArrayList<>();
+        for (Map.Entry<UUID, CollectiveKnowledge.PlayerTacticalProfile> entry : CollectiveKnowledge.playerProfiles.entrySet()) {
+            CollectiveKnowledge.PlayerTacticalProfile p = entry.getValue();
+            profiles.add(new PolicySnapshot.Profile(entry.getKey(), (float) p.dangerLevel, p.preferredWeapon, p.identifiedWeakness));
+        }
+        return new Collected(samples, CollectiveKnowledge.globalAggressionBias, CollectiveKnowledge.globalFearBias, profiles);
+    }
+
+    private void mergeAsync() {
+        // 前回の統合が終わっていなければ次の周期に回す
+        if (merging) return;
+        Collected collected = collectSamples();
+        if (collected.samples().isEmpty()) return;
+        merging = true;
+        plugin.getAsyncExecutor().execute(() -> {
+            try {
+                merge(collected);
+            } finally {
+                merging = false;
+            }
+        });
+    }
+
+    private void merge(Collected collected) {
+        synchronized (mergeLock) {
+            long start = System.nanoTime();
+            PolicySnapshot merged = snapshot.merge(collected.samples(), collected.aggressionBias(), collected.fearBias(),
+                    collected.profiles(), maxSamples);
+            try {
+                merged.write(file);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Seeker AI の方策ファイルを保存できませんでした: " + file, e);
+            }
+            snapshot = merged;
+            lastMergeSamples = collected.samples().size();
+            lastMergeNanos = System.nanoTime() - start;
+        }
+    }
+
+    public PolicySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getSeededCount() {
+        return seeded;
+    }
+
+    public int getLastMergeSamples() {
+        return lastMergeSamples;
+    }
+
+    public long getLastMergeNanos() {
+        return lastMergeNanos;
+    }
+
+    private record Collected(List<PolicySnapshot.Sample> samples, double aggressionBias, double fearBias,
+                             List<PolicySnapshot.Profile> profiles) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.lunar_prototype.deepwither.seeker;
 
 import com.lunar_prototype.deepwither.api.DW;
+import com.lunar_prototype.deepwither.core.spatial.EntitySpatialIndex;
 import io.lumine.mythic.core.mobs.ActiveMob;
 import org.bukkit.FluidCollisionMode;
 import org.bukkit.Location;
@@ -21,6 +22,15 @@ public class SensorProvider {
     // 周囲何ブロックまでをスキャン対象にするか
     private static final int SCAN_RADIUS = 64;
 
+    /**
+     * 空間インデックスから self の周囲 (各軸 radius 以内) の LivingEntity を取得します。self 自身は含みません。
+     */
+    public static List<LivingEntity> nearbyEntities(Mob self, double radius) {
+        List<LivingEntity> nearby = DW.get(EntitySpatialIndex.class).getNearby(self.getLocation(), radius, radius, radius);
+        nearby.remove(self);
+        return nearby;
+    }
+
     public BanditContext scan(ActiveMob activeMob) {
         BanditContext context = new BanditContext();
         if (activeMob.getEntity() == null || !(activeMob.getEntity().getBukkitEntity() instanceof Mob)) {
@@ -43,7 +53,7 @@ public class SensorProvider {
         context.environment = new BanditContext.EnvironmentState();
 
         // 敵の情報を取得
-        List<Entity> nearby = entity.getNearbyEntities(SCAN_RADIUS, SCAN_RADIUS, SCAN_RADIUS);
+        List<LivingEntity> nearby = nearbyEntities(entity, SCAN_RADIUS);
         context.environment.nearby_enemies = scanEnemies(entity, nearby);
 
         // 味方の情報を取得
@@ -60,7 +70,7 @@ public class SensorProvider {
         return context;
     }
 
-    private List<BanditContext.AllyInfo> scanAllies(Mob self, List<Entity> nearby) {
+    private List<BanditContext.AllyInfo> scanAllies(Mob self, List<? extends Entity> nearby) {
         return nearby.stream()
                 .filter(e -> e instanceof LivingEntity && e != self) // 自分以外の生きたエンティティ
                 .filter(e -> {
@@ -93,7 +103,7 @@ public class SensorProvider {
                 .collect(Collectors.toList());
     }
 
-    public List<BanditContext.EnemyInfo> scanEnemies(Mob self, List<Entity> nearby) {
+    public List<BanditContext.EnemyInfo> scanEnemies(Mob self, List<? extends Entity> nearby) {
         return nearby.stream()
                 .filter(e -> e instanceof Player)
                 .map(e -> {
@@ -192,7 +202,7 @@ public class SensorProvider {
     private Location getEnemyLocation(Mob self) {
         if (self.getTarget() != null) return self.getTarget().getLocation();
         // ターゲットがいない場合、近くのプレイヤーを探すなどのフォールバック
-        return self.getNearbyEntities(15, 15, 15).stream()
+        return nearbyEntities(self, 15).stream()
                 .filter(e -> e instanceof org.bukkit.entity.Player)
                 .map(org.bukkit.entity.Entity::getLocation)
                 .findFirst().orElse(null);
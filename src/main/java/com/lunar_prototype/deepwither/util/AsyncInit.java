@@ -0,0 +1,23 @@
+package com.lunar_prototype.deepwither.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link IManager#init()} をメインスレッド以外で実行してよいマネージャーに付けるアノテーション。
+ *
+ * <p>
+ * 付けたマネージャーは依存先 ({@link DependsOn} とコンストラクタ引数) の初期化が終わった時点で、
+ * 初期化用のスレッドプール上で他のマネージャーと並行して初期化されます。付けていないマネージャーは従来どおりメインスレッドで初期化されます。
+ * </p>
+ * <p>
+ * ファイルや DB の読み込みだけを行い、ワールド・エンティティの操作などメインスレッドが必要な処理をしないマネージャーに付けてください。
+ * init() 中に参照する他のマネージャーはすべて依存先として宣言されている必要があります。
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AsyncInit {
+}
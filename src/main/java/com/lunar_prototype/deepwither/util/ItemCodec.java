@@ -0,0 +1,239 @@
+package com.lunar_prototype.deepwither.util;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * マーケットの出品・メール・保管庫で共通に使う ItemStack のバイナリ形式。
+ *
+ * <p>
+ * Paper の {@link ItemStack#serializeAsBytes()} (gzip 圧縮した NBT) を元に、NBT を Deepwither のアイテムでよく使う
+ * 文字列 (PDC キーやコンポーネント名) を辞書として deflate し直します。1 個のアイテムは数百バイトしかないため、
+ * 辞書なしの gzip よりかなり小さくなります。辞書で小さくならない場合は gzip のまま格納します。
+ * </p>
+ * <p>
+ * 形式: 先頭 1 バイトが形式番号 ({@link #FORMAT_GZIP} / {@link #FORMAT_DICT_V1}) で、残りが本体です。
+ * 文字列として保存する場合は {@link #PREFIX} + Base64 です。接頭辞のない文字列は従来の
+ * {@code BukkitObjectOutputStream} + Base64 として読み込むため、既存のデータはそのまま読めます。
+ * 辞書を変更する場合は既存データを読めるよう、新しい形式番号を追加してください。
+ * </p>
+ */
+public final class ItemCodec {
+
+    /** 文字列形式の接頭辞 */
+    public static final String PREFIX = "dw1:";
+
+    /** serializeAsBytes の結果 (gzip) をそのまま格納 */
+    public static final byte FORMAT_GZIP = 0;
+    /** NBT を {@link #DICTIONARY_V1} 付きの raw deflate で格納 (先頭に元の長さを varint で持つ) */
+    public static final byte FORMAT_DICT_V1 = 1;
+
+    /**
+     * deflate の辞書。よく出る文字列ほど後ろに置きます (近い位置ほど短い符号で参照されるため)。
+     */
+    private static final byte[] DICTIONARY_V1 = String.join("",
+            "minecraft:enchantments", "minecraft:attribute_modifiers", "minecraft:unbreakable",
+            "minecraft:item_model", "minecraft:custom_model_data", "minecraft:tooltip_display",
+            "minecraft:damage", "minecraft:max_damage", "minecraft:dyed_color", "minecraft:potion_contents",
+            "minecraft:enchantment_glint_override", "minecraft:hide_additional_tooltip",
+            "modifiersslotamountoperationadd_valueadd_multiplied_basemainhandoffhandarmor",
+            "deepwither:artifact_fullset_type", "deepwither:set_partner_id", "deepwither:fabrication_grade",
+            "deepwither:recipe_book_target_grade", "deepwither:onhit_skillid", "deepwither:onhit_chance",
+            "deepwither:onhit_cooldown", "deepwither:cooldown_seconds", "deepwither:recovery_amount",
+            "deepwither:special_action_type", "deepwither:charge_attack", "deepwither:is_wand",
+            "deepwither:weapon_effect", "deepwither:companion_id", "deepwither:loot_level",
+            "deepwither:item_flavor_text", "deepwither:item_type_name", "deepwither:item_rarity",
+            "deepwither:statmap", "deepwither:rpgstats", "deepwither:custom_id",
+            "PublicBukkitValues", "minecraft:custom_data", "minecraft:lore", "minecraft:custom_name",
+            "minecraft:item_name", "textcolorwhitegraygolddark_grayyellowaquagreenredlight_purpleboldfalseitalicextra",
+            "componentsDataVersioncountid", "minecraft:"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private ItemCodec() {
+    }
+
+    // ===== ItemStack =====
+
+    public static byte[] encode(ItemStack item) {
+        return encode(item, true);
+    }
+
+    /**
+     * @param compress false の場合は辞書圧縮を行わない (serializeAsBytes の結果をそのまま格納する)
+     */
+    public static byte[] encode(ItemStack item, boolean compress) {
+        byte[] gzip = item.serializeAsBytes();
+        return compress ? compress(gzip) : withFormat(FORMAT_GZIP, gzip);
+    }
+
+    public static ItemStack decode(byte[] data) {
+        return ItemStack.deserializeBytes(decompress(data));
+    }
+
+    /**
+     * 文字列として保存する形式 ({@link #PREFIX} + Base64) に変換します。
+     */
+    public static String encodeToString(ItemStack item) {
+        return PREFIX + Base64.getEncoder().encodeToString(encode(item));
+    }
+
+    /**
+     * {@link #encodeToString} の結果、または従来の BukkitObjectOutputStream + Base64 形式の文字列を復元します。
+     *
+     * @return 復元できない場合は null
+     */
+    public static ItemStack decodeFromString(String data) {
+        if (data == null || data.isEmpty()) return null;
+        try {
+            if (data.startsWith(PREFIX)) {
+                return decode(Base64.getDecoder().decode(data.substring(PREFIX.length())));
+            }
+            return decodeLegacy(data);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 従来形式 (移行が必要) の文字列か。
+     */
+    public static boolean isLegacy(String data) {
+        return data != null && !data.isEmpty() && !data.startsWith(PREFIX);
+    }
+
+    private static ItemStack decodeLegacy(String data) throws IOException, ClassNotFoundException {
+        try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(data)))) {
+            return (ItemStack) in.readObject();
+        }
+    }
+
+    // ===== バイト列 =====
+
+    /**
+     * serializeAsBytes の結果 (gzip 圧縮した NBT) を格納形式に変換します。
+     */
+    public static byte[] compress(byte[] gzip) {
+        byte[] nbt = gunzip(gzip);
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY_V1);
+        deflater.setInput(nbt);
+        deflater.finish();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(nbt.length / 2 + 16);
+        out.write(FORMAT_DICT_V1);
+        writeVarInt(out, nbt.length);
+        byte[] buffer = new byte[512];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        // 辞書で小さくならなければ gzip のまま格納する
+        if (out.size() >= gzip.length + 1) {
+            return withFormat(FORMAT_GZIP, gzip);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 格納形式を {@link ItemStack#deserializeBytes} が読める gzip 圧縮の NBT に戻します。
+     */
+    public static byte[] decompress(byte[] data) {
+        if (data.length == 0) throw new IllegalArgumentException("Empty item data");
+        switch (data[0]) {
+            case FORMAT_GZIP -> {
+                byte[] gzip = new byte[data.length - 1];
+                System.arraycopy(data, 1, gzip, 0, gzip.length);
+                return gzip;
+            }
+            case FORMAT_DICT_V1 -> {
+                int[] pos = {1};
+                int length = readVarInt(data, pos);
+                Inflater inflater = INFLATER.get();
+                inflater.reset();
+                inflater.setInput(data, pos[0], data.length - pos[0]);
+                inflater.setDictionary(DICTIONARY_V1);
+                byte[] nbt = new byte[length];
+                try {
+                    int read = 0;
+                    while (read < length) {
+                        int n = inflater.inflate(nbt, read, length - read);
+                        if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                        read += n;
+                    }
+                    if (read != length) throw new IllegalArgumentException("Truncated item data");
+                } catch (DataFormatException e) {
+                    throw new IllegalArgumentException("Corrupt item data", e);
+                }
+                return storeGzip(nbt);
+            }
+            default -> throw new IllegalArgumentException("Unknown item format: " + data[0]);
+        }
+    }
+
+    private static byte[] withFormat(byte format, byte[] body) {
+        byte[] out = new byte[body.length + 1];
+        out[0] = format;
+        System.arraycopy(body, 0, out, 1, body.length);
+        return out;
+    }
+
+    private static byte[] gunzip(byte[] gzip) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 圧縮せずに gzip で包む (deserializeBytes が gzip を要求するため。読み込み時の負荷を最小にする)
+     */
+    private static byte[] storeGzip(byte[] nbt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(nbt.length + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.NO_COMPRESSION);
+            }
+        }) {
+            gzip.write(nbt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = data[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("VarInt too long");
+    }
+}
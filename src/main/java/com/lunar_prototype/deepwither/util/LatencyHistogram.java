@@ -0,0 +1,68 @@
+package com.lunar_prototype.deepwither.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 処理時間を 2 の累乗 (マイクロ秒) ごとのバケットで集計するヒストグラム。
+ * スレッドセーフで、パーセンタイルはバケットの上限値で近似されます。
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(0L, nanos / 1000L);
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getAverageMillis() {
+        long n = count.get();
+        return n == 0 ? 0.0 : totalNanos.get() / (double) n / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * 指定したパーセンタイル (0.0 - 1.0) の近似値をミリ秒で返します。
+     */
+    public double getPercentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0.0;
+
+        long threshold = (long) Math.ceil(n * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= threshold) {
+                // バケット i は [2^(i-1), 2^i) マイクロ秒
+                return Math.min((1L << i) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        count.set(0L);
+        totalNanos.set(0L);
+        maxNanos.set(0L);
+    }
+}
@@ -0,0 +1,99 @@
+package com.lunar_prototype.deepwither.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * tick 単位のハッシュ式タイミングホイール。
+ *
+ * <p>
+ * 期限 tick をバケット数で割った余りのバケットに登録し、{@link #advance(long, Consumer)} で経過した tick の
+ * バケットだけを確認します。1 周より先の期限はバケットに残り、期限の周回で発火します。
+ * 登録 ({@link #schedule}) は任意のスレッドから行えますが、{@link #advance} は 1 つのスレッドから呼び出してください。
+ * </p>
+ *
+ * @param <T> 期限が来たときに渡される値
+ */
+public final class TimingWheel<T> {
+
+    private final List<Timeout<T>>[] buckets;
+    private final int mask;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private volatile long currentTick;
+    private int size;
+
+    /**
+     * @param bucketCount バケット数 (2 の累乗に切り上げられます)
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int bucketCount) {
+        int n = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.buckets = new List[n];
+        for (int i = 0; i < n; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = n - 1;
+    }
+
+    /**
+     * 現在の tick から {@code delayTicks} 後に値を発火するよう登録します。
+     */
+    public void schedule(T value, long delayTicks) {
+        incoming.add(new Timeout<>(value, currentTick + Math.max(1L, delayTicks)));
+    }
+
+    /**
+     * 指定した tick まで進め、期限が来た値を {@code expired} に渡します。
+     */
+    public void advance(long tick, Consumer<T> expired) {
+        Timeout<T> timeout;
+        while ((timeout = incoming.poll()) != null) {
+            buckets[(int) (timeout.deadline & mask)].add(timeout);
+            size++;
+        }
+
+        // 1 周以上遅れた場合も各バケットを 1 回確認すれば足りる
+        long from = Math.max(currentTick + 1, tick - mask);
+        for (long t = from; t <= tick; t++) {
+            List<Timeout<T>> bucket = buckets[(int) (t & mask)];
+            for (int i = 0; i < bucket.size(); ) {
+                Timeout<T> candidate = bucket.get(i);
+                if (candidate.deadline > tick) {
+                    i++;
+                    continue;
+                }
+                int last = bucket.size() - 1;
+                bucket.set(i, bucket.get(last));
+                bucket.remove(last);
+                size--;
+                expired.accept(candidate.value);
+            }
+        }
+        currentTick = Math.max(currentTick, tick);
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 登録済みで未発火の件数 (概算)。
+     */
+    public int size() {
+        return size + incoming.size();
+    }
+
+    public void clear() {
+        incoming.clear();
+        for (List<Timeout<T>> bucket : buckets) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    private record Timeout<T>(T value, long deadline) {
+    }
+}